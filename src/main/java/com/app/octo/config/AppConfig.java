@@ -1,15 +0,0 @@
-package com.app.octo.config;
-
-import org.dozer.DozerBeanMapper;
-import org.dozer.Mapper;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class AppConfig {
-  @Bean
-  public Mapper mapper() {
-    return new DozerBeanMapper();
-  }
-
-}
@@ -0,0 +1,126 @@
+package com.app.octo.config;
+
+import com.app.octo.model.exception.AppException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the booking, authentication and scheduling hot paths, published as Prometheus
+ * histograms so percentiles can be computed and aggregated across instances. Meters are
+ * built once per tag value and cached, so recording is a map hit plus a lock-free update.
+ *
+ * <p>Callers measure with {@link System#nanoTime()} and pass the elapsed time, which keeps
+ * a mocked instance in unit tests a harmless no-op.
+ */
+@Component
+public class AppMetrics {
+
+  public static final String SUCCESS = "success";
+  public static final String ERROR = "error";
+
+  public static final String JWT_CACHE = "cache";
+  public static final String JWT_CLAIMS = "claims";
+  public static final String JWT_DATABASE = "database";
+  public static final String JWT_INVALID = "invalid";
+
+  public static final String EXPIRY_MANUAL = "manual";
+  public static final String EXPIRY_SCHEDULED = "scheduled";
+  public static final String EXPIRY_SWEEP = "sweep";
+
+  private final MeterRegistry meterRegistry;
+
+  private final Map<String, Timer> bookingTimers = new ConcurrentHashMap<>();
+  private final Map<String, Counter> bookingRejections = new ConcurrentHashMap<>();
+  private final Map<String, Timer> expiryTimers = new ConcurrentHashMap<>();
+  private final Map<String, DistributionSummary> expiryRows = new ConcurrentHashMap<>();
+  private final Map<String, Timer> tokenTimers = new ConcurrentHashMap<>();
+  private final Map<String, Timer> hashingTimers = new ConcurrentHashMap<>();
+  private final Map<String, Timer> schedulerTimers = new ConcurrentHashMap<>();
+
+  public AppMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * A synchronous booking attempt, tagged with its outcome.
+   */
+  public void recordBooking(String outcome, long nanos) {
+    bookingTimers.computeIfAbsent(outcome, key -> timer("hysleep.booking.book", "Room booking latency",
+        Duration.ofMillis(1), Duration.ofSeconds(10), "outcome", key)).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * A booking turned away because the room was taken: not available in the index, or booked
+   * by a concurrent request between the index check and the conditional update.
+   */
+  public void recordBookingRejected(String reason) {
+    bookingRejections.computeIfAbsent(reason, key -> Counter.builder("hysleep.booking.rejections")
+        .description("Bookings rejected because the room was already taken")
+        .tag("reason", key)
+        .register(meterRegistry)).increment();
+  }
+
+  public void recordExpiry(String trigger, long nanos, int rows) {
+    expiryTimers.computeIfAbsent(trigger, key -> timer("hysleep.booking.expiry", "Expired booking sweep duration",
+        Duration.ofMillis(1), Duration.ofSeconds(60), "trigger", key)).record(nanos, TimeUnit.NANOSECONDS);
+    expiryRows.computeIfAbsent(trigger, key -> DistributionSummary.builder("hysleep.booking.expiry.rows")
+        .description("Bookings completed per expiry sweep")
+        .baseUnit("bookings")
+        .tag("trigger", key)
+        .publishPercentileHistogram()
+        .maximumExpectedValue(100000.0)
+        .register(meterRegistry)).record(rows);
+  }
+
+  /**
+   * One token validation, tagged with where the principal came from.
+   */
+  public void recordTokenValidation(String source, long nanos) {
+    tokenTimers.computeIfAbsent(source, key -> timer("hysleep.jwt.validation", "JWT validation latency",
+        Duration.ofNanos(1000), Duration.ofSeconds(1), "source", key)).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Time spent inside the password encoder, without the wait for a hashing thread.
+   */
+  public void recordPasswordHashing(String operation, long nanos) {
+    hashingTimers.computeIfAbsent(operation, key -> timer("hysleep.password.hashing", "Password encoder time",
+        Duration.ofMillis(1), Duration.ofSeconds(5), "operation", key)).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordSchedulerRun(String task, String outcome, long nanos) {
+    schedulerTimers.computeIfAbsent(task + '|' + outcome, key -> timer("hysleep.scheduler.run",
+        "Scheduled task duration", Duration.ofMillis(1), Duration.ofSeconds(60), "task", task, "outcome", outcome))
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * The outcome tag for a failed call: the error code of an expected error, otherwise "error".
+   */
+  public static String outcomeOf(Throwable error) {
+    if (error instanceof AppException appException && Objects.nonNull(appException.getErrorCode())) {
+      return appException.getErrorCode().name().toLowerCase(Locale.ROOT);
+    }
+    return ERROR;
+  }
+
+  private Timer timer(String name, String description, Duration min, Duration max, String... tags) {
+    return Timer.builder(name)
+        .description(description)
+        .tags(tags)
+        .publishPercentileHistogram()
+        .minimumExpectedValue(min)
+        .maximumExpectedValue(max)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,63 @@
+package com.app.octo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Wraps the application DataSource in a {@link BulkheadDataSource}. Enabled by the
+ * {@code virtual} profile; the limit defaults to the Hikari pool size.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "datasource.bulkhead.enabled", havingValue = "true")
+public class DataSourceBulkheadConfig {
+
+  public static final int DEFAULT_MAX_CONCURRENT = 10;
+  public static final long DEFAULT_ACQUIRE_TIMEOUT_MS = 2000;
+
+  @Bean
+  public static BeanPostProcessor dataSourceBulkheadPostProcessor(Environment environment) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+          return bean;
+        }
+
+        // Hikari reports -1 until its pool starts, meaning "use the default of 10"
+        int poolSize = dataSource instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0
+            ? hikari.getMaximumPoolSize() : DEFAULT_MAX_CONCURRENT;
+        int maxConcurrent = environment.getProperty("datasource.bulkhead.max-concurrent", Integer.class, poolSize);
+        long acquireTimeoutMs = environment.getProperty("datasource.bulkhead.acquire-timeout-ms", Long.class,
+            DEFAULT_ACQUIRE_TIMEOUT_MS);
+        log.info("Limiting {} to {} concurrent connections", beanName, maxConcurrent);
+        return new BulkheadDataSource(dataSource, maxConcurrent, acquireTimeoutMs);
+      }
+    };
+  }
+
+  @Bean
+  public MeterBinder dataSourceBulkheadMetrics(DataSource dataSource) throws SQLException {
+    BulkheadDataSource bulkhead = dataSource.unwrap(BulkheadDataSource.class);
+    return registry -> {
+      Gauge.builder("hysleep.datasource.bulkhead.available", bulkhead, BulkheadDataSource::getAvailablePermits)
+          .description("Connection permits not currently held")
+          .register(registry);
+      FunctionCounter.builder("hysleep.datasource.bulkhead.rejected", bulkhead,
+          BulkheadDataSource::getRejectedCount)
+          .description("Connection requests that timed out waiting for a permit")
+          .register(registry);
+    };
+  }
+}
@@ -1,7 +1,6 @@
 package com.app.octo.config;
 
-import com.app.octo.model.response.BookingResponse;
-import com.app.octo.model.response.ListResponse;
+import com.app.octo.service.BookingArchiveService;
 import com.app.octo.service.BookingService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,16 +12,72 @@ import java.util.List;
 @Slf4j
 @Component
 public class ExecutorScheduler {
+  public static final String AUTO_UPDATE_BOOKING = "autoUpdateBooking";
+  public static final String ARCHIVE_BOOKINGS = "archiveBookings";
+  public static final String SWEEP_EXPIRED_BOOKINGS = "sweepExpiredBookings";
+
   @Autowired
   private BookingService bookingService;
 
-  @Scheduled(fixedRate = 3600000)
+  @Autowired
+  private BookingArchiveService bookingArchiveService;
+
+  @Autowired
+  private AppMetrics appMetrics;
+
+  /**
+   * Completes bookings as soon as their end date passes. Only bookings already due
+   * in the expiry queue are touched, so an idle tick costs no database work.
+   */
+  @Scheduled(fixedDelayString = "${booking.expiry.poll-interval-ms:1000}")
   public void autoUpdateBooking() {
+    long start = System.nanoTime();
+    try {
+      List<Long> completed = bookingService.completeExpiredBookings();
+      if (!completed.isEmpty()) {
+        log.info("Completed expired bookings: " + completed);
+      }
+      appMetrics.recordSchedulerRun(AUTO_UPDATE_BOOKING, AppMetrics.SUCCESS, System.nanoTime() - start);
+    } catch (Exception e) {
+      log.error("unable to update", e);
+      appMetrics.recordSchedulerRun(AUTO_UPDATE_BOOKING, AppMetrics.ERROR, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Completes overdue bookings the expiry queue missed: those made on other instances, or
+   * before a restart that lost the queue. Scans the database, so it runs rarely.
+   */
+  @Scheduled(fixedDelayString = "${booking.expiry.sweep-interval-ms:600000}",
+      initialDelayString = "${booking.expiry.sweep-interval-ms:600000}")
+  public void sweepExpiredBookings() {
+    long start = System.nanoTime();
+    try {
+      List<Long> completed = bookingService.sweepExpiredBookings();
+      if (!completed.isEmpty()) {
+        log.info("Sweep completed expired bookings: " + completed);
+      }
+      appMetrics.recordSchedulerRun(SWEEP_EXPIRED_BOOKINGS, AppMetrics.SUCCESS, System.nanoTime() - start);
+    } catch (Exception e) {
+      log.error("unable to sweep expired bookings", e);
+      appMetrics.recordSchedulerRun(SWEEP_EXPIRED_BOOKINGS, AppMetrics.ERROR, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Moves old DONE and CANCELLED bookings to booking_history, off-peak by default. Set the
+   * cron to "-" to turn archiving off.
+   */
+  @Scheduled(cron = "${bookings.archive.cron:0 30 3 * * *}")
+  public void archiveBookings() {
+    long start = System.nanoTime();
     try {
-      ListResponse<BookingResponse> result = bookingService.changeStatusAfterTime();
-      log.info("Result:  " + result);
+      int archived = bookingArchiveService.archiveBookings();
+      log.info("Archived {} bookings", archived);
+      appMetrics.recordSchedulerRun(ARCHIVE_BOOKINGS, AppMetrics.SUCCESS, System.nanoTime() - start);
     } catch (Exception e) {
-      log.error("unable to update");
+      log.error("unable to archive bookings", e);
+      appMetrics.recordSchedulerRun(ARCHIVE_BOOKINGS, AppMetrics.ERROR, System.nanoTime() - start);
     }
   }
 }
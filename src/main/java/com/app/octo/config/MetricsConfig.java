@@ -0,0 +1,67 @@
+package com.app.octo.config;
+
+import com.app.octo.security.AdaptiveConcurrencyLimit;
+import com.app.octo.security.PasswordHasher;
+import com.app.octo.security.RateLimitFilter;
+import com.app.octo.service.BookingCommandService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes the counters the application already keeps as Micrometer meters. Every value is
+ * read at scrape time, so none of these add work to the request path. Hikari pool metrics
+ * ({@code hikaricp.connections.*}) are bound by Spring Boot itself.
+ */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  public MeterBinder bookingPipelineMetrics(BookingCommandService bookingCommandService) {
+    return registry -> {
+      FunctionCounter.builder("hysleep.pipeline.submitted", bookingCommandService,
+          service -> service.getStats().getSubmitted()).register(registry);
+      FunctionCounter.builder("hysleep.pipeline.completed", bookingCommandService,
+          service -> service.getStats().getCompleted()).register(registry);
+      FunctionCounter.builder("hysleep.pipeline.failed", bookingCommandService,
+          service -> service.getStats().getFailed()).register(registry);
+      FunctionCounter.builder("hysleep.pipeline.rejected", bookingCommandService,
+          service -> service.getStats().getRejected()).register(registry);
+      Gauge.builder("hysleep.pipeline.queue.depth", bookingCommandService,
+          service -> service.getStats().getPartitions().stream()
+              .mapToInt(partition -> partition.getDepth()).sum())
+          .description("Commands waiting across all pipeline partitions")
+          .register(registry);
+    };
+  }
+
+  @Bean
+  public MeterBinder admissionMetrics(RateLimitFilter rateLimitFilter, AdaptiveConcurrencyLimit concurrencyLimit) {
+    return registry -> {
+      FunctionCounter.builder("hysleep.admission.rate.limited", rateLimitFilter,
+          RateLimitFilter::getRateLimitedCount)
+          .description("Requests rejected with 429 by the token buckets")
+          .register(registry);
+      FunctionCounter.builder("hysleep.admission.shed", rateLimitFilter, RateLimitFilter::getShedCount)
+          .description("Requests rejected with 503 by the concurrency limit")
+          .register(registry);
+      Gauge.builder("hysleep.admission.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+          .register(registry);
+      Gauge.builder("hysleep.admission.concurrency.in.flight", concurrencyLimit,
+          AdaptiveConcurrencyLimit::getInFlight).register(registry);
+    };
+  }
+
+  @Bean
+  public MeterBinder passwordHashingMetrics(PasswordHasher passwordHasher) {
+    return registry -> {
+      Gauge.builder("hysleep.password.hashing.queue", passwordHasher, PasswordHasher::getQueueDepth)
+          .description("Hashing tasks waiting for a thread")
+          .register(registry);
+      Gauge.builder("hysleep.password.hashing.active", passwordHasher, PasswordHasher::getActiveCount)
+          .register(registry);
+    };
+  }
+}
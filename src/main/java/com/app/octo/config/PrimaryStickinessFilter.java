@@ -0,0 +1,117 @@
+package com.app.octo.config;
+
+import com.app.octo.security.UserAuthProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a user's reads on the primary for a short window after one of their requests
+ * committed a read-write transaction, so they see their own changes while the replicas catch
+ * up. Requests that only read, whatever their HTTP method, do not pin.
+ *
+ * <p>Users are told apart by the subject of their bearer token, checked by signature only so
+ * no query runs before the pin is known. Requests without a valid token are never pinned.
+ * The pin follows the request onto tasks submitted through {@link #propagate(Runnable)}.
+ */
+public class PrimaryStickinessFilter extends OncePerRequestFilter implements TransactionExecutionListener {
+
+  public static final String BEARER = "Bearer ";
+
+  private static final ThreadLocal<Client> CURRENT = new ThreadLocal<>();
+
+  private final UserAuthProvider userAuthProvider;
+
+  private final Cache<String, Boolean> recentWriters;
+
+  public PrimaryStickinessFilter(UserAuthProvider userAuthProvider, long windowMs, long maxClients) {
+    this.userAuthProvider = userAuthProvider;
+    this.recentWriters = Caffeine.newBuilder()
+        .expireAfterWrite(windowMs, TimeUnit.MILLISECONDS)
+        .maximumSize(maxClients)
+        .build();
+  }
+
+  public static boolean isPinned() {
+    Client client = CURRENT.get();
+    return Objects.nonNull(client) && client.pinned;
+  }
+
+  /**
+   * Runs the task with the submitting request's client, so its reads and commits count for
+   * that client.
+   */
+  public static Runnable propagate(Runnable task) {
+    Client client = CURRENT.get();
+    if (Objects.isNull(client)) {
+      return task;
+    }
+    return () -> {
+      Client previous = CURRENT.get();
+      CURRENT.set(client);
+      try {
+        task.run();
+      } finally {
+        CURRENT.set(previous);
+      }
+    };
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String subject = subject(request);
+    CURRENT.set(new Client(subject, Objects.nonNull(subject) && Objects.nonNull(recentWriters.getIfPresent(subject))));
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      CURRENT.remove();
+    }
+  }
+
+  @Override
+  public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+    Client client = CURRENT.get();
+    if (Objects.isNull(client) || Objects.nonNull(commitFailure) || !transaction.isNewTransaction()
+        || transaction.isReadOnly()) {
+      return;
+    }
+    client.pinned = true;
+    if (Objects.nonNull(client.subject)) {
+      recentWriters.put(client.subject, Boolean.TRUE);
+    }
+  }
+
+  private String subject(HttpServletRequest request) {
+    String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+    if (Objects.isNull(header) || !header.startsWith(BEARER)) {
+      return null;
+    }
+    return userAuthProvider.verifiedSubject(header.substring(BEARER.length()));
+  }
+
+  /**
+   * The user behind the current request. Shared with the tasks it hands off, so a commit made
+   * on one of them pins the rest of the request too.
+   */
+  private static final class Client {
+    private final String subject;
+    private volatile boolean pinned;
+
+    private Client(String subject, boolean pinned) {
+      this.subject = subject;
+      this.pinned = pinned;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.app.octo.config;
+
+import com.app.octo.security.UserAuthProvider;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to read replicas. The application
+ * DataSource becomes a {@link LazyConnectionDataSourceProxy} over the primary pool that
+ * takes its connection from a {@link ReadReplicaDataSource} when the transaction is read
+ * only, which Spring marks on the connection before the first statement runs.
+ *
+ * <p>Replicas are listed in {@code datasource.replica.urls} and share the primary's
+ * credentials unless {@code datasource.replica.username} and {@code password} are set.
+ *
+ * <p>Replicas only ever serve single requests. Loads that fill in-memory caches go through
+ * {@link com.app.octo.service.impl.PrimaryReader}, so a lagging replica is never copied
+ * into a snapshot or the room index.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+  @Value("${datasource.replica.urls:}")
+  private String[] urls = new String[0];
+
+  @Value("${datasource.replica.pool-size:10}")
+  private int poolSize = 10;
+
+  @Value("${datasource.replica.max-lag-ms:5000}")
+  private long maxLagMs = 5000;
+
+  @Value("${datasource.replica.sticky-ms:5000}")
+  private long stickyMs = 5000;
+
+  @Value("${datasource.replica.sticky-max-clients:100000}")
+  private long stickyMaxClients = 100000;
+
+  private ReadReplicaDataSource readReplicaDataSource;
+
+  @Bean
+  public DataSource dataSource(DataSourceProperties properties, Environment environment) {
+    HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+    if (!StringUtils.hasText(primary.getPoolName())) {
+      primary.setPoolName("primary");
+    }
+
+    String username = environment.getProperty("datasource.replica.username", properties.determineUsername());
+    String password = environment.getProperty("datasource.replica.password", properties.determinePassword());
+    List<ReadReplicaDataSource.Replica> replicas = new ArrayList<>();
+    for (String url : urls) {
+      if (!StringUtils.hasText(url)) {
+        continue;
+      }
+      HikariDataSource pool = new HikariDataSource();
+      pool.setPoolName("replica-" + (replicas.size() + 1));
+      pool.setDriverClassName(properties.determineDriverClassName());
+      pool.setJdbcUrl(url.trim());
+      pool.setUsername(username);
+      pool.setPassword(password);
+      pool.setMaximumPoolSize(poolSize);
+      pool.setReadOnly(true);
+      replicas.add(new ReadReplicaDataSource.Replica(pool.getPoolName(), pool));
+    }
+    log.info("Routing read-only transactions to {} replica(s)", replicas.size());
+
+    // Replicas stay out of rotation until the first scheduled check, which runs after Flyway
+    readReplicaDataSource = new ReadReplicaDataSource(primary, replicas, maxLagMs);
+
+    LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+    dataSource.setReadOnlyDataSource(readReplicaDataSource);
+    return dataSource;
+  }
+
+  @Scheduled(fixedDelayString = "${datasource.replica.health-check-ms:1000}")
+  public void checkReplicas() {
+    readReplicaDataSource.checkReplicas();
+  }
+
+  /**
+   * Also a transaction listener: Spring Boot hands it every commit of the transaction manager.
+   */
+  @Bean
+  public PrimaryStickinessFilter primaryStickinessFilter(UserAuthProvider userAuthProvider) {
+    return new PrimaryStickinessFilter(userAuthProvider, stickyMs, stickyMaxClients);
+  }
+
+  @Bean
+  public FilterRegistrationBean<PrimaryStickinessFilter> primaryStickinessFilterRegistration(
+      PrimaryStickinessFilter primaryStickinessFilter) {
+    FilterRegistrationBean<PrimaryStickinessFilter> registration = new FilterRegistrationBean<>(primaryStickinessFilter);
+    // Ahead of Spring Security, whose token validation may read the user
+    registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+    return registration;
+  }
+
+  /**
+   * Carries the pin onto the application task executor, where user changes are saved.
+   */
+  @Bean
+  public TaskDecorator primaryStickinessTaskDecorator() {
+    return PrimaryStickinessFilter::propagate;
+  }
+
+  /**
+   * Takes the DataSource only so the replicas exist before their gauges are registered.
+   */
+  @Bean
+  public MeterBinder readReplicaMetrics(DataSource dataSource) {
+    return registry -> readReplicaDataSource.getReplicas().forEach(replica -> {
+      Gauge.builder("hysleep.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+          .description("Whether the replica is taking read-only transactions")
+          .tag("replica", replica.getName())
+          .register(registry);
+      Gauge.builder("hysleep.datasource.replica.lag", replica,
+              r -> r.getLagMs() == Long.MAX_VALUE ? Double.NaN : r.getLagMs())
+          .description("Age of the replica's copy of the heartbeat at the last check")
+          .baseUnit("milliseconds")
+          .tag("replica", replica.getName())
+          .register(registry);
+    });
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    if (readReplicaDataSource != null) {
+      readReplicaDataSource.close();
+    }
+  }
+}
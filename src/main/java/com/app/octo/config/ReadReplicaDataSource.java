@@ -0,0 +1,151 @@
+package com.app.octo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions: a healthy replica, chosen round-robin, or the
+ * primary when no replica is healthy or the current request is pinned to it by
+ * {@link PrimaryStickinessFilter}.
+ *
+ * <p>{@link #checkReplicas()} writes the current time to the heartbeat row on the primary
+ * and reads it back from every replica. A replica is healthy while it answers and its copy
+ * of the row is at most {@code maxLagMs} old.
+ */
+@Slf4j
+public class ReadReplicaDataSource extends AbstractDataSource implements Closeable {
+
+  public static final String HEARTBEAT_UPDATE = "update replica_heartbeat set beat_at = ? where id = 1";
+  public static final String HEARTBEAT_SELECT = "select beat_at from replica_heartbeat where id = 1";
+
+  private final DataSource primary;
+
+  private final List<Replica> replicas;
+
+  private final long maxLagMs;
+
+  private final AtomicInteger next = new AtomicInteger();
+
+  public ReadReplicaDataSource(DataSource primary, List<Replica> replicas, long maxLagMs) {
+    this.primary = primary;
+    this.replicas = replicas;
+    this.maxLagMs = maxLagMs;
+  }
+
+  public List<Replica> getReplicas() {
+    return replicas;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return choose().getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return choose().getConnection(username, password);
+  }
+
+  private DataSource choose() {
+    if (PrimaryStickinessFilter.isPinned() || replicas.isEmpty()) {
+      return primary;
+    }
+    int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+    for (int i = 0; i < replicas.size(); i++) {
+      Replica replica = replicas.get((start + i) % replicas.size());
+      if (replica.isHealthy()) {
+        return replica.getDataSource();
+      }
+    }
+    return primary;
+  }
+
+  public void checkReplicas() {
+    long now = System.currentTimeMillis();
+    try (Connection connection = primary.getConnection();
+        PreparedStatement statement = connection.prepareStatement(HEARTBEAT_UPDATE)) {
+      statement.setLong(1, now);
+      statement.executeUpdate();
+    } catch (SQLException e) {
+      log.warn("Could not write the replica heartbeat: {}", e.getMessage());
+    }
+
+    for (Replica replica : replicas) {
+      long lag;
+      try (Connection connection = replica.getDataSource().getConnection();
+          PreparedStatement statement = connection.prepareStatement(HEARTBEAT_SELECT);
+          ResultSet resultSet = statement.executeQuery()) {
+        lag = resultSet.next() ? Math.max(0, now - resultSet.getLong(1)) : Long.MAX_VALUE;
+      } catch (SQLException e) {
+        log.debug("Replica {} did not answer", replica.getName(), e);
+        lag = Long.MAX_VALUE;
+      }
+      replica.update(lag, maxLagMs);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (Replica replica : replicas) {
+      if (replica.getDataSource() instanceof Closeable closeable) {
+        closeable.close();
+      }
+    }
+    if (primary instanceof Closeable closeable) {
+      closeable.close();
+    }
+  }
+
+  /**
+   * A replica with the outcome of its last check. A lag of {@link Long#MAX_VALUE} means it
+   * could not be read.
+   */
+  @Slf4j
+  public static class Replica {
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy;
+    private volatile long lagMs = Long.MAX_VALUE;
+
+    public Replica(String name, DataSource dataSource) {
+      this.name = name;
+      this.dataSource = dataSource;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public DataSource getDataSource() {
+      return dataSource;
+    }
+
+    public boolean isHealthy() {
+      return healthy;
+    }
+
+    public long getLagMs() {
+      return lagMs;
+    }
+
+    private void update(long lag, long maxLagMs) {
+      boolean nowHealthy = lag <= maxLagMs;
+      if (nowHealthy != healthy) {
+        log.info("Replica {} is now {} (lag {} ms)", name, nowHealthy ? "in use" : "out of rotation",
+            lag == Long.MAX_VALUE ? "unknown" : lag);
+      }
+      lagMs = lag;
+      healthy = nowHealthy;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.app.octo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which statements seen by {@link SqlTracingDataSource} get logged and writes them.
+ * Every statement is counted against the current request; a sampled share of them is logged
+ * to {@value #TRACE_LOGGER}, and any statement slower than the threshold is logged to
+ * {@value #SLOW_LOGGER} whether it was sampled or not. The SQL is reduced to its shape,
+ * with literals and IN lists collapsed, only when a line is actually written.
+ */
+public class SqlTracer {
+
+  public static final String TRACE_LOGGER = "sql.trace";
+  public static final String SLOW_LOGGER = "sql.slow";
+
+  private static final Logger TRACE = LoggerFactory.getLogger(TRACE_LOGGER);
+  private static final Logger SLOW = LoggerFactory.getLogger(SLOW_LOGGER);
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private static final ThreadLocal<RequestStats> REQUEST = new ThreadLocal<>();
+
+  private final double sampleRate;
+
+  private final long slowNanos;
+
+  private final LongAdder statements = new LongAdder();
+
+  private final LongAdder slow = new LongAdder();
+
+  public SqlTracer(double sampleRate, long slowMs) {
+    this.sampleRate = sampleRate;
+    this.slowNanos = slowMs < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(slowMs);
+  }
+
+  /**
+   * Starts counting the statements run on this thread, until {@link #finishRequest()}.
+   */
+  public static void startRequest() {
+    REQUEST.set(new RequestStats());
+  }
+
+  public static RequestStats finishRequest() {
+    RequestStats stats = REQUEST.get();
+    REQUEST.remove();
+    return stats;
+  }
+
+  public long getStatementCount() {
+    return statements.sum();
+  }
+
+  public long getSlowCount() {
+    return slow.sum();
+  }
+
+  /**
+   * Called once a statement has run, before any result set is read. True when the statement
+   * will be logged and its rows should be counted.
+   */
+  boolean executed(long nanos) {
+    statements.increment();
+    RequestStats stats = REQUEST.get();
+    if (Objects.nonNull(stats)) {
+      stats.statements++;
+      stats.nanos += nanos;
+    }
+    return nanos >= slowNanos || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+  }
+
+  /**
+   * Writes a statement {@link #executed(long)} chose to log. Rows is -1 when not known.
+   */
+  void log(String sql, int binds, int batch, long nanos, long rows) {
+    boolean isSlow = nanos >= slowNanos;
+    Logger logger = isSlow ? SLOW : TRACE;
+    if (isSlow) {
+      slow.increment();
+    }
+    if (!logger.isInfoEnabled()) {
+      return;
+    }
+    String durationMs = String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    if (isSlow) {
+      logger.warn("shape=\"{}\" binds={} batch={} rows={} durationMs={}", shape(sql), binds, batch, rows, durationMs);
+    } else {
+      logger.info("shape=\"{}\" binds={} batch={} rows={} durationMs={}", shape(sql), binds, batch, rows, durationMs);
+    }
+  }
+
+  static String shape(String sql) {
+    if (Objects.isNull(sql)) {
+      return "";
+    }
+    String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+    shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+    shape = IN_LIST.matcher(shape).replaceAll("in (?...)");
+    return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+  }
+
+  /**
+   * Statements run on one request thread. Work handed to other threads is not included.
+   */
+  public static class RequestStats {
+    private int statements;
+    private long nanos;
+
+    public int getStatements() {
+      return statements;
+    }
+
+    public long getNanos() {
+      return nanos;
+    }
+  }
+}
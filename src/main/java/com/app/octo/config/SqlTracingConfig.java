@@ -0,0 +1,76 @@
+package com.app.octo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces {@code spring.jpa.show-sql} with {@link SqlTracingDataSource}: statements are
+ * timed and counted per request, a sampled share and every slow one are logged through the
+ * asynchronous {@code sql.*} loggers set up in {@code logback-spring.xml}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "sql.trace.enabled", havingValue = "true")
+public class SqlTracingConfig {
+
+  public static final double DEFAULT_SAMPLE_RATE = 0;
+  public static final long DEFAULT_SLOW_MS = 200;
+  public static final int DEFAULT_WARN_STATEMENTS = 50;
+
+  @Bean
+  public static SqlTracer sqlTracer(Environment environment) {
+    return new SqlTracer(environment.getProperty("sql.trace.sample-rate", Double.class, DEFAULT_SAMPLE_RATE),
+        environment.getProperty("sql.trace.slow-ms", Long.class, DEFAULT_SLOW_MS));
+  }
+
+  @Bean
+  public static BeanPostProcessor sqlTracingPostProcessor(SqlTracer sqlTracer) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof SqlTracingDataSource) {
+          return bean;
+        }
+        log.info("Tracing statements run through {}", beanName);
+        return new SqlTracingDataSource(dataSource, sqlTracer);
+      }
+    };
+  }
+
+  @Bean
+  public FilterRegistrationBean<SqlTracingFilter> sqlTracingFilter(MeterRegistry meterRegistry,
+      Environment environment) {
+    DistributionSummary statementsPerRequest = DistributionSummary.builder("hysleep.sql.statements.per.request")
+        .description("Statements run on the request thread")
+        .register(meterRegistry);
+    FilterRegistrationBean<SqlTracingFilter> registration = new FilterRegistrationBean<>(new SqlTracingFilter(
+        statementsPerRequest,
+        environment.getProperty("sql.trace.warn-statements", Integer.class, DEFAULT_WARN_STATEMENTS)));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+
+  @Bean
+  public MeterBinder sqlTracingMetrics(SqlTracer sqlTracer) {
+    return registry -> {
+      FunctionCounter.builder("hysleep.sql.statements", sqlTracer, SqlTracer::getStatementCount)
+          .description("Statements run through the application DataSource")
+          .register(registry);
+      FunctionCounter.builder("hysleep.sql.slow", sqlTracer, SqlTracer::getSlowCount)
+          .description("Statements slower than sql.trace.slow-ms")
+          .register(registry);
+    };
+  }
+}
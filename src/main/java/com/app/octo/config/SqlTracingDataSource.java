@@ -0,0 +1,189 @@
+package com.app.octo.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Times every statement run through its connections and hands it to a {@link SqlTracer}.
+ * Unless the tracer picks a statement for logging, the cost is one clock read before and
+ * after execution; only picked queries have their result set wrapped to count rows, and
+ * they are written when that result set or the statement is closed.
+ */
+public class SqlTracingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+  private static final Set<String> CREATE_STATEMENT = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+  private final SqlTracer tracer;
+
+  public SqlTracingDataSource(DataSource targetDataSource, SqlTracer tracer) {
+    super(targetDataSource);
+    this.tracer = tracer;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return trace(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return trace(super.getConnection(username, password));
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (getTargetDataSource() instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+
+  private Connection trace(Connection connection) {
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+        (proxy, method, args) -> {
+          Object result = invoke(connection, method, args);
+          if (result instanceof Statement statement && CREATE_STATEMENT.contains(method.getName())) {
+            String sql = Objects.nonNull(args) && args.length > 0 && args[0] instanceof String text ? text : null;
+            return wrap(statement, sql);
+          }
+          return result;
+        });
+  }
+
+  private Statement wrap(Statement statement, String sql) {
+    Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+        : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+    return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+        new TracedStatement(statement, sql));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+
+  private class TracedStatement implements InvocationHandler {
+    private final Statement statement;
+    private String sql;
+    private int binds;
+    private int batch;
+    private PendingQuery pending;
+
+    private TracedStatement(Statement statement, String sql) {
+      this.statement = statement;
+      this.sql = sql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (name.startsWith("execute")) {
+        return execute(method, args);
+      }
+      if (name.startsWith("set") && Objects.nonNull(args) && args.length >= 2 && args[0] instanceof Integer index) {
+        binds = Math.max(binds, index);
+      } else if ("addBatch".equals(name)) {
+        batch++;
+        if (Objects.isNull(sql) && Objects.nonNull(args) && args.length == 1) {
+          sql = (String) args[0];
+        }
+      } else if ("close".equals(name)) {
+        flush();
+      }
+      return SqlTracingDataSource.invoke(statement, method, args);
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+      flush();
+      String executed = Objects.nonNull(args) && args.length > 0 && args[0] instanceof String text ? text : sql;
+      long start = System.nanoTime();
+      Object result = SqlTracingDataSource.invoke(statement, method, args);
+      long nanos = System.nanoTime() - start;
+      int statementBatch = batch;
+      batch = 0;
+
+      if (!tracer.executed(nanos)) {
+        return result;
+      }
+      if (result instanceof ResultSet resultSet) {
+        pending = new PendingQuery(executed, binds, nanos);
+        return countRows(resultSet, pending);
+      }
+      tracer.log(executed, binds, statementBatch, nanos, rows(result));
+      return result;
+    }
+
+    private void flush() {
+      if (Objects.nonNull(pending)) {
+        PendingQuery query = pending;
+        pending = null;
+        tracer.log(query.sql, query.binds, 0, query.nanos, query.rows);
+      }
+    }
+
+    private ResultSet countRows(ResultSet resultSet, PendingQuery query) {
+      return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+          (proxy, method, args) -> {
+            Object result = SqlTracingDataSource.invoke(resultSet, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+              query.rows++;
+            } else if ("close".equals(method.getName()) && pending == query) {
+              flush();
+            }
+            return result;
+          });
+    }
+
+    private long rows(Object result) {
+      if (result instanceof Integer count) {
+        return count;
+      }
+      if (result instanceof Long count) {
+        return count;
+      }
+      if (result instanceof int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+          total += Math.max(0, count);
+        }
+        return total;
+      }
+      if (result instanceof long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+          total += Math.max(0, count);
+        }
+        return total;
+      }
+      return -1;
+    }
+  }
+
+  private static class PendingQuery {
+    private final String sql;
+    private final int binds;
+    private final long nanos;
+    private long rows;
+
+    private PendingQuery(String sql, int binds, long nanos) {
+      this.sql = sql;
+      this.binds = binds;
+      this.nanos = nanos;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.app.octo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Counts the statements each request runs on its own thread. The totals are left on the
+ * request as {@value #STATEMENTS_ATTRIBUTE} and {@value #SQL_NANOS_ATTRIBUTE}, recorded in a
+ * distribution, and logged when a request runs more than {@code warnStatements}, which
+ * usually means a lazy association is being loaded row by row.
+ */
+@Slf4j
+public class SqlTracingFilter extends OncePerRequestFilter {
+
+  public static final String STATEMENTS_ATTRIBUTE = "hysleep.sql.statements";
+  public static final String SQL_NANOS_ATTRIBUTE = "hysleep.sql.nanos";
+
+  private final DistributionSummary statementsPerRequest;
+
+  private final int warnStatements;
+
+  public SqlTracingFilter(DistributionSummary statementsPerRequest, int warnStatements) {
+    this.statementsPerRequest = statementsPerRequest;
+    this.warnStatements = warnStatements;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    SqlTracer.startRequest();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      SqlTracer.RequestStats stats = SqlTracer.finishRequest();
+      if (Objects.nonNull(stats)) {
+        request.setAttribute(STATEMENTS_ATTRIBUTE, stats.getStatements());
+        request.setAttribute(SQL_NANOS_ATTRIBUTE, stats.getNanos());
+        statementsPerRequest.record(stats.getStatements());
+        if (stats.getStatements() > warnStatements) {
+          log.warn("{} {} ran {} statements", request.getMethod(), request.getRequestURI(), stats.getStatements());
+        }
+      }
+    }
+  }
+}
@@ -1,19 +1,32 @@
 package com.app.octo.controller;
 
-import com.app.octo.model.exception.AppException;
+import com.app.octo.model.enums.ExportFormat;
 import com.app.octo.model.request.BookingRequest;
+import com.app.octo.model.request.BookingSearchRequest;
 import com.app.octo.model.request.GetAllByStatusRequest;
+import com.app.octo.model.response.BookingPipelineStatsResponse;
 import com.app.octo.model.response.BookingResponse;
 import com.app.octo.model.response.ListResponse;
+import com.app.octo.service.BookingCommandService;
+import com.app.octo.service.BookingExportService;
 import com.app.octo.service.BookingService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
@@ -22,118 +35,78 @@ public class BookingController {
 
   private final BookingService bookingService;
 
+  private final BookingCommandService bookingCommandService;
+
+  private final BookingExportService bookingExportService;
+
+  @Value("${booking.export.timeout-ms:1800000}")
+  private long exportTimeoutMs;
+
   @PostMapping("/public/book")
-  public ResponseEntity<BookingResponse> bookRoom(@RequestBody BookingRequest bookingRequest) {
-    try {
-      BookingResponse response = bookingService.bookRoom(bookingRequest);
-
-      return new ResponseEntity<>(response, HttpStatus.OK);
-    } catch (AppException e) {
-      BookingResponse response = new BookingResponse();
-      response.setErrorCode(e.getCode().name());
-      response.setErrorMessage(e.getMessage());
-      return new ResponseEntity<>(response, e.getCode());
-    } catch (Exception e) {
-      BookingResponse response = new BookingResponse();
-      response.setErrorCode(HttpStatus.INTERNAL_SERVER_ERROR.name());
-      response.setErrorMessage(e.getMessage());
-      return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+  public CompletableFuture<ResponseEntity<BookingResponse>> bookRoom(@RequestBody BookingRequest bookingRequest) {
+    return respond(bookingCommandService.bookRoom(bookingRequest));
   }
 
   @PostMapping("/public/cancel")
-  public ResponseEntity<BookingResponse> cancelBooking(@RequestParam Long id) {
-    try {
-      BookingResponse response = bookingService.cancelBooking(id);
-
-      return new ResponseEntity<>(response, HttpStatus.OK);
-    } catch (AppException e) {
-      BookingResponse response = new BookingResponse();
-      response.setErrorCode(e.getCode().name());
-      response.setErrorMessage(e.getMessage());
-      return new ResponseEntity<>(response, e.getCode());
-    } catch (Exception e) {
-      BookingResponse response = new BookingResponse();
-      response.setErrorCode(HttpStatus.INTERNAL_SERVER_ERROR.name());
-      response.setErrorMessage(e.getMessage());
-      return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+  public CompletableFuture<ResponseEntity<BookingResponse>> cancelBooking(@RequestParam Long id) {
+    return respond(bookingCommandService.cancelBooking(id));
   }
 
   @PostMapping("/public/done")
-  public ResponseEntity<BookingResponse> doneBooking(@RequestParam Long id) {
-    try {
-      BookingResponse response = bookingService.doneBooking(id);
-
-      return new ResponseEntity<>(response, HttpStatus.OK);
-    } catch (AppException e) {
-      BookingResponse response = new BookingResponse();
-      response.setErrorCode(e.getCode().name());
-      response.setErrorMessage(e.getMessage());
-      return new ResponseEntity<>(response, e.getCode());
-    } catch (Exception e) {
-      BookingResponse response = new BookingResponse();
-      response.setErrorCode(HttpStatus.INTERNAL_SERVER_ERROR.name());
-      response.setErrorMessage(e.getMessage());
-      return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+  public CompletableFuture<ResponseEntity<BookingResponse>> doneBooking(@RequestParam Long id) {
+    return respond(bookingCommandService.doneBooking(id));
+  }
+
+  @GetMapping("/admin/pipeline")
+  public ResponseEntity<BookingPipelineStatsResponse> getPipelineStats() {
+    return new ResponseEntity<>(bookingCommandService.getStats(), HttpStatus.OK);
   }
 
   @PostMapping("/public/change")
-  public ResponseEntity<ListResponse<BookingResponse>> doneBookingAfter() {
-    try {
-      ListResponse<BookingResponse> response = bookingService.changeStatusAfterTime();
-
-      return new ResponseEntity<>(response, HttpStatus.OK);
-    } catch (AppException e) {
-      ListResponse<BookingResponse> response = new ListResponse<>();
-      response.setErrorCode(e.getCode().name());
-      response.setErrorMessage(e.getMessage());
-      return new ResponseEntity<>(response, e.getCode());
-    } catch (Exception e) {
-      ListResponse<BookingResponse> response = new ListResponse<>();
-      response.setErrorCode(HttpStatus.INTERNAL_SERVER_ERROR.name());
-      response.setErrorMessage(e.getMessage());
-      return new ResponseEntity<>(response,HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+  public ResponseEntity<ListResponse<Long>> doneBookingAfter() {
+    ListResponse<Long> response = new ListResponse<>(bookingService.changeStatusAfterTime());
+
+    return new ResponseEntity<>(response, HttpStatus.OK);
   }
 
   @PostMapping("/public/getAllFiltered")
   public ResponseEntity<ListResponse<BookingResponse>> getAllByStatus(
       @RequestBody GetAllByStatusRequest request) {
-    try {
-      ListResponse<BookingResponse> response = bookingService.getAllByStatus(request);
-
-      return new ResponseEntity<>(response, HttpStatus.OK);
-    } catch (AppException e) {
-      ListResponse<BookingResponse> response = new ListResponse<>();
-      response.setErrorCode(e.getCode().name());
-      response.setErrorMessage(e.getMessage());
-      return new ResponseEntity<>(response, e.getCode());
-    } catch (Exception e) {
-      ListResponse<BookingResponse> response = new ListResponse<>();
-      response.setErrorCode(HttpStatus.INTERNAL_SERVER_ERROR.name());
-      response.setErrorMessage(e.getMessage());
-      return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    return new ResponseEntity<>(bookingService.getAllByStatus(request), HttpStatus.OK);
   }
 
   @PostMapping("/admin/getAll")
-  public ResponseEntity<ListResponse<BookingResponse>> getAll() {
-    try {
-      ListResponse<BookingResponse> response = bookingService.getAll();
-
-      return new ResponseEntity<>(response, HttpStatus.OK);
-    } catch (AppException e) {
-      ListResponse<BookingResponse> response = new ListResponse<>();
-      response.setErrorCode(e.getCode().name());
-      response.setErrorMessage(e.getMessage());
-      return new ResponseEntity<>(response, e.getCode());
-    } catch (Exception e) {
-      ListResponse<BookingResponse> response = new ListResponse<>();
-      response.setErrorCode(HttpStatus.INTERNAL_SERVER_ERROR.name());
-      response.setErrorMessage(e.getMessage());
-      return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+  public ResponseEntity<ListResponse<BookingResponse>> getAll(
+      @RequestBody(required = false) BookingSearchRequest request) {
+    return new ResponseEntity<>(bookingService.getAll(request), HttpStatus.OK);
+  }
+
+  /**
+   * Streams the export on an async dispatch with its own timeout, so the long limit it needs
+   * does not apply to the other async endpoints.
+   */
+  @GetMapping("/admin/export")
+  public WebAsyncTask<Void> export(
+      @RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) {
+    ExportFormat exportFormat = ExportFormat.from(format);
+    response.setContentType(exportFormat.getContentType());
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+        .filename("bookings." + exportFormat.getExtension()).build().toString());
+
+    return new WebAsyncTask<>(exportTimeoutMs, () -> {
+      OutputStream outputStream = response.getOutputStream();
+      bookingExportService.exportBookings(exportFormat, outputStream);
+      outputStream.flush();
+      return null;
+    });
+  }
+
+  /**
+   * Failed commands complete the future exceptionally and are mapped by
+   * {@link com.app.octo.security.RestExceptionHandler}.
+   */
+  private static CompletableFuture<ResponseEntity<BookingResponse>> respond(
+      CompletableFuture<BookingResponse> result) {
+    return result.thenApply(response -> new ResponseEntity<>(response, HttpStatus.OK));
   }
 }
@@ -0,0 +1,22 @@
+package com.app.octo.controller;
+
+import com.app.octo.model.response.CacheStatsResponse;
+import com.app.octo.service.CacheStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/v1/cache")
+public class CacheController {
+
+  private final CacheStatsService cacheStatsService;
+
+  @GetMapping("/admin/stats")
+  public ResponseEntity<CacheStatsResponse> getCatalogCacheStats() {
+    return ResponseEntity.ok(cacheStatsService.getCatalogCacheStats());
+  }
+}
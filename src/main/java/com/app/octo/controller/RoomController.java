@@ -4,89 +4,106 @@ import com.app.octo.dto.request.RoomRequestDTO;
 import com.app.octo.dto.request.RoomIdRequestDTO;
 import com.app.octo.dto.request.RoomUpdateStatusRequestDTO;
 import com.app.octo.dto.response.RoomResponseDTO;
+import com.app.octo.model.response.CatalogSnapshot;
+import com.app.octo.model.response.RoomImportResponse;
+import com.app.octo.service.CatalogSnapshotService;
+import com.app.octo.service.RoomImportService;
 import com.app.octo.service.RoomService;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.util.List;
 
-@Slf4j
 @RestController
 @RequestMapping("/api/v1/rooms")
 public class RoomController {
 
     private final RoomService roomService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final RoomImportService roomImportService;
 
-    public RoomController(RoomService roomService) {
+    public RoomController(RoomService roomService, CatalogSnapshotService catalogSnapshotService,
+                          RoomImportService roomImportService) {
         this.roomService = roomService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.roomImportService = roomImportService;
     }
 
-    @PostMapping("/public/getAll")
+    /**
+     * Served from a pre-serialized snapshot. A GET with a matching If-None-Match gets a 304;
+     * POST is kept for existing clients.
+     */
+    @RequestMapping(value = "/public/getAll", method = {RequestMethod.GET, RequestMethod.POST})
     public ResponseEntity<Object> getAllRooms() {
-        try {
-            List<RoomResponseDTO> rooms = roomService.getAllRooms();
-            return ResponseEntity.ok(rooms);
-        } catch (Exception e) {
-            log.error("e: " + e.getMessage());
-            return ResponseEntity.internalServerError().body("Error fetching rooms: " + e.getMessage());
-        }
+        CatalogSnapshot snapshot = catalogSnapshotService.getRooms();
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.body());
+    }
+
+    @PostMapping("/public/getAvailable")
+    public ResponseEntity<Object> getAvailableRooms() {
+        List<RoomResponseDTO> rooms = roomService.getAvailableRooms();
+        return ResponseEntity.ok(rooms);
     }
 
     @PostMapping("/public/getById")
     public ResponseEntity<Object> getRoomById(@Valid @RequestBody RoomIdRequestDTO roomIdRequest) {
-        try {
-            long roomId = roomIdRequest.getRoomId();
-            if (!roomService.existsById(roomId)) {
-                return ResponseEntity.notFound().build();
-            }
-            RoomResponseDTO room = roomService.getRoomById(roomIdRequest);
-            return ResponseEntity.ok(room);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error fetching room: " + e.getMessage());
+        long roomId = roomIdRequest.getRoomId();
+        if (!roomService.existsById(roomId)) {
+            return ResponseEntity.notFound().build();
         }
+        RoomResponseDTO room = roomService.getRoomById(roomIdRequest);
+        return ResponseEntity.ok(room);
     }
 
     @PostMapping("/public/createRoom")
     public ResponseEntity<Object> createRoom(@Valid @RequestBody RoomRequestDTO roomRequest) {
-        try {
-            if (roomService.existsByRoomNumber(roomRequest.getRoomNumber())) {
-                return ResponseEntity.badRequest()
-                        .body("Room number already existing!!!!!!!!!!");
-            }
-            RoomResponseDTO createdRoom = roomService.createRoom(roomRequest);
-            return ResponseEntity.ok(createdRoom);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error creating room: " + e.getMessage());
+        if (roomService.existsByRoomNumber(roomRequest.getRoomNumber())) {
+            return ResponseEntity.badRequest()
+                    .body("Room number already existing!!!!!!!!!!");
         }
+        RoomResponseDTO createdRoom = roomService.createRoom(roomRequest);
+        return ResponseEntity.ok(createdRoom);
+    }
+
+    /**
+     * Creates rooms from a JSON array or newline-delimited JSON, read as it streams in.
+     */
+    @PostMapping(value = "/admin/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<RoomImportResponse> importJson(InputStream body) {
+        return ResponseEntity.ok(roomImportService.importJson(body));
+    }
+
+    /**
+     * Creates rooms from CSV with a room_number,floor,room_description,category_id header.
+     */
+    @PostMapping(value = "/admin/import", consumes = "text/csv")
+    public ResponseEntity<RoomImportResponse> importCsv(InputStream body) {
+        return ResponseEntity.ok(roomImportService.importCsv(body));
     }
 
     @PostMapping("/public/updateStatus")
     public ResponseEntity<Object> updateStatus(@Valid @RequestBody RoomUpdateStatusRequestDTO roomUpdateStatus) {
-        try {
-            Long roomId = roomUpdateStatus.getRoomId();
-            if (!roomService.existsById(roomId)) {
-                return ResponseEntity.notFound().build();
-            }
-            RoomResponseDTO updatedRoom = roomService.updateStatus(roomUpdateStatus);
-            return ResponseEntity.ok(updatedRoom);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error updating status: " + e.getMessage());
+        Long roomId = roomUpdateStatus.getRoomId();
+        if (!roomService.existsById(roomId)) {
+            return ResponseEntity.notFound().build();
         }
+        RoomResponseDTO updatedRoom = roomService.updateStatus(roomUpdateStatus);
+        return ResponseEntity.ok(updatedRoom);
     }
 
     @PostMapping("/public/delete")
     public ResponseEntity<Object> deleteRoom(@Valid @RequestBody RoomIdRequestDTO roomIdRequest) {
-        try {
-            Long roomId = roomIdRequest.getRoomId();
-            if (!roomService.existsById(roomId)) {
-                return ResponseEntity.notFound().build();
-            }
-            roomService.deleteRoom(roomIdRequest);
-            return ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error deleting room: " + e.getMessage());
+        Long roomId = roomIdRequest.getRoomId();
+        if (!roomService.existsById(roomId)) {
+            return ResponseEntity.notFound().build();
         }
+        roomService.deleteRoom(roomIdRequest);
+        return ResponseEntity.noContent().build();
     }
 }
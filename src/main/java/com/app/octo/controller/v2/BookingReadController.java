@@ -0,0 +1,49 @@
+package com.app.octo.controller.v2;
+
+import com.app.octo.model.request.GetAllByStatusRequest;
+import com.app.octo.model.response.BookingResponse;
+import com.app.octo.model.response.ListResponse;
+import com.app.octo.service.BookingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bookings belong to one user, so only the user's own browser may cache them, briefly.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/v2/bookings")
+public class BookingReadController {
+
+  public static final CacheControl BOOKINGS_CACHE = CacheControl.maxAge(5, TimeUnit.SECONDS).cachePrivate();
+
+  private final BookingService bookingService;
+
+  @GetMapping
+  public ResponseEntity<ListResponse<BookingResponse>> getBookings(
+      @RequestParam String email,
+      @RequestParam(required = false) String status,
+      @RequestParam(required = false) Long roomId,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    ListResponse<BookingResponse> response = bookingService.getAllByStatus(GetAllByStatusRequest.builder()
+        .email(email).status(status).roomId(roomId).from(from).to(to).cursor(cursor).size(size).build());
+
+    return ResponseEntity.ok()
+        .cacheControl(BOOKINGS_CACHE)
+        .varyBy(HttpHeaders.AUTHORIZATION)
+        .body(response);
+  }
+}
@@ -0,0 +1,39 @@
+package com.app.octo.controller.v2;
+
+import com.app.octo.model.response.CatalogSnapshot;
+import com.app.octo.service.CatalogSnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Categories change rarely, so shared caches may keep them for a minute and then
+ * revalidate against the ETag.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/v2/categories")
+public class CategoryReadController {
+
+  public static final CacheControl CATEGORIES_CACHE = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic();
+
+  private final CatalogSnapshotService catalogSnapshotService;
+
+  @GetMapping
+  public ResponseEntity<Object> getCategories() {
+    CatalogSnapshot snapshot = catalogSnapshotService.getCategories();
+    return ResponseEntity.ok()
+        .cacheControl(CATEGORIES_CACHE)
+        .varyBy(HttpHeaders.AUTHORIZATION)
+        .eTag(snapshot.etag())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(snapshot.body());
+  }
+}
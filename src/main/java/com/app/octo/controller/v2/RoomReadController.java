@@ -0,0 +1,112 @@
+package com.app.octo.controller.v2;
+
+import com.app.octo.dto.request.RoomIdRequestDTO;
+import com.app.octo.dto.response.RoomResponseDTO;
+import com.app.octo.model.response.CatalogSnapshot;
+import com.app.octo.model.response.StreamTicketResponse;
+import com.app.octo.model.response.UserResponse;
+import com.app.octo.security.UserAuthProvider;
+import com.app.octo.service.CatalogSnapshotService;
+import com.app.octo.service.RoomService;
+import com.app.octo.service.RoomStatusStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Room status flips with every booking, so rooms are only cached for a few seconds.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/v2/rooms")
+public class RoomReadController {
+
+  public static final CacheControl ROOMS_CACHE = CacheControl.maxAge(5, TimeUnit.SECONDS).cachePublic();
+  public static final String LAST_EVENT_ID = "Last-Event-ID";
+  // Stops nginx from buffering the event stream
+  public static final String X_ACCEL_BUFFERING = "X-Accel-Buffering";
+
+  private final RoomService roomService;
+
+  private final CatalogSnapshotService catalogSnapshotService;
+
+  private final RoomStatusStreamService roomStatusStreamService;
+
+  private final UserAuthProvider userAuthProvider;
+
+  @GetMapping
+  public ResponseEntity<Object> getRooms() {
+    CatalogSnapshot snapshot = catalogSnapshotService.getRooms();
+    return ResponseEntity.ok()
+        .cacheControl(ROOMS_CACHE)
+        .varyBy(HttpHeaders.AUTHORIZATION)
+        .eTag(snapshot.etag())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(snapshot.body());
+  }
+
+  /**
+   * Server-sent room status changes. Browsers reconnect on their own and send the
+   * Last-Event-ID header, from which the stream resumes.
+   *
+   * <p>EventSource cannot set the Authorization header, so browsers first fetch a ticket from
+   * {@link #issueStreamTicket} and open {@code /api/v2/rooms/stream?ticket=...}. Once the
+   * ticket has expired a reconnect is rejected; the client then fetches a new ticket and
+   * passes the last event id it saw as the {@code lastEventId} query parameter.
+   */
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> streamStatus(
+      @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId,
+      @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noStore())
+        .header(X_ACCEL_BUFFERING, "no")
+        .body(roomStatusStreamService.subscribe(Objects.nonNull(lastEventId) ? lastEventId : lastEventIdParam));
+  }
+
+  @PostMapping("/stream/ticket")
+  public ResponseEntity<StreamTicketResponse> issueStreamTicket(Authentication authentication) {
+    String ticket = userAuthProvider.generateStreamTicket((UserResponse) authentication.getPrincipal());
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noStore())
+        .body(new StreamTicketResponse(ticket, userAuthProvider.getStreamTicketValidity()));
+  }
+
+  @GetMapping("/available")
+  public ResponseEntity<Object> getAvailableRooms() {
+    List<RoomResponseDTO> rooms = roomService.getAvailableRooms();
+    return ResponseEntity.ok()
+        .cacheControl(ROOMS_CACHE)
+        .varyBy(HttpHeaders.AUTHORIZATION)
+        .body(rooms);
+  }
+
+  @GetMapping("/{roomId}")
+  public ResponseEntity<Object> getRoomById(@PathVariable long roomId) {
+    if (!roomService.existsById(roomId)) {
+      return ResponseEntity.notFound().build();
+    }
+    RoomIdRequestDTO request = new RoomIdRequestDTO();
+    request.setRoomId(roomId);
+    RoomResponseDTO room = roomService.getRoomById(request);
+    return ResponseEntity.ok()
+        .cacheControl(ROOMS_CACHE)
+        .varyBy(HttpHeaders.AUTHORIZATION)
+        .body(room);
+  }
+}
@@ -0,0 +1,36 @@
+package com.app.octo.controller.v2;
+
+import com.app.octo.model.response.UserResponse;
+import com.app.octo.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profiles are personal and change rarely: private caching for half a minute.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/v2/users")
+public class UserReadController {
+  public static final CacheControl USER_CACHE = CacheControl.maxAge(30, TimeUnit.SECONDS).cachePrivate();
+
+  private final UserService userService;
+
+  @GetMapping("/{email}")
+  public ResponseEntity<UserResponse> getUser(@PathVariable String email) {
+    UserResponse response = userService.findByEmail(email);
+
+    return ResponseEntity.ok()
+        .cacheControl(USER_CACHE)
+        .varyBy(HttpHeaders.AUTHORIZATION)
+        .body(response);
+  }
+}
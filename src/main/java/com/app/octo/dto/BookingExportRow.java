@@ -0,0 +1,30 @@
+package com.app.octo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Flat view of a booking written by the export, one per line.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingExportRow {
+  private long bookingId;
+  private String status;
+  private Date bookingDate;
+  private Date startDate;
+  private Date endDate;
+  private Long userId;
+  private String userEmail;
+  private String userFirstName;
+  private String userLastName;
+  private long roomId;
+  private String roomNumber;
+  private String floor;
+}
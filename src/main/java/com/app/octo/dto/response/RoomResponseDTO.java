@@ -17,4 +17,12 @@ public class RoomResponseDTO {
     private String floor;
     private String roomDescription;
     private Category category;
+
+    /**
+     * Used by the room list query, which selects the category columns instead of the entity.
+     */
+    public RoomResponseDTO(long roomId, String roomNumber, String status, String floor,
+                           String roomDescription, long categoryId, String categoryName) {
+        this(roomId, roomNumber, status, floor, roomDescription, new Category(categoryId, categoryName));
+    }
 }
@@ -0,0 +1,47 @@
+package com.app.octo.mapper;
+
+import com.app.octo.dto.BookingExportRow;
+import com.app.octo.dto.RoomDTO;
+import com.app.octo.dto.UserDTO;
+import com.app.octo.model.Booking;
+import com.app.octo.model.Room;
+import com.app.octo.model.User;
+import com.app.octo.model.projection.BookingSummary;
+import com.app.octo.model.response.BookingResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import java.util.List;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface BookingMapper {
+
+  BookingResponse toResponse(Booking booking);
+
+  List<BookingResponse> toResponses(List<Booking> bookings);
+
+  @Mapping(target = "user.firstName", source = "userFirstName")
+  @Mapping(target = "user.lastName", source = "userLastName")
+  @Mapping(target = "user.email", source = "userEmail")
+  @Mapping(target = "room.roomId", source = "roomId")
+  @Mapping(target = "room.roomNumber", source = "roomNumber")
+  @Mapping(target = "room.status", source = "roomStatus")
+  @Mapping(target = "room.floor", source = "roomFloor")
+  BookingResponse toSummaryResponse(BookingSummary summary);
+
+  List<BookingResponse> toSummaryResponses(List<BookingSummary> summaries);
+
+  UserDTO toUserDto(User user);
+
+  RoomDTO toRoomDto(Room room);
+
+  @Mapping(target = "userId", source = "user.id")
+  @Mapping(target = "userEmail", source = "user.email")
+  @Mapping(target = "userFirstName", source = "user.firstName")
+  @Mapping(target = "userLastName", source = "user.lastName")
+  @Mapping(target = "roomId", source = "room.roomId")
+  @Mapping(target = "roomNumber", source = "room.roomNumber")
+  @Mapping(target = "floor", source = "room.floor")
+  BookingExportRow toExportRow(Booking booking);
+}
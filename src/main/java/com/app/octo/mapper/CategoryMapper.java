@@ -0,0 +1,19 @@
+package com.app.octo.mapper;
+
+import com.app.octo.model.Category;
+import com.app.octo.model.response.CategoryGetResponse;
+import com.app.octo.model.response.CategoryResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+
+import java.util.List;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface CategoryMapper {
+
+  CategoryResponse toResponse(Category category);
+
+  CategoryGetResponse toGetResponse(Category category);
+
+  List<CategoryGetResponse> toGetResponses(List<Category> categories);
+}
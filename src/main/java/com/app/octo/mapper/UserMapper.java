@@ -0,0 +1,24 @@
+package com.app.octo.mapper;
+
+import com.app.octo.model.User;
+import com.app.octo.model.request.RegisterRequest;
+import com.app.octo.model.response.UserResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface UserMapper {
+
+  @Mapping(target = "token", ignore = true)
+  UserResponse toResponse(User user);
+
+  /**
+   * Copies the profile fields only. The password is hashed and the role is set by the caller.
+   */
+  @Mapping(target = "id", ignore = true)
+  @Mapping(target = "password", ignore = true)
+  @Mapping(target = "userRole", ignore = true)
+  @Mapping(target = "version", ignore = true)
+  User toUser(RegisterRequest registerRequest);
+}
@@ -5,9 +5,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,11 +23,16 @@ import java.util.Date;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "Booking")
+@Table(name = "Booking", indexes = {
+    @Index(name = "idx_booking_status_end_date", columnList = "status, end_date, room_id"),
+    @Index(name = "idx_booking_user_status", columnList = "user_id, status")})
 public class Booking extends BaseModel {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "booking_id")
+    @TableGenerator(name = "booking_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+        valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "booking",
+        allocationSize = IdGenerators.ALLOCATION_SIZE)
     @Column(name = "booking_id")
     private long bookingId;
 
@@ -47,4 +55,8 @@ public class Booking extends BaseModel {
 
     @Column(name = "end_date", nullable = false)
     private Date endDate;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
 }
@@ -0,0 +1,66 @@
+package com.app.octo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.util.Date;
+
+/**
+ * An archived {@link Booking}. Rows are only ever written by the archival job, which copies
+ * them with their original id, so the attributes mirror Booking's and listings can query
+ * either table with the same criteria.
+ */
+@Getter
+@Setter
+@Entity
+@Builder
+@Immutable
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "booking_history", indexes = {
+    @Index(name = "idx_booking_history_user_status", columnList = "user_id, status"),
+    @Index(name = "idx_booking_history_status_end_date", columnList = "status, end_date")})
+public class BookingHistory extends BaseModel {
+
+    @Id
+    @Column(name = "booking_id")
+    private long bookingId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_id", referencedColumnName = "room_id", nullable = false)
+    private Room room;
+
+    @Column(name = "booking_date", nullable = false)
+    private Date bookingDate;
+
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "start_date", nullable = false)
+    private Date startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private Date endDate;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private Date archivedAt;
+}
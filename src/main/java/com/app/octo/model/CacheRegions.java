@@ -0,0 +1,13 @@
+package com.app.octo.model;
+
+/**
+ * Names of the second-level cache regions, configured in {@code application.conf}.
+ */
+public final class CacheRegions {
+  public static final String CATEGORY = "catalog.category";
+  public static final String ROOM = "catalog.room";
+  public static final String CATALOG_QUERIES = "catalog.queries";
+
+  private CacheRegions() {
+  }
+}
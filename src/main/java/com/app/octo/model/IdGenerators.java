@@ -0,0 +1,16 @@
+package com.app.octo.model;
+
+/**
+ * Settings of the table-backed id generators. Each entity takes ids from its own row of
+ * {@link #TABLE} in blocks of {@link #ALLOCATION_SIZE}, so inserts need no identity column
+ * and can be sent to the database in JDBC batches.
+ */
+public final class IdGenerators {
+  public static final String TABLE = "id_generator";
+  public static final String NAME_COLUMN = "sequence_name";
+  public static final String VALUE_COLUMN = "next_val";
+  public static final int ALLOCATION_SIZE = 50;
+
+  private IdGenerators() {
+  }
+}
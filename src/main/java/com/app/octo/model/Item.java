@@ -6,6 +6,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,7 +21,10 @@ import lombok.NoArgsConstructor;
 public class Item extends BaseModel{
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "item_id")
+  @TableGenerator(name = "item_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+      valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "item",
+      allocationSize = IdGenerators.ALLOCATION_SIZE)
   @Column(name = "ID")
   private Long id;
   @Column(name = "SKU")
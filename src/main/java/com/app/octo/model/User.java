@@ -6,7 +6,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,11 +20,14 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "uk_users_email", columnList = "email", unique = true))
 public class User extends BaseModel{
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_id")
+  @TableGenerator(name = "users_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+      valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "users",
+      allocationSize = IdGenerators.ALLOCATION_SIZE)
   private Long id;
 
   @Column(name = "first_name")
@@ -35,4 +41,8 @@ public class User extends BaseModel{
   private String password;
 
   private UserRole userRole;
+
+  @Version
+  @Column(name = "version", nullable = false)
+  private long version;
 }
@@ -18,7 +18,16 @@ public enum ErrorCodes {
   ROOM_NOT_FOUND("Room is not available or does not exists"),
   CATEGORY_NOT_FOUND("Category is not available or does not exists"),
   CATEGORY_EXISTS("Category is already exists"),
-  INVALID_REQUEST("Invalid Request");
+  INVALID_REQUEST("Invalid Request"),
+  INCOMPLETE_REQUEST("Incomplete Request"),
+  CATEGORY_IN_USE("Cannot delete category. It is linked to existing rooms."),
+  ROOM_BUSY("Room is being updated by another request, please retry"),
+  INVALID_CURSOR("Page cursor is invalid, restart from the first page"),
+  BOOKING_QUEUE_FULL("Too many booking requests in progress, please retry shortly"),
+  BOOKING_PIPELINE_STOPPED("Booking service is shutting down, please retry"),
+  PASSWORD_HASHING_BUSY("Too many sign-in requests in progress, please retry shortly"),
+  RATE_LIMITED("Too many requests, please slow down"),
+  OVERLOADED("Server is busy, please retry shortly");
 
   private String message;
 }
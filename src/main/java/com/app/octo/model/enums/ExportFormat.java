@@ -0,0 +1,24 @@
+package com.app.octo.model.enums;
+
+import com.app.octo.model.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+  NDJSON("application/x-ndjson", "ndjson"),
+  CSV("text/csv", "csv");
+
+  private String contentType;
+  private String extension;
+
+  public static ExportFormat from(String value) {
+    return Arrays.stream(values())
+        .filter(format -> format.name().equalsIgnoreCase(value))
+        .findFirst()
+        .orElseThrow(() -> new BadRequestException(ErrorCodes.INVALID_REQUEST));
+  }
+}
@@ -0,0 +1,8 @@
+package com.app.octo.model.event;
+
+/**
+ * Published after a committed change of a room's status. {@code oldStatus} is null for a
+ * new room and {@code newStatus} is null for a deleted one.
+ */
+public record RoomStatusChangedEvent(Long roomId, String oldStatus, String newStatus) {
+}
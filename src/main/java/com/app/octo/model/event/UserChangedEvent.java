@@ -0,0 +1,8 @@
+package com.app.octo.model.event;
+
+/**
+ * Published after a user's profile or password has been saved. The email is the
+ * one the user was known by before the change.
+ */
+public record UserChangedEvent(String email) {
+}
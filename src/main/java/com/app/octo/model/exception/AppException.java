@@ -1,5 +1,6 @@
 package com.app.octo.model.exception;
 
+import com.app.octo.model.enums.ErrorCodes;
 import lombok.Data;
 import org.springframework.http.HttpStatus;
 
@@ -8,8 +9,21 @@ public class AppException extends RuntimeException{
 
   private final HttpStatus code;
 
+  private final ErrorCodes errorCode;
+
   public AppException(String message, HttpStatus code) {
     super(message);
     this.code = code;
+    this.errorCode = null;
+  }
+
+  /**
+   * An expected business outcome such as a missing room. Those are thrown on every rejected
+   * request and only ever turned into a response, so no stack trace is captured.
+   */
+  protected AppException(ErrorCodes errorCode, HttpStatus code) {
+    super(errorCode.getMessage(), null, false, false);
+    this.code = code;
+    this.errorCode = errorCode;
   }
 }
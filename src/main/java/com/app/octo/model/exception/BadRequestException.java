@@ -0,0 +1,14 @@
+package com.app.octo.model.exception;
+
+import com.app.octo.model.enums.ErrorCodes;
+import org.springframework.http.HttpStatus;
+
+/**
+ * The request is incomplete or conflicts with data the client should already know about.
+ */
+public class BadRequestException extends AppException {
+
+  public BadRequestException(ErrorCodes errorCode) {
+    super(errorCode, HttpStatus.BAD_REQUEST);
+  }
+}
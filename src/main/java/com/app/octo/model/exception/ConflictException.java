@@ -0,0 +1,14 @@
+package com.app.octo.model.exception;
+
+import com.app.octo.model.enums.ErrorCodes;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Another request changed the same data first; retrying may succeed.
+ */
+public class ConflictException extends AppException {
+
+  public ConflictException(ErrorCodes errorCode) {
+    super(errorCode, HttpStatus.CONFLICT);
+  }
+}
@@ -0,0 +1,14 @@
+package com.app.octo.model.exception;
+
+import com.app.octo.model.enums.ErrorCodes;
+import org.springframework.http.HttpStatus;
+
+/**
+ * The requested user, room, category or booking does not exist.
+ */
+public class NotFoundException extends AppException {
+
+  public NotFoundException(ErrorCodes errorCode) {
+    super(errorCode, HttpStatus.NOT_FOUND);
+  }
+}
@@ -0,0 +1,14 @@
+package com.app.octo.model.exception;
+
+import com.app.octo.model.enums.ErrorCodes;
+import org.springframework.http.HttpStatus;
+
+/**
+ * The service is shutting down or cannot take work right now.
+ */
+public class ServiceUnavailableException extends AppException {
+
+  public ServiceUnavailableException(ErrorCodes errorCode) {
+    super(errorCode, HttpStatus.SERVICE_UNAVAILABLE);
+  }
+}
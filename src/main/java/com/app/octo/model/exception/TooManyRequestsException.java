@@ -0,0 +1,14 @@
+package com.app.octo.model.exception;
+
+import com.app.octo.model.enums.ErrorCodes;
+import org.springframework.http.HttpStatus;
+
+/**
+ * A bounded queue or pool is full; the client should retry after a short wait.
+ */
+public class TooManyRequestsException extends AppException {
+
+  public TooManyRequestsException(ErrorCodes errorCode) {
+    super(errorCode, HttpStatus.TOO_MANY_REQUESTS);
+  }
+}
@@ -0,0 +1,9 @@
+package com.app.octo.model.projection;
+
+import java.util.Date;
+
+public interface BookingDeadline {
+  Long getBookingId();
+  Long getRoomId();
+  Date getEndDate();
+}
@@ -0,0 +1,12 @@
+package com.app.octo.model.projection;
+
+import java.util.Date;
+
+/**
+ * Columns needed for one row of a booking listing, selected by a constructor expression
+ * instead of hydrating Booking, User, Room and Category entities.
+ */
+public record BookingSummary(long bookingId, Date bookingDate, Date endDate, String status,
+    String userFirstName, String userLastName, String userEmail,
+    long roomId, String roomNumber, String roomStatus, String roomFloor) {
+}
@@ -0,0 +1,25 @@
+package com.app.octo.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Filters and page position for the admin booking listing. Every field is optional.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingSearchRequest {
+  private String status;
+  private String userEmail;
+  private Long roomId;
+  private Date from;
+  private Date to;
+  private String cursor;
+  private Integer size;
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Date;
+
 @Data
 @Builder
 @AllArgsConstructor
@@ -12,4 +14,9 @@ import lombok.NoArgsConstructor;
 public class GetAllByStatusRequest {
   private String email;
   private String status;
+  private Long roomId;
+  private Date from;
+  private Date to;
+  private String cursor;
+  private Integer size;
 }
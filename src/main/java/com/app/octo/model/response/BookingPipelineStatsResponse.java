@@ -0,0 +1,37 @@
+package com.app.octo.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class BookingPipelineStatsResponse extends BaseResponse {
+  private boolean enabled;
+  private long submitted;
+  private long completed;
+  private long failed;
+  private long rejected;
+  private long batches;
+  private double averageBatchSize;
+  private double averageLatencyMs;
+  private double maxLatencyMs;
+  private List<PartitionStats> partitions;
+
+  @Data
+  @Builder
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class PartitionStats {
+    private int partition;
+    private int depth;
+    private int capacity;
+  }
+}
@@ -0,0 +1,8 @@
+package com.app.octo.model.response;
+
+/**
+ * A catalog response serialized once, with the strong ETag of its bytes and the
+ * catalog version it was built from.
+ */
+public record CatalogSnapshot(long version, String etag, byte[] body) {
+}
@@ -0,0 +1,22 @@
+package com.app.octo.model.response;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class PageResponse<T> extends ListResponse<T> {
+  private String nextCursor;
+
+  public PageResponse(List<T> val, String nextCursor) {
+    super(val);
+    this.nextCursor = nextCursor;
+  }
+}
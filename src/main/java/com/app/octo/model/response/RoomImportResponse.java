@@ -0,0 +1,30 @@
+package com.app.octo.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class RoomImportResponse extends BaseResponse {
+  private long imported;
+  private long rejected;
+  private List<RowError> errors;
+
+  @Data
+  @Builder
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class RowError {
+    private long row;
+    private String roomNumber;
+    private String error;
+  }
+}
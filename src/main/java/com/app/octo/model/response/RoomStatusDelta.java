@@ -0,0 +1,8 @@
+package com.app.octo.model.response;
+
+/**
+ * One room status change as pushed to stream subscribers. {@code version} increases by one
+ * per change and doubles as the SSE event id.
+ */
+public record RoomStatusDelta(long version, Long roomId, String oldStatus, String newStatus) {
+}
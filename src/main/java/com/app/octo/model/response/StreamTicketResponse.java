@@ -0,0 +1,8 @@
+package com.app.octo.model.response;
+
+/**
+ * A ticket for opening the room status stream with EventSource, passed as the
+ * {@code ticket} query parameter.
+ */
+public record StreamTicketResponse(String ticket, long expiresInMs) {
+}
@@ -1,6 +1,7 @@
 package com.app.octo.model.response;
 
 import com.app.octo.model.enums.UserRole;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,4 +18,8 @@ public class UserResponse extends BaseResponse{
   private String email;
   private UserRole userRole;
   private String token;
+  @JsonIgnore
+  private Long id;
+  @JsonIgnore
+  private long version;
 }
@@ -0,0 +1,21 @@
+package com.app.octo.repository;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Date;
+
+/**
+ * Optional criteria for {@link BookingRepositoryCustom#findPage}. Null fields are not applied.
+ * {@code from}/{@code to} keep bookings whose stay overlaps the range.
+ */
+@Value
+@Builder
+public class BookingFilter {
+  String status;
+  Long userId;
+  String userEmail;
+  Long roomId;
+  Date from;
+  Date to;
+}
@@ -0,0 +1,24 @@
+package com.app.octo.repository;
+
+import com.app.octo.model.BookingHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Date;
+
+public interface BookingHistoryRepository extends JpaRepository<BookingHistory, Long> {
+
+  /**
+   * Copies the bookings into booking_history in one statement, without loading them. The
+   * caller deletes them from booking in the same transaction.
+   */
+  @Modifying
+  @Query(nativeQuery = true, value = "insert into booking_history (booking_id, created_at, updated_at, "
+      + "booking_date, end_date, start_date, status, version, room_id, user_id, archived_at) "
+      + "select booking_id, created_at, updated_at, booking_date, end_date, start_date, status, version, "
+      + "room_id, user_id, :archivedAt from booking where booking_id in :ids")
+  int copyFromBookings(@Param("ids") Collection<Long> ids, @Param("archivedAt") Date archivedAt);
+}
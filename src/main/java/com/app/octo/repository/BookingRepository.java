@@ -1,13 +1,82 @@
 package com.app.octo.repository;
 
 import com.app.octo.model.Booking;
+import com.app.octo.model.projection.BookingDeadline;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
   Booking findByBookingId(Long id);
   List<Booking> findAllByStatus(String status);
-  List<Booking> findByUser_idAndStatus(Long userId, String status);
-  List<Booking> findByUser_id(Long userId);
+
+  // Derived queries on user_id would outer join users and filter on its key, so the
+  // booking indexes on user_id could not be used
+  @Query("select b from Booking b where b.user.id = :userId and b.status = :status")
+  List<Booking> findByUser_idAndStatus(@Param("userId") Long userId, @Param("status") String status);
+
+  @Query("select b from Booking b where b.user.id = :userId")
+  List<Booking> findByUser_id(@Param("userId") Long userId);
+
+  @Query("select b.bookingId as bookingId, b.room.roomId as roomId, b.endDate as endDate "
+      + "from Booking b where b.status = :status")
+  List<BookingDeadline> findDeadlinesByStatus(@Param("status") String status);
+
+  /**
+   * Locks the matching rows so a concurrent cancel cannot slip in before the bulk update.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select b.bookingId as bookingId, b.room.roomId as roomId, b.endDate as endDate "
+      + "from Booking b where b.status = :status and b.endDate < :before")
+  List<BookingDeadline> lockDeadlinesByStatusAndEndDateBefore(@Param("status") String status,
+      @Param("before") Date before);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select b.bookingId as bookingId, b.room.roomId as roomId, b.endDate as endDate "
+      + "from Booking b where b.bookingId in :ids and b.status = :status")
+  List<BookingDeadline> lockDeadlinesByIdsAndStatus(@Param("ids") Collection<Long> ids,
+      @Param("status") String status);
+
+  @Modifying
+  @Query("update Booking b set b.status = :newStatus, b.version = b.version + 1, b.updatedAt = current_timestamp "
+      + "where b.bookingId in :ids and b.status = :currentStatus")
+  int updateStatusForIds(@Param("ids") Collection<Long> ids, @Param("currentStatus") String currentStatus,
+      @Param("newStatus") String newStatus);
+
+  /**
+   * Ids of bookings with the status that ended before the date, in no particular order so
+   * they are read from a single range of the status and end date index without a sort.
+   */
+  @Query("select b.bookingId from Booking b where b.status = :status and b.endDate < :before")
+  List<Long> findIdsByStatusAndEndDateBefore(@Param("status") String status, @Param("before") Date before,
+      Limit limit);
+
+  @Modifying
+  @Query("delete from Booking b where b.bookingId in :ids")
+  int deleteByIds(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Streams every booking with its user and room for the export. Must be consumed inside a
+   * transaction; rows are fetched from the driver in batches instead of all at once.
+   */
+  @QueryHints({
+      @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HINT_READ_ONLY, value = "true")
+  })
+  @Query("select b from Booking b join fetch b.user join fetch b.room order by b.bookingId")
+  Stream<Booking> streamAllForExport();
 }
@@ -0,0 +1,20 @@
+package com.app.octo.repository;
+
+import com.app.octo.model.projection.BookingSummary;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+  /**
+   * Returns up to {@code limit} bookings matching the filter with an id below
+   * {@code afterBookingId} (all when null), newest first.
+   */
+  List<BookingSummary> findPage(BookingFilter filter, Long afterBookingId, int limit);
+
+  /**
+   * Same as {@link #findPage} over both the booking and booking_history tables, in a single
+   * statement.
+   */
+  List<BookingSummary> findPageIncludingHistory(BookingFilter filter, Long afterBookingId, int limit);
+}
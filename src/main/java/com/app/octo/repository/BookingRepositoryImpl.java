@@ -0,0 +1,105 @@
+package com.app.octo.repository;
+
+import com.app.octo.model.Booking;
+import com.app.octo.model.BookingHistory;
+import com.app.octo.model.Room;
+import com.app.octo.model.User;
+import com.app.octo.model.projection.BookingSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keyset pagination on booking_id: each page seeks past the last id of the previous one
+ * instead of skipping rows with an offset, so deep pages cost the same as the first. Only the
+ * listed columns are selected, in a single statement, so no entity is hydrated.
+ *
+ * <p>Pages that include archived bookings run the same query against booking and
+ * booking_history as the two halves of a {@code union all}, each ordered and limited on its
+ * own so both can still seek on their primary key, and merge the halves here.
+ */
+@Transactional(readOnly = true)
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<BookingSummary> findPage(BookingFilter filter, Long afterBookingId, int limit) {
+    return entityManager.createQuery(pageQuery(criteriaBuilder(), Booking.class, filter, afterBookingId))
+        .setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public List<BookingSummary> findPageIncludingHistory(BookingFilter filter, Long afterBookingId, int limit) {
+    HibernateCriteriaBuilder cb = criteriaBuilder();
+    JpaCriteriaQuery<BookingSummary> query = cb.unionAll(
+        pageQuery(cb, Booking.class, filter, afterBookingId).fetch(limit),
+        pageQuery(cb, BookingHistory.class, filter, afterBookingId).fetch(limit));
+
+    // A booking archived between the two halves being read is seen in both
+    Set<Long> seen = new HashSet<>();
+    return entityManager.createQuery(query).getResultList().stream()
+        .sorted(Comparator.comparingLong(BookingSummary::bookingId).reversed())
+        .filter(booking -> seen.add(booking.bookingId()))
+        .limit(limit)
+        .toList();
+  }
+
+  private HibernateCriteriaBuilder criteriaBuilder() {
+    return entityManager.unwrap(Session.class).getCriteriaBuilder();
+  }
+
+  private static JpaCriteriaQuery<BookingSummary> pageQuery(HibernateCriteriaBuilder cb, Class<?> entity,
+      BookingFilter filter, Long afterBookingId) {
+    JpaCriteriaQuery<BookingSummary> query = cb.createQuery(BookingSummary.class);
+    Root<?> booking = query.from(entity);
+    Join<?, User> user = booking.join("user", JoinType.INNER);
+    Join<?, Room> room = booking.join("room", JoinType.INNER);
+
+    List<Predicate> predicates = new ArrayList<>();
+    if (Objects.nonNull(afterBookingId)) {
+      predicates.add(cb.lessThan(booking.get("bookingId"), afterBookingId));
+    }
+    if (Objects.nonNull(filter.getStatus())) {
+      predicates.add(cb.equal(booking.get("status"), filter.getStatus()));
+    }
+    if (Objects.nonNull(filter.getUserId())) {
+      predicates.add(cb.equal(user.get("id"), filter.getUserId()));
+    }
+    if (Objects.nonNull(filter.getUserEmail())) {
+      predicates.add(cb.equal(user.get("email"), filter.getUserEmail()));
+    }
+    if (Objects.nonNull(filter.getRoomId())) {
+      predicates.add(cb.equal(room.get("roomId"), filter.getRoomId()));
+    }
+    if (Objects.nonNull(filter.getFrom())) {
+      predicates.add(cb.greaterThanOrEqualTo(booking.get("endDate"), filter.getFrom()));
+    }
+    if (Objects.nonNull(filter.getTo())) {
+      predicates.add(cb.lessThan(booking.get("startDate"), filter.getTo()));
+    }
+
+    query.select(cb.construct(BookingSummary.class,
+            booking.get("bookingId"), booking.get("bookingDate"), booking.get("endDate"), booking.get("status"),
+            user.get("firstName"), user.get("lastName"), user.get("email"),
+            room.get("roomId"), room.get("roomNumber"), room.get("status"), room.get("floor")))
+        .where(predicates.toArray(new Predicate[0]))
+        .orderBy(cb.desc(booking.get("bookingId")));
+    return query;
+  }
+}
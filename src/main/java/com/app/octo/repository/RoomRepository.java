@@ -1,12 +1,50 @@
 package com.app.octo.repository;
 
+import com.app.octo.dto.response.RoomResponseDTO;
+import com.app.octo.model.CacheRegions;
 import com.app.octo.model.Room;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
   Room findByRoomIdAndStatus(Long id, String status);
 
   boolean existsByRoomNumber(String roomNumber);
+
+  @Query("select r.roomNumber from Room r")
+  List<String> findAllRoomNumbers();
+
+  /**
+   * Cached in the query cache; any write to Room or Category invalidates the cached result.
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.CATALOG_QUERIES)})
+  @Query("select new com.app.octo.dto.response.RoomResponseDTO(r.roomId, r.roomNumber, r.status, r.floor, "
+      + "r.roomDescription, c.categoryId, c.categoryName) from Room r join r.category c order by r.roomId")
+  List<RoomResponseDTO> findAllRoomResponses();
+
+  @Transactional
+  @Modifying
+  @Query("update Room r set r.status = :newStatus, r.version = r.version + 1, r.updatedAt = current_timestamp "
+      + "where r.roomId = :roomId and r.status = :currentStatus")
+  int updateStatusIfCurrent(@Param("roomId") Long roomId, @Param("currentStatus") String currentStatus,
+      @Param("newStatus") String newStatus);
+
+  @Modifying
+  @Query("update Room r set r.status = :newStatus, r.version = r.version + 1, r.updatedAt = current_timestamp "
+      + "where r.roomId in :roomIds and r.status = :currentStatus")
+  int updateStatusForIds(@Param("roomIds") Collection<Long> roomIds, @Param("currentStatus") String currentStatus,
+      @Param("newStatus") String newStatus);
 }
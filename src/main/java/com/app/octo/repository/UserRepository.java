@@ -2,6 +2,9 @@ package com.app.octo.repository;
 
 import com.app.octo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,4 +16,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
   Optional<User> findByEmail(String email);
 
+  @Query("select u.version from User u where u.email = :email")
+  Optional<Long> findVersionByEmail(@Param("email") String email);
+
+  /**
+   * Swaps in a rehashed password without bumping the version, so tokens issued at this
+   * login stay valid. Does nothing if the password was changed in the meantime.
+   */
+  @Transactional
+  @Modifying
+  @Query("update User u set u.password = :password where u.id = :id and u.password = :current")
+  int updatePasswordIfCurrent(@Param("id") Long id, @Param("current") String current,
+      @Param("password") String password);
+
 }
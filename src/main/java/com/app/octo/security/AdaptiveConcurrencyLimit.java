@@ -0,0 +1,110 @@
+package com.app.octo.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global cap on in-flight requests that adapts to latency (AIMD on a latency gradient). Every
+ * {@code window} completed requests the window's average latency, the short-term view, is
+ * compared with a long-term average smoothed over {@code long-windows} windows: if it has grown
+ * past {@code tolerance} times that, the limit is cut by {@code backoff}; otherwise it grows
+ * by one while requests are actually queuing up against it. Requests over the limit are shed
+ * before they reach the database, so latency degrades gently instead of collapsing.
+ *
+ * <p>Both sides average the same mix of fast and slow endpoints, so only a shift in latency
+ * backs off, not the mix itself. The long-term average keeps following the short-term one, so
+ * a backend that became permanently slower becomes the new baseline. Window statistics are
+ * gathered without locks and are approximate under heavy contention.
+ */
+@Component
+public class AdaptiveConcurrencyLimit {
+
+  @Value("${rate-limit.concurrency.initial-limit:200}")
+  private int initialLimit = 200;
+
+  @Value("${rate-limit.concurrency.min-limit:20}")
+  private int minLimit = 20;
+
+  @Value("${rate-limit.concurrency.max-limit:1000}")
+  private int maxLimit = 1000;
+
+  @Value("${rate-limit.concurrency.tolerance:1.5}")
+  private double tolerance = 1.5;
+
+  @Value("${rate-limit.concurrency.backoff:0.9}")
+  private double backoff = 0.9;
+
+  @Value("${rate-limit.concurrency.window:100}")
+  private int window = 100;
+
+  @Value("${rate-limit.concurrency.long-windows:20}")
+  private int longWindows = 20;
+
+  private final AtomicInteger limit = new AtomicInteger();
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private final AtomicLong windowCount = new AtomicLong();
+
+  private final AtomicLong windowLatency = new AtomicLong();
+
+  /**
+   * Only written by the thread that closes a window.
+   */
+  private volatile double longLatency;
+
+  @PostConstruct
+  public void initialise() {
+    limit.set(initialLimit);
+  }
+
+  public boolean tryAcquire() {
+    int current = getLimit();
+    while (true) {
+      int active = inFlight.get();
+      if (active >= current) {
+        return false;
+      }
+      if (inFlight.compareAndSet(active, active + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Gives the slot back and records how long the request took.
+   */
+  public void release(long latencyNanos) {
+    int active = inFlight.getAndDecrement();
+    windowLatency.addAndGet(latencyNanos);
+
+    long count = windowCount.incrementAndGet();
+    if (count >= window && windowCount.compareAndSet(count, 0)) {
+      adjust(windowLatency.getAndSet(0) / count, active);
+    }
+  }
+
+  public int getLimit() {
+    return limit.get();
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private void adjust(long averageLatency, int active) {
+    double baseline = longLatency == 0 ? averageLatency : longLatency;
+    int current = getLimit();
+    if (averageLatency > baseline * tolerance) {
+      limit.set(Math.max(minLimit, (int) (current * backoff)));
+    } else if (active * 2 >= current) {
+      limit.set(Math.min(maxLimit, current + 1));
+    }
+
+    longLatency = baseline + (averageLatency - baseline) / longWindows;
+  }
+}
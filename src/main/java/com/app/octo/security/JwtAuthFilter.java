@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -16,6 +17,7 @@ import java.util.Objects;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
   public static final String BEARER = "Bearer";
+  public static final String STREAM_TICKET = "ticket";
 
   private final UserAuthProvider userAuthProvider;
 
@@ -23,14 +25,23 @@ public class JwtAuthFilter extends OncePerRequestFilter {
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
       FilterChain filterChain) throws ServletException, IOException {
     String header = request.getHeader(HttpHeaders.AUTHORIZATION);
-
-    if (Objects.nonNull(header)) {
+    String ticket = request.getParameter(STREAM_TICKET);
+
+    if (Objects.isNull(header) && Objects.nonNull(ticket) && HttpMethod.GET.matches(request.getMethod())
+        && userAuthProvider.acceptsStreamTicket(pathOf(request))) {
+      try {
+        SecurityContextHolder.getContext().setAuthentication(userAuthProvider.validateStreamTicket(ticket));
+      } catch (RuntimeException e) {
+        SecurityContextHolder.clearContext();
+        throw e;
+      }
+    } else if (Objects.nonNull(header)) {
       String[] elements = header.split(" ");
 
       if (elements.length == 2 && BEARER.equals(elements[0])) {
         try {
           SecurityContextHolder.getContext().setAuthentication(
-              userAuthProvider.validateToken(elements[1])
+              userAuthProvider.validateToken(elements[1], userAuthProvider.requiresFreshUser(pathOf(request)))
           );
         } catch (RuntimeException e) {
           SecurityContextHolder.clearContext();
@@ -40,4 +51,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     }
     filterChain.doFilter(request, response);
   }
+
+  private static String pathOf(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
 }
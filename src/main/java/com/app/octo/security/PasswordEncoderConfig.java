@@ -1,5 +1,6 @@
 package com.app.octo.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -7,8 +8,15 @@ import org.springframework.stereotype.Component;
 
 @Component
 public class PasswordEncoderConfig {
+
+  /**
+   * BCrypt cost. Raising it rehashes each user's password on their next login.
+   */
+  @Value("${security.password.bcrypt-strength:10}")
+  private int strength = 10;
+
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    return new BCryptPasswordEncoder(strength);
   }
 }
@@ -0,0 +1,105 @@
+package com.app.octo.security;
+
+import com.app.octo.config.AppMetrics;
+import com.app.octo.model.enums.ErrorCodes;
+import com.app.octo.model.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on its own pool, sized to the CPU count, so a burst of logins
+ * cannot take every request thread's CPU time. Work beyond the queue is rejected
+ * straight away with 429 instead of piling up behind it.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+  public static final String ENCODE = "encode";
+  public static final String MATCHES = "matches";
+
+  private final PasswordEncoder passwordEncoder;
+
+  private final AppMetrics appMetrics;
+
+  @Value("${security.password.hashing-threads:0}")
+  private int threads;
+
+  @Value("${security.password.queue-capacity:100}")
+  private int queueCapacity = 100;
+
+  private ThreadPoolExecutor executor;
+
+  public PasswordHasher(PasswordEncoder passwordEncoder, AppMetrics appMetrics) {
+    this.passwordEncoder = passwordEncoder;
+    this.appMetrics = appMetrics;
+  }
+
+  @PostConstruct
+  public void initialise() {
+    int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger count = new AtomicInteger();
+    executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+          Thread thread = new Thread(runnable, "password-hasher-" + count.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  public CompletableFuture<String> encode(CharSequence rawPassword) {
+    return submit(ENCODE, () -> passwordEncoder.encode(rawPassword));
+  }
+
+  public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(MATCHES, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+  }
+
+  /**
+   * True when the stored hash was made with a lower cost than the encoder now uses.
+   */
+  public boolean upgradeEncoding(String encodedPassword) {
+    return passwordEncoder.upgradeEncoding(encodedPassword);
+  }
+
+  public int getQueueDepth() {
+    return executor.getQueue().size();
+  }
+
+  public int getActiveCount() {
+    return executor.getActiveCount();
+  }
+
+  private <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+    try {
+      return CompletableFuture.supplyAsync(() -> {
+        long start = System.nanoTime();
+        try {
+          return task.get();
+        } finally {
+          appMetrics.recordPasswordHashing(operation, System.nanoTime() - start);
+        }
+      }, executor);
+    } catch (RejectedExecutionException e) {
+      log.debug("Password hashing queue is full, rejecting");
+      return CompletableFuture.failedFuture(new TooManyRequestsException(ErrorCodes.PASSWORD_HASHING_BUSY));
+    }
+  }
+}
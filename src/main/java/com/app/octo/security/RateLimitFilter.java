@@ -0,0 +1,262 @@
+package com.app.octo.security;
+
+import com.app.octo.model.enums.ErrorCodes;
+import com.app.octo.model.response.BaseResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control in front of authentication. Requests in a rate-limited path group take
+ * a token from the bucket of their client IP and, when they carry a valid bearer token, from
+ * the bucket of its subject. Every request then needs a slot from the
+ * {@link AdaptiveConcurrencyLimit}. Rejections write a pre-serialized body and never touch
+ * the database or build an exception.
+ *
+ * <p>Buckets are created on first use and dropped after {@code rate-limit.idle-expiry-seconds}
+ * without requests. The client IP is the remote address, which Tomcat resolves from
+ * {@code X-Forwarded-For} when the request came through a trusted proxy, see
+ * {@code server.forward-headers-strategy} in {@code application.properties}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  public static final String BEARER = "Bearer ";
+
+  private final UserAuthProvider userAuthProvider;
+
+  private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+  @Value("${rate-limit.enabled:true}")
+  private boolean enabled = true;
+
+  @Value("${rate-limit.users.capacity:10}")
+  private int usersCapacity = 10;
+
+  @Value("${rate-limit.users.refill-per-second:2}")
+  private double usersRefill = 2;
+
+  @Value("${rate-limit.admin.capacity:50}")
+  private int adminCapacity = 50;
+
+  @Value("${rate-limit.admin.refill-per-second:20}")
+  private double adminRefill = 20;
+
+  @Value("${rate-limit.public.capacity:100}")
+  private int publicCapacity = 100;
+
+  @Value("${rate-limit.public.refill-per-second:50}")
+  private double publicRefill = 50;
+
+  @Value("${rate-limit.idle-expiry-seconds:600}")
+  private long idleExpirySeconds = 600;
+
+  @Value("${rate-limit.max-keys:100000}")
+  private long maxKeys = 100000;
+
+  /**
+   * Long-lived responses that would hold a concurrency slot for minutes, and metrics scrapes,
+   * which must keep working while the application sheds load.
+   */
+  @Value("${rate-limit.concurrency.exclude:/api/v2/rooms/stream,/api/v1/booking/admin/export,/actuator/**}")
+  private String[] concurrencyExclusions = new String[0];
+
+  private List<PathGroup> groups;
+
+  private Cache<String, TokenBucket> buckets;
+
+  private byte[] rateLimitedBody;
+
+  private byte[] overloadedBody;
+
+  private final LongAdder rateLimited = new LongAdder();
+
+  private final LongAdder shed = new LongAdder();
+
+  public RateLimitFilter(UserAuthProvider userAuthProvider, AdaptiveConcurrencyLimit concurrencyLimit) {
+    this.userAuthProvider = userAuthProvider;
+    this.concurrencyLimit = concurrencyLimit;
+  }
+
+  @PostConstruct
+  public void initialise() throws JsonProcessingException {
+    // First match wins: /users/public/** belongs to the stricter users group, whose endpoints hash passwords
+    groups = List.of(
+        new PathGroup("users", "/api/v1/users/**", usersCapacity, usersRefill),
+        new PathGroup("admin", "/api/v1/*/admin/**", adminCapacity, adminRefill),
+        new PathGroup("public", "/api/v1/*/public/**", publicCapacity, publicRefill));
+    buckets = Caffeine.newBuilder()
+        .expireAfterAccess(idleExpirySeconds, TimeUnit.SECONDS)
+        .maximumSize(maxKeys)
+        .build();
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    rateLimitedBody = objectMapper.writeValueAsBytes(error(HttpStatus.TOO_MANY_REQUESTS, ErrorCodes.RATE_LIMITED));
+    overloadedBody = objectMapper.writeValueAsBytes(error(HttpStatus.SERVICE_UNAVAILABLE, ErrorCodes.OVERLOADED));
+  }
+
+  public long getRateLimitedCount() {
+    return rateLimited.sum();
+  }
+
+  public long getShedCount() {
+    return shed.sum();
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    if (!enabled) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    PathGroup group = groupOf(path);
+    if (Objects.nonNull(group)) {
+      long now = System.nanoTime();
+      long wait = take(group, "ip:" + request.getRemoteAddr(), now);
+      if (wait == 0) {
+        String subject = subject(request);
+        wait = Objects.isNull(subject) ? 0 : take(group, "sub:" + subject, now);
+      }
+      if (wait > 0) {
+        rateLimited.increment();
+        reject(response, HttpStatus.TOO_MANY_REQUESTS, rateLimitedBody,
+            Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1)));
+        return;
+      }
+    }
+
+    if (isExcluded(path)) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    if (!concurrencyLimit.tryAcquire()) {
+      shed.increment();
+      reject(response, HttpStatus.SERVICE_UNAVAILABLE, overloadedBody, 1);
+      return;
+    }
+
+    long start = System.nanoTime();
+    boolean async = false;
+    try {
+      filterChain.doFilter(request, response);
+      if (request.isAsyncStarted()) {
+        // The request is still being worked on; give the slot back when it really finishes
+        request.getAsyncContext().addListener(new ReleaseOnCompletion(start));
+        async = true;
+      }
+    } finally {
+      if (!async) {
+        concurrencyLimit.release(System.nanoTime() - start);
+      }
+    }
+  }
+
+  private PathGroup groupOf(String path) {
+    for (PathGroup group : groups) {
+      if (pathMatcher.match(group.pattern(), path)) {
+        return group;
+      }
+    }
+    return null;
+  }
+
+  private boolean isExcluded(String path) {
+    return Arrays.stream(concurrencyExclusions).anyMatch(pattern -> pathMatcher.match(pattern.trim(), path));
+  }
+
+  private long take(PathGroup group, String key, long now) {
+    return buckets.get(group.name() + '|' + key,
+        ignored -> new TokenBucket(group.capacity(), group.refillPerSecond(), now)).tryConsume(now);
+  }
+
+  private String subject(HttpServletRequest request) {
+    String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+    if (Objects.isNull(header) || !header.startsWith(BEARER)) {
+      return null;
+    }
+    return userAuthProvider.verifiedSubject(header.substring(BEARER.length()));
+  }
+
+  private static void reject(HttpServletResponse response, HttpStatus status, byte[] body, long retryAfterSeconds)
+      throws IOException {
+    response.setStatus(status.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  private static BaseResponse error(HttpStatus status, ErrorCodes code) {
+    BaseResponse response = new BaseResponse();
+    response.setErrorCode(status.name());
+    response.setErrorMessage(code.getMessage());
+    return response;
+  }
+
+  private record PathGroup(String name, String pattern, int capacity, double refillPerSecond) {
+  }
+
+  private class ReleaseOnCompletion implements AsyncListener {
+    private final long start;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private ReleaseOnCompletion(long start) {
+      this.start = start;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
+    }
+
+    private void release() {
+      if (released.compareAndSet(false, true)) {
+        concurrencyLimit.release(System.nanoTime() - start);
+      }
+    }
+  }
+}
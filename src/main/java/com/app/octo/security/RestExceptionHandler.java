@@ -1,20 +1,86 @@
 package com.app.octo.security;
 
 import com.app.octo.dto.ErrorInfoDTO;
+import com.app.octo.model.enums.ErrorCodes;
 import com.app.octo.model.exception.AppException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns every error thrown by a controller, or completing one of its futures, into an
+ * {@code {errorCode, errorMessage}} body. Errors with a known {@link ErrorCodes} value are
+ * written from bodies serialized once per status, so a rejected request costs no Jackson
+ * work. Spring MVC's own exceptions keep their usual status through the superclass.
+ */
+@Slf4j
 @ControllerAdvice
-public class RestExceptionHandler {
+public class RestExceptionHandler extends ResponseEntityExceptionHandler {
+
+  public static final String RETRY_AFTER_SECONDS = "1";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final Map<HttpStatus, Map<ErrorCodes, byte[]>> bodies = new ConcurrentHashMap<>();
 
   @ExceptionHandler(value = {AppException.class})
   @ResponseBody
-  public ResponseEntity<ErrorInfoDTO> handleException(AppException appException) {
-    return ResponseEntity.status(appException.getCode()).body(ErrorInfoDTO.builder()
-        .errorCode(appException.getMessage())
-        .errorMessage(appException.getMessage()).build());
+  public ResponseEntity<byte[]> handleException(AppException appException) {
+    byte[] body = Objects.nonNull(appException.getErrorCode())
+        ? body(appException.getCode(), appException.getErrorCode())
+        : serialize(appException.getCode(), appException.getMessage());
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.status(appException.getCode())
+        .contentType(MediaType.APPLICATION_JSON);
+    if (HttpStatus.TOO_MANY_REQUESTS.equals(appException.getCode())
+        || HttpStatus.SERVICE_UNAVAILABLE.equals(appException.getCode())) {
+      response.header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+    }
+    return response.body(body);
+  }
+
+  @ExceptionHandler(value = {Exception.class})
+  @ResponseBody
+  public ResponseEntity<byte[]> handleUnexpected(Exception exception) {
+    log.error("Unhandled error", exception);
+    return ResponseEntity.internalServerError()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(body(HttpStatus.INTERNAL_SERVER_ERROR, ErrorCodes.INTERNAL_SERVER_ERROR));
+  }
+
+  /**
+   * The body for a code, serializing all codes for the status the first time it is seen.
+   */
+  byte[] body(HttpStatus status, ErrorCodes errorCode) {
+    return bodies.computeIfAbsent(status, key -> {
+      Map<ErrorCodes, byte[]> serialized = new EnumMap<>(ErrorCodes.class);
+      for (ErrorCodes code : ErrorCodes.values()) {
+        serialized.put(code, serialize(key, code.getMessage()));
+      }
+      return serialized;
+    }).get(errorCode);
+  }
+
+  private byte[] serialize(HttpStatus status, String message) {
+    try {
+      return objectMapper.writeValueAsBytes(ErrorInfoDTO.builder()
+          .errorCode(status.name())
+          .errorMessage(message).build());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Error body could not be serialized", e);
+    }
   }
 }
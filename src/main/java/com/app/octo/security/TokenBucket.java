@@ -0,0 +1,42 @@
+package com.app.octo.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. The whole state is one timestamp, the time at which the bucket
+ * would be full again (the GCRA form of a token bucket), so taking a token is a single
+ * compare-and-set.
+ */
+final class TokenBucket {
+
+  private final long emissionNanos;
+
+  private final long toleranceNanos;
+
+  private final AtomicLong fullAt;
+
+  TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+    this.emissionNanos = (long) (1_000_000_000L / refillPerSecond);
+    this.toleranceNanos = emissionNanos * capacity;
+    this.fullAt = new AtomicLong(nowNanos);
+  }
+
+  /**
+   * Takes a token if one is available.
+   *
+   * @return 0 when a token was taken, otherwise the nanoseconds until one will be
+   */
+  long tryConsume(long nowNanos) {
+    while (true) {
+      long current = fullAt.get();
+      long next = Math.max(current, nowNanos) + emissionNanos;
+      long wait = next - nowNanos - toleranceNanos;
+      if (wait > 0) {
+        return wait;
+      }
+      if (fullAt.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+}
@@ -1,67 +1,317 @@
 package com.app.octo.security;
 
+import com.app.octo.config.AppMetrics;
+import com.app.octo.model.enums.UserRole;
+import com.app.octo.model.event.UserChangedEvent;
 import com.app.octo.model.response.UserResponse;
 import com.app.octo.service.UserService;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
 public class UserAuthProvider {
   public static final int VALIDITY = 3600000;
+  public static final String CLAIM_ROLES = "roles";
+  public static final String CLAIM_USER_ID = "uid";
+  public static final String CLAIM_FIRST_NAME = "fn";
+  public static final String CLAIM_LAST_NAME = "ln";
+  public static final String CLAIM_VERSION = "ver";
+  public static final String CLAIM_SCOPE = "scope";
+  public static final String SCOPE_STREAM = "stream";
 
   @Value("${security.jwt.token.secret-key:secret-key}")
   private String secretKey;
 
+  /**
+   * When enabled, tokens carry the user's id, names, role and version so requests can be
+   * authenticated from the claims alone.
+   */
+  @Value("${security.jwt.token.self-contained:false}")
+  private boolean selfContained;
+
+  @Value("${security.jwt.token.self-contained-validity-ms:300000}")
+  private long selfContainedValidity = 300000;
+
+  /**
+   * Paths where a self-contained token must still match the user's current version. Plain
+   * tokens are always checked against the database, so these paths do not affect them.
+   */
+  @Value("${security.jwt.fresh-paths:/api/v1/users/public/**,/api/v2/users/**}")
+  private String[] freshPaths = new String[0];
+
+  /**
+   * Paths that also accept a stream ticket as a query parameter, for EventSource clients
+   * that cannot set the Authorization header.
+   */
+  @Value("${security.jwt.stream-paths:/api/v2/rooms/stream}")
+  private String[] streamPaths = new String[0];
+
+  @Value("${security.jwt.stream-ticket-validity-ms:60000}")
+  private long streamTicketValidity = 60000;
+
+  @Value("${security.jwt.cache.max-size:10000}")
+  private long cacheMaxSize = 10000;
+
+  @Value("${security.jwt.cache.ttl-seconds:300}")
+  private long cacheTtlSeconds = 300;
+
   private final UserService userService;
 
+  private final AppMetrics appMetrics;
+
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+  private Algorithm algorithm;
+
+  private JWTVerifier jwtVerifier;
+
+  /**
+   * Validated tokens keyed by their SHA-256 hash. An entry never outlives the token it was built from.
+   */
+  private Cache<String, CachedAuthentication> authentications;
+
   @PostConstruct
   protected void initialise() {
     secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
+    algorithm = Algorithm.HMAC256(secretKey);
+    jwtVerifier = JWT.require(algorithm).build();
+    authentications = Caffeine.newBuilder()
+        .maximumSize(cacheMaxSize)
+        .expireAfter(new TokenExpiry(TimeUnit.SECONDS.toNanos(cacheTtlSeconds)))
+        .build();
   }
 
   public String generateToken(String login, String role) {
     Date now = new Date();
     Date validUntil = new Date(now.getTime() + VALIDITY);
 
-    Algorithm algorithm = Algorithm.HMAC256(secretKey);
     String[] roles = new String[]{role};
 
     return JWT.create().withIssuer(login).withIssuedAt(now)
         .withExpiresAt(validUntil)
-        .withArrayClaim("roles", roles)
+        .withArrayClaim(CLAIM_ROLES, roles)
+        .sign(algorithm);
+  }
+
+  /**
+   * Issues a self-contained token when that mode is enabled, otherwise a plain one.
+   */
+  public String generateToken(UserResponse user) {
+    if (!selfContained || Objects.isNull(user.getId())) {
+      return generateToken(user.getEmail(), user.getUserRole().name());
+    }
+
+    Date now = new Date();
+    Date validUntil = new Date(now.getTime() + selfContainedValidity);
+
+    return JWT.create().withIssuer(user.getEmail()).withIssuedAt(now)
+        .withExpiresAt(validUntil)
+        .withArrayClaim(CLAIM_ROLES, new String[]{user.getUserRole().name()})
+        .withClaim(CLAIM_USER_ID, user.getId())
+        .withClaim(CLAIM_FIRST_NAME, user.getFirstName())
+        .withClaim(CLAIM_LAST_NAME, user.getLastName())
+        .withClaim(CLAIM_VERSION, user.getVersion())
+        .sign(algorithm);
+  }
+
+  /**
+   * Issues a short-lived ticket that is only accepted on the stream paths. It ends up in the
+   * URL and so in access logs, which is why it expires quickly and cannot be used as a
+   * bearer token.
+   */
+  public String generateStreamTicket(UserResponse user) {
+    Date now = new Date();
+    Date validUntil = new Date(now.getTime() + streamTicketValidity);
+
+    return JWT.create().withIssuer(user.getEmail()).withIssuedAt(now)
+        .withExpiresAt(validUntil)
+        .withArrayClaim(CLAIM_ROLES, new String[]{user.getUserRole().name()})
+        .withClaim(CLAIM_SCOPE, SCOPE_STREAM)
         .sign(algorithm);
   }
 
+  public long getStreamTicketValidity() {
+    return streamTicketValidity;
+  }
+
+  /**
+   * Validates a stream ticket against the database. Tickets are not cached: each one is
+   * presented once per connection.
+   */
+  public Authentication validateStreamTicket(String ticket) {
+    long start = System.nanoTime();
+    try {
+      DecodedJWT decodedJWT = jwtVerifier.verify(ticket);
+      if (!SCOPE_STREAM.equals(decodedJWT.getClaim(CLAIM_SCOPE).asString())) {
+        throw new JWTVerificationException("Not a stream ticket");
+      }
+
+      UserResponse user = userService.findByEmail(decodedJWT.getIssuer());
+      appMetrics.recordTokenValidation(AppMetrics.JWT_DATABASE, System.nanoTime() - start);
+      return new UsernamePasswordAuthenticationToken(user, null, authorities(decodedJWT));
+    } catch (RuntimeException e) {
+      appMetrics.recordTokenValidation(AppMetrics.JWT_INVALID, System.nanoTime() - start);
+      throw e;
+    }
+  }
+
   public Authentication validateToken(String token) {
-    Algorithm algorithm = Algorithm.HMAC256(secretKey);
+    return validateToken(token, false);
+  }
+
+  /**
+   * Validates the token and builds its principal. With {@code requireFreshUser} a
+   * self-contained token is checked against the user's current version. Only plain tokens,
+   * whose user was loaded from the database, are cached, and a change to the user evicts
+   * them, so the cache is used on every path.
+   */
+  public Authentication validateToken(String token, boolean requireFreshUser) {
+    long start = System.nanoTime();
+    String tokenHash = hash(token);
+    CachedAuthentication cached = authentications.getIfPresent(tokenHash);
+    if (Objects.nonNull(cached) && cached.expiresAt() > System.currentTimeMillis()) {
+      appMetrics.recordTokenValidation(AppMetrics.JWT_CACHE, System.nanoTime() - start);
+      return cached.authentication();
+    }
+
+    try {
+      DecodedJWT decodedJWT = jwtVerifier.verify(token); //Decoded to check validity
+
+      if (!decodedJWT.getClaim(CLAIM_SCOPE).isMissing()) {
+        throw new JWTVerificationException("Stream tickets are not bearer tokens");
+      }
+
+      if (!decodedJWT.getClaim(CLAIM_USER_ID).isMissing()) {
+        Authentication authentication = fromClaims(decodedJWT, requireFreshUser);
+        appMetrics.recordTokenValidation(AppMetrics.JWT_CLAIMS, System.nanoTime() - start);
+        return authentication;
+      }
 
-    JWTVerifier jwtVerifier = JWT.require(algorithm).build();
+      UserResponse user = userService.findByEmail(decodedJWT.getIssuer());
+      Authentication authentication = new UsernamePasswordAuthenticationToken(user, null,
+          authorities(decodedJWT));
+      authentications.put(tokenHash, new CachedAuthentication(authentication, decodedJWT.getIssuer(),
+          decodedJWT.getExpiresAt().getTime()));
+      appMetrics.recordTokenValidation(AppMetrics.JWT_DATABASE, System.nanoTime() - start);
+      return authentication;
+    } catch (RuntimeException e) {
+      appMetrics.recordTokenValidation(AppMetrics.JWT_INVALID, System.nanoTime() - start);
+      throw e;
+    }
+  }
+
+  /**
+   * The email a token was issued to, or null when it is not a valid token. Only checks the
+   * signature and expiry, so it never touches the database.
+   */
+  public String verifiedSubject(String token) {
+    try {
+      return jwtVerifier.verify(token).getIssuer();
+    } catch (JWTVerificationException e) {
+      return null;
+    }
+  }
 
-    DecodedJWT decodedJWT = jwtVerifier.verify(token); //Decoded to check validity
+  public boolean requiresFreshUser(String path) {
+    return Arrays.stream(freshPaths).anyMatch(pattern -> pathMatcher.match(pattern.trim(), path));
+  }
 
-    UserResponse user = userService.findByEmail(decodedJWT.getIssuer());
-    String[] roles = decodedJWT.getClaim("roles").asArray(String.class);
+  public boolean acceptsStreamTicket(String path) {
+    return Arrays.stream(streamPaths).anyMatch(pattern -> pathMatcher.match(pattern.trim(), path));
+  }
+
+  @EventListener
+  public void onUserChanged(UserChangedEvent event) {
+    authentications.asMap().values().removeIf(cached -> Objects.equals(cached.email(), event.email()));
+  }
+
+  private Authentication fromClaims(DecodedJWT decodedJWT, boolean requireFreshUser) {
+    String[] roles = decodedJWT.getClaim(CLAIM_ROLES).asArray(String.class);
+    UserResponse user = UserResponse.builder()
+        .id(decodedJWT.getClaim(CLAIM_USER_ID).asLong())
+        .email(decodedJWT.getIssuer())
+        .firstName(decodedJWT.getClaim(CLAIM_FIRST_NAME).asString())
+        .lastName(decodedJWT.getClaim(CLAIM_LAST_NAME).asString())
+        .userRole(UserRole.valueOf(roles[0]))
+        .version(decodedJWT.getClaim(CLAIM_VERSION).asLong())
+        .build();
+
+    if (requireFreshUser && userService.findVersion(user.getEmail()) != user.getVersion()) {
+      throw new JWTVerificationException("Token was issued before the user's last change");
+    }
+
+    return new UsernamePasswordAuthenticationToken(user, null, authorities(decodedJWT));
+  }
+
+  private static Collection<SimpleGrantedAuthority> authorities(DecodedJWT decodedJWT) {
+    String[] roles = decodedJWT.getClaim(CLAIM_ROLES).asArray(String.class);
     Collection<SimpleGrantedAuthority> authorityCollections = new ArrayList<>();
     Arrays.stream(roles).forEach(role ->
       authorityCollections.add(new SimpleGrantedAuthority(role))
     );
+    return authorityCollections;
+  }
+
+  private static String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private record CachedAuthentication(Authentication authentication, String email, long expiresAt) {
+  }
+
+  /**
+   * Expires an entry after the configured TTL or when its token expires, whichever comes first.
+   */
+  private record TokenExpiry(long ttlNanos) implements Expiry<String, CachedAuthentication> {
+
+    @Override
+    public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+      long untilTokenExpiry = TimeUnit.MILLISECONDS.toNanos(value.expiresAt() - System.currentTimeMillis());
+      return Math.max(0, Math.min(ttlNanos, untilTokenExpiry));
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime,
+        long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
 
-    return new UsernamePasswordAuthenticationToken(user, null, authorityCollections);
+    @Override
+    public long expireAfterRead(String key, CachedAuthentication value, long currentTime,
+        long currentDuration) {
+      return currentDuration;
+    }
   }
 }
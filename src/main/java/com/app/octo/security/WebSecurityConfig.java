@@ -1,6 +1,9 @@
 package com.app.octo.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -17,6 +20,7 @@ public class WebSecurityConfig {
 
   private final UserAuthenticationEntryPoint userAuthenticationEntryPoint;
   private final UserAuthProvider userAuthProvider;
+  private final RateLimitFilter rateLimitFilter;
 
   @Bean
   public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
@@ -25,13 +29,20 @@ public class WebSecurityConfig {
             exception.authenticationEntryPoint(userAuthenticationEntryPoint))
         .addFilterBefore(new JwtAuthFilter(userAuthProvider),
             BasicAuthenticationFilter.class)
+        // Rejects over-limit requests before the token is resolved against the database
+        .addFilterBefore(rateLimitFilter, JwtAuthFilter.class)
         .csrf(csrf -> csrf.disable())
         .sessionManagement(sessionManagement -> sessionManagement.sessionCreationPolicy(
             SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(requests -> requests
+            // Streaming responses finish on an async dispatch; the request was authorized on entry
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+            // Actuator is only served on the internal management port
+            .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll()
             .requestMatchers("/api/v1/*/admin/**").hasRole("ADMIN")
             .requestMatchers("/api/v1/*/public/**").authenticated()
             .requestMatchers("/api/v1/*/public-all-access/**").permitAll()
+            .requestMatchers(HttpMethod.GET, "/api/v2/**").authenticated()
             .requestMatchers("/v3/api-docs/**").permitAll()
             .requestMatchers("/swagger-ui/**").permitAll()
             .requestMatchers(HttpMethod.POST, "/api/v1/users/**").permitAll()
@@ -40,4 +51,14 @@ public class WebSecurityConfig {
     return httpSecurity.build();
   }
 
+  /**
+   * The rate limit filter only runs inside the security chain, not a second time as a servlet filter.
+   */
+  @Bean
+  public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+    FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+    registration.setEnabled(false);
+    return registration;
+  }
+
 }
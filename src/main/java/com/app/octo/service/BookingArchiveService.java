@@ -0,0 +1,9 @@
+package com.app.octo.service;
+
+import java.util.Date;
+
+public interface BookingArchiveService {
+  int archiveBookings();
+
+  Date archiveCutoff();
+}
@@ -0,0 +1,14 @@
+package com.app.octo.service;
+
+import com.app.octo.model.request.BookingRequest;
+import com.app.octo.model.response.BookingPipelineStatsResponse;
+import com.app.octo.model.response.BookingResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface BookingCommandService {
+  CompletableFuture<BookingResponse> bookRoom(BookingRequest request);
+  CompletableFuture<BookingResponse> cancelBooking(Long id);
+  CompletableFuture<BookingResponse> doneBooking(Long id);
+  BookingPipelineStatsResponse getStats();
+}
@@ -0,0 +1,10 @@
+package com.app.octo.service;
+
+import com.app.octo.model.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookingExportService {
+  long exportBookings(ExportFormat format, OutputStream outputStream) throws IOException;
+}
@@ -1,9 +1,10 @@
 package com.app.octo.service;
 
 import com.app.octo.model.request.BookingRequest;
+import com.app.octo.model.request.BookingSearchRequest;
 import com.app.octo.model.request.GetAllByStatusRequest;
 import com.app.octo.model.response.BookingResponse;
-import com.app.octo.model.response.ListResponse;
+import com.app.octo.model.response.PageResponse;
 
 import java.util.List;
 
@@ -12,7 +13,9 @@ public interface BookingService {
 
   BookingResponse cancelBooking(Long id);
   BookingResponse doneBooking(Long id);
-  ListResponse<BookingResponse> changeStatusAfterTime();
-  ListResponse<BookingResponse> getAllByStatus(GetAllByStatusRequest request) throws Exception;
-  ListResponse<BookingResponse> getAll() throws Exception;
+  List<Long> changeStatusAfterTime();
+  List<Long> completeExpiredBookings();
+  List<Long> sweepExpiredBookings();
+  PageResponse<BookingResponse> getAllByStatus(GetAllByStatusRequest request);
+  PageResponse<BookingResponse> getAll(BookingSearchRequest request);
 }
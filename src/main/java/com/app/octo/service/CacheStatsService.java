@@ -0,0 +1,7 @@
+package com.app.octo.service;
+
+import com.app.octo.model.response.CacheStatsResponse;
+
+public interface CacheStatsService {
+  CacheStatsResponse getCatalogCacheStats();
+}
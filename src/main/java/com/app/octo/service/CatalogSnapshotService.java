@@ -0,0 +1,8 @@
+package com.app.octo.service;
+
+import com.app.octo.model.response.CatalogSnapshot;
+
+public interface CatalogSnapshotService {
+  CatalogSnapshot getCategories();
+  CatalogSnapshot getRooms();
+}
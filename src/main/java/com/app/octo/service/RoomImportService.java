@@ -0,0 +1,11 @@
+package com.app.octo.service;
+
+import com.app.octo.model.response.RoomImportResponse;
+
+import java.io.InputStream;
+
+public interface RoomImportService {
+  RoomImportResponse importJson(InputStream inputStream);
+
+  RoomImportResponse importCsv(InputStream inputStream);
+}
@@ -9,6 +9,7 @@ import java.util.List;
 
 public interface RoomService {
     List<RoomResponseDTO> getAllRooms();
+    List<RoomResponseDTO> getAvailableRooms();
     RoomResponseDTO getRoomById(RoomIdRequestDTO roomIdRequest);
     RoomResponseDTO createRoom(RoomRequestDTO roomRequest);
     RoomResponseDTO updateStatus(RoomUpdateStatusRequestDTO roomUpdateStatus);
@@ -0,0 +1,8 @@
+package com.app.octo.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface RoomStatusStreamService {
+  SseEmitter subscribe(String lastEventId);
+  int subscriberCount();
+}
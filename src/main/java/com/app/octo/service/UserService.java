@@ -6,12 +6,15 @@ import com.app.octo.model.request.LoginRequest;
 import com.app.octo.model.request.RegisterRequest;
 import com.app.octo.model.response.UserResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface UserService {
   UserResponse findByEmail(String email);
-  UserResponse register(RegisterRequest registerRequest);
-  UserResponse login(LoginRequest loginRequest);
-  UserResponse registerAdmin(RegisterRequest registerRequest);
-  UserResponse registerEmployee(RegisterRequest registerRequest);
-  UserResponse editUserProfile(EditProfileRequest editProfileRequest);
-  UserResponse editPassword(EditPasswordRequest editPasswordRequest);
+  long findVersion(String email);
+  CompletableFuture<UserResponse> register(RegisterRequest registerRequest);
+  CompletableFuture<UserResponse> login(LoginRequest loginRequest);
+  CompletableFuture<UserResponse> registerAdmin(RegisterRequest registerRequest);
+  CompletableFuture<UserResponse> registerEmployee(RegisterRequest registerRequest);
+  CompletableFuture<UserResponse> editUserProfile(EditProfileRequest editProfileRequest);
+  CompletableFuture<UserResponse> editPassword(EditPasswordRequest editPasswordRequest);
 }
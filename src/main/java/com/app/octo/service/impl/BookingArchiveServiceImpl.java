@@ -0,0 +1,91 @@
+package com.app.octo.service.impl;
+
+import com.app.octo.repository.BookingHistoryRepository;
+import com.app.octo.repository.BookingRepository;
+import com.app.octo.service.BookingArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.time.DateUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Moves DONE and CANCELLED bookings whose end date is more than {@code after-days} old from
+ * booking to booking_history, one status at a time. Each batch is copied and deleted in its
+ * own short transaction, and a run stops after {@code max-batches}, so a large backlog is
+ * worked off over several runs without holding locks on the hot table for long.
+ *
+ * <p>Listings skip booking_history for ranges after {@link #archiveCutoff()}. Raising
+ * {@code after-days} is safe for that once the rows archived under the old value have aged
+ * past the new one; until then recent ranges may miss them.
+ */
+@Slf4j
+@Service
+public class BookingArchiveServiceImpl implements BookingArchiveService {
+
+  public static final List<String> ARCHIVED_STATUSES = List.of("DONE", "CANCELLED");
+
+  private final BookingRepository bookingRepository;
+
+  private final BookingHistoryRepository bookingHistoryRepository;
+
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${bookings.archive.after-days:90}")
+  private int afterDays = 90;
+
+  @Value("${bookings.archive.batch-size:1000}")
+  private int batchSize = 1000;
+
+  @Value("${bookings.archive.max-batches:50}")
+  private int maxBatches = 50;
+
+  public BookingArchiveServiceImpl(BookingRepository bookingRepository,
+      BookingHistoryRepository bookingHistoryRepository, PlatformTransactionManager transactionManager) {
+    this.bookingRepository = bookingRepository;
+    this.bookingHistoryRepository = bookingHistoryRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Returns how many bookings were moved.
+   */
+  @Override
+  public int archiveBookings() {
+    Date cutoff = archiveCutoff();
+    int archived = 0;
+    int batches = 0;
+    for (String status : ARCHIVED_STATUSES) {
+      int moved = batchSize;
+      while (moved == batchSize && batches++ < maxBatches) {
+        moved = Objects.requireNonNullElse(transactionTemplate.execute(tx -> archiveBatch(status, cutoff)), 0);
+        archived += moved;
+      }
+    }
+    return archived;
+  }
+
+  private int archiveBatch(String status, Date cutoff) {
+    List<Long> ids = bookingRepository.findIdsByStatusAndEndDateBefore(status, cutoff, Limit.of(batchSize));
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    bookingHistoryRepository.copyFromBookings(ids, new Date());
+    bookingRepository.deleteByIds(ids);
+    return ids.size();
+  }
+
+  /**
+   * Every archived booking ended before this instant; later ones are always in booking.
+   */
+  @Override
+  public Date archiveCutoff() {
+    return DateUtils.addDays(new Date(), -afterDays);
+  }
+}
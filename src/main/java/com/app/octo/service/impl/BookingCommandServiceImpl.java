@@ -0,0 +1,314 @@
+package com.app.octo.service.impl;
+
+import com.app.octo.config.AppMetrics;
+import com.app.octo.model.enums.ErrorCodes;
+import com.app.octo.model.exception.AppException;
+import com.app.octo.model.exception.ServiceUnavailableException;
+import com.app.octo.model.exception.TooManyRequestsException;
+import com.app.octo.model.request.BookingRequest;
+import com.app.octo.model.response.BookingPipelineStatsResponse;
+import com.app.octo.model.response.BookingResponse;
+import com.app.octo.service.BookingCommandService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Front door for booking writes. By default commands run on the caller's thread, as
+ * {@link BookingServiceImpl} always did.
+ *
+ * <p>With {@code booking.pipeline.enabled} they are queued instead, partitioned by room, and
+ * each partition has one writer thread that applies its commands in arrival order. The writer
+ * drains up to {@code batch-size} commands and commits them in a single transaction; a batch
+ * never holds two commands for the same room, so each one sees the committed result of the
+ * one before it. Futures complete once the batch has committed. If the batch fails as a whole
+ * its commands are replayed one by one. A full queue is rejected straight away with 429.
+ * Queued bookings are timed like inline ones, from enqueue to completion.
+ */
+@Slf4j
+@Service
+public class BookingCommandServiceImpl implements BookingCommandService {
+
+  public static final String CANCELLED = "CANCELLED";
+  public static final String DONE = "DONE";
+
+  private final BookingServiceImpl bookingService;
+
+  private final BookingExpiryQueue bookingExpiryQueue;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final AppMetrics appMetrics;
+
+  @Value("${booking.pipeline.enabled:false}")
+  private boolean enabled;
+
+  @Value("${booking.pipeline.partitions:4}")
+  private int partitionCount = 4;
+
+  @Value("${booking.pipeline.queue-capacity:1024}")
+  private int queueCapacity = 1024;
+
+  @Value("${booking.pipeline.batch-size:32}")
+  private int batchSize = 32;
+
+  private final List<Partition> partitions = new ArrayList<>();
+
+  private volatile boolean running;
+
+  private final LongAdder submitted = new LongAdder();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder latencyNanos = new LongAdder();
+  private final LongAccumulator maxLatencyNanos = new LongAccumulator(Long::max, 0);
+
+  public BookingCommandServiceImpl(BookingServiceImpl bookingService, BookingExpiryQueue bookingExpiryQueue,
+      PlatformTransactionManager transactionManager, AppMetrics appMetrics) {
+    this.bookingService = bookingService;
+    this.bookingExpiryQueue = bookingExpiryQueue;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.appMetrics = appMetrics;
+  }
+
+  @PostConstruct
+  public void initialise() {
+    if (!enabled) {
+      return;
+    }
+
+    running = true;
+    for (int i = 0; i < partitionCount; i++) {
+      Partition partition = new Partition(i, new ArrayBlockingQueue<>(queueCapacity));
+      Thread writer = new Thread(() -> write(partition), "booking-writer-" + i);
+      writer.setDaemon(true);
+      partition.writer = writer;
+      partitions.add(partition);
+      writer.start();
+    }
+    log.info("Booking pipeline started with {} partitions of {} commands", partitionCount, queueCapacity);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    running = false;
+    partitions.forEach(partition -> partition.writer.interrupt());
+    for (Partition partition : partitions) {
+      try {
+        partition.writer.join(TimeUnit.SECONDS.toMillis(5));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      Command command;
+      while ((command = partition.queue.poll()) != null) {
+        fail(command, new ServiceUnavailableException(ErrorCodes.BOOKING_PIPELINE_STOPPED));
+      }
+    }
+  }
+
+  @Override
+  public CompletableFuture<BookingResponse> bookRoom(BookingRequest request) {
+    if (!enabled) {
+      return inline(() -> bookingService.bookRoom(request));
+    }
+
+    long start = System.nanoTime();
+    Long roomId = request.getRoomId();
+    return submit(roomId, Objects.isNull(roomId) ? 0 : roomId,
+        () -> bookingService.book(request), () -> bookingService.bookLocked(request))
+        .whenComplete((response, error) -> appMetrics.recordBooking(
+            Objects.isNull(error) ? AppMetrics.SUCCESS : AppMetrics.outcomeOf(error), System.nanoTime() - start));
+  }
+
+  @Override
+  public CompletableFuture<BookingResponse> cancelBooking(Long id) {
+    if (!enabled) {
+      return inline(() -> bookingService.cancelBooking(id));
+    }
+
+    return close(id, CANCELLED, () -> bookingService.cancelBooking(id));
+  }
+
+  @Override
+  public CompletableFuture<BookingResponse> doneBooking(Long id) {
+    if (!enabled) {
+      return inline(() -> bookingService.doneBooking(id));
+    }
+
+    return close(id, DONE, () -> bookingService.doneBooking(id));
+  }
+
+  @Override
+  public BookingPipelineStatsResponse getStats() {
+    long applied = completed.sum() + failed.sum();
+    long batchCount = batches.sum();
+
+    return BookingPipelineStatsResponse.builder()
+        .enabled(enabled)
+        .submitted(submitted.sum())
+        .completed(completed.sum())
+        .failed(failed.sum())
+        .rejected(rejected.sum())
+        .batches(batchCount)
+        .averageBatchSize(batchCount == 0 ? 0 : (double) applied / batchCount)
+        .averageLatencyMs(applied == 0 ? 0 : latencyNanos.sum() / 1_000_000.0 / applied)
+        .maxLatencyMs(maxLatencyNanos.get() / 1_000_000.0)
+        .partitions(partitions.stream()
+            .map(partition -> BookingPipelineStatsResponse.PartitionStats.builder()
+                .partition(partition.index)
+                .depth(partition.queue.size())
+                .capacity(queueCapacity)
+                .build())
+            .toList())
+        .build();
+  }
+
+  private CompletableFuture<BookingResponse> close(Long id, String status, Supplier<BookingResponse> fallback) {
+    // Ongoing bookings know their room, so closing one is ordered with the other writes to that room
+    Long roomId = bookingExpiryQueue.findRoomId(id).orElse(null);
+    return submit(roomId, Objects.isNull(roomId) ? id : roomId,
+        () -> bookingService.processBookingCancelOrDone(id, status), fallback);
+  }
+
+  private CompletableFuture<BookingResponse> submit(Long roomId, long partitionKey,
+      Supplier<BookingResponse> action, Supplier<BookingResponse> fallback) {
+    if (!running) {
+      return CompletableFuture.failedFuture(new ServiceUnavailableException(ErrorCodes.BOOKING_PIPELINE_STOPPED));
+    }
+
+    Partition partition = partitions.get(Math.floorMod(Long.hashCode(partitionKey), partitions.size()));
+    Command command = new Command(roomId, action, fallback, new CompletableFuture<>(), System.nanoTime());
+    if (!partition.queue.offer(command)) {
+      rejected.increment();
+      return CompletableFuture.failedFuture(new TooManyRequestsException(ErrorCodes.BOOKING_QUEUE_FULL));
+    }
+
+    submitted.increment();
+    return command.future();
+  }
+
+  private void write(Partition partition) {
+    List<Command> batch = new ArrayList<>(batchSize);
+    Set<Long> rooms = new HashSet<>();
+    while (running) {
+      try {
+        batch.add(partition.queue.take());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      fill(partition.queue, batch, rooms);
+      apply(batch);
+      batch.clear();
+      rooms.clear();
+    }
+  }
+
+  /**
+   * Adds queued commands to the batch until it is full or the next one touches a room the
+   * batch already holds. Only the writer takes from its queue, so peeking first is safe.
+   */
+  private void fill(BlockingQueue<Command> queue, List<Command> batch, Set<Long> rooms) {
+    if (Objects.isNull(batch.get(0).roomId()) || !rooms.add(batch.get(0).roomId())) {
+      return;
+    }
+
+    while (batch.size() < batchSize) {
+      Command next = queue.peek();
+      if (Objects.isNull(next) || Objects.isNull(next.roomId()) || !rooms.add(next.roomId())) {
+        return;
+      }
+      batch.add(queue.poll());
+    }
+  }
+
+  private void apply(List<Command> batch) {
+    List<Object> outcomes = new ArrayList<>(batch.size());
+    try {
+      transactionTemplate.executeWithoutResult(status -> batch.forEach(command -> {
+        try {
+          outcomes.add(command.action().get());
+        } catch (AppException e) {
+          // Thrown before the command wrote anything, so the rest of the batch can still commit
+          outcomes.add(e);
+        }
+      }));
+    } catch (RuntimeException e) {
+      log.warn("Booking batch of {} commands failed, applying them one at a time", batch.size(), e);
+      outcomes.clear();
+      batch.forEach(command -> {
+        try {
+          outcomes.add(command.fallback().get());
+        } catch (RuntimeException fallbackError) {
+          outcomes.add(fallbackError);
+        }
+      });
+    }
+
+    batches.increment();
+    for (int i = 0; i < batch.size(); i++) {
+      Command command = batch.get(i);
+      if (outcomes.get(i) instanceof Throwable error) {
+        fail(command, error);
+      } else {
+        record(command);
+        completed.increment();
+        command.future().complete((BookingResponse) outcomes.get(i));
+      }
+    }
+  }
+
+  private void fail(Command command, Throwable error) {
+    record(command);
+    failed.increment();
+    command.future().completeExceptionally(error);
+  }
+
+  private void record(Command command) {
+    long latency = System.nanoTime() - command.enqueuedAt();
+    latencyNanos.add(latency);
+    maxLatencyNanos.accumulate(latency);
+  }
+
+  private static CompletableFuture<BookingResponse> inline(Supplier<BookingResponse> action) {
+    try {
+      return CompletableFuture.completedFuture(action.get());
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private static class Partition {
+    private final int index;
+    private final BlockingQueue<Command> queue;
+    private Thread writer;
+
+    private Partition(int index, BlockingQueue<Command> queue) {
+      this.index = index;
+      this.queue = queue;
+    }
+  }
+
+  private record Command(Long roomId, Supplier<BookingResponse> action, Supplier<BookingResponse> fallback,
+      CompletableFuture<BookingResponse> future, long enqueuedAt) {
+  }
+}
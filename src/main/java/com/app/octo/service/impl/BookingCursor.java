@@ -0,0 +1,43 @@
+package com.app.octo.service.impl;
+
+import com.app.octo.model.enums.ErrorCodes;
+import com.app.octo.model.exception.BadRequestException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque page cursor for booking listings. It wraps the last booking id of a page so
+ * clients cannot depend on its format.
+ */
+final class BookingCursor {
+
+  private static final String PREFIX = "b:";
+
+  private BookingCursor() {
+  }
+
+  static String encode(long bookingId) {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((PREFIX + bookingId).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns the booking id to continue after, or null for the first page.
+   */
+  static Long decode(String cursor) {
+    if (StringUtils.isBlank(cursor)) {
+      return null;
+    }
+    try {
+      String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (!value.startsWith(PREFIX)) {
+        throw new IllegalArgumentException(value);
+      }
+      return Long.parseLong(value.substring(PREFIX.length()));
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException(ErrorCodes.INVALID_CURSOR);
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package com.app.octo.service.impl;
+
+import com.app.octo.model.projection.BookingDeadline;
+import com.app.octo.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline-ordered queue of ongoing bookings keyed on their end date. It is seeded
+ * from the database once at startup and then kept up to date by the booking
+ * flows, so expired bookings can be found without scanning the Booking table.
+ * Bookings made on other instances never reach it; the scheduler's periodic sweep of the
+ * database completes those.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingExpiryQueue {
+
+  public static final String ONGOING = "ONGOING";
+
+  private final BookingRepository bookingRepository;
+
+  private final DelayQueue<Deadline> queue = new DelayQueue<>();
+
+  private final Map<Long, Deadline> pending = new ConcurrentHashMap<>();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void seed() {
+    List<BookingDeadline> deadlines = bookingRepository.findDeadlinesByStatus(ONGOING);
+    deadlines.forEach(deadline -> add(new Deadline(deadline.getBookingId(), deadline.getRoomId(),
+        deadline.getEndDate().getTime())));
+    log.info("Booking expiry queue seeded with {} ongoing bookings", deadlines.size());
+  }
+
+  /**
+   * Tracks a booking once the transaction that created it commits.
+   */
+  public void schedule(Long bookingId, Long roomId, Date endDate) {
+    Deadline deadline = new Deadline(bookingId, roomId, endDate.getTime());
+    TransactionCallbacks.afterCommit(() -> add(deadline));
+  }
+
+  /**
+   * Stops tracking a booking once the transaction that closed it commits.
+   */
+  public void cancel(Long bookingId) {
+    TransactionCallbacks.afterCommit(() -> {
+      Deadline removed = pending.remove(bookingId);
+      if (Objects.nonNull(removed)) {
+        queue.remove(removed);
+      }
+    });
+  }
+
+  /**
+   * Puts a booking back with a new deadline, used when completing it failed.
+   */
+  public void retryAt(Deadline deadline, long deadlineMillis) {
+    add(new Deadline(deadline.bookingId(), deadline.roomId(), deadlineMillis));
+  }
+
+  /**
+   * Removes and returns every booking whose end date has passed, earliest first.
+   */
+  public List<Deadline> drainExpired() {
+    List<Deadline> expired = new ArrayList<>();
+    Deadline deadline;
+    while ((deadline = queue.poll()) != null) {
+      // Skip entries that were cancelled or replaced after they were queued
+      if (pending.remove(deadline.bookingId(), deadline)) {
+        expired.add(deadline);
+      }
+    }
+    return expired;
+  }
+
+  public Optional<Long> findRoomId(Long bookingId) {
+    return Optional.ofNullable(pending.get(bookingId)).map(Deadline::roomId);
+  }
+
+  public int size() {
+    return pending.size();
+  }
+
+  private void add(Deadline deadline) {
+    Deadline previous = pending.put(deadline.bookingId(), deadline);
+    if (Objects.nonNull(previous)) {
+      queue.remove(previous);
+    }
+    queue.add(deadline);
+  }
+
+  public record Deadline(Long bookingId, Long roomId, long deadlineMillis) implements Delayed {
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(deadlineMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      if (other instanceof Deadline deadline) {
+        return Long.compare(deadlineMillis, deadline.deadlineMillis);
+      }
+      return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.app.octo.service.impl;
+
+import com.app.octo.dto.BookingExportRow;
+import com.app.octo.mapper.BookingMapper;
+import com.app.octo.model.Booking;
+import com.app.octo.model.enums.ExportFormat;
+import com.app.octo.repository.BookingRepository;
+import com.app.octo.service.BookingExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Writes every booking to the response while it is read from the database. The persistence
+ * context is cleared every {@link #CLEAR_INTERVAL} rows so memory stays flat however many
+ * bookings exist.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingExportServiceImpl implements BookingExportService {
+
+  public static final int CLEAR_INTERVAL = 500;
+  public static final String CSV_HEADER = "booking_id,status,booking_date,start_date,end_date,"
+      + "user_id,user_email,user_first_name,user_last_name,room_id,room_number,floor";
+
+  private final BookingRepository bookingRepository;
+
+  private final BookingMapper bookingMapper;
+
+  private final EntityManager entityManager;
+
+  private final ObjectMapper objectMapper;
+
+  @Override
+  @Transactional(readOnly = true)
+  public long exportBookings(ExportFormat format, OutputStream outputStream) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    ObjectWriter jsonWriter = objectMapper.writerFor(BookingExportRow.class)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    if (format == ExportFormat.CSV) {
+      writer.write(CSV_HEADER);
+      writer.write('\n');
+    }
+
+    long count = 0;
+    try (Stream<Booking> bookings = bookingRepository.streamAllForExport()) {
+      Iterator<Booking> iterator = bookings.iterator();
+      while (iterator.hasNext()) {
+        BookingExportRow row = bookingMapper.toExportRow(iterator.next());
+        if (format == ExportFormat.CSV) {
+          writeCsv(writer, row);
+        } else {
+          jsonWriter.writeValue(writer, row);
+        }
+        writer.write('\n');
+
+        if (++count % CLEAR_INTERVAL == 0) {
+          writer.flush();
+          entityManager.clear();
+        }
+      }
+    }
+    writer.flush();
+    log.info("Exported {} bookings as {}", count, format);
+    return count;
+  }
+
+  private static void writeCsv(Writer writer, BookingExportRow row) throws IOException {
+    writer.write(String.valueOf(row.getBookingId()));
+    writeCsvField(writer, row.getStatus());
+    writeCsvField(writer, format(row.getBookingDate()));
+    writeCsvField(writer, format(row.getStartDate()));
+    writeCsvField(writer, format(row.getEndDate()));
+    writeCsvField(writer, Objects.toString(row.getUserId(), null));
+    writeCsvField(writer, row.getUserEmail());
+    writeCsvField(writer, row.getUserFirstName());
+    writeCsvField(writer, row.getUserLastName());
+    writeCsvField(writer, String.valueOf(row.getRoomId()));
+    writeCsvField(writer, row.getRoomNumber());
+    writeCsvField(writer, row.getFloor());
+  }
+
+  private static void writeCsvField(Writer writer, String value) throws IOException {
+    writer.write(',');
+    if (Objects.isNull(value)) {
+      return;
+    }
+    if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+        || value.indexOf('\r') >= 0) {
+      writer.write('"');
+      writer.write(value.replace("\"", "\"\""));
+      writer.write('"');
+    } else {
+      writer.write(value);
+    }
+  }
+
+  private static String format(Date date) {
+    return Objects.isNull(date) ? null : date.toInstant().toString();
+  }
+}
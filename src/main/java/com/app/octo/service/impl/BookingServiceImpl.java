@@ -1,62 +1,115 @@
 package com.app.octo.service.impl;
 
+import com.app.octo.config.AppMetrics;
+import com.app.octo.mapper.BookingMapper;
 import com.app.octo.model.Booking;
 import com.app.octo.model.Room;
 import com.app.octo.model.User;
 import com.app.octo.model.enums.ErrorCodes;
-import com.app.octo.model.exception.AppException;
+import com.app.octo.model.exception.BadRequestException;
+import com.app.octo.model.exception.NotFoundException;
+import com.app.octo.model.projection.BookingDeadline;
+import com.app.octo.model.projection.BookingSummary;
 import com.app.octo.model.request.BookingRequest;
+import com.app.octo.model.request.BookingSearchRequest;
 import com.app.octo.model.request.GetAllByStatusRequest;
 import com.app.octo.model.response.BookingResponse;
-import com.app.octo.model.response.ListResponse;
+import com.app.octo.model.response.PageResponse;
+import com.app.octo.repository.BookingFilter;
 import com.app.octo.repository.BookingRepository;
 import com.app.octo.repository.RoomRepository;
 import com.app.octo.repository.UserRepository;
+import com.app.octo.service.BookingArchiveService;
 import com.app.octo.service.BookingService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateUtils;
-import org.dozer.Mapper;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
   public static final String ONGOING = "ONGOING";
+  public static final long EXPIRY_RETRY_DELAY_MS = 30000;
+  public static final int BULK_CHUNK_SIZE = 1000;
+  public static final int DEFAULT_PAGE_SIZE = 20;
+  public static final int MAX_PAGE_SIZE = 100;
+  public static final String UNAVAILABLE = "unavailable";
+  public static final String LOST_RACE = "lost_race";
+
   private final RoomRepository roomRepository;
 
   private final UserRepository userRepository;
 
   private final BookingRepository bookingRepository;
 
-  private final Mapper mapper;
+  private final BookingMapper bookingMapper;
+
+  private final RoomAvailabilityIndex roomAvailabilityIndex;
+
+  private final RoomWriteGuard roomWriteGuard;
+
+  private final BookingExpiryQueue bookingExpiryQueue;
+
+  private final AppMetrics appMetrics;
+
+  private final BookingArchiveService bookingArchiveService;
 
   @Override
   public BookingResponse bookRoom(BookingRequest request) {
+    long start = System.nanoTime();
+    try {
+      BookingResponse response = bookLocked(request);
+      appMetrics.recordBooking(AppMetrics.SUCCESS, System.nanoTime() - start);
+      return response;
+    } catch (RuntimeException e) {
+      appMetrics.recordBooking(AppMetrics.outcomeOf(e), System.nanoTime() - start);
+      throw e;
+    }
+  }
+
+  /**
+   * Books the room under the room lock, without recording the booking timer. For callers
+   * that time the booking themselves.
+   */
+  public BookingResponse bookLocked(BookingRequest request) {
+    return roomWriteGuard.execute(request.getRoomId(), () -> book(request));
+  }
 
-    Room room = roomRepository.findByRoomIdAndStatus(request.getRoomId(), "AVAILABLE");
+  /**
+   * Books the room in the caller's transaction, without taking the room lock.
+   */
+  BookingResponse book(BookingRequest request) {
+    Room room = roomAvailabilityIndex.findAvailableOrRefresh(request.getRoomId()).orElseGet(() -> null);
 
     if (Objects.isNull(room)) {
-      throw new AppException(ErrorCodes.ROOM_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND);
+      appMetrics.recordBookingRejected(UNAVAILABLE);
+      throw new NotFoundException(ErrorCodes.ROOM_NOT_FOUND);
     }
 
     User user = userRepository.findByEmail(request.getUserEmail()).orElseGet(() -> null);
 
     if (Objects.isNull(user)) {
-      throw new AppException(ErrorCodes.USER_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND);
+      throw new NotFoundException(ErrorCodes.USER_NOT_FOUND);
     }
 
-    room.setStatus("BOOKED");
+    if (roomRepository.updateStatusIfCurrent(room.getRoomId(), RoomAvailabilityIndex.AVAILABLE,
+        RoomAvailabilityIndex.BOOKED) == 0) {
+      roomAvailabilityIndex.refresh(room.getRoomId());
+      appMetrics.recordBookingRejected(LOST_RACE);
+      throw new NotFoundException(ErrorCodes.ROOM_NOT_FOUND);
+    }
 
-    roomRepository.save(room);
+    room.setStatus(RoomAvailabilityIndex.BOOKED);
+    roomAvailabilityIndex.updateStatus(room.getRoomId(), RoomAvailabilityIndex.BOOKED);
 
     Date now = new Date();
     Date end = DateUtils.addHours(now, request.getDuration());
@@ -71,104 +124,190 @@ public class BookingServiceImpl implements BookingService {
         .build();
 
     bookingRepository.save(booking);
-    return mapper.map(booking, BookingResponse.class);
+    bookingExpiryQueue.schedule(booking.getBookingId(), room.getRoomId(), end);
+    return bookingMapper.toResponse(booking);
   }
 
   @Override
   public BookingResponse cancelBooking(Long id) {
 
-    return processBookingCancelOrDone(id, "CANCELLED");
+    return roomWriteGuard.executeWithRetry(() -> processBookingCancelOrDone(id, "CANCELLED"));
   }
 
   @Override
   public BookingResponse doneBooking(Long id) {
 
-    return processBookingCancelOrDone(id, "DONE");
+    return roomWriteGuard.executeWithRetry(() -> processBookingCancelOrDone(id, "DONE"));
   }
 
-  private BookingResponse processBookingCancelOrDone(Long id, String status) {
+  /**
+   * Closes the booking in the caller's transaction.
+   */
+  BookingResponse processBookingCancelOrDone(Long id, String status) {
     Booking booking = bookingRepository.findByBookingId(id);
 
     if (Objects.isNull(booking)) {
-      throw new AppException(ErrorCodes.DATA_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND);
+      throw new NotFoundException(ErrorCodes.DATA_NOT_FOUND);
     }
 
-    booking.setStatus(status);
+    if (!ONGOING.equals(booking.getStatus())) {
+      throw new BadRequestException(ErrorCodes.INVALID_REQUEST);
+    }
 
-    Room room = roomRepository.findByRoomIdAndStatus(booking.getRoom().getRoomId(), "BOOKED");
+    // The room is fetched together with the booking, so its status is checked without another query
+    Room room = booking.getRoom();
 
-    if (Objects.isNull(room)) {
-      throw new AppException(ErrorCodes.DATA_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND);
+    if (Objects.isNull(room) || !RoomAvailabilityIndex.BOOKED.equals(room.getStatus())) {
+      throw new NotFoundException(ErrorCodes.DATA_NOT_FOUND);
     }
 
-    room.setStatus("AVAILABLE");
-
-    booking.setRoom(room);
+    booking.setStatus(status);
+    room.setStatus(RoomAvailabilityIndex.AVAILABLE);
 
     bookingRepository.save(booking);
     roomRepository.save(room);
+    roomAvailabilityIndex.updateStatus(room.getRoomId(), RoomAvailabilityIndex.AVAILABLE);
+    bookingExpiryQueue.cancel(booking.getBookingId());
 
-    return mapper.map(booking, BookingResponse.class);
+    return bookingMapper.toResponse(booking);
   }
 
   @Override
-  public ListResponse<BookingResponse> changeStatusAfterTime() {
-    List<Booking> bookings = bookingRepository.findAllByStatus(ONGOING);
-    List<BookingResponse> responses = new ArrayList<>();
-    Date now = new Date();
-    bookings.stream().forEach(booking -> {
-      if (now.after(booking.getEndDate())) {
-        responses.add(doneBooking(booking.getBookingId()));
-      }
-    });
+  public List<Long> changeStatusAfterTime() {
+    return completeOverdueBookings(AppMetrics.EXPIRY_MANUAL);
+  }
 
-    ListResponse<BookingResponse> response = new ListResponse<>();
-    response.setVal(responses);
+  /**
+   * Backstop for the expiry queue, which only knows the bookings made on this instance since
+   * it started: completes every overdue booking found in the database.
+   */
+  @Override
+  public List<Long> sweepExpiredBookings() {
+    return completeOverdueBookings(AppMetrics.EXPIRY_SWEEP);
+  }
 
-    return response;
+  private List<Long> completeOverdueBookings(String trigger) {
+    long start = System.nanoTime();
+    Date now = new Date();
+    List<Long> completed = roomWriteGuard.executeWithRetry(() ->
+        completeBookings(bookingRepository.lockDeadlinesByStatusAndEndDateBefore(ONGOING, now)));
+    appMetrics.recordExpiry(trigger, System.nanoTime() - start, completed.size());
+    return completed;
   }
 
   @Override
-  public ListResponse<BookingResponse> getAllByStatus(GetAllByStatusRequest request) throws Exception{
+  public List<Long> completeExpiredBookings() {
+    List<BookingExpiryQueue.Deadline> due = bookingExpiryQueue.drainExpired();
+    if (due.isEmpty()) {
+      return new ArrayList<>();
+    }
 
+    long start = System.nanoTime();
+    List<Long> ids = due.stream().map(BookingExpiryQueue.Deadline::bookingId).toList();
+    try {
+      List<Long> completed = roomWriteGuard.executeWithRetry(() ->
+          completeBookings(bookingRepository.lockDeadlinesByIdsAndStatus(ids, ONGOING)));
+      appMetrics.recordExpiry(AppMetrics.EXPIRY_SCHEDULED, System.nanoTime() - start, completed.size());
+      return completed;
+    } catch (RuntimeException e) {
+      log.warn("Unable to complete expired bookings {}, retrying later", ids, e);
+      long retryAt = System.currentTimeMillis() + EXPIRY_RETRY_DELAY_MS;
+      due.forEach(deadline -> bookingExpiryQueue.retryAt(deadline, retryAt));
+      return new ArrayList<>();
+    }
+  }
 
-     if (StringUtils.isNotBlank(request.getStatus()) && !ONGOING.equals(request.getStatus()) && !"DONE".equals(request.getStatus())
-        && !"CANCELLED".equals(request.getStatus())) {
-      throw new AppException(ErrorCodes.BAD_REQUEST.getMessage(), HttpStatus.BAD_REQUEST);
+  /**
+   * Marks the given (already locked) bookings as DONE and frees their rooms with
+   * set-based updates, one statement per chunk instead of several per booking.
+   */
+  private List<Long> completeBookings(List<BookingDeadline> expired) {
+    List<Long> bookingIds = expired.stream().map(BookingDeadline::getBookingId).toList();
+    List<Long> roomIds = expired.stream().map(BookingDeadline::getRoomId).distinct().toList();
+
+    for (int from = 0; from < bookingIds.size(); from += BULK_CHUNK_SIZE) {
+      bookingRepository.updateStatusForIds(
+          bookingIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, bookingIds.size())), ONGOING, "DONE");
+    }
+    for (int from = 0; from < roomIds.size(); from += BULK_CHUNK_SIZE) {
+      roomRepository.updateStatusForIds(roomIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, roomIds.size())),
+          RoomAvailabilityIndex.BOOKED, RoomAvailabilityIndex.AVAILABLE);
     }
 
+    roomIds.forEach(roomId -> roomAvailabilityIndex.updateStatus(roomId, RoomAvailabilityIndex.AVAILABLE));
+    bookingIds.forEach(bookingExpiryQueue::cancel);
+    return bookingIds;
+  }
 
+  @Override
+  public PageResponse<BookingResponse> getAllByStatus(GetAllByStatusRequest request) {
+    if (StringUtils.isNotBlank(request.getStatus()) && !ONGOING.equals(request.getStatus())
+        && !"DONE".equals(request.getStatus()) && !"CANCELLED".equals(request.getStatus())) {
+      throw new BadRequestException(ErrorCodes.BAD_REQUEST);
+    }
 
     User user = userRepository.findByEmail(request.getEmail()).orElseGet(() -> null);
 
     if (Objects.isNull(user)) {
-      throw new AppException(ErrorCodes.USER_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND);
+      throw new NotFoundException(ErrorCodes.USER_NOT_FOUND);
     }
-    List<Booking> bookings = new ArrayList<>();
 
-    if (StringUtils.isBlank(request.getStatus())) {
-      bookings = bookingRepository.findByUser_id(user.getId());
-    } else {
-      bookings = bookingRepository.findByUser_idAndStatus(user.getId(),
-          request.getStatus());
-    }
+    BookingFilter filter = BookingFilter.builder()
+        .status(StringUtils.trimToNull(request.getStatus()))
+        .userId(user.getId())
+        .roomId(request.getRoomId())
+        .from(request.getFrom())
+        .to(request.getTo())
+        .build();
+
+    return findPage(filter, request.getCursor(), request.getSize());
+  }
 
+  @Override
+  public PageResponse<BookingResponse> getAll(BookingSearchRequest request) {
+    if (Objects.isNull(request)) {
+      request = new BookingSearchRequest();
+    }
 
-    List<BookingResponse> responses =
-        bookings.stream().map(booking -> mapper.map(booking, BookingResponse.class))
-            .collect(Collectors.toList());
+    BookingFilter filter = BookingFilter.builder()
+        .status(StringUtils.trimToNull(request.getStatus()))
+        .userEmail(StringUtils.trimToNull(request.getUserEmail()))
+        .roomId(request.getRoomId())
+        .from(request.getFrom())
+        .to(request.getTo())
+        .build();
 
-    return new ListResponse<>(responses);
+    return findPage(filter, request.getCursor(), request.getSize());
   }
 
-  @Override
-  public ListResponse<BookingResponse> getAll() throws Exception{
+  /**
+   * Loads one page plus a single look-ahead row; the look-ahead only decides whether a next cursor is issued.
+   */
+  private PageResponse<BookingResponse> findPage(BookingFilter filter, String cursor, Integer size) {
+    int pageSize = Objects.isNull(size) || size < 1 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+    Long afterBookingId = BookingCursor.decode(cursor);
+    List<BookingSummary> bookings = mayIncludeArchived(filter)
+        ? bookingRepository.findPageIncludingHistory(filter, afterBookingId, pageSize + 1)
+        : bookingRepository.findPage(filter, afterBookingId, pageSize + 1);
+
+    String nextCursor = null;
+    if (bookings.size() > pageSize) {
+      bookings = bookings.subList(0, pageSize);
+      nextCursor = BookingCursor.encode(bookings.get(pageSize - 1).bookingId());
+    }
 
-    List<Booking> bookings = bookingRepository.findAll();
-    List<BookingResponse> responses =
-        bookings.stream().map(booking -> mapper.map(booking, BookingResponse.class))
-            .collect(Collectors.toList());
+    return new PageResponse<>(bookingMapper.toSummaryResponses(bookings), nextCursor);
+  }
 
-    return new ListResponse<>(responses);
+  /**
+   * Only DONE and CANCELLED bookings that ended before the archive cutoff are moved to
+   * booking_history, so it is only read when the filter could match one of those.
+   */
+  private boolean mayIncludeArchived(BookingFilter filter) {
+    if (ONGOING.equals(filter.getStatus())) {
+      return false;
+    }
+    return Objects.isNull(filter.getFrom()) || filter.getFrom().before(bookingArchiveService.archiveCutoff());
   }
 }
@@ -0,0 +1,82 @@
+package com.app.octo.service.impl;
+
+import com.app.octo.model.CacheRegions;
+import com.app.octo.model.response.CacheStatsResponse;
+import com.app.octo.service.CacheStatsService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Service;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads hit/miss counters of the catalog cache regions from the JCache statistics that
+ * Caffeine keeps for them, enabled per region in {@code application.conf}. Hibernate's own
+ * statistics are off outside tests because they are collected on every session.
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheStatsServiceImpl implements CacheStatsService {
+
+  public static final String STATISTICS_NAME = "javax.cache:type=CacheStatistics,CacheManager=%s,Cache=%s";
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+  @Override
+  public CacheStatsResponse getCatalogCacheStats() {
+    CacheManager cacheManager = ((JCacheRegionFactory) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+        .getCache().getRegionFactory()).getCacheManager();
+    List<CacheStatsResponse.RegionStats> regions = List.of(
+        toRegionStats(cacheManager, CacheRegions.CATEGORY),
+        toRegionStats(cacheManager, CacheRegions.ROOM),
+        toRegionStats(cacheManager, CacheRegions.CATALOG_QUERIES));
+    return CacheStatsResponse.builder().regions(regions).build();
+  }
+
+  private CacheStatsResponse.RegionStats toRegionStats(CacheManager cacheManager, String region) {
+    Cache<Object, Object> cache = cacheManager.getCache(region);
+    ObjectName name = statisticsName(cacheManager, region);
+    // The query region only exists once a cacheable query has run
+    if (Objects.isNull(cache) || !mBeanServer.isRegistered(name)) {
+      return CacheStatsResponse.RegionStats.builder().region(region).build();
+    }
+    CacheStatisticsMXBean stats = JMX.newMXBeanProxy(mBeanServer, name, CacheStatisticsMXBean.class);
+    return CacheStatsResponse.RegionStats.builder()
+        .region(region)
+        .hitCount(stats.getCacheHits())
+        .missCount(stats.getCacheMisses())
+        .putCount(stats.getCachePuts())
+        .elementCount(cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize())
+        .build();
+  }
+
+  /**
+   * The name Caffeine registers the statistics under, with the characters JMX reserves
+   * replaced the same way.
+   */
+  private static ObjectName statisticsName(CacheManager cacheManager, String region) {
+    try {
+      return new ObjectName(String.format(STATISTICS_NAME,
+          sanitize(cacheManager.getURI().toString()), sanitize(region)));
+    } catch (MalformedObjectNameException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String sanitize(String value) {
+    return Objects.isNull(value) ? "" : value.replaceAll("[,:=\n]", ".");
+  }
+}
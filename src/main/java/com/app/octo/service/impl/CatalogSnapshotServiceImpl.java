@@ -0,0 +1,126 @@
+package com.app.octo.service.impl;
+
+import com.app.octo.model.response.CatalogSnapshot;
+import com.app.octo.service.CatalogSnapshotService;
+import com.app.octo.service.CategoryService;
+import com.app.octo.service.RoomService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the category and room listings serialized, rebuilding one after its catalog version
+ * moved or once it is older than {@code catalog.snapshot.max-age-ms}. Unchanged polls are
+ * answered from memory.
+ *
+ * <p>The catalog version only counts changes made on this instance, so the max age is what
+ * bounds how long a change made on another instance stays invisible here. Rebuilds load
+ * through {@link PrimaryReader}: from the primary, never a lagging replica, and past the
+ * second-level cache, which is local as well.
+ */
+@Service
+public class CatalogSnapshotServiceImpl implements CatalogSnapshotService {
+
+  private static final int ETAG_BYTES = 16;
+
+  private final ObjectMapper objectMapper;
+
+  private final PrimaryReader primaryReader;
+
+  private final Snapshots categories;
+
+  private final Snapshots rooms;
+
+  @Value("${catalog.snapshot.max-age-ms:30000}")
+  private long maxAgeMs = 30000;
+
+  public CatalogSnapshotServiceImpl(CategoryService categoryService, RoomService roomService,
+      CatalogVersion catalogVersion, ObjectMapper objectMapper, PrimaryReader primaryReader) {
+    this.objectMapper = objectMapper;
+    this.primaryReader = primaryReader;
+    this.categories = new Snapshots(catalogVersion::categories, categoryService::getAllCategories);
+    this.rooms = new Snapshots(catalogVersion::rooms, roomService::getAllRooms);
+  }
+
+  @Override
+  public CatalogSnapshot getCategories() {
+    return categories.get();
+  }
+
+  @Override
+  public CatalogSnapshot getRooms() {
+    return rooms.get();
+  }
+
+  private CatalogSnapshot serialize(long version, Object payload) {
+    try {
+      byte[] body = objectMapper.writeValueAsBytes(payload);
+      return new CatalogSnapshot(version, etagOf(body), body);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize catalog snapshot", e);
+    }
+  }
+
+  private static String etagOf(byte[] body) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+      return "\"" + Base64.getUrlEncoder().withoutPadding()
+          .encodeToString(Arrays.copyOf(digest, ETAG_BYTES)) + "\"";
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private final class Snapshots {
+    private final LongSupplier version;
+    private final Supplier<Object> loader;
+    private volatile Built current;
+
+    private Snapshots(LongSupplier version, Supplier<Object> loader) {
+      this.version = version;
+      this.loader = loader;
+    }
+
+    CatalogSnapshot get() {
+      Built built = current;
+      if (isCurrent(built, version.getAsLong())) {
+        return built.snapshot();
+      }
+      return rebuild();
+    }
+
+    /**
+     * Serialized so a burst of polls after a change loads the catalog once. The version is
+     * read before loading: a change committed meanwhile leaves the snapshot outdated, and it is
+     * rebuilt on the next call.
+     */
+    private synchronized CatalogSnapshot rebuild() {
+      long expected = version.getAsLong();
+      Built built = current;
+      if (isCurrent(built, expected)) {
+        return built.snapshot();
+      }
+      long builtAt = System.currentTimeMillis();
+      CatalogSnapshot snapshot = serialize(expected, primaryReader.read(loader));
+      current = new Built(snapshot, builtAt);
+      return snapshot;
+    }
+
+    private boolean isCurrent(Built built, long expected) {
+      return Objects.nonNull(built) && built.snapshot().version() == expected
+          && System.currentTimeMillis() - built.builtAt() < maxAgeMs;
+    }
+  }
+
+  private record Built(CatalogSnapshot snapshot, long builtAt) {
+  }
+}
@@ -0,0 +1,39 @@
+package com.app.octo.service.impl;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters for the category and room catalogs. Writers bump them once their
+ * change is committed, so a snapshot tagged with the current version reflects every change
+ * made on this instance. The counters are not shared: changes made on other instances are
+ * only picked up when the snapshot reaches its max age.
+ */
+@Component
+public class CatalogVersion {
+
+  private final AtomicLong categories = new AtomicLong();
+
+  private final AtomicLong rooms = new AtomicLong();
+
+  public long categories() {
+    return categories.get();
+  }
+
+  public long rooms() {
+    return rooms.get();
+  }
+
+  /**
+   * Room responses embed their category, so a category change also invalidates rooms.
+   */
+  public void bumpCategories() {
+    categories.incrementAndGet();
+    rooms.incrementAndGet();
+  }
+
+  public void bumpRooms() {
+    rooms.incrementAndGet();
+  }
+}
@@ -5,19 +5,19 @@ import java.util.Objects;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import com.app.octo.mapper.CategoryMapper;
 import com.app.octo.model.Category;
 import com.app.octo.model.enums.ErrorCodes;
-import com.app.octo.model.exception.AppException;
+import com.app.octo.model.exception.BadRequestException;
+import com.app.octo.model.exception.NotFoundException;
 import com.app.octo.model.request.CategoryUpdateRequest;
 import com.app.octo.model.response.ApiResponse;
 import com.app.octo.model.response.CategoryGetResponse;
 import com.app.octo.model.response.CategoryResponse;
 import com.app.octo.repository.CategoryRepository;
 import com.app.octo.service.CategoryService;
-import org.dozer.Mapper;
 
 @Service
 @RequiredArgsConstructor
@@ -25,14 +25,14 @@ public class CategoryServiceImpl implements CategoryService{
 
     private final CategoryRepository categoryRepository;
 
-    private final Mapper mapper;
+    private final CategoryMapper categoryMapper;
+
+    private final CatalogVersion catalogVersion;
 
     @Override
     public ApiResponse<List<CategoryGetResponse>> getAllCategories(){
         List<Category> categories = categoryRepository.findAll();
-        List<CategoryGetResponse> categoryResponses = categories.stream()
-            .map(category -> mapper.map(category, CategoryGetResponse.class))
-            .toList();
+        List<CategoryGetResponse> categoryResponses = categoryMapper.toGetResponses(categories);
             ApiResponse<List<CategoryGetResponse>> apiResponse = new ApiResponse<>();
             apiResponse.setData(categoryResponses);
         return apiResponse;
@@ -41,50 +41,53 @@ public class CategoryServiceImpl implements CategoryService{
     @Override
     public CategoryResponse createCategory(String categoryName){
         if(categoryName.isEmpty()){
-            throw new AppException("Incomplete Request", HttpStatus.BAD_REQUEST);
+            throw new BadRequestException(ErrorCodes.INCOMPLETE_REQUEST);
         }
         Category categoryExists = categoryRepository.findByCategoryName(categoryName);
         if (Objects.nonNull(categoryExists)) {
-            throw new AppException(ErrorCodes.CATEGORY_EXISTS.getMessage(), HttpStatus.BAD_REQUEST);
+            throw new BadRequestException(ErrorCodes.CATEGORY_EXISTS);
         }
 
         Category newCategory = Category.builder().categoryName(categoryName).build();
 
         categoryRepository.save(newCategory);
+        TransactionCallbacks.afterCommit(catalogVersion::bumpCategories);
 
-        return mapper.map(newCategory, CategoryResponse.class);
+        return categoryMapper.toResponse(newCategory);
     }
 
     @Override
     public CategoryResponse updateCategoryName(CategoryUpdateRequest request){
         if(request.getCategoryId() == 0 || request.getCategoryName().isEmpty()){
-            throw new AppException("Incomplete Request", HttpStatus.BAD_REQUEST);
+            throw new BadRequestException(ErrorCodes.INCOMPLETE_REQUEST);
         }
         Category category = categoryRepository.findByCategoryId(request.getCategoryId());
         if (Objects.isNull(category)) {
-            throw new AppException(ErrorCodes.CATEGORY_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND);
+            throw new NotFoundException(ErrorCodes.CATEGORY_NOT_FOUND);
         }
 
         Category existingCategory = categoryRepository.findByCategoryName(request.getCategoryName());
         if (Objects.nonNull(existingCategory)) {
-            throw new AppException(ErrorCodes.CATEGORY_EXISTS.getMessage(), HttpStatus.BAD_REQUEST);
+            throw new BadRequestException(ErrorCodes.CATEGORY_EXISTS);
         }
 
         category.setCategoryName(request.getCategoryName());
         categoryRepository.save(category);
-        return mapper.map(category, CategoryResponse.class);
+        TransactionCallbacks.afterCommit(catalogVersion::bumpCategories);
+        return categoryMapper.toResponse(category);
     }
 
     @Override
     public void deleteCategory(long categoryId){
         Category category = categoryRepository.findByCategoryId(categoryId);
         if (Objects.isNull(category)) {
-            throw new AppException(ErrorCodes.CATEGORY_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND);
+            throw new NotFoundException(ErrorCodes.CATEGORY_NOT_FOUND);
         }
         try {
             categoryRepository.delete(category);
+            TransactionCallbacks.afterCommit(catalogVersion::bumpCategories);
         } catch (DataIntegrityViolationException e) {
-            throw new AppException("Cannot delete category. It is linked to existing rooms.", HttpStatus.BAD_REQUEST);
+            throw new BadRequestException(ErrorCodes.CATEGORY_IN_USE);
         }
     }
     
@@ -0,0 +1,55 @@
+package com.app.octo.service.impl;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs the loads that fill in-memory caches, such as the catalog snapshots and the room
+ * availability index, against the primary database. With read replicas enabled a read-only
+ * transaction may be served by a replica that is seconds behind, and a cache filled from it
+ * would keep that data long after the replica caught up.
+ *
+ * <p>Loads run in a read-write transaction, which is always routed to the primary. Inside a
+ * read-write transaction they join it; inside a read-only one they get a transaction of their
+ * own. They also bypass the second-level cache, which is local to this instance, and refill
+ * it with what they read.
+ */
+@Component
+public class PrimaryReader {
+
+  private final EntityManager entityManager;
+
+  private final TransactionTemplate joining;
+
+  private final TransactionTemplate separate;
+
+  public PrimaryReader(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+    this.entityManager = entityManager;
+    this.joining = new TransactionTemplate(transactionManager);
+    this.separate = new TransactionTemplate(transactionManager);
+    this.separate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  public <T> T read(Supplier<T> load) {
+    TransactionTemplate template = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        ? separate : joining;
+    return template.execute(status -> {
+      Session session = entityManager.unwrap(Session.class);
+      CacheMode previous = session.getCacheMode();
+      session.setCacheMode(CacheMode.REFRESH);
+      try {
+        return load.get();
+      } finally {
+        session.setCacheMode(previous);
+      }
+    });
+  }
+}
@@ -0,0 +1,273 @@
+package com.app.octo.service.impl;
+
+import com.app.octo.model.Room;
+import com.app.octo.model.event.RoomStatusChangedEvent;
+import com.app.octo.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory view of every room and its current status, so availability checks
+ * do not need a database round trip. The database stays the source of truth:
+ * writers commit the status change first and the index is updated after commit.
+ * Every change also bumps the room catalog version, and a status change is
+ * published as a {@link RoomStatusChangedEvent}.
+ *
+ * <p>The index can still fall behind: writes from other nodes or made directly in the
+ * database, or a callback that failed after commit. A room it reports as not available
+ * is therefore re-read before a booking is turned away
+ * ({@link #findAvailableOrRefresh}), at most once per {@code rooms.index.refresh-interval-ms}
+ * so a rush on a booked room does not turn every attempt into a query, and every room is reloaded every
+ * {@code rooms.index.reload-interval-ms} so listings heal as well. Both read through
+ * {@link PrimaryReader}, so a lagging replica cannot put stale rooms back into the index.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomAvailabilityIndex {
+
+  public static final String AVAILABLE = "AVAILABLE";
+  public static final String BOOKED = "BOOKED";
+
+  private final RoomRepository roomRepository;
+
+  private final CatalogVersion catalogVersion;
+
+  private final PrimaryReader primaryReader;
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  @Value("${rooms.index.refresh-interval-ms:2000}")
+  private long refreshIntervalMs = 2000;
+
+  private final Map<Long, Room> rooms = new ConcurrentHashMap<>();
+
+  /**
+   * When each room was last re-read because of a miss, in {@link System#nanoTime()} units.
+   */
+  private final Map<Long, Long> lastRefreshes = new ConcurrentHashMap<>();
+
+  private volatile boolean loaded;
+
+  public boolean isAvailable(Long roomId) {
+    return Objects.nonNull(roomId) && hasStatus(roomId, AVAILABLE);
+  }
+
+  public boolean hasStatus(Long roomId, String status) {
+    ensureLoaded();
+    Room room = rooms.get(roomId);
+    return Objects.nonNull(room) && status.equals(room.getStatus());
+  }
+
+  /**
+   * Detached copy of the room if it is currently available. The copy is safe to
+   * use as a reference when persisting a booking.
+   */
+  public Optional<Room> findAvailable(Long roomId) {
+    if (!isAvailable(roomId)) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(rooms.get(roomId)).map(RoomAvailabilityIndex::copyOf);
+  }
+
+  /**
+   * Like {@link #findAvailable}, but a miss is only a hint: the room is re-read from the
+   * database before it is reported as not available. A room re-read within the last
+   * {@code rooms.index.refresh-interval-ms} is answered from the index.
+   */
+  public Optional<Room> findAvailableOrRefresh(Long roomId) {
+    Optional<Room> room = findAvailable(roomId);
+    if (room.isPresent() || Objects.isNull(roomId) || !claimRefresh(roomId)) {
+      return room;
+    }
+    refresh(roomId);
+    return findAvailable(roomId);
+  }
+
+  public List<Room> getAvailableRooms() {
+    ensureLoaded();
+    return rooms.values().stream()
+        .filter(room -> AVAILABLE.equals(room.getStatus()))
+        .sorted(Comparator.comparing(Room::getRoomId))
+        .map(RoomAvailabilityIndex::copyOf)
+        .toList();
+  }
+
+  /**
+   * Records a room as created or changed once the surrounding transaction commits.
+   */
+  public void put(Room room) {
+    ensureLoaded();
+    Room snapshot = copyOf(room);
+    TransactionCallbacks.afterCommit(() -> {
+      Room previous = rooms.put(snapshot.getRoomId(), snapshot);
+      catalogVersion.bumpRooms();
+      publishIfChanged(snapshot.getRoomId(), previous, snapshot.getStatus());
+    });
+  }
+
+  public void updateStatus(Long roomId, String status) {
+    ensureLoaded();
+    TransactionCallbacks.afterCommit(() -> {
+      Room[] previous = new Room[1];
+      rooms.computeIfPresent(roomId, (id, room) -> {
+        previous[0] = room;
+        Room updated = copyOf(room);
+        updated.setStatus(status);
+        return updated;
+      });
+      catalogVersion.bumpRooms();
+      if (Objects.nonNull(previous[0])) {
+        publishIfChanged(roomId, previous[0], status);
+      }
+    });
+  }
+
+  public void remove(Long roomId) {
+    ensureLoaded();
+    TransactionCallbacks.afterCommit(() -> {
+      Room previous = rooms.remove(roomId);
+      catalogVersion.bumpRooms();
+      publishIfChanged(roomId, previous, null);
+    });
+  }
+
+  /**
+   * Re-reads a single room when the index may be out of date. Applied immediately because
+   * it mirrors state that is already committed.
+   */
+  public void refresh(Long roomId) {
+    ensureLoaded();
+    Optional<Room> current = primaryReader.read(() -> roomRepository.findById(roomId))
+        .map(RoomAvailabilityIndex::copyOf);
+    Room previous = current.isPresent()
+        ? rooms.put(roomId, current.get())
+        : rooms.remove(roomId);
+    if (differs(previous, current.orElse(null))) {
+      catalogVersion.bumpRooms();
+      publishIfChanged(roomId, previous, current.map(Room::getStatus).orElse(null));
+    }
+  }
+
+  /**
+   * Reloads every room from the database, replacing entries in place so readers never see
+   * an empty index. Once loaded, only rooms that differ bump the catalog version and
+   * publish events.
+   */
+  public synchronized void reload() {
+    long now = System.nanoTime();
+    lastRefreshes.values().removeIf(last -> now - last >= TimeUnit.MILLISECONDS.toNanos(refreshIntervalMs));
+
+    Map<Long, Room> fresh = new HashMap<>();
+    primaryReader.read(roomRepository::findAll).forEach(room -> fresh.put(room.getRoomId(), copyOf(room)));
+
+    int changed = 0;
+    for (Room room : fresh.values()) {
+      Room previous = rooms.put(room.getRoomId(), room);
+      if (loaded && differs(previous, room)) {
+        changed++;
+        publishIfChanged(room.getRoomId(), previous, room.getStatus());
+      }
+    }
+    for (Long roomId : List.copyOf(rooms.keySet())) {
+      if (!fresh.containsKey(roomId)) {
+        changed++;
+        publishIfChanged(roomId, rooms.remove(roomId), null);
+      }
+    }
+
+    if (!loaded) {
+      loaded = true;
+      catalogVersion.bumpRooms();
+      log.info("Room availability index loaded with {} rooms", rooms.size());
+    } else if (changed > 0) {
+      catalogVersion.bumpRooms();
+      log.info("Room availability index reload corrected {} rooms", changed);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${rooms.index.reload-interval-ms:60000}",
+      initialDelayString = "${rooms.index.reload-interval-ms:60000}")
+  public void periodicReload() {
+    if (loaded) {
+      reload();
+    }
+  }
+
+  /**
+   * Whether this caller should re-read the room. Only one caller per interval wins, the
+   * rest trust the index.
+   */
+  private boolean claimRefresh(Long roomId) {
+    long now = System.nanoTime();
+    long interval = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMs);
+    boolean[] claimed = new boolean[1];
+    lastRefreshes.compute(roomId, (id, last) -> {
+      if (Objects.nonNull(last) && now - last < interval) {
+        return last;
+      }
+      claimed[0] = true;
+      return now;
+    });
+    return claimed[0];
+  }
+
+  /**
+   * Versions are not compared: status updates applied after commit keep the version the
+   * room was loaded with.
+   */
+  private static boolean differs(Room previous, Room current) {
+    if (Objects.isNull(previous) || Objects.isNull(current)) {
+      return previous != current;
+    }
+    return !Objects.equals(previous.getStatus(), current.getStatus())
+        || !Objects.equals(previous.getRoomNumber(), current.getRoomNumber())
+        || !Objects.equals(previous.getFloor(), current.getFloor())
+        || !Objects.equals(previous.getRoomDescription(), current.getRoomDescription());
+  }
+
+  /**
+   * A null old status means the room was created, a null new status that it was deleted.
+   */
+  private void publishIfChanged(Long roomId, Room previous, String newStatus) {
+    String oldStatus = Objects.isNull(previous) ? null : previous.getStatus();
+    if (!Objects.equals(oldStatus, newStatus)) {
+      eventPublisher.publishEvent(new RoomStatusChangedEvent(roomId, oldStatus, newStatus));
+    }
+  }
+
+  private void ensureLoaded() {
+    if (!loaded) {
+      synchronized (this) {
+        if (!loaded) {
+          reload();
+        }
+      }
+    }
+  }
+
+  private static Room copyOf(Room room) {
+    return Room.builder()
+        .roomId(room.getRoomId())
+        .roomNumber(room.getRoomNumber())
+        .status(room.getStatus())
+        .roomDescription(room.getRoomDescription())
+        .floor(room.getFloor())
+        .category(room.getCategory())
+        .version(room.getVersion())
+        .build();
+  }
+}
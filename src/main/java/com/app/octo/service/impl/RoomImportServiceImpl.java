@@ -0,0 +1,320 @@
+package com.app.octo.service.impl;
+
+import com.app.octo.dto.request.RoomRequestDTO;
+import com.app.octo.model.Category;
+import com.app.octo.model.Room;
+import com.app.octo.model.enums.ErrorCodes;
+import com.app.octo.model.exception.ConflictException;
+import com.app.octo.model.response.RoomImportResponse;
+import com.app.octo.repository.CategoryRepository;
+import com.app.octo.repository.RoomRepository;
+import com.app.octo.service.RoomImportService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates rooms from a streamed JSON array (or newline-delimited JSON) or CSV document.
+ * Room numbers are checked against one set loaded up front and categories against one map,
+ * so a row costs no query of its own. Valid rows are inserted in transactions of
+ * {@code rooms.import.batch-size}; rejected rows are reported and skipped. Batches written
+ * before a malformed part of the document stay committed and are counted in the response.
+ */
+@Slf4j
+@Service
+public class RoomImportServiceImpl implements RoomImportService {
+
+  public static final String AVAILABLE = "AVAILABLE";
+  public static final int MAX_REPORTED_ERRORS = 100;
+  public static final String ROOM_NUMBER_TAKEN = "Room number already exists";
+  public static final String CATEGORY_UNKNOWN = "Category does not exist";
+  public static final String MALFORMED = "Malformed input, import stopped";
+
+  public static final String CSV_ROOM_NUMBER = "room_number";
+  public static final String CSV_FLOOR = "floor";
+  public static final String CSV_ROOM_DESCRIPTION = "room_description";
+  public static final String CSV_CATEGORY_ID = "category_id";
+
+  private final RoomRepository roomRepository;
+
+  private final CategoryRepository categoryRepository;
+
+  private final RoomAvailabilityIndex roomAvailabilityIndex;
+
+  private final ObjectMapper objectMapper;
+
+  private final Validator validator;
+
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${rooms.import.batch-size:500}")
+  private int batchSize = 500;
+
+  public RoomImportServiceImpl(RoomRepository roomRepository, CategoryRepository categoryRepository,
+      RoomAvailabilityIndex roomAvailabilityIndex, ObjectMapper objectMapper, Validator validator,
+      PlatformTransactionManager transactionManager) {
+    this.roomRepository = roomRepository;
+    this.categoryRepository = categoryRepository;
+    this.roomAvailabilityIndex = roomAvailabilityIndex;
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Override
+  public RoomImportResponse importJson(InputStream inputStream) {
+    try (MappingIterator<RoomRequestDTO> rows = objectMapper.readerFor(RoomRequestDTO.class)
+        .readValues(inputStream)) {
+      return importRows(rows);
+    } catch (IOException e) {
+      return malformed(e);
+    }
+  }
+
+  @Override
+  public RoomImportResponse importCsv(InputStream inputStream) {
+    try (Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+      return importRows(new CsvRows(reader));
+    } catch (IOException e) {
+      return malformed(e);
+    }
+  }
+
+  private RoomImportResponse importRows(Iterator<RoomRequestDTO> rows) {
+    Set<String> roomNumbers = new HashSet<>(roomRepository.findAllRoomNumbers());
+    Map<Long, Category> categories = categoryRepository.findAll().stream()
+        .collect(Collectors.toMap(Category::getCategoryId, Function.identity()));
+
+    RoomImportResponse response = RoomImportResponse.builder().errors(new ArrayList<>()).build();
+    List<Room> batch = new ArrayList<>(batchSize);
+    long row = 0;
+    while (true) {
+      RoomRequestDTO request;
+      try {
+        if (!rows.hasNext()) {
+          break;
+        }
+        request = rows.next();
+      } catch (RuntimeException e) {
+        log.warn("Room import stopped at row {}: {}", row + 1, e.getMessage());
+        reject(response, row + 1, null, MALFORMED);
+        break;
+      }
+      row++;
+
+      String error = validate(request, roomNumbers, categories);
+      if (Objects.nonNull(error)) {
+        reject(response, row, request.getRoomNumber(), error);
+        continue;
+      }
+      roomNumbers.add(request.getRoomNumber());
+      batch.add(Room.builder()
+          .roomNumber(request.getRoomNumber())
+          .status(AVAILABLE)
+          .floor(request.getFloor())
+          .roomDescription(request.getRoomDescription())
+          .category(categories.get(request.getCategoryId()))
+          .build());
+
+      if (batch.size() == batchSize) {
+        save(batch, response);
+      }
+    }
+    save(batch, response);
+
+    log.info("Imported {} rooms, rejected {}", response.getImported(), response.getRejected());
+    return response;
+  }
+
+  private String validate(RoomRequestDTO request, Set<String> roomNumbers, Map<Long, Category> categories) {
+    Set<ConstraintViolation<RoomRequestDTO>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      return violations.stream().map(ConstraintViolation::getMessage).sorted()
+          .collect(Collectors.joining(", "));
+    }
+    if (roomNumbers.contains(request.getRoomNumber())) {
+      return ROOM_NUMBER_TAKEN;
+    }
+    if (!categories.containsKey(request.getCategoryId())) {
+      return CATEGORY_UNKNOWN;
+    }
+    return null;
+  }
+
+  private void save(List<Room> batch, RoomImportResponse response) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(status ->
+          roomRepository.saveAll(batch).forEach(roomAvailabilityIndex::put));
+    } catch (DataIntegrityViolationException e) {
+      // A room number taken by a concurrent request since the set was loaded
+      throw new ConflictException(ErrorCodes.DATA_EXISTS);
+    }
+    response.setImported(response.getImported() + batch.size());
+    batch.clear();
+  }
+
+  private static void reject(RoomImportResponse response, long row, String roomNumber, String error) {
+    response.setRejected(response.getRejected() + 1);
+    if (response.getErrors().size() < MAX_REPORTED_ERRORS) {
+      response.getErrors().add(RoomImportResponse.RowError.builder()
+          .row(row)
+          .roomNumber(roomNumber)
+          .error(error)
+          .build());
+    }
+  }
+
+  private static RoomImportResponse malformed(Exception e) {
+    log.warn("Room import could not read its input: {}", e.getMessage());
+    RoomImportResponse response = RoomImportResponse.builder().errors(new ArrayList<>()).build();
+    reject(response, 0, null, MALFORMED);
+    return response;
+  }
+
+  /**
+   * Reads CSV records one at a time. The first record names the columns; quoted fields may
+   * contain commas, doubled quotes and line breaks.
+   */
+  private static class CsvRows implements Iterator<RoomRequestDTO> {
+    private final Reader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private List<String> next;
+
+    private CsvRows(Reader reader) throws IOException {
+      this.reader = reader;
+      List<String> header = readRecord();
+      if (Objects.isNull(header)) {
+        throw new IOException("Missing CSV header");
+      }
+      for (int i = 0; i < header.size(); i++) {
+        columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+      }
+      for (String column : List.of(CSV_ROOM_NUMBER, CSV_FLOOR, CSV_ROOM_DESCRIPTION, CSV_CATEGORY_ID)) {
+        if (!columns.containsKey(column)) {
+          throw new IOException("Missing CSV column " + column);
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (Objects.isNull(next)) {
+        try {
+          next = readRecord();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      return Objects.nonNull(next);
+    }
+
+    @Override
+    public RoomRequestDTO next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      List<String> record = next;
+      next = null;
+      return RoomRequestDTO.builder()
+          .roomNumber(field(record, CSV_ROOM_NUMBER))
+          .floor(field(record, CSV_FLOOR))
+          .roomDescription(field(record, CSV_ROOM_DESCRIPTION))
+          .categoryId(categoryId(field(record, CSV_CATEGORY_ID)))
+          .build();
+    }
+
+    /**
+     * A missing or non-numeric id matches no category, so only that row is rejected.
+     */
+    private static long categoryId(String value) {
+      try {
+        return Objects.isNull(value) ? 0 : Long.parseLong(value.trim());
+      } catch (NumberFormatException e) {
+        return 0;
+      }
+    }
+
+    private String field(List<String> record, String column) {
+      int index = columns.get(column);
+      return index < record.size() ? record.get(index) : null;
+    }
+
+    /**
+     * The fields of the next non-empty record, or null at the end of the input.
+     */
+    private List<String> readRecord() throws IOException {
+      List<String> fields = new ArrayList<>();
+      StringBuilder field = new StringBuilder();
+      boolean quoted = false;
+      boolean any = false;
+      int c;
+      while ((c = reader.read()) != -1) {
+        any = true;
+        if (quoted) {
+          if (c != '"') {
+            field.append((char) c);
+            continue;
+          }
+          reader.mark(1);
+          if (reader.read() == '"') {
+            field.append('"');
+          } else {
+            reader.reset();
+            quoted = false;
+          }
+        } else if (c == '"') {
+          quoted = true;
+        } else if (c == ',') {
+          fields.add(field.toString());
+          field.setLength(0);
+        } else if (c == '\n') {
+          if (fields.isEmpty() && field.isEmpty()) {
+            any = false;
+            continue;
+          }
+          break;
+        } else if (c != '\r') {
+          field.append((char) c);
+        }
+      }
+      if (quoted) {
+        throw new IOException("Unterminated quoted field");
+      }
+      if (!any) {
+        return null;
+      }
+      fields.add(field.toString());
+      return fields;
+    }
+  }
+}
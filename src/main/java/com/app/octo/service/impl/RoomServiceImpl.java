@@ -7,12 +7,10 @@ import com.app.octo.dto.response.RoomResponseDTO;
 import com.app.octo.model.Category;
 import com.app.octo.model.Room;
 import com.app.octo.model.enums.ErrorCodes;
-import com.app.octo.model.exception.AppException;
+import com.app.octo.model.exception.NotFoundException;
 import com.app.octo.repository.CategoryRepository;
 import com.app.octo.repository.RoomRepository;
 import com.app.octo.service.RoomService;
-import jakarta.persistence.EntityNotFoundException;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -24,18 +22,26 @@ public class RoomServiceImpl implements RoomService {
 
     private final RoomRepository roomRepository;
     private final CategoryRepository categoryRepository;
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+    private final RoomWriteGuard roomWriteGuard;
 
-    private static final String ROOM_NOT_FOUND_MESSAGE = "Room not found with id: ";
 
-    public RoomServiceImpl(RoomRepository roomRepository, CategoryRepository categoryRepository) {
+    public RoomServiceImpl(RoomRepository roomRepository, CategoryRepository categoryRepository,
+                           RoomAvailabilityIndex roomAvailabilityIndex, RoomWriteGuard roomWriteGuard) {
         this.roomRepository = roomRepository;
         this.categoryRepository = categoryRepository;
+        this.roomAvailabilityIndex = roomAvailabilityIndex;
+        this.roomWriteGuard = roomWriteGuard;
     }
 
     @Override
     public List<RoomResponseDTO> getAllRooms() {
-        List<Room> rooms = roomRepository.findAll();
-        return rooms.stream()
+        return roomRepository.findAllRoomResponses();
+    }
+
+    @Override
+    public List<RoomResponseDTO> getAvailableRooms() {
+        return roomAvailabilityIndex.getAvailableRooms().stream()
                 .map(this::mapToResponse)
                 .toList();
     }
@@ -44,7 +50,7 @@ public class RoomServiceImpl implements RoomService {
     public RoomResponseDTO getRoomById(RoomIdRequestDTO roomIdRequest) {
         Long roomId = roomIdRequest.getRoomId();
         Room room = roomRepository.findById(roomId)
-                .orElseThrow(() -> new RuntimeException(ROOM_NOT_FOUND_MESSAGE + roomId));
+                .orElseThrow(() -> new NotFoundException(ErrorCodes.ROOM_NOT_FOUND));
         return mapToResponse(room);
     }
 
@@ -53,7 +59,7 @@ public class RoomServiceImpl implements RoomService {
         Category category = categoryRepository.findByCategoryId(roomRequest.getCategoryId());
 
         if (Objects.isNull(category)) {
-            throw new AppException(ErrorCodes.CATEGORY_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND);
+            throw new NotFoundException(ErrorCodes.CATEGORY_NOT_FOUND);
         }
 
         Room room = Room.builder()
@@ -64,6 +70,7 @@ public class RoomServiceImpl implements RoomService {
                 .category(category)
                 .build();
         Room savedRoom = roomRepository.save(room);
+        roomAvailabilityIndex.put(savedRoom);
         return mapToResponse(savedRoom);
     }
 
@@ -72,18 +79,23 @@ public class RoomServiceImpl implements RoomService {
         long roomId = roomUpdateStatus.getRoomId();
 
         if (!roomRepository.existsById(roomId)) {
-            throw new EntityNotFoundException("Room with ID " + roomId + " not found.");
+            throw new NotFoundException(ErrorCodes.ROOM_NOT_FOUND);
         }
 
+        return roomWriteGuard.execute(roomId, () -> applyStatus(roomId, roomUpdateStatus.getStatus()));
+    }
+
+    private RoomResponseDTO applyStatus(long roomId, String status) {
         Optional<Room> room = roomRepository.findById(roomId);
 
         if (room.isPresent()) {
             Room roomToUpdate = room.get();
-            roomToUpdate.setStatus(roomUpdateStatus.getStatus());
+            roomToUpdate.setStatus(status);
             Room updatedRoom = roomRepository.save(roomToUpdate);
+            roomAvailabilityIndex.put(updatedRoom);
             return mapToResponse(updatedRoom);
         } else {
-            throw new EntityNotFoundException("Room with ID " + roomId + " not found.");
+            throw new NotFoundException(ErrorCodes.ROOM_NOT_FOUND);
         }
     }
 
@@ -91,8 +103,9 @@ public class RoomServiceImpl implements RoomService {
     public void deleteRoom(RoomIdRequestDTO roomIdRequest) {
         long roomId = roomIdRequest.getRoomId();
         Room room = roomRepository.findById(roomId)
-                .orElseThrow(() -> new RuntimeException(ROOM_NOT_FOUND_MESSAGE + roomId));
+                .orElseThrow(() -> new NotFoundException(ErrorCodes.ROOM_NOT_FOUND));
         roomRepository.delete(room);
+        roomAvailabilityIndex.remove(roomId);
     }
 
     @Override
@@ -0,0 +1,277 @@
+package com.app.octo.service.impl;
+
+import com.app.octo.model.event.RoomStatusChangedEvent;
+import com.app.octo.model.response.RoomStatusDelta;
+import com.app.octo.service.RoomStatusStreamService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes room status changes to SSE subscribers. An idle subscriber is only an emitter
+ * and an empty queue: no thread is held while nothing happens.
+ *
+ * <p>Each delta is serialized once and queued to every subscriber. A subscriber whose queue
+ * is full is disconnected instead of slowing the others down. Event ids are
+ * {@code <epoch>:<version>}, so a reconnecting client resumes from the recent history
+ * after its Last-Event-ID. If it fell too far behind, or the server restarted, it gets a
+ * {@code reset} event and should reload the room list.
+ */
+@Slf4j
+@Service
+public class RoomStatusStreamServiceImpl implements RoomStatusStreamService {
+
+  public static final String EVENT_READY = "ready";
+  public static final String EVENT_STATUS = "room-status";
+  public static final String EVENT_RESET = "reset";
+
+  private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("ping").build();
+
+  private final ObjectMapper objectMapper;
+
+  private final long epoch = System.currentTimeMillis();
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Resume window, and the most events a subscriber may have queued before it is dropped.
+   */
+  @Value("${rooms.stream.buffer-size:256}")
+  private int bufferSize = 256;
+
+  @Value("${rooms.stream.timeout-ms:1800000}")
+  private long timeoutMs = 1800000;
+
+  @Value("${rooms.stream.sender-threads:4}")
+  private int senderThreads = 4;
+
+  private Set<DataWithMediaType>[] history;
+
+  private long version;
+
+  private ExecutorService sender;
+
+  public RoomStatusStreamServiceImpl(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  @PostConstruct
+  @SuppressWarnings("unchecked")
+  protected void initialise() {
+    history = new Set[bufferSize];
+    AtomicInteger threads = new AtomicInteger();
+    sender = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+          Thread thread = new Thread(runnable, "room-stream-" + threads.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  @PreDestroy
+  protected void shutdown() {
+    sender.shutdownNow();
+    subscribers.forEach(RoomStatusStreamServiceImpl::complete);
+    subscribers.clear();
+  }
+
+  @Override
+  public SseEmitter subscribe(String lastEventId) {
+    SseEmitter emitter = newEmitter(timeoutMs);
+    Subscriber subscriber = new Subscriber(emitter);
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(e -> subscribers.remove(subscriber));
+
+    // Replay and registration happen under the publish lock so no delta is missed or sent twice
+    synchronized (this) {
+      long resumeFrom = resumeVersion(lastEventId);
+      if (resumeFrom < 0) {
+        subscriber.offer(control(Objects.isNull(lastEventId) ? EVENT_READY : EVENT_RESET));
+      } else {
+        for (long v = resumeFrom + 1; v <= version; v++) {
+          subscriber.offer(history[(int) (v % bufferSize)]);
+        }
+      }
+      subscribers.add(subscriber);
+    }
+    schedule(subscriber);
+    return emitter;
+  }
+
+  @Override
+  public int subscriberCount() {
+    return subscribers.size();
+  }
+
+  @EventListener
+  public void onRoomStatusChanged(RoomStatusChangedEvent event) {
+    synchronized (this) {
+      version++;
+      RoomStatusDelta delta = new RoomStatusDelta(version, event.roomId(), event.oldStatus(), event.newStatus());
+      Set<DataWithMediaType> message = SseEmitter.event()
+          .id(eventId(version))
+          .name(EVENT_STATUS)
+          .data(toJson(delta), MediaType.APPLICATION_JSON)
+          .build();
+      history[(int) (version % bufferSize)] = message;
+      subscribers.forEach(subscriber -> {
+        if (!subscriber.offer(message)) {
+          log.info("Dropping room stream subscriber that fell {} events behind", bufferSize);
+          evict(subscriber);
+        }
+      });
+    }
+    subscribers.forEach(this::schedule);
+  }
+
+  /**
+   * Keeps idle connections open through proxies and finds clients that went away.
+   */
+  @Scheduled(fixedDelayString = "${rooms.stream.heartbeat-ms:30000}")
+  public void heartbeat() {
+    subscribers.forEach(subscriber -> {
+      if (subscriber.offer(HEARTBEAT)) {
+        schedule(subscriber);
+      } else {
+        evict(subscriber);
+      }
+    });
+  }
+
+  protected SseEmitter newEmitter(long timeout) {
+    return new SseEmitter(timeout);
+  }
+
+  /**
+   * The version to replay after, or -1 when the client needs a fresh start.
+   */
+  private long resumeVersion(String lastEventId) {
+    if (Objects.isNull(lastEventId)) {
+      return -1;
+    }
+    String[] parts = lastEventId.split(":");
+    try {
+      if (parts.length != 2 || Long.parseLong(parts[0]) != epoch) {
+        return -1;
+      }
+      long last = Long.parseLong(parts[1]);
+      return last <= version && version - last <= bufferSize ? last : -1;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private Set<DataWithMediaType> control(String name) {
+    return SseEmitter.event().id(eventId(version)).name(name).data(version).build();
+  }
+
+  private String eventId(long eventVersion) {
+    return epoch + ":" + eventVersion;
+  }
+
+  private String toJson(RoomStatusDelta delta) {
+    try {
+      return objectMapper.writeValueAsString(delta);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize room status delta", e);
+    }
+  }
+
+  private void schedule(Subscriber subscriber) {
+    if (subscriber.pending.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      sender.execute(() -> drain(subscriber));
+    } catch (RejectedExecutionException e) {
+      subscriber.draining.set(false);
+    }
+  }
+
+  private void drain(Subscriber subscriber) {
+    try {
+      Set<DataWithMediaType> message;
+      while (!subscriber.closed && (message = subscriber.pending.poll()) != null) {
+        subscriber.size.decrementAndGet();
+        subscriber.emitter.send(message);
+      }
+    } catch (IOException | IllegalStateException e) {
+      evict(subscriber);
+    } finally {
+      subscriber.draining.set(false);
+    }
+    // A message may have been queued after the loop saw an empty queue
+    schedule(subscriber);
+  }
+
+  /**
+   * Completing waits for a send in progress, so it is left to the sender pool rather than
+   * done on the publishing thread.
+   */
+  private void evict(Subscriber subscriber) {
+    subscribers.remove(subscriber);
+    if (subscriber.closed) {
+      return;
+    }
+    subscriber.closed = true;
+    subscriber.pending.clear();
+    try {
+      sender.execute(() -> complete(subscriber));
+    } catch (RejectedExecutionException e) {
+      complete(subscriber);
+    }
+  }
+
+  private static void complete(Subscriber subscriber) {
+    try {
+      subscriber.emitter.complete();
+    } catch (RuntimeException e) {
+      log.debug("Room stream subscriber was already closed", e);
+    }
+  }
+
+  private final class Subscriber {
+    private final SseEmitter emitter;
+    private final Queue<Set<DataWithMediaType>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    private Subscriber(SseEmitter emitter) {
+      this.emitter = emitter;
+    }
+
+    private boolean offer(Set<DataWithMediaType> message) {
+      if (closed || size.incrementAndGet() > bufferSize) {
+        size.decrementAndGet();
+        return false;
+      }
+      pending.add(message);
+      return true;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.app.octo.service.impl;
+
+import com.app.octo.model.enums.ErrorCodes;
+import com.app.octo.model.exception.ConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs room writes in their own transaction while holding an in-process lock for
+ * that room, retrying a bounded number of times when an optimistic version check
+ * fails. Each room gets its own lock, so writes to different rooms never wait on
+ * each other.
+ */
+@Slf4j
+@Component
+public class RoomWriteGuard {
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final Map<Long, ReentrantLock> roomLocks = new ConcurrentHashMap<>();
+
+  @Value("${booking.concurrency.locking-enabled:true}")
+  private boolean lockingEnabled = true;
+
+  @Value("${booking.concurrency.lock-timeout-ms:2000}")
+  private long lockTimeoutMs = 2000;
+
+  @Value("${booking.concurrency.max-retries:3}")
+  private int maxRetries = 3;
+
+  public RoomWriteGuard(PlatformTransactionManager transactionManager) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Executes the action under the lock of the given room.
+   */
+  public <T> T execute(Long roomId, Supplier<T> action) {
+    if (!lockingEnabled || Objects.isNull(roomId)) {
+      return executeWithRetry(action);
+    }
+
+    ReentrantLock lock = roomLocks.computeIfAbsent(roomId, id -> new ReentrantLock());
+    try {
+      if (!lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+        throw new ConflictException(ErrorCodes.ROOM_BUSY);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ConflictException(ErrorCodes.ROOM_BUSY);
+    }
+
+    try {
+      return executeWithRetry(action);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Executes the action in a transaction without taking a room lock, for writes
+   * whose room is only known after reading the row.
+   */
+  public <T> T executeWithRetry(Supplier<T> action) {
+    // Inside an outer transaction a failed attempt marks it rollback-only, so retrying here is pointless
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return action.get();
+    }
+
+    int attempt = 0;
+    while (true) {
+      try {
+        return transactionTemplate.execute(status -> action.get());
+      } catch (OptimisticLockingFailureException e) {
+        attempt++;
+        if (attempt > maxRetries) {
+          log.warn("Giving up after {} optimistic lock conflicts", attempt);
+          throw new ConflictException(ErrorCodes.ROOM_BUSY);
+        }
+        log.debug("Optimistic lock conflict, retrying (attempt {})", attempt);
+      }
+    }
+  }
+}
@@ -1,167 +1,197 @@
 package com.app.octo.service.impl;
 
+import com.app.octo.mapper.UserMapper;
 import com.app.octo.model.User;
 import com.app.octo.model.enums.ErrorCodes;
+import com.app.octo.model.event.UserChangedEvent;
 import com.app.octo.model.enums.UserRole;
-import com.app.octo.model.exception.AppException;
+import com.app.octo.model.exception.BadRequestException;
+import com.app.octo.model.exception.NotFoundException;
 import com.app.octo.model.request.EditPasswordRequest;
 import com.app.octo.model.request.EditProfileRequest;
 import com.app.octo.model.request.LoginRequest;
 import com.app.octo.model.request.RegisterRequest;
 import com.app.octo.model.response.UserResponse;
 import com.app.octo.repository.UserRepository;
+import com.app.octo.security.PasswordHasher;
 import com.app.octo.service.UserService;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.dozer.Mapper;
-import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.nio.CharBuffer;
 import java.util.Objects;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Password work runs on the {@link PasswordHasher} pool. Whatever follows it, saving the user
+ * and publishing the change, continues on the application task executor so the hashing
+ * threads never wait on the database.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
   private final UserRepository userRepository;
-  private final PasswordEncoder passwordEncoder;
-  private final Mapper mapper;
+  private final PasswordHasher passwordHasher;
+  private final UserMapper userMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Executor taskExecutor;
+
+  public UserServiceImpl(UserRepository userRepository, PasswordHasher passwordHasher, UserMapper userMapper,
+      ApplicationEventPublisher eventPublisher,
+      @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor) {
+    this.userRepository = userRepository;
+    this.passwordHasher = passwordHasher;
+    this.userMapper = userMapper;
+    this.eventPublisher = eventPublisher;
+    this.taskExecutor = taskExecutor;
+  }
 
   @Override
   public UserResponse findByEmail(String email) {
     User user = userRepository.findByEmail(email).orElseThrow(()
-        -> new AppException(ErrorCodes.USER_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND));
-    return mapper.map(user, UserResponse.class);
+        -> new NotFoundException(ErrorCodes.USER_NOT_FOUND));
+    return userMapper.toResponse(user);
   }
 
   @Override
-  public UserResponse login(LoginRequest loginRequest) {
-    User user = userRepository.findByEmail(loginRequest.getEmail()).orElseThrow(()
-        -> new AppException(ErrorCodes.USER_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND));
-
-
-    if(passwordEncoder.matches(
-        CharBuffer.wrap(loginRequest.getPassword()), user.getPassword())){
-      return mapper.map(user, UserResponse.class);
-    }
-
-    throw new AppException(ErrorCodes.INVALID_PASSWORD.getMessage(), HttpStatus.BAD_REQUEST);
+  public long findVersion(String email) {
+    return userRepository.findVersionByEmail(email).orElseThrow(()
+        -> new NotFoundException(ErrorCodes.USER_NOT_FOUND));
   }
 
   @Override
-  public UserResponse register(RegisterRequest registerRequest) {
-    if (Objects.isNull(registerRequest) || StringUtils.isBlank(registerRequest.getFirstName())
-        || StringUtils.isBlank(registerRequest.getLastName()) || Objects.isNull(
-        registerRequest.getPassword()) || registerRequest.getPassword().length < 1
-        || StringUtils.isBlank(registerRequest.getEmail())) {
-      throw new AppException("Incomplete Request", HttpStatus.BAD_REQUEST);
-    }
-
-    User userFromDB = userRepository.findByEmail(registerRequest.getEmail())
-        .orElseGet(() -> null);
-
-    if(Objects.nonNull(userFromDB)) {
-      throw new AppException(ErrorCodes.ACCOUNT_EXIST.getMessage(), HttpStatus.BAD_REQUEST);
-    }
-
+  public CompletableFuture<UserResponse> login(LoginRequest loginRequest) {
+    return start(() -> {
+      User user = userRepository.findByEmail(loginRequest.getEmail()).orElseThrow(()
+          -> new NotFoundException(ErrorCodes.USER_NOT_FOUND));
+
+      CharBuffer password = CharBuffer.wrap(loginRequest.getPassword());
+      return passwordHasher.matches(password, user.getPassword()).thenApply(matched -> {
+        if (!matched) {
+          throw new BadRequestException(ErrorCodes.INVALID_PASSWORD);
+        }
+        rehashIfOutdated(user, password);
+        return userMapper.toResponse(user);
+      });
+    });
+  }
 
+  @Override
+  public CompletableFuture<UserResponse> register(RegisterRequest registerRequest) {
+    return start(() -> {
+      if (Objects.isNull(registerRequest) || StringUtils.isBlank(registerRequest.getFirstName())
+          || StringUtils.isBlank(registerRequest.getLastName()) || Objects.isNull(
+          registerRequest.getPassword()) || registerRequest.getPassword().length < 1
+          || StringUtils.isBlank(registerRequest.getEmail())) {
+        throw new BadRequestException(ErrorCodes.INCOMPLETE_REQUEST);
+      }
 
-    User user = mapper.map(registerRequest, User.class);
-    setAdditionalDataToUser(user, UserRole.ROLE_USER);
+      User userFromDB = userRepository.findByEmail(registerRequest.getEmail())
+          .orElseGet(() -> null);
 
+      if(Objects.nonNull(userFromDB)) {
+        throw new BadRequestException(ErrorCodes.ACCOUNT_EXIST);
+      }
 
-    user.setPassword(passwordEncoder.encode(CharBuffer.wrap(registerRequest.getPassword()))); //Store in hashed
-    
-    userRepository.save(user);
+      User user = userMapper.toUser(registerRequest);
+      setAdditionalDataToUser(user, UserRole.ROLE_USER);
 
-    return mapper.map(user, UserResponse.class);
+      return saveWithHashedPassword(user, registerRequest.getPassword());
+    });
   }
 
   @Override
-  public UserResponse registerAdmin(RegisterRequest registerRequest) {
-    User userFromDB = userRepository.findByEmail(registerRequest.getEmail())
-        .orElseGet(() -> null);
-
-    if(Objects.nonNull(userFromDB)) {
-      throw new AppException(ErrorCodes.ACCOUNT_EXIST.getMessage(), HttpStatus.BAD_REQUEST);
-    }
-
-    User user = mapper.map(registerRequest, User.class);
-    setAdditionalDataToUser(user, UserRole.ROLE_ADMIN);
+  public CompletableFuture<UserResponse> registerAdmin(RegisterRequest registerRequest) {
+    return start(() -> {
+      User userFromDB = userRepository.findByEmail(registerRequest.getEmail())
+          .orElseGet(() -> null);
 
-    user.setPassword(passwordEncoder.encode(CharBuffer.wrap(registerRequest.getPassword()))); //Store in hashed
+      if(Objects.nonNull(userFromDB)) {
+        throw new BadRequestException(ErrorCodes.ACCOUNT_EXIST);
+      }
 
-    userRepository.save(user);
+      User user = userMapper.toUser(registerRequest);
+      setAdditionalDataToUser(user, UserRole.ROLE_ADMIN);
 
-    return mapper.map(user, UserResponse.class);
+      return saveWithHashedPassword(user, registerRequest.getPassword());
+    });
   }
 
   @Override
-  public UserResponse registerEmployee(RegisterRequest registerRequest) {
-    if (Objects.isNull(registerRequest) || StringUtils.isBlank(registerRequest.getFirstName())
-        || StringUtils.isBlank(registerRequest.getLastName()) || Objects.isNull(
-        registerRequest.getPassword()) || registerRequest.getPassword().length < 1
-        || StringUtils.isBlank(registerRequest.getEmail())) {
-      throw new AppException("Incomplete Request", HttpStatus.BAD_REQUEST);
-    }
-    User userFromDB = userRepository.findByEmail(registerRequest.getEmail())
-        .orElseGet(() -> null);
-
-    if(Objects.nonNull(userFromDB)) {
-      throw new AppException(ErrorCodes.ACCOUNT_EXIST.getMessage(), HttpStatus.BAD_REQUEST);
-    }
-
-    User user = mapper.map(registerRequest, User.class);
-    setAdditionalDataToUser(user, UserRole.ROLE_EMPLOYEE);
+  public CompletableFuture<UserResponse> registerEmployee(RegisterRequest registerRequest) {
+    return start(() -> {
+      if (Objects.isNull(registerRequest) || StringUtils.isBlank(registerRequest.getFirstName())
+          || StringUtils.isBlank(registerRequest.getLastName()) || Objects.isNull(
+          registerRequest.getPassword()) || registerRequest.getPassword().length < 1
+          || StringUtils.isBlank(registerRequest.getEmail())) {
+        throw new BadRequestException(ErrorCodes.INCOMPLETE_REQUEST);
+      }
+      User userFromDB = userRepository.findByEmail(registerRequest.getEmail())
+          .orElseGet(() -> null);
 
-    user.setPassword(passwordEncoder.encode(CharBuffer.wrap(registerRequest.getPassword()))); //Store in hashed
+      if(Objects.nonNull(userFromDB)) {
+        throw new BadRequestException(ErrorCodes.ACCOUNT_EXIST);
+      }
 
-    userRepository.save(user);
+      User user = userMapper.toUser(registerRequest);
+      setAdditionalDataToUser(user, UserRole.ROLE_EMPLOYEE);
 
-    return mapper.map(user, UserResponse.class);
+      return saveWithHashedPassword(user, registerRequest.getPassword());
+    });
   }
 
   @Override
-  public UserResponse editUserProfile(EditProfileRequest editProfileRequest) {
-    User user = userRepository.findByEmail(editProfileRequest.getCurrentEmail()).orElseThrow(
-        () -> new AppException(ErrorCodes.USER_NOT_FOUND.getMessage(),
-            HttpStatus.NOT_FOUND));
-    if (!StringUtils.equals(editProfileRequest.getCurrentEmail(), editProfileRequest.getEmail())
-        && Objects.nonNull(
-        userRepository.findByEmail(editProfileRequest.getEmail()).orElse(null))) {
-      throw new AppException(ErrorCodes.ACCOUNT_EXIST.getMessage(), HttpStatus.BAD_REQUEST);
-    }
+  public CompletableFuture<UserResponse> editUserProfile(EditProfileRequest editProfileRequest) {
+    return start(() -> {
+      User user = userRepository.findByEmail(editProfileRequest.getCurrentEmail()).orElseThrow(
+          () -> new NotFoundException(ErrorCodes.USER_NOT_FOUND));
+      if (!StringUtils.equals(editProfileRequest.getCurrentEmail(), editProfileRequest.getEmail())
+          && Objects.nonNull(
+          userRepository.findByEmail(editProfileRequest.getEmail()).orElse(null))) {
+        throw new BadRequestException(ErrorCodes.ACCOUNT_EXIST);
+      }
 
+      setChangedDataToUser(user, editProfileRequest);
 
-    setChangedDataToUser(user, editProfileRequest);
+      CompletableFuture<User> changed = Objects.nonNull(editProfileRequest.getPassword())
+          && editProfileRequest.getPassword().length > 0
+          ? changePassword(user, editProfileRequest.getCurrentPassword(), editProfileRequest.getPassword())
+          : CompletableFuture.completedFuture(user);
 
-    userRepository.save(user);
+      return changed.thenApplyAsync(changedUser -> {
+        userRepository.save(changedUser);
+        eventPublisher.publishEvent(new UserChangedEvent(editProfileRequest.getCurrentEmail()));
 
-    return mapper.map(user, UserResponse.class);
+        return userMapper.toResponse(changedUser);
+      }, taskExecutor);
+    });
   }
 
   @Override
-  public UserResponse editPassword(EditPasswordRequest editPasswordRequest) {
-    User user = userRepository.findByEmail(editPasswordRequest.getCurrentEmail()).orElseThrow(
-        () -> new AppException(ErrorCodes.USER_NOT_FOUND.getMessage(),
-            HttpStatus.NOT_FOUND));
-
+  public CompletableFuture<UserResponse> editPassword(EditPasswordRequest editPasswordRequest) {
+    return start(() -> {
+      User user = userRepository.findByEmail(editPasswordRequest.getCurrentEmail()).orElseThrow(
+          () -> new NotFoundException(ErrorCodes.USER_NOT_FOUND));
 
-    if (Objects.nonNull(editPasswordRequest.getPassword()) && editPasswordRequest.getPassword().length > 0) {
-      if (!passwordEncoder.matches(CharBuffer.wrap(editPasswordRequest.getCurrentPassword()),
-          user.getPassword())) {
-        throw new AppException(ErrorCodes.INVALID_REQUEST.getMessage(), HttpStatus.BAD_REQUEST);
+      if (Objects.isNull(editPasswordRequest.getPassword()) || editPasswordRequest.getPassword().length < 1) {
+        throw new BadRequestException(ErrorCodes.INVALID_REQUEST);
       }
-      user.setPassword(passwordEncoder.encode(CharBuffer.wrap(editPasswordRequest.getPassword())));
-    } else {
-      throw new AppException(ErrorCodes.INVALID_REQUEST.getMessage(), HttpStatus.BAD_REQUEST);
-    }
 
-    userRepository.save(user);
+      return changePassword(user, editPasswordRequest.getCurrentPassword(), editPasswordRequest.getPassword())
+          .thenApplyAsync(changedUser -> {
+            userRepository.save(changedUser);
+            eventPublisher.publishEvent(new UserChangedEvent(editPasswordRequest.getCurrentEmail()));
 
-    return mapper.map(user, UserResponse.class);
+            return userMapper.toResponse(changedUser);
+          }, taskExecutor);
+    });
   }
 
   private void setChangedDataToUser(User user, EditProfileRequest editProfileRequest) {
@@ -175,12 +205,61 @@ public class UserServiceImpl implements UserService {
     if (StringUtils.isNotBlank(editProfileRequest.getLastName())) {
       user.setLastName(editProfileRequest.getLastName());
     }
-    if (Objects.nonNull(editProfileRequest.getPassword()) && editProfileRequest.getPassword().length > 0) {
-      if (!passwordEncoder.matches(CharBuffer.wrap(editProfileRequest.getCurrentPassword()),
-          user.getPassword())) {
-        throw new AppException(ErrorCodes.INVALID_REQUEST.getMessage(), HttpStatus.BAD_REQUEST);
-      }
-      user.setPassword(passwordEncoder.encode(CharBuffer.wrap(editProfileRequest.getPassword())));
+  }
+
+  /**
+   * Checks the current password and hashes the new one, both on the hashing pool.
+   */
+  private CompletableFuture<User> changePassword(User user, char[] currentPassword, char[] newPassword) {
+    return passwordHasher.matches(CharBuffer.wrap(currentPassword), user.getPassword())
+        .thenCompose(matched -> {
+          if (!matched) {
+            throw new BadRequestException(ErrorCodes.INVALID_REQUEST);
+          }
+          return passwordHasher.encode(CharBuffer.wrap(newPassword));
+        })
+        .thenApply(encoded -> {
+          user.setPassword(encoded);
+          return user;
+        });
+  }
+
+  private CompletableFuture<UserResponse> saveWithHashedPassword(User user, char[] password) {
+    return passwordHasher.encode(CharBuffer.wrap(password)).thenApplyAsync(encoded -> {
+      user.setPassword(encoded); //Store in hashed
+      userRepository.save(user);
+
+      return userMapper.toResponse(user);
+    }, taskExecutor);
+  }
+
+  /**
+   * Rehashes with the current cost after a successful login. Runs in the background so the
+   * login itself is not slowed down; if the pool is busy it is simply tried on a later login.
+   */
+  private void rehashIfOutdated(User user, CharSequence rawPassword) {
+    if (!passwordHasher.upgradeEncoding(user.getPassword())) {
+      return;
+    }
+
+    String current = user.getPassword();
+    passwordHasher.encode(rawPassword)
+        .thenAcceptAsync(encoded -> userRepository.updatePasswordIfCurrent(user.getId(), current, encoded),
+            taskExecutor)
+        .exceptionally(e -> {
+          log.debug("Unable to rehash the password of user {}", user.getId(), e);
+          return null;
+        });
+  }
+
+  /**
+   * Runs the synchronous part of a request, turning an early failure into a failed future.
+   */
+  private static <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> request) {
+    try {
+      return request.get();
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
     }
   }
 
@@ -0,0 +1,9 @@
+-- Version columns for optimistic locking of rooms, users and bookings. They did not exist in
+-- the schema ddl-auto=update created, so baselined databases get them here; existing rows
+-- start at version 0.
+
+alter table room add column version bigint not null default 0;
+
+alter table users add column version bigint not null default 0;
+
+alter table booking add column version bigint not null default 0;
@@ -0,0 +1,61 @@
+-- Schema as previously created by ddl-auto=update. Existing databases are baselined at this
+-- version and start from V1_1.
+
+create table category (
+    category_id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    category_name varchar(255),
+    primary key (category_id),
+    constraint uk_category_name unique (category_name)
+);
+
+create table room (
+    room_id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    room_floor varchar(255) not null,
+    room_description varchar(255),
+    room_number varchar(255) not null,
+    status varchar(255) not null,
+    category_id bigint not null,
+    primary key (room_id),
+    constraint uk_room_number unique (room_number),
+    constraint fk_room_category foreign key (category_id) references category (category_id)
+);
+
+create table users (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    email varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    user_role tinyint,
+    primary key (id)
+);
+
+create table booking (
+    booking_id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    booking_date datetime(6) not null,
+    end_date datetime(6) not null,
+    start_date datetime(6) not null,
+    status varchar(255) not null,
+    room_id bigint not null,
+    user_id bigint not null,
+    primary key (booking_id),
+    constraint fk_booking_room foreign key (room_id) references room (room_id),
+    constraint fk_booking_user foreign key (user_id) references users (id)
+);
+
+create table item (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    name varchar(255),
+    sku varchar(255),
+    primary key (id)
+);
@@ -0,0 +1,12 @@
+-- Expiry sweep and deadline loads: status = ? and end_date < ?, reading room_id from the index
+create index idx_booking_status_end_date on booking (status, end_date, room_id);
+
+-- Bookings of a user, optionally by status. Also serves the user_id foreign key, so MySQL
+-- drops the index it created for fk_booking_user.
+create index idx_booking_user_status on booking (user_id, status);
+
+create index idx_room_status on room (status);
+
+-- Login, token validation and registration all look users up by email. Fails on databases
+-- that already hold duplicate emails; those must be merged before upgrading.
+create unique index uk_users_email on users (email);
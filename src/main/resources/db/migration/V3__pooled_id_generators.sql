@@ -0,0 +1,15 @@
+-- Table-backed id generators for batched inserts. Each row marks the end of the last block
+-- of ids handed out; seeding it a block above the highest id keeps new ids clear of existing
+-- rows.
+
+create table id_generator (
+    sequence_name varchar(255) not null,
+    next_val bigint,
+    primary key (sequence_name)
+);
+
+insert into id_generator (sequence_name, next_val) select 'booking', coalesce(max(booking_id), 0) + 50 from booking;
+insert into id_generator (sequence_name, next_val) select 'category', coalesce(max(category_id), 0) + 50 from category;
+insert into id_generator (sequence_name, next_val) select 'item', coalesce(max(id), 0) + 50 from item;
+insert into id_generator (sequence_name, next_val) select 'room', coalesce(max(room_id), 0) + 50 from room;
+insert into id_generator (sequence_name, next_val) select 'users', coalesce(max(id), 0) + 50 from users;
@@ -0,0 +1,10 @@
+-- Written by the primary and read back from each replica to measure replication lag.
+-- beat_at is epoch milliseconds.
+
+create table replica_heartbeat (
+    id int not null,
+    beat_at bigint not null,
+    primary key (id)
+);
+
+insert into replica_heartbeat (id, beat_at) values (1, 0);
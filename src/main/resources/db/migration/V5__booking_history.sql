@@ -0,0 +1,25 @@
+-- DONE and CANCELLED bookings moved out of booking by the archival job once their end date
+-- is old enough. A row keeps its booking_id, so every id is in exactly one of the two tables.
+
+create table booking_history (
+    booking_id bigint not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    booking_date datetime(6) not null,
+    end_date datetime(6) not null,
+    start_date datetime(6) not null,
+    status varchar(255) not null,
+    version bigint not null,
+    room_id bigint not null,
+    user_id bigint not null,
+    archived_at datetime(6) not null,
+    primary key (booking_id),
+    constraint fk_booking_history_room foreign key (room_id) references room (room_id),
+    constraint fk_booking_history_user foreign key (user_id) references users (id)
+);
+
+-- Same access paths as the hot table: a user's bookings by status, and status with an end
+-- date range
+create index idx_booking_history_user_status on booking_history (user_id, status);
+
+create index idx_booking_history_status_end_date on booking_history (status, end_date);
@@ -0,0 +1,85 @@
+package com.app.octo.benchmark;
+
+import com.app.octo.model.enums.ErrorCodes;
+import com.app.octo.model.exception.AppException;
+import com.app.octo.model.exception.ConflictException;
+import com.app.octo.model.response.BookingResponse;
+import com.app.octo.security.RestExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A booking rush where every request is turned away because the room is busy. Compares the
+ * old path, an exception with a full stack trace caught in the controller and a response
+ * object serialized per request, with a stackless domain exception answered from the
+ * pre-serialized body. {@code depth} stands in for the Spring and servlet frames between the
+ * throw and the handler. Not run by surefire; start it with
+ * {@code java -cp <test classpath> com.app.octo.benchmark.ErrorPathBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+  @Param({"20", "120"})
+  private int depth;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final RestExceptionHandler restExceptionHandler = new RestExceptionHandler();
+
+  @Benchmark
+  public byte[] stackTraceAndSerialize() throws Exception {
+    try {
+      descend(depth, false);
+      return null;
+    } catch (AppException e) {
+      BookingResponse response = new BookingResponse();
+      response.setErrorCode(e.getCode().name());
+      response.setErrorMessage(e.getMessage());
+      return objectMapper.writeValueAsBytes(response);
+    }
+  }
+
+  @Benchmark
+  public byte[] stacklessAndPreSerialized() {
+    try {
+      descend(depth, true);
+      return null;
+    } catch (AppException e) {
+      return restExceptionHandler.handleException(e).getBody();
+    }
+  }
+
+  private static int descend(int remaining, boolean stackless) {
+    if (remaining == 0) {
+      throw stackless ? new ConflictException(ErrorCodes.ROOM_BUSY)
+          : new AppException(ErrorCodes.ROOM_BUSY.getMessage(), HttpStatus.CONFLICT);
+    }
+    return descend(remaining - 1, stackless) + 1;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ErrorPathBenchmark.class.getSimpleName()).build()).run();
+  }
+}
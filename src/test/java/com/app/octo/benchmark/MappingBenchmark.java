@@ -0,0 +1,84 @@
+package com.app.octo.benchmark;
+
+import com.app.octo.mapper.BookingMapper;
+import com.app.octo.model.Booking;
+import com.app.octo.model.Room;
+import com.app.octo.model.User;
+import com.app.octo.model.enums.UserRole;
+import com.app.octo.model.response.BookingResponse;
+import org.dozer.DozerBeanMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the removed Dozer mapping with the generated MapStruct mapper on a booking
+ * list of the size returned by getAll. Not run by surefire; start it from the IDE or with
+ * {@code java -cp <test classpath> com.app.octo.benchmark.MappingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+  @Param({"1", "100", "1000"})
+  private int size;
+
+  private final DozerBeanMapper dozerMapper = new DozerBeanMapper();
+  private final BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
+
+  private List<Booking> bookings;
+
+  @Setup
+  public void setUp() {
+    User user = User.builder().id(1L).firstName("First").lastName("Last").email("user@hysleep.com")
+        .password("hash").userRole(UserRole.ROLE_USER).build();
+    Date now = new Date();
+    bookings = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Room room = Room.builder().roomId(i).roomNumber("R-" + i).status("BOOKED").floor("1").build();
+      bookings.add(Booking.builder().bookingId(i).user(user).room(room).bookingDate(now)
+          .startDate(now).endDate(now).status("ONGOING").build());
+    }
+    // Let Dozer build its class mappings outside the measurement
+    dozerMapper.map(bookings.get(0), BookingResponse.class);
+  }
+
+  @Benchmark
+  public List<BookingResponse> dozer() {
+    List<BookingResponse> responses = new ArrayList<>(bookings.size());
+    for (Booking booking : bookings) {
+      responses.add(dozerMapper.map(booking, BookingResponse.class));
+    }
+    return responses;
+  }
+
+  @Benchmark
+  public List<BookingResponse> mapstruct() {
+    return bookingMapper.toResponses(bookings);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(MappingBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,69 @@
+package com.app.octo.benchmark;
+
+import com.app.octo.SmartApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restarts the application against an already populated schema, once letting Hibernate
+ * manage it with {@code ddl-auto=update} and once with the Flyway scripts and
+ * {@code ddl-auto=validate}, and prints how long the context took to start in each mode.
+ * Not run by surefire; start it with {@code java -cp <test classpath>
+ * com.app.octo.benchmark.SchemaStartupBenchmark [restarts]}. Runs on the embedded database
+ * by default; pass {@code -Dspring.datasource.url=...} and the matching settings to measure
+ * a real one.
+ */
+public class SchemaStartupBenchmark {
+
+  public static final int DEFAULT_RESTARTS = 5;
+
+  public static void main(String[] args) {
+    int restarts = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RESTARTS;
+
+    long[] update = run(restarts, "--spring.datasource.url=jdbc:h2:mem:startup-update;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update");
+    long[] validate = run(restarts,
+        "--spring.datasource.url=jdbc:h2:mem:startup-validate;MODE=MySQL;DB_CLOSE_DELAY=-1");
+
+    System.out.printf("%n%-10s %8s %10s %10s%n", "schema", "starts", "mean ms", "min ms");
+    print("update", update);
+    print("validate", validate);
+  }
+
+  private static long[] run(int restarts, String... args) {
+    // The first start creates the schema, as on a database that is already in use
+    start(args);
+    long[] millis = new long[restarts];
+    for (int i = 0; i < restarts; i++) {
+      millis[i] = start(args);
+    }
+    return millis;
+  }
+
+  /**
+   * Settings are passed as arguments so they override the profile's properties files.
+   */
+  private static long start(String... args) {
+    long begin = System.nanoTime();
+    try (ConfigurableApplicationContext ignored = new SpringApplicationBuilder(SmartApplication.class)
+        .profiles("test")
+        .properties("server.port=0", "logging.level.root=WARN")
+        .run(withManagementPort(args))) {
+      return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+    }
+  }
+
+  private static String[] withManagementPort(String... args) {
+    String[] all = Arrays.copyOf(args, args.length + 1);
+    all[args.length] = "--management.server.port=0";
+    return all;
+  }
+
+  private static void print(String mode, long[] millis) {
+    System.out.printf("%-10s %8d %10.0f %10d%n", mode, millis.length,
+        Arrays.stream(millis).average().orElse(0), Arrays.stream(millis).min().orElse(0));
+  }
+}
@@ -0,0 +1,159 @@
+package com.app.octo.benchmark;
+
+import com.app.octo.SmartApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the application on the embedded database once with platform threads and once with
+ * the {@code virtual} profile, drives both with the same closed-loop load of JDBC-backed
+ * reads and prints throughput and latency percentiles side by side. Not run by surefire;
+ * start it with {@code java -cp <test classpath> com.app.octo.benchmark.ThreadModeLoadBenchmark
+ * [clients] [seconds]}. The virtual mode needs a Java 21 runtime and is skipped otherwise.
+ */
+public class ThreadModeLoadBenchmark {
+
+  public static final int DEFAULT_CLIENTS = 200;
+  public static final int DEFAULT_SECONDS = 20;
+  public static final int WARMUP_SECONDS = 5;
+  public static final String EMAIL = "load@hysleep.com";
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  public static void main(String[] args) throws Exception {
+    int clients = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CLIENTS;
+    int seconds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+
+    List<Result> results = new ArrayList<>();
+    results.add(run("platform", clients, seconds, "test"));
+    if (Runtime.version().feature() >= 21) {
+      results.add(run("virtual", clients, seconds, "test", "virtual"));
+    } else {
+      System.out.println("Java " + Runtime.version().feature() + " has no virtual threads, skipping that mode");
+    }
+
+    System.out.printf("%n%-10s %8s %10s %10s %10s %10s %8s%n", "mode", "clients", "req/s", "p50 ms", "p99 ms",
+        "max ms", "errors");
+    results.forEach(result -> System.out.printf("%-10s %8d %10.0f %10.1f %10.1f %10.1f %8d%n", result.mode(),
+        clients, result.throughput(), result.percentile(50), result.percentile(99), result.percentile(100),
+        result.errors()));
+  }
+
+  private static Result run(String mode, int clients, int seconds, String... profiles) throws Exception {
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SmartApplication.class)
+        .profiles(profiles)
+        .properties("server.port=0", "logging.level.root=WARN", "rate-limit.enabled=false")
+        // application.properties sets the management port, so it is overridden as an argument
+        .run("--management.server.port=0")) {
+      String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+      HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+      String token = register(client, baseUrl);
+      List<HttpRequest> requests = List.of(
+          get(baseUrl + "/api/v2/bookings?email=" + EMAIL, token),
+          get(baseUrl + "/api/v2/users/" + EMAIL, token));
+
+      drive(client, requests, clients, WARMUP_SECONDS);
+      Result result = drive(client, requests, clients, seconds);
+      return new Result(mode, result.latencies(), result.errors(), result.elapsedNanos());
+    }
+  }
+
+  private static Result drive(HttpClient client, List<HttpRequest> requests, int clients, int seconds)
+      throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(clients);
+    long begin = System.nanoTime();
+    long deadline = begin + TimeUnit.SECONDS.toNanos(seconds);
+    List<Future<Samples>> futures = new ArrayList<>();
+    for (int c = 0; c < clients; c++) {
+      int offset = c;
+      futures.add(executor.submit(() -> {
+        Samples samples = new Samples();
+        for (int i = offset; System.nanoTime() < deadline; i++) {
+          long start = System.nanoTime();
+          try {
+            HttpResponse<Void> response = client.send(requests.get(i % requests.size()),
+                HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+              samples.errors++;
+            }
+          } catch (Exception e) {
+            samples.errors++;
+          }
+          samples.add(System.nanoTime() - start);
+        }
+        return samples;
+      }));
+    }
+
+    long[] latencies = new long[0];
+    long errors = 0;
+    for (Future<Samples> future : futures) {
+      Samples samples = future.get();
+      int from = latencies.length;
+      latencies = Arrays.copyOf(latencies, from + samples.size);
+      System.arraycopy(samples.values, 0, latencies, from, samples.size);
+      errors += samples.errors;
+    }
+    executor.shutdown();
+    Arrays.sort(latencies);
+    return new Result(null, latencies, errors, System.nanoTime() - begin);
+  }
+
+  private static String register(HttpClient client, String baseUrl) throws Exception {
+    String body = OBJECT_MAPPER.writeValueAsString(Map.of("firstName", "Load", "lastName", "Test",
+        "email", EMAIL, "password", "load-password"));
+    HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/users/register"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build(), HttpResponse.BodyHandlers.ofString());
+    return OBJECT_MAPPER.readTree(response.body()).path("token").asText();
+  }
+
+  private static HttpRequest get(String url, String token) {
+    return HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer " + token).GET().build();
+  }
+
+  private static class Samples {
+    private long[] values = new long[1024];
+    private int size;
+    private long errors;
+
+    private void add(long value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+  }
+
+  private record Result(String mode, long[] latencies, long errors, long elapsedNanos) {
+
+    private double throughput() {
+      return latencies.length / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    private double percentile(int percentile) {
+      if (latencies.length == 0) {
+        return 0;
+      }
+      int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+      return latencies[Math.max(0, index)] / 1_000_000.0;
+    }
+  }
+}
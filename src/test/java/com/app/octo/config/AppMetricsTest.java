@@ -0,0 +1,50 @@
+package com.app.octo.config;
+
+import com.app.octo.model.enums.ErrorCodes;
+import com.app.octo.model.exception.ConflictException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AppMetricsTest {
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private AppMetrics appMetrics;
+
+  @Test
+  void recordBooking_tagsTimerWithOutcome() {
+    appMetrics.recordBooking(AppMetrics.SUCCESS, TimeUnit.MILLISECONDS.toNanos(20));
+    appMetrics.recordBooking(AppMetrics.SUCCESS, TimeUnit.MILLISECONDS.toNanos(40));
+    appMetrics.recordBooking(AppMetrics.outcomeOf(new ConflictException(ErrorCodes.ROOM_BUSY)), 1000);
+    appMetrics.recordBookingRejected("lost_race");
+
+    Timer success = meterRegistry.get("hysleep.booking.book").tag("outcome", AppMetrics.SUCCESS).timer();
+    assertEquals(2, success.count());
+    assertEquals(60, success.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    assertEquals(1, meterRegistry.get("hysleep.booking.book").tag("outcome", "room_busy").timer().count());
+    assertEquals(1, meterRegistry.get("hysleep.booking.rejections").tag("reason", "lost_race").counter().count());
+  }
+
+  @Test
+  void recordExpiry_recordsDurationAndRows() {
+    appMetrics.recordExpiry(AppMetrics.EXPIRY_SCHEDULED, 5000, 3);
+    appMetrics.recordExpiry(AppMetrics.EXPIRY_SCHEDULED, 5000, 7);
+
+    assertEquals(2, meterRegistry.get("hysleep.booking.expiry").tag("trigger", "scheduled").timer().count());
+    assertEquals(10, meterRegistry.get("hysleep.booking.expiry.rows").tag("trigger", "scheduled")
+        .summary().totalAmount(), 0.001);
+    assertEquals(AppMetrics.ERROR, AppMetrics.outcomeOf(new IllegalStateException()));
+  }
+
+  @BeforeEach
+  public void init() {
+    meterRegistry = new SimpleMeterRegistry();
+    appMetrics = new AppMetrics(meterRegistry);
+  }
+}
@@ -0,0 +1,88 @@
+package com.app.octo.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+public class BulkheadDataSourceTest {
+
+  public static final int MAX_CONCURRENT = 2;
+  public static final long ACQUIRE_TIMEOUT_MS = 50;
+
+  @Mock
+  private DataSource dataSource;
+
+  @Mock
+  private Connection connection;
+
+  private BulkheadDataSource bulkheadDataSource;
+
+  private AutoCloseable mocks;
+
+  @Test
+  void getConnection_failsFastOnceAllPermitsAreTaken() throws Exception {
+    when(dataSource.getConnection()).thenReturn(connection);
+
+    Connection first = bulkheadDataSource.getConnection();
+    bulkheadDataSource.getConnection();
+
+    assertThrows(SQLTransientConnectionException.class, () -> bulkheadDataSource.getConnection());
+    assertEquals(0, bulkheadDataSource.getAvailablePermits());
+
+    first.close();
+    bulkheadDataSource.getConnection();
+
+    verify(dataSource, times(3)).getConnection();
+    verify(connection).close();
+  }
+
+  @Test
+  void close_releasesPermitOnlyOnce() throws Exception {
+    when(dataSource.getConnection()).thenReturn(connection);
+
+    Connection borrowed = bulkheadDataSource.getConnection();
+    borrowed.close();
+    borrowed.close();
+
+    assertEquals(MAX_CONCURRENT, bulkheadDataSource.getAvailablePermits());
+
+    verify(dataSource).getConnection();
+    verify(connection, times(2)).close();
+  }
+
+  @Test
+  void getConnection_releasesPermitWhenPoolFails() throws Exception {
+    when(dataSource.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+    assertThrows(SQLException.class, () -> bulkheadDataSource.getConnection());
+    assertEquals(MAX_CONCURRENT, bulkheadDataSource.getAvailablePermits());
+
+    verify(dataSource).getConnection();
+  }
+
+  @BeforeEach
+  public void init() {
+    mocks = openMocks(this);
+    bulkheadDataSource = new BulkheadDataSource(dataSource, MAX_CONCURRENT, ACQUIRE_TIMEOUT_MS);
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    verifyNoMoreInteractions(dataSource, connection);
+    mocks.close();
+  }
+}
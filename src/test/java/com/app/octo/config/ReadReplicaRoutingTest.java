@@ -0,0 +1,174 @@
+package com.app.octo.config;
+
+import com.app.octo.repository.UserRepository;
+import com.app.octo.security.UserAuthProvider;
+import com.app.octo.service.impl.PrimaryReader;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routes the application against a second embedded database standing in for a replica. The
+ * replica is migrated like the primary but only it holds {@link #REPLICA_EMAIL}, so a
+ * lookup finding that user shows it was served by the replica.
+ */
+@SpringBootTest(properties = {
+    "datasource.replica.enabled=true",
+    "datasource.replica.urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+    "datasource.replica.max-lag-ms=5000",
+    "datasource.replica.health-check-ms=3600000"})
+@ActiveProfiles("test")
+public class ReadReplicaRoutingTest {
+
+  public static final String REPLICA_URL = "jdbc:h2:mem:hysleep-replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+  public static final String USERNAME = "sa";
+  public static final String REPLICA_EMAIL = "replica@hysleep.com";
+  public static final long STALE_MS = 60000;
+  public static final String WRITER_EMAIL = "writer@hysleep.com";
+  public static final String READER_EMAIL = "reader@hysleep.com";
+  public static final String ADDRESS = "10.0.0.1";
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ReadReplicaConfig readReplicaConfig;
+
+  @Autowired
+  private PrimaryStickinessFilter primaryStickinessFilter;
+
+  @Autowired
+  private UserAuthProvider userAuthProvider;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private PrimaryReader primaryReader;
+
+  @Test
+  void readOnlyLookup_isServedByHealthyReplica() throws SQLException {
+    heartbeat(System.currentTimeMillis());
+
+    assertTrue(userRepository.findByEmail(REPLICA_EMAIL).isPresent());
+  }
+
+  @Test
+  void laggingReplica_fallsBackToPrimary() throws SQLException {
+    heartbeat(System.currentTimeMillis() - STALE_MS);
+
+    assertFalse(userRepository.findByEmail(REPLICA_EMAIL).isPresent());
+  }
+
+  @Test
+  void cacheLoad_readsFromPrimaryEvenInsideReadOnlyTransaction() throws SQLException {
+    heartbeat(System.currentTimeMillis());
+    TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+
+    boolean outside = primaryReader.read(() -> userRepository.findByEmail(REPLICA_EMAIL).isPresent());
+    boolean inside = readOnly.execute(status -> {
+      userRepository.findByEmail(REPLICA_EMAIL);
+      return primaryReader.read(() -> userRepository.findByEmail(REPLICA_EMAIL).isPresent());
+    });
+    assertFalse(outside);
+    assertFalse(inside);
+  }
+
+  @Test
+  void userWhoseTransactionCommitted_readsFromPrimary() throws Exception {
+    heartbeat(System.currentTimeMillis());
+    TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+    AtomicBoolean servedByReplica = new AtomicBoolean();
+
+    primaryStickinessFilter.doFilter(request("PUT", WRITER_EMAIL), new MockHttpServletResponse(),
+        (request, response) -> {
+          assertFalse(PrimaryStickinessFilter.isPinned());
+          readWrite.executeWithoutResult(status -> userRepository.findByEmail(WRITER_EMAIL));
+          assertTrue(PrimaryStickinessFilter.isPinned());
+        });
+    primaryStickinessFilter.doFilter(request("GET", WRITER_EMAIL), new MockHttpServletResponse(),
+        (request, response) -> servedByReplica.set(userRepository.findByEmail(REPLICA_EMAIL).isPresent()));
+    assertFalse(servedByReplica.get());
+
+    // Same address, different user
+    primaryStickinessFilter.doFilter(request("GET", READER_EMAIL), new MockHttpServletResponse(),
+        (request, response) -> servedByReplica.set(userRepository.findByEmail(REPLICA_EMAIL).isPresent()));
+    assertTrue(servedByReplica.get());
+    assertFalse(PrimaryStickinessFilter.isPinned());
+  }
+
+  @Test
+  void postThatOnlyReads_doesNotPin() throws Exception {
+    heartbeat(System.currentTimeMillis());
+    AtomicBoolean servedByReplica = new AtomicBoolean();
+
+    primaryStickinessFilter.doFilter(request("POST", READER_EMAIL), new MockHttpServletResponse(),
+        (request, response) -> userRepository.findByEmail(REPLICA_EMAIL));
+    primaryStickinessFilter.doFilter(request("POST", READER_EMAIL), new MockHttpServletResponse(),
+        (request, response) -> servedByReplica.set(userRepository.findByEmail(REPLICA_EMAIL).isPresent()));
+    assertTrue(servedByReplica.get());
+  }
+
+  @BeforeEach
+  public void init() throws SQLException {
+    Flyway.configure().dataSource(REPLICA_URL, USERNAME, "").load().migrate();
+    try (Connection connection = DriverManager.getConnection(REPLICA_URL, USERNAME, "");
+        PreparedStatement delete = connection.prepareStatement("delete from users where email = ?");
+        PreparedStatement insert = connection.prepareStatement("insert into users (id, created_at, updated_at, "
+            + "email, first_name, last_name, password, user_role, version) values (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+      delete.setString(1, REPLICA_EMAIL);
+      delete.executeUpdate();
+
+      Timestamp now = new Timestamp(System.currentTimeMillis());
+      insert.setLong(1, 1);
+      insert.setTimestamp(2, now);
+      insert.setTimestamp(3, now);
+      insert.setString(4, REPLICA_EMAIL);
+      insert.setString(5, "Replica");
+      insert.setString(6, "User");
+      insert.setString(7, "password");
+      insert.setInt(8, 0);
+      insert.setLong(9, 0);
+      insert.executeUpdate();
+    }
+  }
+
+  /**
+   * Stands in for replication of the heartbeat row, then runs the health check.
+   */
+  private void heartbeat(long beatAt) throws SQLException {
+    try (Connection connection = DriverManager.getConnection(REPLICA_URL, USERNAME, "");
+        PreparedStatement statement = connection.prepareStatement(ReadReplicaDataSource.HEARTBEAT_UPDATE)) {
+      statement.setLong(1, beatAt);
+      statement.executeUpdate();
+    }
+    readReplicaConfig.checkReplicas();
+  }
+
+  private MockHttpServletRequest request(String method, String email) {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/users/public/edit");
+    request.setRemoteAddr(ADDRESS);
+    request.addHeader(HttpHeaders.AUTHORIZATION,
+        PrimaryStickinessFilter.BEARER + userAuthProvider.generateToken(email, "ROLE_USER"));
+    return request;
+  }
+}
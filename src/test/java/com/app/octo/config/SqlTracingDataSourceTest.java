@@ -0,0 +1,134 @@
+package com.app.octo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SqlTracingDataSourceTest {
+
+  public static final String URL = "jdbc:h2:mem:sql-tracing;DB_CLOSE_DELAY=-1";
+  public static final long NEVER_SLOW = -1;
+
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+  private JdbcDataSource h2;
+
+  @Test
+  void sampledQuery_isLoggedWithShapeBindsAndRowsWhenClosed() throws SQLException {
+    SqlTracingDataSource dataSource = new SqlTracingDataSource(h2, new SqlTracer(1, NEVER_SLOW));
+
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "select name from guest where id in (1, 2, 3) and name <> 'x' and id > ?")) {
+      statement.setInt(1, 0);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          assertTrue(appender.list.isEmpty());
+        }
+      }
+    }
+
+    assertEquals(1, appender.list.size());
+    ILoggingEvent event = appender.list.get(0);
+    assertEquals(SqlTracer.TRACE_LOGGER, event.getLoggerName());
+    String message = event.getFormattedMessage();
+    assertTrue(message.startsWith("shape=\"select name from guest where id in (?...) and name <> ? and id > ?\""),
+        message);
+    assertTrue(message.contains("binds=1 batch=0 rows=2 "), message);
+  }
+
+  @Test
+  void batch_isLoggedWithItsSizeAndUpdateCount() throws SQLException {
+    SqlTracingDataSource dataSource = new SqlTracingDataSource(h2, new SqlTracer(1, NEVER_SLOW));
+
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement("update guest set name = ? where id = ?")) {
+      for (int id = 1; id <= 2; id++) {
+        statement.setString(1, "guest-" + id);
+        statement.setInt(2, id);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+
+    assertEquals(1, appender.list.size());
+    assertTrue(appender.list.get(0).getFormattedMessage().contains("binds=2 batch=2 rows=2 "));
+  }
+
+  @Test
+  void unsampledStatements_areOnlyCountedAgainstTheRequest() throws SQLException {
+    SqlTracer tracer = new SqlTracer(0, NEVER_SLOW);
+    SqlTracingDataSource dataSource = new SqlTracingDataSource(h2, tracer);
+
+    SqlTracer.startRequest();
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeQuery("select count(*) from guest").close();
+      statement.executeUpdate("update guest set name = name");
+    }
+    SqlTracer.RequestStats stats = SqlTracer.finishRequest();
+
+    assertTrue(appender.list.isEmpty());
+    assertEquals(2, stats.getStatements());
+    assertEquals(2, tracer.getStatementCount());
+  }
+
+  @Test
+  void slowStatement_isLoggedEvenWhenNotSampled() throws SQLException {
+    SqlTracer tracer = new SqlTracer(0, 0);
+    SqlTracingDataSource dataSource = new SqlTracingDataSource(h2, tracer);
+
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("update guest set name = 'slow' where id = 1");
+    }
+
+    assertEquals(1, appender.list.size());
+    assertEquals(SqlTracer.SLOW_LOGGER, appender.list.get(0).getLoggerName());
+    assertEquals(Level.WARN, appender.list.get(0).getLevel());
+    assertTrue(appender.list.get(0).getFormattedMessage()
+        .startsWith("shape=\"update guest set name = ? where id = ?\" binds=0 batch=0 rows=1 "));
+    assertEquals(1, tracer.getSlowCount());
+  }
+
+  @BeforeEach
+  public void init() throws SQLException {
+    h2 = new JdbcDataSource();
+    h2.setURL(URL);
+    try (Connection connection = h2.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("drop table if exists guest");
+      statement.execute("create table guest (id int primary key, name varchar(50))");
+      statement.execute("insert into guest values (1, 'one'), (2, 'two')");
+    }
+
+    appender.start();
+    logger(SqlTracer.TRACE_LOGGER).addAppender(appender);
+    logger(SqlTracer.SLOW_LOGGER).addAppender(appender);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    logger(SqlTracer.TRACE_LOGGER).detachAppender(appender);
+    logger(SqlTracer.SLOW_LOGGER).detachAppender(appender);
+  }
+
+  private static Logger logger(String name) {
+    return (Logger) LoggerFactory.getLogger(name);
+  }
+}
@@ -7,12 +7,19 @@ import com.app.octo.model.Category;
 import com.app.octo.model.Room;
 import com.app.octo.model.User;
 import com.app.octo.model.enums.ErrorCodes;
+import com.app.octo.model.enums.ExportFormat;
 import com.app.octo.model.enums.UserRole;
 import com.app.octo.model.exception.AppException;
 import com.app.octo.model.request.BookingRequest;
+import com.app.octo.model.request.BookingSearchRequest;
 import com.app.octo.model.request.GetAllByStatusRequest;
+import com.app.octo.model.response.BookingPipelineStatsResponse;
 import com.app.octo.model.response.BookingResponse;
 import com.app.octo.model.response.ListResponse;
+import com.app.octo.model.response.PageResponse;
+import com.app.octo.security.RestExceptionHandler;
+import com.app.octo.service.BookingCommandService;
+import com.app.octo.service.BookingExportService;
 import com.app.octo.service.BookingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
@@ -20,20 +27,35 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.client.HttpServerErrorException;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
 
@@ -62,6 +84,8 @@ public class BookingControllerTest {
 
     public static final Integer DURATION = 1;
     public static final String ONGOING = "ONGOING";
+    public static final String CURSOR = "YjoxMA";
+    public static final long EXPORT_TIMEOUT_MS = 1800000L;
 
 
     @InjectMocks
@@ -70,6 +94,12 @@ public class BookingControllerTest {
     @Mock
     private BookingService bookingService;
 
+    @Mock
+    private BookingExportService bookingExportService;
+
+    @Mock
+    private BookingCommandService bookingCommandService;
+
     private Booking booking;
     private User user;
     private Room room;
@@ -77,140 +107,213 @@ public class BookingControllerTest {
     private UserDTO userDTO;
     private RoomDTO roomDTO;
     private BookingResponse bookingResponse;
-    private ListResponse<BookingResponse> bookingChangeResponse;
+    private List<Long> bookingChangeResponse;
     private BookingRequest bookingRequest;
     private MockMvc mockMvc;
     private GetAllByStatusRequest getAllByStatusRequest;
-    private ListResponse<BookingResponse> getAllResponse;
+    private PageResponse<BookingResponse> getAllResponse;
     private BookingResponse ongoingResponse;
 
 
     @Test
     void book_success() throws Exception {
-        when(bookingService.bookRoom(bookingRequest)).thenReturn(bookingResponse);
+        when(bookingCommandService.bookRoom(bookingRequest)).thenReturn(CompletableFuture.completedFuture(bookingResponse));
 
 
-        this.mockMvc.perform(post("/api/v1/booking/public/book")
+        MvcResult result = this.mockMvc.perform(post("/api/v1/booking/public/book")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(new ObjectMapper().writeValueAsString(bookingRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk());
 
-        verify(bookingService).bookRoom(bookingRequest);
+        verify(bookingCommandService).bookRoom(bookingRequest);
     }
 
     @Test
     void bookFailedUserNotFound_throwAppException() throws Exception {
-        when(bookingService.bookRoom(bookingRequest)).thenThrow(new AppException(ErrorCodes.USER_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND));
+        when(bookingCommandService.bookRoom(bookingRequest)).thenReturn(CompletableFuture.failedFuture(new AppException(ErrorCodes.USER_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND)));
 
-        this.mockMvc.perform(post("/api/v1/booking/public/book")
+        MvcResult result = this.mockMvc.perform(post("/api/v1/booking/public/book")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(new ObjectMapper().writeValueAsString(bookingRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.NOT_FOUND.name())))
                 .andExpect(jsonPath("$.errorMessage", equalTo(ErrorCodes.USER_NOT_FOUND.getMessage())));
 
-        verify(bookingService).bookRoom(bookingRequest);
+        verify(bookingCommandService).bookRoom(bookingRequest);
     }
 
     @Test
     void bookFailed_throwException() throws Exception {
-        when(bookingService.bookRoom(bookingRequest)).thenThrow(HttpServerErrorException.InternalServerError.class);
+        when(bookingCommandService.bookRoom(bookingRequest)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Write failed")));
 
-        this.mockMvc.perform(post("/api/v1/booking/public/book")
+        MvcResult result = this.mockMvc.perform(post("/api/v1/booking/public/book")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(new ObjectMapper().writeValueAsString(bookingRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.INTERNAL_SERVER_ERROR.name())));
 
-        verify(bookingService).bookRoom(bookingRequest);
+        verify(bookingCommandService).bookRoom(bookingRequest);
     }
 
     @Test
     void cancel_success() throws Exception {
-        when(bookingService.cancelBooking(ID)).thenReturn(bookingResponse);
+        when(bookingCommandService.cancelBooking(ID)).thenReturn(CompletableFuture.completedFuture(bookingResponse));
 
 
-        this.mockMvc.perform(post("/api/v1/booking/public/cancel")
+        MvcResult result = this.mockMvc.perform(post("/api/v1/booking/public/cancel")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .param("id", String.valueOf(ID)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk());
 
-        verify(bookingService).cancelBooking(ID);
+        verify(bookingCommandService).cancelBooking(ID);
     }
 
     @Test
     void cancelBookingNotFound_throwAppException() throws Exception {
-        when(bookingService.cancelBooking(ID)).thenThrow(new AppException(ErrorCodes.DATA_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND));
+        when(bookingCommandService.cancelBooking(ID)).thenReturn(CompletableFuture.failedFuture(new AppException(ErrorCodes.DATA_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND)));
 
-        this.mockMvc.perform(post("/api/v1/booking/public/cancel")
+        MvcResult result = this.mockMvc.perform(post("/api/v1/booking/public/cancel")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .param("id", String.valueOf(ID)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.NOT_FOUND.name())))
                 .andExpect(jsonPath("$.errorMessage", equalTo(ErrorCodes.DATA_NOT_FOUND.getMessage())));
 
-        verify(bookingService).cancelBooking(ID);
+        verify(bookingCommandService).cancelBooking(ID);
     }
 
     @Test
     void cancelFailed_throwException() throws Exception {
-        when(bookingService.cancelBooking(ID)).thenThrow(HttpServerErrorException.InternalServerError.class);
+        when(bookingCommandService.cancelBooking(ID)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Write failed")));
 
-        this.mockMvc.perform(post("/api/v1/booking/public/cancel")
+        MvcResult result = this.mockMvc.perform(post("/api/v1/booking/public/cancel")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .param("id", String.valueOf(ID)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.INTERNAL_SERVER_ERROR.name())));
 
-        verify(bookingService).cancelBooking(ID);
+        verify(bookingCommandService).cancelBooking(ID);
     }
 
     @Test
     void doneBooking_success() throws Exception {
-        when(bookingService.doneBooking(ID)).thenReturn(bookingResponse);
+        when(bookingCommandService.doneBooking(ID)).thenReturn(CompletableFuture.completedFuture(bookingResponse));
 
-        this.mockMvc.perform(post("/api/v1/booking/public/done")
+        MvcResult result = this.mockMvc.perform(post("/api/v1/booking/public/done")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .param("id", String.valueOf(ID)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk());
 
-        verify(bookingService).doneBooking(ID);
+        verify(bookingCommandService).doneBooking(ID);
     }
 
     @Test
     void doneBookingNotFound_throwAppException() throws Exception {
-        when(bookingService.doneBooking(ID)).thenThrow(new AppException(ErrorCodes.DATA_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND));
+        when(bookingCommandService.doneBooking(ID)).thenReturn(CompletableFuture.failedFuture(new AppException(ErrorCodes.DATA_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND)));
 
-        this.mockMvc.perform(post("/api/v1/booking/public/done")
+        MvcResult result = this.mockMvc.perform(post("/api/v1/booking/public/done")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .param("id", String.valueOf(ID)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.NOT_FOUND.name())))
                 .andExpect(jsonPath("$.errorMessage", equalTo(ErrorCodes.DATA_NOT_FOUND.getMessage())));
 
-        verify(bookingService).doneBooking(ID);
+        verify(bookingCommandService).doneBooking(ID);
     }
 
     @Test
     void doneBookingFailed_throwException() throws Exception {
-        when(bookingService.doneBooking(ID)).thenThrow(HttpServerErrorException.InternalServerError.class);
+        when(bookingCommandService.doneBooking(ID)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Write failed")));
 
-        this.mockMvc.perform(post("/api/v1/booking/public/done")
+        MvcResult result = this.mockMvc.perform(post("/api/v1/booking/public/done")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .param("id", String.valueOf(ID)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.INTERNAL_SERVER_ERROR.name())));
 
-        verify(bookingService).doneBooking(ID);
+        verify(bookingCommandService).doneBooking(ID);
+    }
+
+    @Test
+    void bookQueueFull_returnsTooManyRequests() throws Exception {
+        when(bookingCommandService.bookRoom(bookingRequest)).thenReturn(CompletableFuture.failedFuture(
+            new AppException(ErrorCodes.BOOKING_QUEUE_FULL.getMessage(), HttpStatus.TOO_MANY_REQUESTS)));
+
+        MvcResult result = this.mockMvc.perform(post("/api/v1/booking/public/book")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(bookingRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, RestExceptionHandler.RETRY_AFTER_SECONDS))
+                .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.TOO_MANY_REQUESTS.name())))
+                .andExpect(jsonPath("$.errorMessage", equalTo(ErrorCodes.BOOKING_QUEUE_FULL.getMessage())));
+
+        verify(bookingCommandService).bookRoom(bookingRequest);
+    }
+
+    @Test
+    void getPipelineStats_success() throws Exception {
+        when(bookingCommandService.getStats()).thenReturn(BookingPipelineStatsResponse.builder()
+            .enabled(true)
+            .submitted(3)
+            .build());
+
+        this.mockMvc.perform(get("/api/v1/booking/admin/pipeline")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled", equalTo(true)))
+                .andExpect(jsonPath("$.submitted", equalTo(3)));
+
+        verify(bookingCommandService).getStats();
     }
 
     @Test
@@ -220,7 +323,8 @@ public class BookingControllerTest {
         this.mockMvc.perform(post("/api/v1/booking/public/change")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.val[0]", equalTo(ID.intValue())));
 
         verify(bookingService).changeStatusAfterTime();
     }
@@ -284,7 +388,7 @@ public class BookingControllerTest {
     void getAllFilteredWrongStatus_throwException() throws Exception {
         getAllByStatusRequest.setStatus(BOOKING_STATUS);
         when(bookingService.getAllByStatus(getAllByStatusRequest)).thenThrow(
-            new Exception());
+            new RuntimeException());
 
         this.mockMvc.perform(post("/api/v1/booking/public/getAllFiltered")
                 .accept(MediaType.APPLICATION_JSON)
@@ -298,7 +402,7 @@ public class BookingControllerTest {
 
     @Test
     void getAll_success() throws Exception {
-        when(bookingService.getAll()).thenReturn(getAllResponse);
+        when(bookingService.getAll(null)).thenReturn(getAllResponse);
 
         this.mockMvc.perform(post("/api/v1/booking/admin/getAll")
                         .accept(MediaType.APPLICATION_JSON)
@@ -306,12 +410,29 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.errorMessage", equalTo(null)));
 
-        verify(bookingService).getAll();
+        verify(bookingService).getAll(null);
+    }
+
+    @Test
+    void getAllWithFilters_success() throws Exception {
+        BookingSearchRequest request = BookingSearchRequest.builder().status(BOOKING_STATUS).roomId(ID)
+            .cursor(CURSOR).size(10).build();
+        when(bookingService.getAll(request)).thenReturn(getAllResponse);
+
+        this.mockMvc.perform(post("/api/v1/booking/admin/getAll")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor", equalTo(CURSOR)))
+                .andExpect(jsonPath("$.val[0].status", equalTo(ONGOING)));
+
+        verify(bookingService).getAll(request);
     }
 
     @Test
     void getAll_throwAppException() throws Exception {
-        when(bookingService.getAll()).thenThrow(
+        when(bookingService.getAll(null)).thenThrow(
                 new AppException(ErrorCodes.BAD_REQUEST.getMessage(), HttpStatus.BAD_REQUEST));
 
         this.mockMvc.perform(post("/api/v1/booking/admin/getAll")
@@ -320,12 +441,12 @@ public class BookingControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.errorMessage", equalTo(ErrorCodes.BAD_REQUEST.getMessage())));
 
-        verify(bookingService).getAll();
+        verify(bookingService).getAll(null);
     }
 
     @Test
     void getAll_throwException() throws Exception {
-        when(bookingService.getAll()).thenThrow(HttpServerErrorException.InternalServerError.class);
+        when(bookingService.getAll(null)).thenThrow(HttpServerErrorException.InternalServerError.class);
 
         this.mockMvc.perform(post("/api/v1/booking/admin/getAll")
                         .accept(MediaType.APPLICATION_JSON)
@@ -333,13 +454,44 @@ public class BookingControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.INTERNAL_SERVER_ERROR.name())));
 
-        verify(bookingService).getAll();
+        verify(bookingService).getAll(null);
+    }
+
+    @Test
+    void export_streamsCsv() throws Exception {
+        ReflectionTestUtils.setField(bookingController, "exportTimeoutMs", EXPORT_TIMEOUT_MS);
+        when(bookingExportService.exportBookings(eq(ExportFormat.CSV), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("booking_id\n1\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = this.mockMvc.perform(get("/api/v1/booking/admin/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(EXPORT_TIMEOUT_MS, result.getRequest().getAsyncContext().getTimeout());
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings.csv\""))
+                .andExpect(content().string("booking_id\n1\n"));
+
+        verify(bookingExportService).exportBookings(eq(ExportFormat.CSV), any());
+    }
+
+    @Test
+    void exportUnknownFormat_badRequest() throws Exception {
+        this.mockMvc.perform(get("/api/v1/booking/admin/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
     }
 
     @BeforeEach
     public void init() {
         initMocks(this);
-        this.mockMvc = standaloneSetup(this.bookingController).build();
+        this.mockMvc = standaloneSetup(this.bookingController)
+        .setControllerAdvice(new RestExceptionHandler()).build();
+        bookingChangeResponse = List.of(ID);
 
         user = User.builder()
                 .userRole(UserRole.ROLE_USER)
@@ -418,11 +570,11 @@ public class BookingControllerTest {
             .status(ONGOING)
             .build();
 
-        getAllResponse = new ListResponse<>(Arrays.asList(ongoingResponse));
+        getAllResponse = new PageResponse<>(Arrays.asList(ongoingResponse), CURSOR);
     }
 
     @AfterEach
     private void tearDown() {
-        verifyNoMoreInteractions(bookingService);
+        verifyNoMoreInteractions(bookingService, bookingCommandService);
     }
 }
@@ -10,6 +10,8 @@ import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
@@ -35,8 +37,11 @@ import com.app.octo.model.exception.AppException;
 import com.app.octo.model.request.CategoryRequest;
 import com.app.octo.model.request.CategoryUpdateRequest;
 import com.app.octo.model.response.ApiResponse;
+import com.app.octo.model.response.CatalogSnapshot;
 import com.app.octo.model.response.CategoryGetResponse;
 import com.app.octo.model.response.CategoryResponse;
+import com.app.octo.security.RestExceptionHandler;
+import com.app.octo.service.CatalogSnapshotService;
 import com.app.octo.service.CategoryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -44,6 +49,7 @@ public class CategoryControllerTest {
 
     private static final String CATEGORY_NAME = "VIP";
     private static final long CATEGORY_ID = 1;
+    private static final String ETAG = "\"categories-v1\"";
 
     @InjectMocks
     private CategoryController categoryController;
@@ -51,6 +57,9 @@ public class CategoryControllerTest {
     @Mock
     private CategoryService categoryService;
 
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
     private Category category;
     private CategoryRequest categoryRequest;
     private CategoryUpdateRequest categoryUpdateRequest;
@@ -60,19 +69,35 @@ public class CategoryControllerTest {
 
     @Test
     void getAllCategories() throws Exception {
-        when(categoryService.getAllCategories()).thenReturn(categoryGetResponse);
+        byte[] body = new ObjectMapper().writeValueAsBytes(categoryGetResponse);
+        when(catalogSnapshotService.getCategories()).thenReturn(new CatalogSnapshot(1, ETAG, body));
 
         mockMvc.perform(get("/api/v1/category/public/get-all")
                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETAG))
                 .andExpect(jsonPath("$.data").isArray());
 
-        verify(categoryService).getAllCategories();
+        verify(catalogSnapshotService).getCategories();
+    }
+
+    @Test
+    void getAllCategories_notModified() throws Exception {
+        byte[] body = new ObjectMapper().writeValueAsBytes(categoryGetResponse);
+        when(catalogSnapshotService.getCategories()).thenReturn(new CatalogSnapshot(1, ETAG, body));
+
+        mockMvc.perform(get("/api/v1/category/public/get-all")
+                .header("If-None-Match", ETAG)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(catalogSnapshotService).getCategories();
     }
 
     @Test
     void getAllCategories_throwException() throws Exception {
-        when(categoryService.getAllCategories()).
+        when(catalogSnapshotService.getCategories()).
         thenThrow(HttpServerErrorException.InternalServerError.class);
 
         mockMvc.perform(get("/api/v1/category/public/get-all")
@@ -80,7 +105,7 @@ public class CategoryControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.INTERNAL_SERVER_ERROR.name())));
 
-        verify(categoryService).getAllCategories();
+        verify(catalogSnapshotService).getCategories();
     }
     @Test
     void createCategory_success() throws Exception {
@@ -242,7 +267,8 @@ public class CategoryControllerTest {
     @BeforeEach
     public void init(){
         initMocks(this);
-        this.mockMvc = standaloneSetup(this.categoryController).build();
+        this.mockMvc = standaloneSetup(this.categoryController)
+        .setControllerAdvice(new RestExceptionHandler()).build();
 
         category = Category.builder()
                     .categoryId(CATEGORY_ID)
@@ -272,5 +298,6 @@ public class CategoryControllerTest {
     @AfterEach
     public void tearDown() {
         verifyNoMoreInteractions(categoryService);
+        verifyNoMoreInteractions(catalogSnapshotService);
     }
 }
@@ -5,6 +5,11 @@ import com.app.octo.dto.request.RoomRequestDTO;
 import com.app.octo.dto.request.RoomUpdateStatusRequestDTO;
 import com.app.octo.dto.response.RoomResponseDTO;
 import com.app.octo.model.Category;
+import com.app.octo.model.response.CatalogSnapshot;
+import com.app.octo.model.response.RoomImportResponse;
+import com.app.octo.security.RestExceptionHandler;
+import com.app.octo.service.CatalogSnapshotService;
+import com.app.octo.service.RoomImportService;
 import com.app.octo.service.RoomService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
@@ -12,6 +17,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -23,17 +29,26 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 public class RoomControllerTest {
 
+    private static final String ETAG = "\"rooms-v1\"";
+
     @InjectMocks
     private RoomController roomController;
 
     @Mock
     private RoomService roomService;
 
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Mock
+    private RoomImportService roomImportService;
+
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
@@ -45,7 +60,8 @@ public class RoomControllerTest {
     @BeforeEach
     public void init() {
         initMocks(this);
-        this.mockMvc = MockMvcBuilders.standaloneSetup(roomController).build();
+        this.mockMvc = MockMvcBuilders.standaloneSetup(roomController)
+        .setControllerAdvice(new RestExceptionHandler()).build();
         objectMapper = new ObjectMapper();
 
         Category category = Category.builder()
@@ -86,27 +102,56 @@ public class RoomControllerTest {
     @Test
     void getAllRooms_success() throws Exception {
         List<RoomResponseDTO> rooms = Arrays.asList(roomResponseDTO);
-        when(roomService.getAllRooms()).thenReturn(rooms);
+        byte[] body = objectMapper.writeValueAsBytes(rooms);
+        when(catalogSnapshotService.getRooms()).thenReturn(new CatalogSnapshot(1, ETAG, body));
 
         this.mockMvc.perform(post("/api/v1/rooms/public/getAll")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETAG))
                 .andExpect(content().json(objectMapper.writeValueAsString(rooms)));
 
-        verify(roomService).getAllRooms();
+        verify(catalogSnapshotService).getRooms();
+    }
+
+    @Test
+    void getAllRooms_notModified() throws Exception {
+        when(catalogSnapshotService.getRooms()).thenReturn(new CatalogSnapshot(1, ETAG, new byte[]{'[', ']'}));
+
+        this.mockMvc.perform(get("/api/v1/rooms/public/getAll")
+                        .header("If-None-Match", ETAG)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", ETAG))
+                .andExpect(content().string(""));
+
+        verify(catalogSnapshotService).getRooms();
     }
 
     @Test
     void getAllRooms_error() throws Exception {
         String errorMsg = "Database error";
-        when(roomService.getAllRooms()).thenThrow(new RuntimeException(errorMsg));
+        when(catalogSnapshotService.getRooms()).thenThrow(new RuntimeException(errorMsg));
 
         this.mockMvc.perform(post("/api/v1/rooms/public/getAll")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isInternalServerError())
-                .andExpect(content().string("Error fetching rooms: " + errorMsg));
+                .andExpect(jsonPath("$.errorCode").value(HttpStatus.INTERNAL_SERVER_ERROR.name()));
 
-        verify(roomService).getAllRooms();
+        verify(catalogSnapshotService).getRooms();
+    }
+
+    @Test
+    void getAvailableRooms_success() throws Exception {
+        List<RoomResponseDTO> rooms = Arrays.asList(roomResponseDTO);
+        when(roomService.getAvailableRooms()).thenReturn(rooms);
+
+        this.mockMvc.perform(post("/api/v1/rooms/public/getAvailable")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(rooms)));
+
+        verify(roomService).getAvailableRooms();
     }
 
     @Test
@@ -149,7 +194,7 @@ public class RoomControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(roomIdRequestDTO)))
                 .andExpect(status().isInternalServerError())
-                .andExpect(content().string("Error fetching room: " + errorMsg));
+                .andExpect(jsonPath("$.errorCode").value(HttpStatus.INTERNAL_SERVER_ERROR.name()));
 
         verify(roomService).existsById(1L);
         verify(roomService).getRoomById(any(RoomIdRequestDTO.class));
@@ -179,7 +224,7 @@ public class RoomControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(roomRequestDTO)))
                 .andExpect(status().isInternalServerError())
-                .andExpect(content().string("Error creating room: " + errorMsg));
+                .andExpect(jsonPath("$.errorCode").value(HttpStatus.INTERNAL_SERVER_ERROR.name()));
 
         verify(roomService).createRoom(any(RoomRequestDTO.class));
     }
@@ -224,7 +269,7 @@ public class RoomControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(roomUpdateStatusRequestDTO)))
                 .andExpect(status().isInternalServerError())
-                .andExpect(content().string("Error updating status: " + errorMsg));
+                .andExpect(jsonPath("$.errorCode").value(HttpStatus.INTERNAL_SERVER_ERROR.name()));
 
         verify(roomService).existsById(1L);
         verify(roomService).updateStatus(any(RoomUpdateStatusRequestDTO.class));
@@ -257,6 +302,42 @@ public class RoomControllerTest {
         verify(roomService).existsById(1L);
     }
 
+    @Test
+    void importCsv_success() throws Exception {
+        RoomImportResponse importResponse = RoomImportResponse.builder()
+                .imported(2)
+                .errors(List.of())
+                .build();
+        when(roomImportService.importCsv(any())).thenReturn(importResponse);
+
+        this.mockMvc.perform(post("/api/v1/rooms/admin/import")
+                        .contentType("text/csv")
+                        .content("room_number,floor,room_description,category_id\n101,1,a,1\n102,1,b,1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+
+        verify(roomImportService).importCsv(any());
+        verifyNoMoreInteractions(roomImportService);
+    }
+
+    @Test
+    void importJson_success() throws Exception {
+        RoomImportResponse importResponse = RoomImportResponse.builder()
+                .imported(1)
+                .errors(List.of())
+                .build();
+        when(roomImportService.importJson(any())).thenReturn(importResponse);
+
+        this.mockMvc.perform(post("/api/v1/rooms/admin/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(roomRequestDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        verify(roomImportService).importJson(any());
+        verifyNoMoreInteractions(roomImportService);
+    }
+
     @Test
     void deleteRoom_error() throws Exception {
         String errorMsg = "Delete failed";
@@ -269,7 +350,7 @@ public class RoomControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(roomIdRequestDTO)))
                 .andExpect(status().isInternalServerError())
-                .andExpect(content().string("Error deleting room: " + errorMsg));
+                .andExpect(jsonPath("$.errorCode").value(HttpStatus.INTERNAL_SERVER_ERROR.name()));
 
         verify(roomService).existsById(1L);
         verify(roomService).deleteRoom(any(RoomIdRequestDTO.class));
@@ -10,6 +10,7 @@ import com.app.octo.model.request.GetUserRequest;
 import com.app.octo.model.request.LoginRequest;
 import com.app.octo.model.request.RegisterRequest;
 import com.app.octo.model.response.UserResponse;
+import com.app.octo.security.RestExceptionHandler;
 import com.app.octo.security.UserAuthProvider;
 import com.app.octo.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -18,16 +19,23 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.client.HttpServerErrorException;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
 
@@ -66,27 +74,35 @@ public class UserControllerTest {
 
   @Test
   void login_success() throws Exception {
-    when(userService.login(loginRequest)).thenReturn(userResponse);
-    when(userAuthProvider.generateToken(EMAIL, UserRole.ROLE_USER.name())).thenReturn(TOKEN);
+    when(userService.login(loginRequest)).thenReturn(CompletableFuture.completedFuture(userResponse));
+    when(userAuthProvider.generateToken(userResponse)).thenReturn(TOKEN);
 
-    this.mockMvc.perform(post("/api/v1/users/login")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/login")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(loginRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isOk());
 
     verify(userService).login(loginRequest);
-    verify(userAuthProvider).generateToken(EMAIL, UserRole.ROLE_USER.name());
+    verify(userAuthProvider).generateToken(userResponse);
   }
 
   @Test
   void loginFailedUserNotFound_throwAppException() throws Exception {
-    when(userService.login(loginRequest)).thenThrow(new AppException(ErrorCodes.USER_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND));
+    when(userService.login(loginRequest)).thenReturn(CompletableFuture.failedFuture(new AppException(ErrorCodes.USER_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND)));
 
-    this.mockMvc.perform(post("/api/v1/users/login")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/login")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(loginRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isNotFound())
             .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.NOT_FOUND.name())))
             .andExpect(jsonPath("$.errorMessage", equalTo(ErrorCodes.USER_NOT_FOUND.getMessage())));
@@ -96,12 +112,16 @@ public class UserControllerTest {
 
   @Test
   void loginFailedInvalidPassword_throwException() throws Exception {
-    when(userService.login(loginRequest)).thenThrow(new AppException("Invalid password", HttpStatus.BAD_REQUEST));
+    when(userService.login(loginRequest)).thenReturn(CompletableFuture.failedFuture(new AppException("Invalid password", HttpStatus.BAD_REQUEST)));
 
-    this.mockMvc.perform(post("/api/v1/users/login")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/login")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(loginRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isBadRequest())
             .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.BAD_REQUEST.name())))
             .andExpect(jsonPath("$.errorMessage", equalTo("Invalid password")));
@@ -111,12 +131,16 @@ public class UserControllerTest {
 
   @Test
   void loginFailed_throwException() throws Exception {
-    when(userService.login(loginRequest)).thenThrow(HttpServerErrorException.InternalServerError.class);
+    when(userService.login(loginRequest)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Hashing failed")));
 
-    this.mockMvc.perform(post("/api/v1/users/login")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/login")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(loginRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isInternalServerError())
             .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.INTERNAL_SERVER_ERROR.name())))
             .andExpect(jsonPath("$.errorMessage", equalTo(ErrorCodes.INTERNAL_SERVER_ERROR.getMessage())));
@@ -126,12 +150,16 @@ public class UserControllerTest {
 
   @Test
   void register_success() throws Exception {
-    when(userService.register(registerRequest)).thenReturn(userResponse);
+    when(userService.register(registerRequest)).thenReturn(CompletableFuture.completedFuture(userResponse));
 
-    this.mockMvc.perform(post("/api/v1/users/register")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/register")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(registerRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isOk());
 
     verify(userService).register(registerRequest);
@@ -139,12 +167,16 @@ public class UserControllerTest {
 
   @Test
   void registerFailedIncomplete_throwAppException() throws Exception {
-    when(userService.register(registerRequest)).thenThrow(new AppException("Incomplete Request", HttpStatus.BAD_REQUEST));
+    when(userService.register(registerRequest)).thenReturn(CompletableFuture.failedFuture(new AppException("Incomplete Request", HttpStatus.BAD_REQUEST)));
 
-    this.mockMvc.perform(post("/api/v1/users/register")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/register")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(registerRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isBadRequest())
             .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.BAD_REQUEST.name())))
             .andExpect(jsonPath("$.errorMessage", equalTo("Incomplete Request")));
@@ -154,12 +186,16 @@ public class UserControllerTest {
 
   @Test
   void registerFailedAccountExist_throwAppException() throws Exception {
-    when(userService.register(registerRequest)).thenThrow(new AppException("Account Exists", HttpStatus.BAD_REQUEST));
+    when(userService.register(registerRequest)).thenReturn(CompletableFuture.failedFuture(new AppException("Account Exists", HttpStatus.BAD_REQUEST)));
 
-    this.mockMvc.perform(post("/api/v1/users/register")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/register")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(registerRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isBadRequest())
             .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.BAD_REQUEST.name())))
             .andExpect(jsonPath("$.errorMessage", equalTo("Account Exists")));
@@ -169,27 +205,35 @@ public class UserControllerTest {
 
   @Test
   void registerFailedServer_throwException() throws Exception {
-    when(userService.register(registerRequest)).thenThrow(HttpServerErrorException.InternalServerError.class);
+    when(userService.register(registerRequest)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Hashing failed")));
 
-    this.mockMvc.perform(post("/api/v1/users/register")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/register")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(registerRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isInternalServerError())
             .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.INTERNAL_SERVER_ERROR.name())))
-            .andExpect(jsonPath("$.errorMessage", equalTo("Internal Error")));
+            .andExpect(jsonPath("$.errorMessage", equalTo(ErrorCodes.INTERNAL_SERVER_ERROR.getMessage())));
 
     verify(userService).register(registerRequest);
   }
 
   @Test
   void registerAdmin_success() throws Exception {
-    when(userService.registerAdmin(registerRequest)).thenReturn(userResponseAdmin);
+    when(userService.registerAdmin(registerRequest)).thenReturn(CompletableFuture.completedFuture(userResponseAdmin));
 
-    this.mockMvc.perform(post("/api/v1/users/register-admin")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/register-admin")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(registerRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isOk());
 
     verify(userService).registerAdmin(registerRequest);
@@ -197,12 +241,16 @@ public class UserControllerTest {
 
   @Test
   void registerAdminAccountExist_throwAppException() throws Exception {
-    when(userService.registerAdmin(registerRequest)).thenThrow(new AppException("Account Exists", HttpStatus.BAD_REQUEST));
+    when(userService.registerAdmin(registerRequest)).thenReturn(CompletableFuture.failedFuture(new AppException("Account Exists", HttpStatus.BAD_REQUEST)));
 
-    this.mockMvc.perform(post("/api/v1/users/register-admin")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/register-admin")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(registerRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isBadRequest())
             .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.BAD_REQUEST.name())))
             .andExpect(jsonPath("$.errorMessage", equalTo("Account Exists")));
@@ -212,27 +260,35 @@ public class UserControllerTest {
 
   @Test
   void registerAdminFailed_throwException() throws Exception {
-    when(userService.registerAdmin(registerRequest)).thenThrow(HttpServerErrorException.InternalServerError.class);
+    when(userService.registerAdmin(registerRequest)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Hashing failed")));
 
-    this.mockMvc.perform(post("/api/v1/users/register-admin")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/register-admin")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(registerRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isInternalServerError())
             .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.INTERNAL_SERVER_ERROR.name())))
-            .andExpect(jsonPath("$.errorMessage", equalTo("Internal Error")));
+            .andExpect(jsonPath("$.errorMessage", equalTo(ErrorCodes.INTERNAL_SERVER_ERROR.getMessage())));
 
     verify(userService).registerAdmin(registerRequest);
   }
 
   @Test
   void registerEmployee_success() throws Exception {
-    when(userService.registerEmployee(registerRequest)).thenReturn(userResponseEmployee);
+    when(userService.registerEmployee(registerRequest)).thenReturn(CompletableFuture.completedFuture(userResponseEmployee));
 
-    this.mockMvc.perform(post("/api/v1/users/register-emp")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/register-emp")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(registerRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isOk());
 
     verify(userService).registerEmployee(registerRequest);
@@ -240,12 +296,16 @@ public class UserControllerTest {
 
   @Test
   void registerEmployeeAccountExist_throwAppException() throws Exception {
-    when(userService.registerEmployee(registerRequest)).thenThrow(new AppException("Account Exists", HttpStatus.BAD_REQUEST));
+    when(userService.registerEmployee(registerRequest)).thenReturn(CompletableFuture.failedFuture(new AppException("Account Exists", HttpStatus.BAD_REQUEST)));
 
-    this.mockMvc.perform(post("/api/v1/users/register-emp")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/register-emp")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(registerRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isBadRequest())
             .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.BAD_REQUEST.name())))
             .andExpect(jsonPath("$.errorMessage", equalTo("Account Exists")));
@@ -255,27 +315,35 @@ public class UserControllerTest {
 
   @Test
   void registerEmployeeFailed_throwException() throws Exception {
-    when(userService.registerEmployee(registerRequest)).thenThrow(HttpServerErrorException.InternalServerError.class);
+    when(userService.registerEmployee(registerRequest)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Hashing failed")));
 
-    this.mockMvc.perform(post("/api/v1/users/register-emp")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/register-emp")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(registerRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isInternalServerError())
             .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.INTERNAL_SERVER_ERROR.name())))
-            .andExpect(jsonPath("$.errorMessage", equalTo("Internal Error")));
+            .andExpect(jsonPath("$.errorMessage", equalTo(ErrorCodes.INTERNAL_SERVER_ERROR.getMessage())));
 
     verify(userService).registerEmployee(registerRequest);
   }
 
   @Test
   void updateUser_success() throws Exception {
-    when(userService.editUserProfile(editProfileRequest)).thenReturn(userResponse);
+    when(userService.editUserProfile(editProfileRequest)).thenReturn(CompletableFuture.completedFuture(userResponse));
 
-    this.mockMvc.perform(post("/api/v1/users/public/update")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/public/update")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(editProfileRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isOk());
 
     verify(userService).editUserProfile(editProfileRequest);
@@ -283,12 +351,16 @@ public class UserControllerTest {
 
   @Test
   void updateUserFailedEmailTaken_throwAppException() throws Exception {
-    when(userService.editUserProfile(editProfileRequest)).thenThrow(new AppException("Account Exists", HttpStatus.BAD_REQUEST));
+    when(userService.editUserProfile(editProfileRequest)).thenReturn(CompletableFuture.failedFuture(new AppException("Account Exists", HttpStatus.BAD_REQUEST)));
 
-    this.mockMvc.perform(post("/api/v1/users/public/update")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/public/update")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(editProfileRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isBadRequest())
             .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.BAD_REQUEST.name())))
             .andExpect(jsonPath("$.errorMessage", equalTo("Account Exists")));
@@ -298,28 +370,36 @@ public class UserControllerTest {
 
   @Test
   void updateUserFailedServer_throwException() throws Exception {
-    when(userService.editUserProfile(editProfileRequest)).thenThrow(HttpServerErrorException.InternalServerError.class);
+    when(userService.editUserProfile(editProfileRequest)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Hashing failed")));
 
-    this.mockMvc.perform(post("/api/v1/users/public/update")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/public/update")
                     .accept(MediaType.APPLICATION_JSON)
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(new ObjectMapper().writeValueAsString(editProfileRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isInternalServerError())
             .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.INTERNAL_SERVER_ERROR.name())))
-            .andExpect(jsonPath("$.errorMessage", equalTo("Internal Error")));
+            .andExpect(jsonPath("$.errorMessage", equalTo(ErrorCodes.INTERNAL_SERVER_ERROR.getMessage())));
 
     verify(userService).editUserProfile(editProfileRequest);
   }
 
   @Test
   void updatePasswordUser_success() throws Exception {
-    when(userService.editPassword(editPasswordRequest)).thenReturn(userResponse);
-    when(userAuthProvider.generateToken(any(), any())).thenReturn(TOKEN);
+    when(userService.editPassword(editPasswordRequest)).thenReturn(CompletableFuture.completedFuture(userResponse));
+    when(userAuthProvider.generateToken(any(UserResponse.class))).thenReturn(TOKEN);
 
-    this.mockMvc.perform(post("/api/v1/users/public/update-password")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/public/update-password")
             .accept(MediaType.APPLICATION_JSON)
             .contentType(MediaType.APPLICATION_JSON)
             .content(new ObjectMapper().writeValueAsString(editPasswordRequest)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
         .andExpect(status().isOk());
 
     verify(userService).editPassword(editPasswordRequest);
@@ -327,12 +407,16 @@ public class UserControllerTest {
 
   @Test
   void updatePassword_throwAppException() throws Exception {
-    when(userService.editPassword(editPasswordRequest)).thenThrow(new AppException("Invalid password", HttpStatus.BAD_REQUEST));
+    when(userService.editPassword(editPasswordRequest)).thenReturn(CompletableFuture.failedFuture(new AppException("Invalid password", HttpStatus.BAD_REQUEST)));
 
-    this.mockMvc.perform(post("/api/v1/users/public/update-password")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/public/update-password")
             .accept(MediaType.APPLICATION_JSON)
             .contentType(MediaType.APPLICATION_JSON)
             .content(new ObjectMapper().writeValueAsString(editPasswordRequest)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
         .andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.BAD_REQUEST.name())))
         .andExpect(jsonPath("$.errorMessage", equalTo("Invalid password")));
@@ -342,19 +426,43 @@ public class UserControllerTest {
 
   @Test
   void updatePasswordFailedServer_throwException() throws Exception {
-    when(userService.editPassword(editPasswordRequest)).thenThrow(HttpServerErrorException.InternalServerError.class);
+    when(userService.editPassword(editPasswordRequest)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Hashing failed")));
 
-    this.mockMvc.perform(post("/api/v1/users/public/update-password")
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/public/update-password")
             .accept(MediaType.APPLICATION_JSON)
             .contentType(MediaType.APPLICATION_JSON)
             .content(new ObjectMapper().writeValueAsString(editPasswordRequest)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
         .andExpect(status().isInternalServerError())
         .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.INTERNAL_SERVER_ERROR.name())))
-        .andExpect(jsonPath("$.errorMessage", equalTo("Internal Error")));
+        .andExpect(jsonPath("$.errorMessage", equalTo(ErrorCodes.INTERNAL_SERVER_ERROR.getMessage())));
 
     verify(userService).editPassword(editPasswordRequest);
   }
 
+  @Test
+  void loginHashingBusy_returnsTooManyRequests() throws Exception {
+    when(userService.login(loginRequest)).thenReturn(CompletableFuture.failedFuture(
+        new AppException(ErrorCodes.PASSWORD_HASHING_BUSY.getMessage(), HttpStatus.TOO_MANY_REQUESTS)));
+
+    MvcResult result = this.mockMvc.perform(post("/api/v1/users/login")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(new ObjectMapper().writeValueAsString(loginRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    this.mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, RestExceptionHandler.RETRY_AFTER_SECONDS))
+            .andExpect(jsonPath("$.errorCode", equalTo(HttpStatus.TOO_MANY_REQUESTS.name())));
+
+    verify(userService).login(loginRequest);
+  }
+
   @Test
   void findUser_success() throws Exception {
     when(userService.findByEmail(EMAIL)).thenReturn(userResponse);
@@ -398,7 +506,8 @@ public class UserControllerTest {
   @BeforeEach
   public void init() {
     initMocks(this);
-    this.mockMvc = standaloneSetup(this.userController).build();
+    this.mockMvc = standaloneSetup(this.userController)
+        .setControllerAdvice(new RestExceptionHandler()).build();
 
     user = User.builder()
         .userRole(UserRole.ROLE_USER)
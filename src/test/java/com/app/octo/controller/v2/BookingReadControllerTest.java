@@ -0,0 +1,104 @@
+package com.app.octo.controller.v2;
+
+import com.app.octo.model.exception.AppException;
+import com.app.octo.model.request.GetAllByStatusRequest;
+import com.app.octo.model.response.BookingResponse;
+import com.app.octo.model.response.PageResponse;
+import com.app.octo.security.RestExceptionHandler;
+import com.app.octo.service.BookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
+
+public class BookingReadControllerTest {
+
+  public static final String EMAIL = "user@hysleep.com";
+
+  @InjectMocks
+  private BookingReadController bookingReadController;
+
+  @Mock
+  private BookingService bookingService;
+
+  private MockMvc mockMvc;
+
+  @Test
+  void getBookings_bindsQueryParameters() throws Exception {
+    when(bookingService.getAllByStatus(any())).thenReturn(new PageResponse<>(new ArrayList<>(), "next"));
+
+    mockMvc.perform(get("/api/v2/bookings")
+            .param("email", EMAIL)
+            .param("status", "ONGOING")
+            .param("roomId", "7")
+            .param("from", "2026-01-01T00:00:00.000Z")
+            .param("cursor", "abc")
+            .param("size", "10"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=5, private"))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION))
+        .andExpect(jsonPath("$.nextCursor").value("next"));
+
+    ArgumentCaptor<GetAllByStatusRequest> captor = ArgumentCaptor.forClass(GetAllByStatusRequest.class);
+    verify(bookingService).getAllByStatus(captor.capture());
+    GetAllByStatusRequest request = captor.getValue();
+    assertEquals(EMAIL, request.getEmail());
+    assertEquals("ONGOING", request.getStatus());
+    assertEquals(7L, request.getRoomId());
+    assertEquals(Date.from(Instant.parse("2026-01-01T00:00:00Z")), request.getFrom());
+    assertEquals("abc", request.getCursor());
+    assertEquals(10, request.getSize());
+  }
+
+  @Test
+  void getBookings_appException() throws Exception {
+    when(bookingService.getAllByStatus(any()))
+        .thenThrow(new AppException("User not found", HttpStatus.NOT_FOUND));
+
+    mockMvc.perform(get("/api/v2/bookings").param("email", EMAIL))
+        .andExpect(status().isNotFound())
+        .andExpect(header().doesNotExist(HttpHeaders.CACHE_CONTROL))
+        .andExpect(jsonPath("$.errorCode").value(HttpStatus.NOT_FOUND.name()));
+
+    verify(bookingService).getAllByStatus(any());
+  }
+
+  @Test
+  void getBookings_missingEmail() throws Exception {
+    mockMvc.perform(get("/api/v2/bookings"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @BeforeEach
+  public void init() {
+    initMocks(this);
+    mockMvc = standaloneSetup(bookingReadController)
+        .setControllerAdvice(new RestExceptionHandler()).build();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    verifyNoMoreInteractions(bookingService);
+  }
+}
@@ -0,0 +1,96 @@
+package com.app.octo.controller.v2;
+
+import com.app.octo.model.Category;
+import com.app.octo.model.User;
+import com.app.octo.model.enums.UserRole;
+import com.app.octo.repository.BookingRepository;
+import com.app.octo.repository.CategoryRepository;
+import com.app.octo.repository.RoomRepository;
+import com.app.octo.repository.UserRepository;
+import com.app.octo.security.UserAuthProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the v2 reads through the full security chain, which must leave the controllers'
+ * caching headers in place.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReadApiHeadersTest {
+
+  public static final String EMAIL = "reader@hysleep.com";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private UserAuthProvider userAuthProvider;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private String bearer;
+
+  @Test
+  void getCategories_publicCacheAndConditional() throws Exception {
+    String etag = mockMvc.perform(get("/api/v2/categories").header(HttpHeaders.AUTHORIZATION, bearer))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+        .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.AUTHORIZATION)))
+        .andExpect(jsonPath("$.data[0].categoryName").value("READ"))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    mockMvc.perform(get("/api/v2/categories").header(HttpHeaders.AUTHORIZATION, bearer)
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  void getUser_privateCache() throws Exception {
+    mockMvc.perform(get("/api/v2/users/" + EMAIL).header(HttpHeaders.AUTHORIZATION, bearer))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, private"))
+        .andExpect(jsonPath("$.email").value(EMAIL));
+  }
+
+  @Test
+  void getBookings_requiresAuthentication() throws Exception {
+    mockMvc.perform(get("/api/v2/bookings").param("email", EMAIL))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @BeforeEach
+  public void init() {
+    bookingRepository.deleteAll();
+    roomRepository.deleteAll();
+    categoryRepository.deleteAll();
+    categoryRepository.save(Category.builder().categoryName("READ").build());
+    User user = userRepository.findByEmail(EMAIL).orElseGet(() -> userRepository.save(
+        User.builder().email(EMAIL).firstName("Read").lastName("Test").password("x")
+            .userRole(UserRole.ROLE_USER).build()));
+    bearer = "Bearer " + userAuthProvider.generateToken(user.getEmail(), user.getUserRole().name());
+  }
+}
@@ -0,0 +1,198 @@
+package com.app.octo.controller.v2;
+
+import com.app.octo.dto.request.RoomIdRequestDTO;
+import com.app.octo.dto.response.RoomResponseDTO;
+import com.app.octo.model.response.CatalogSnapshot;
+import com.app.octo.model.response.UserResponse;
+import com.app.octo.security.RestExceptionHandler;
+import com.app.octo.security.UserAuthProvider;
+import com.app.octo.service.CatalogSnapshotService;
+import com.app.octo.service.RoomService;
+import com.app.octo.service.RoomStatusStreamService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
+
+public class RoomReadControllerTest {
+
+  private static final String ETAG = "\"rooms-v1\"";
+  private static final long ROOM_ID = 1L;
+
+  @InjectMocks
+  private RoomReadController roomReadController;
+
+  @Mock
+  private RoomService roomService;
+
+  @Mock
+  private CatalogSnapshotService catalogSnapshotService;
+
+  @Mock
+  private RoomStatusStreamService roomStatusStreamService;
+
+  @Mock
+  private UserAuthProvider userAuthProvider;
+
+  private MockMvc mockMvc;
+  private RoomResponseDTO room;
+
+  @Test
+  void getRooms_servesSnapshotWithCacheHeaders() throws Exception {
+    when(catalogSnapshotService.getRooms()).thenReturn(new CatalogSnapshot(1, ETAG, "[]".getBytes()));
+
+    mockMvc.perform(get("/api/v2/rooms"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=5, public"))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION))
+        .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+        .andExpect(content().json("[]"));
+
+    verify(catalogSnapshotService).getRooms();
+  }
+
+  @Test
+  void getRooms_notModified() throws Exception {
+    when(catalogSnapshotService.getRooms()).thenReturn(new CatalogSnapshot(1, ETAG, "[]".getBytes()));
+
+    mockMvc.perform(get("/api/v2/rooms").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+        .andExpect(status().isNotModified());
+
+    verify(catalogSnapshotService).getRooms();
+  }
+
+  @Test
+  void streamStatus_subscribesWithLastEventId() throws Exception {
+    SseEmitter emitter = new SseEmitter();
+    when(roomStatusStreamService.subscribe("1:5")).thenReturn(emitter);
+
+    MvcResult result = mockMvc.perform(get("/api/v2/rooms/stream").header("Last-Event-ID", "1:5"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    // Headers go out with the first event
+    emitter.send(SseEmitter.event().name("ready").data(0));
+
+    assertEquals("no-store", result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL));
+    assertEquals("no", result.getResponse().getHeader(RoomReadController.X_ACCEL_BUFFERING));
+    assertTrue(result.getResponse().getContentAsString().contains("event:ready"));
+
+    verify(roomStatusStreamService).subscribe("1:5");
+  }
+
+  @Test
+  void streamStatus_resumesFromLastEventIdParameter() throws Exception {
+    when(roomStatusStreamService.subscribe("1:5")).thenReturn(new SseEmitter());
+
+    mockMvc.perform(get("/api/v2/rooms/stream").param("lastEventId", "1:5"))
+        .andExpect(request().asyncStarted());
+
+    verify(roomStatusStreamService).subscribe("1:5");
+  }
+
+  @Test
+  void issueStreamTicket_success() throws Exception {
+    UserResponse user = UserResponse.builder().email("guest@hysleep.com").build();
+    when(userAuthProvider.generateStreamTicket(user)).thenReturn("ticket");
+    when(userAuthProvider.getStreamTicketValidity()).thenReturn(60000L);
+
+    mockMvc.perform(post("/api/v2/rooms/stream/ticket")
+            .principal(new UsernamePasswordAuthenticationToken(user, null, List.of())))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+        .andExpect(jsonPath("$.ticket").value("ticket"))
+        .andExpect(jsonPath("$.expiresInMs").value(60000));
+
+    verify(userAuthProvider).generateStreamTicket(user);
+    verify(userAuthProvider).getStreamTicketValidity();
+  }
+
+  @Test
+  void getAvailableRooms_success() throws Exception {
+    when(roomService.getAvailableRooms()).thenReturn(List.of(room));
+
+    mockMvc.perform(get("/api/v2/rooms/available"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=5, public"))
+        .andExpect(jsonPath("$[0].roomNumber").value("101"));
+
+    verify(roomService).getAvailableRooms();
+  }
+
+  @Test
+  void getRoomById_success() throws Exception {
+    when(roomService.existsById(ROOM_ID)).thenReturn(true);
+    when(roomService.getRoomById(any(RoomIdRequestDTO.class))).thenReturn(room);
+
+    mockMvc.perform(get("/api/v2/rooms/{roomId}", ROOM_ID))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION))
+        .andExpect(jsonPath("$.roomId").value(ROOM_ID));
+
+    verify(roomService).existsById(ROOM_ID);
+    verify(roomService).getRoomById(any(RoomIdRequestDTO.class));
+  }
+
+  @Test
+  void getRoomById_notFound() throws Exception {
+    when(roomService.existsById(ROOM_ID)).thenReturn(false);
+
+    mockMvc.perform(get("/api/v2/rooms/{roomId}", ROOM_ID))
+        .andExpect(status().isNotFound())
+        .andExpect(header().doesNotExist(HttpHeaders.CACHE_CONTROL));
+
+    verify(roomService).existsById(ROOM_ID);
+  }
+
+  @Test
+  void getRooms_error() throws Exception {
+    when(catalogSnapshotService.getRooms()).thenThrow(new RuntimeException("Database error"));
+
+    mockMvc.perform(get("/api/v2/rooms"))
+        .andExpect(status().isInternalServerError())
+        .andExpect(header().doesNotExist(HttpHeaders.CACHE_CONTROL))
+        .andExpect(jsonPath("$.errorCode").value(HttpStatus.INTERNAL_SERVER_ERROR.name()));
+
+    verify(catalogSnapshotService).getRooms();
+  }
+
+  @BeforeEach
+  public void init() {
+    initMocks(this);
+    mockMvc = standaloneSetup(roomReadController)
+        .setControllerAdvice(new RestExceptionHandler()).build();
+    room = RoomResponseDTO.builder().roomId(ROOM_ID).roomNumber("101").status("AVAILABLE").floor("1").build();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    verifyNoMoreInteractions(roomService);
+    verifyNoMoreInteractions(catalogSnapshotService);
+    verifyNoMoreInteractions(roomStatusStreamService);
+    verifyNoMoreInteractions(userAuthProvider);
+  }
+}
@@ -0,0 +1,110 @@
+package com.app.octo.mapper;
+
+import com.app.octo.model.Booking;
+import com.app.octo.model.Category;
+import com.app.octo.model.Room;
+import com.app.octo.model.User;
+import com.app.octo.model.enums.UserRole;
+import com.app.octo.model.projection.BookingSummary;
+import com.app.octo.model.request.RegisterRequest;
+import com.app.octo.model.response.BookingResponse;
+import com.app.octo.model.response.CategoryGetResponse;
+import com.app.octo.model.response.CategoryResponse;
+import com.app.octo.model.response.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class MapperTest {
+
+  public static final long ID = 1L;
+  public static final String EMAIL = "user@hysleep.com";
+  public static final Date DATE = new Date();
+
+  private final BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
+  private final UserMapper userMapper = Mappers.getMapper(UserMapper.class);
+  private final CategoryMapper categoryMapper = Mappers.getMapper(CategoryMapper.class);
+
+  @Test
+  void bookingToResponse_mapsNestedUserAndRoom() {
+    User user = User.builder().id(ID).firstName("First").lastName("Last").email(EMAIL)
+        .password("hash").userRole(UserRole.ROLE_USER).build();
+    Room room = Room.builder().roomId(ID).roomNumber("101").status("BOOKED").floor("1").build();
+    Booking booking = Booking.builder().bookingId(ID).user(user).room(room).bookingDate(DATE)
+        .startDate(DATE).endDate(DATE).status("ONGOING").build();
+
+    List<BookingResponse> responses = bookingMapper.toResponses(List.of(booking));
+
+    assertEquals(1, responses.size());
+    BookingResponse response = responses.get(0);
+    assertEquals(ID, response.getBookingId());
+    assertEquals(DATE, response.getBookingDate());
+    assertEquals(DATE, response.getEndDate());
+    assertEquals("ONGOING", response.getStatus());
+    assertEquals(EMAIL, response.getUser().getEmail());
+    assertEquals("First", response.getUser().getFirstName());
+    assertEquals("101", response.getRoom().getRoomNumber());
+    assertEquals("BOOKED", response.getRoom().getStatus());
+  }
+
+  @Test
+  void bookingSummaryToResponse_fillsNestedDtos() {
+    BookingSummary summary = new BookingSummary(ID, DATE, DATE, "DONE", "First", "Last", EMAIL,
+        2L, "102", "AVAILABLE", "3");
+
+    BookingResponse response = bookingMapper.toSummaryResponse(summary);
+
+    assertEquals(ID, response.getBookingId());
+    assertEquals("DONE", response.getStatus());
+    assertEquals(EMAIL, response.getUser().getEmail());
+    assertEquals("Last", response.getUser().getLastName());
+    assertEquals(2L, response.getRoom().getRoomId());
+    assertEquals("AVAILABLE", response.getRoom().getStatus());
+    assertEquals("3", response.getRoom().getFloor());
+  }
+
+  @Test
+  void registerRequestToUser_leavesPasswordAndRoleToCaller() {
+    RegisterRequest request = RegisterRequest.builder().firstName("First").lastName("Last")
+        .email(EMAIL).password("secret".toCharArray()).build();
+
+    User user = userMapper.toUser(request);
+
+    assertEquals("First", user.getFirstName());
+    assertEquals("Last", user.getLastName());
+    assertEquals(EMAIL, user.getEmail());
+    assertNull(user.getPassword());
+    assertNull(user.getUserRole());
+    assertNull(user.getId());
+  }
+
+  @Test
+  void userToResponse_doesNotExposeToken() {
+    User user = User.builder().firstName("First").lastName("Last").email(EMAIL)
+        .password("hash").userRole(UserRole.ROLE_ADMIN).build();
+
+    UserResponse response = userMapper.toResponse(user);
+
+    assertEquals(EMAIL, response.getEmail());
+    assertEquals(UserRole.ROLE_ADMIN, response.getUserRole());
+    assertNull(response.getToken());
+  }
+
+  @Test
+  void categoryToResponses() {
+    Category category = new Category(ID, "Deluxe");
+
+    CategoryResponse response = categoryMapper.toResponse(category);
+    List<CategoryGetResponse> responses = categoryMapper.toGetResponses(List.of(category));
+
+    assertEquals(ID, response.getCategoryId());
+    assertEquals("Deluxe", response.getCategoryName());
+    assertEquals(1, responses.size());
+    assertEquals("Deluxe", responses.get(0).getCategoryName());
+  }
+}
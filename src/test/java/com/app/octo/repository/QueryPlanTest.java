@@ -0,0 +1,181 @@
+package com.app.octo.repository;
+
+import com.app.octo.model.Booking;
+import com.app.octo.model.Category;
+import com.app.octo.model.Room;
+import com.app.octo.model.User;
+import com.app.octo.model.enums.UserRole;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.commons.lang3.time.DateUtils;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every repository finder against the migrated schema, then has the database
+ * {@code EXPLAIN} each statement it produced: none may scan a whole table, and the ones on
+ * the hot paths must use the index created for them.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "com.app.octo.repository.RecordingStatementInspector")
+@ActiveProfiles("test")
+public class QueryPlanTest {
+
+  public static final String EMAIL = "plan@hysleep.com";
+  public static final String ONGOING = "ONGOING";
+  public static final String DONE = "DONE";
+  public static final String BOOKED = "BOOKED";
+  public static final String AVAILABLE = "AVAILABLE";
+  public static final String TABLE_SCAN = "tableScan";
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private DataSource dataSource;
+
+  private User user;
+  private Room room;
+  private Category category;
+  private Booking booking;
+
+  @Test
+  void bookingFinders_useIndexes() throws SQLException {
+    assertIndexed(() -> bookingRepository.findByBookingId(booking.getBookingId()));
+    assertIndexed(() -> bookingRepository.findAllByStatus(ONGOING), "idx_booking_status_end_date");
+    assertIndexed(() -> bookingRepository.findByUser_idAndStatus(user.getId(), ONGOING),
+        "idx_booking_user_status");
+    assertIndexed(() -> bookingRepository.findByUser_id(user.getId()));
+    assertIndexed(() -> bookingRepository.findDeadlinesByStatus(ONGOING), "idx_booking_status_end_date");
+    assertIndexed(() -> bookingRepository.lockDeadlinesByStatusAndEndDateBefore(ONGOING, new Date()),
+        "idx_booking_status_end_date");
+    assertIndexed(() -> bookingRepository.lockDeadlinesByIdsAndStatus(List.of(booking.getBookingId()), ONGOING));
+    assertIndexed(() -> bookingRepository.updateStatusForIds(List.of(booking.getBookingId()), ONGOING, ONGOING));
+    assertIndexed(() -> bookingRepository.findIdsByStatusAndEndDateBefore(DONE, new Date(), Limit.of(10)),
+        "idx_booking_status_end_date");
+    assertIndexed(() -> bookingRepository.deleteByIds(List.of(-1L)));
+  }
+
+  @Test
+  void bookingPage_usesIndexForEachFilter() throws SQLException {
+    assertIndexed(() -> bookingRepository.findPage(BookingFilter.builder().status(ONGOING).build(), null, 20),
+        "idx_booking_status_end_date");
+    assertIndexed(() -> bookingRepository.findPage(BookingFilter.builder().userId(user.getId()).status(ONGOING)
+        .build(), null, 20), "idx_booking_user_status");
+    assertIndexed(() -> bookingRepository.findPage(BookingFilter.builder().userEmail(EMAIL).build(), null, 20),
+        "uk_users_email");
+    assertIndexed(() -> bookingRepository.findPageIncludingHistory(BookingFilter.builder().userId(user.getId())
+        .status(DONE).build(), null, 20), "idx_booking_user_status", "idx_booking_history_user_status");
+  }
+
+  @Test
+  void catalogAndUserFinders_useIndexes() throws SQLException {
+    assertIndexed(() -> roomRepository.findByRoomIdAndStatus(room.getRoomId(), BOOKED));
+    assertIndexed(() -> roomRepository.existsByRoomNumber(room.getRoomNumber()), "uk_room_number");
+    assertIndexed(() -> roomRepository.updateStatusIfCurrent(room.getRoomId(), BOOKED, BOOKED));
+    assertIndexed(() -> roomRepository.updateStatusForIds(List.of(room.getRoomId()), BOOKED, BOOKED));
+    assertIndexed(() -> categoryRepository.findByCategoryId(category.getCategoryId()));
+    assertIndexed(() -> categoryRepository.findByCategoryName(category.getCategoryName()), "uk_category_name");
+    assertIndexed(() -> userRepository.findByEmail(EMAIL), "uk_users_email");
+    assertIndexed(() -> userRepository.findVersionByEmail(EMAIL), "uk_users_email");
+    assertIndexed(() -> userRepository.updatePasswordIfCurrent(user.getId(), "x", "x"));
+  }
+
+  private void assertIndexed(Runnable finder, String... expectedIndexes) throws SQLException {
+    entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    List<String> statements;
+    RecordingStatementInspector.start();
+    try {
+      transactionTemplate.executeWithoutResult(status -> finder.run());
+    } finally {
+      statements = RecordingStatementInspector.stop();
+    }
+
+    List<String> plans = new ArrayList<>();
+    try (Connection connection = dataSource.getConnection()) {
+      for (String sql : statements) {
+        String plan = explain(connection, sql);
+        assertFalse(plan.contains(TABLE_SCAN), () -> "Full table scan in " + plan);
+        plans.add(plan.toLowerCase(Locale.ROOT));
+      }
+    }
+    assertFalse(plans.isEmpty(), "No statement was recorded");
+    for (String index : expectedIndexes) {
+      assertTrue(plans.stream().anyMatch(plan -> plan.contains(index)), () -> index + " not used by " + plans);
+    }
+  }
+
+  private static String explain(Connection connection, String sql) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+      ParameterMetaData parameters = statement.getParameterMetaData();
+      for (int i = 1; i <= parameters.getParameterCount(); i++) {
+        statement.setObject(i, sample(parameters.getParameterType(i)));
+      }
+      try (ResultSet resultSet = statement.executeQuery()) {
+        resultSet.next();
+        return resultSet.getString(1);
+      }
+    }
+  }
+
+  private static Object sample(int sqlType) {
+    return switch (sqlType) {
+      case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> new Timestamp(System.currentTimeMillis());
+      case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT -> 1L;
+      default -> ONGOING;
+    };
+  }
+
+  @BeforeEach
+  public void init() {
+    bookingRepository.deleteAll();
+    roomRepository.deleteAll();
+    categoryRepository.deleteAll();
+
+    category = categoryRepository.save(Category.builder().categoryName("PLAN").build());
+    user = userRepository.findByEmail(EMAIL).orElseGet(() -> userRepository.save(
+        User.builder().email(EMAIL).firstName("Plan").lastName("Test").password("x")
+            .userRole(UserRole.ROLE_USER).build()));
+    room = roomRepository.save(Room.builder().roomNumber("P-1").floor("1").status(BOOKED)
+        .roomDescription("plan").category(category).build());
+    Date end = DateUtils.addHours(new Date(), 1);
+    booking = bookingRepository.save(Booking.builder().user(user).room(room).status(ONGOING)
+        .bookingDate(new Date()).startDate(DateUtils.addHours(end, -2)).endDate(end).build());
+  }
+}
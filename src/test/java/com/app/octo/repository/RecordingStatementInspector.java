@@ -0,0 +1,35 @@
+package com.app.octo.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Collects the SQL Hibernate prepares on the calling thread between {@link #start()} and
+ * {@link #stop()}, ignoring statements from scheduled jobs running at the same time.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+  private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+  public static void start() {
+    RECORDED.set(new ArrayList<>());
+  }
+
+  public static List<String> stop() {
+    List<String> recorded = RECORDED.get();
+    RECORDED.remove();
+    return recorded;
+  }
+
+  @Override
+  public String inspect(String sql) {
+    List<String> recorded = RECORDED.get();
+    if (Objects.nonNull(recorded)) {
+      recorded.add(sql);
+    }
+    return sql;
+  }
+}
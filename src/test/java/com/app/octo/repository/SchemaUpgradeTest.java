@@ -0,0 +1,59 @@
+package com.app.octo.repository;
+
+import org.flywaydb.core.Flyway;
+import org.h2.tools.RunScript;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Upgrades a database the way production ones are: created by ddl-auto=update, then
+ * baselined at V1. Every later migration must apply on top of that schema and its rows.
+ */
+public class SchemaUpgradeTest {
+
+  public static final String URL = "jdbc:h2:mem:hysleep-upgrade;MODE=MySQL;DB_CLOSE_DELAY=-1";
+  public static final String USERNAME = "sa";
+
+  @Test
+  void baselinedDatabase_upgradesToCurrentSchema() throws Exception {
+    try (Connection connection = DriverManager.getConnection(URL, USERNAME, "");
+        Reader v1 = new InputStreamReader(Objects.requireNonNull(
+            getClass().getResourceAsStream("/db/migration/V1__baseline_schema.sql")), StandardCharsets.UTF_8);
+        Statement statement = connection.createStatement()) {
+      RunScript.execute(connection, v1);
+      statement.executeUpdate("insert into users (id, created_at, updated_at, email, user_role) "
+          + "values (1, current_timestamp, current_timestamp, 'old@hysleep.com', 0)");
+    }
+
+    Flyway.configure().dataSource(URL, USERNAME, "")
+        .baselineOnMigrate(true).baselineVersion("1")
+        .load().migrate();
+
+    try (Connection connection = DriverManager.getConnection(URL, USERNAME, "");
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("select version from users where id = 1")) {
+      assertTrue(resultSet.next());
+      assertEquals(0, resultSet.getLong(1));
+      assertTrue(hasColumn(connection, "ROOM", "VERSION"));
+      assertTrue(hasColumn(connection, "BOOKING", "VERSION"));
+    }
+  }
+
+  private static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+    try (ResultSet columns = connection.getMetaData().getColumns(null, null, table, column)) {
+      return columns.next();
+    }
+  }
+}
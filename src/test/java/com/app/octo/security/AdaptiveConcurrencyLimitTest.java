@@ -0,0 +1,97 @@
+package com.app.octo.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimitTest {
+
+  public static final int INITIAL_LIMIT = 4;
+  public static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+  public static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private AdaptiveConcurrencyLimit concurrencyLimit;
+
+  @Test
+  void tryAcquire_shedsOverLimit() {
+    for (int i = 0; i < INITIAL_LIMIT; i++) {
+      assertTrue(concurrencyLimit.tryAcquire());
+    }
+    assertFalse(concurrencyLimit.tryAcquire());
+
+    concurrencyLimit.release(FAST);
+    assertTrue(concurrencyLimit.tryAcquire());
+  }
+
+  @Test
+  void release_growsWhileSaturatedAndBacksOffWhenSlow() {
+    for (int i = 0; i < INITIAL_LIMIT; i++) {
+      assertTrue(concurrencyLimit.tryAcquire());
+    }
+
+    // Every slot busy and latency at its lowest: one more slot
+    window(FAST);
+    assertEquals(INITIAL_LIMIT + 1, concurrencyLimit.getLimit());
+
+    // Latency past the tolerance over the long-term average: multiplicative decrease
+    window(SLOW);
+    assertEquals(4, concurrencyLimit.getLimit());
+    window(SLOW);
+    assertEquals(3, concurrencyLimit.getLimit());
+  }
+
+  @Test
+  void release_mixOfFastAndSlowRequestsDoesNotBackOff() {
+    for (int i = 0; i < INITIAL_LIMIT; i++) {
+      assertTrue(concurrencyLimit.tryAcquire());
+    }
+
+    // Slow requests are four times the fastest one, but the mix is steady
+    for (int i = 0; i < 5; i++) {
+      window(FAST, SLOW);
+    }
+    assertEquals(INITIAL_LIMIT + 5, concurrencyLimit.getLimit());
+  }
+
+  @Test
+  void release_sustainedSlownessBecomesTheBaseline() {
+    ReflectionTestUtils.setField(concurrencyLimit, "longWindows", 2);
+    for (int i = 0; i < INITIAL_LIMIT; i++) {
+      assertTrue(concurrencyLimit.tryAcquire());
+    }
+    window(FAST);
+    window(SLOW);
+    int backedOff = concurrencyLimit.getLimit();
+
+    for (int i = 0; i < 5; i++) {
+      window(SLOW);
+    }
+    assertTrue(concurrencyLimit.getLimit() > backedOff);
+  }
+
+  /**
+   * Completes a window of requests, each immediately replaced by a new one. Latencies are
+   * used in turn.
+   */
+  private void window(long... latencies) {
+    for (int i = 0; i < INITIAL_LIMIT; i++) {
+      concurrencyLimit.release(latencies[i % latencies.length]);
+      concurrencyLimit.tryAcquire();
+    }
+  }
+
+  @BeforeEach
+  public void init() {
+    concurrencyLimit = new AdaptiveConcurrencyLimit();
+    ReflectionTestUtils.setField(concurrencyLimit, "initialLimit", INITIAL_LIMIT);
+    ReflectionTestUtils.setField(concurrencyLimit, "minLimit", 2);
+    ReflectionTestUtils.setField(concurrencyLimit, "window", INITIAL_LIMIT);
+    concurrencyLimit.initialise();
+  }
+}
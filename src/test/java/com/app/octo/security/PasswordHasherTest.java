@@ -0,0 +1,89 @@
+package com.app.octo.security;
+
+import com.app.octo.config.AppMetrics;
+import com.app.octo.model.exception.AppException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class PasswordHasherTest {
+
+  public static final String PASSWORD = "password";
+
+  @Mock
+  private PasswordEncoder passwordEncoder;
+
+  @Mock
+  private AppMetrics appMetrics;
+
+  private PasswordHasher passwordHasher;
+
+  @Test
+  void encode_rejectsOnceQueueIsFull() throws Exception {
+    CountDownLatch hashing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(passwordEncoder.encode(PASSWORD)).thenAnswer(invocation -> {
+      hashing.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return "encoded";
+    });
+
+    CompletableFuture<String> first = passwordHasher.encode(PASSWORD);
+    assertTrue(hashing.await(5, TimeUnit.SECONDS));
+    CompletableFuture<String> queued = passwordHasher.encode(PASSWORD);
+    CompletableFuture<String> rejected = passwordHasher.encode(PASSWORD);
+
+    ExecutionException error = assertThrows(ExecutionException.class, rejected::get);
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, ((AppException) error.getCause()).getCode());
+
+    release.countDown();
+    assertEquals("encoded", first.get(5, TimeUnit.SECONDS));
+    assertEquals("encoded", queued.get(5, TimeUnit.SECONDS));
+
+    verify(passwordEncoder, times(2)).encode(PASSWORD);
+  }
+
+  @Test
+  void upgradeEncoding_detectsLowerCost() {
+    PasswordHasher stronger = new PasswordHasher(new BCryptPasswordEncoder(5), appMetrics);
+    String weak = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+    assertTrue(stronger.upgradeEncoding(weak));
+    assertFalse(stronger.upgradeEncoding(new BCryptPasswordEncoder(5).encode(PASSWORD)));
+  }
+
+  @BeforeEach
+  public void init() {
+    initMocks(this);
+    passwordHasher = new PasswordHasher(passwordEncoder, appMetrics);
+    ReflectionTestUtils.setField(passwordHasher, "threads", 1);
+    ReflectionTestUtils.setField(passwordHasher, "queueCapacity", 1);
+    passwordHasher.initialise();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    passwordHasher.shutdown();
+    verifyNoMoreInteractions(passwordEncoder);
+  }
+}
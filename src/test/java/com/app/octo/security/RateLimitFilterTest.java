@@ -0,0 +1,160 @@
+package com.app.octo.security;
+
+import com.app.octo.model.enums.ErrorCodes;
+import jakarta.servlet.FilterChain;
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class RateLimitFilterTest {
+
+  public static final int CAPACITY = 2;
+  public static final String PUBLIC_PATH = "/api/v1/rooms/public/getAll";
+  public static final String TOKEN = "token";
+  public static final String EMAIL = "user@hysleep.com";
+  public static final String PROXY_ADDRESS = "10.0.3.1";
+  public static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+  @Mock
+  private UserAuthProvider userAuthProvider;
+
+  @Mock
+  private AdaptiveConcurrencyLimit concurrencyLimit;
+
+  @Mock
+  private FilterChain filterChain;
+
+  private RateLimitFilter rateLimitFilter;
+
+  @Test
+  void doFilter_rejectsOnceIpBucketIsEmpty() throws Exception {
+    when(concurrencyLimit.tryAcquire()).thenReturn(true);
+
+    for (int i = 0; i < CAPACITY; i++) {
+      assertEquals(HttpStatus.OK.value(), filter(request("10.0.0.1", null)).getStatus());
+    }
+    MockHttpServletResponse rejected = filter(request("10.0.0.1", null));
+    MockHttpServletResponse otherClient = filter(request("10.0.0.2", null));
+
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+    assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+    assertTrue(rejected.getContentAsString().contains(ErrorCodes.RATE_LIMITED.getMessage()));
+    assertEquals(HttpStatus.OK.value(), otherClient.getStatus());
+    assertEquals(1, rateLimitFilter.getRateLimitedCount());
+
+    verify(concurrencyLimit, times(CAPACITY + 1)).tryAcquire();
+    verify(concurrencyLimit, times(CAPACITY + 1)).release(any(Long.class));
+    verify(filterChain, times(CAPACITY + 1)).doFilter(any(), any());
+  }
+
+  @Test
+  void doFilter_limitsTokenSubjectAcrossAddresses() throws Exception {
+    when(concurrencyLimit.tryAcquire()).thenReturn(true);
+    when(userAuthProvider.verifiedSubject(TOKEN)).thenReturn(EMAIL);
+
+    for (int i = 0; i < CAPACITY; i++) {
+      assertEquals(HttpStatus.OK.value(), filter(request("10.0.1." + i, TOKEN)).getStatus());
+    }
+    MockHttpServletResponse rejected = filter(request("10.0.1.9", TOKEN));
+
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+
+    verify(userAuthProvider, times(CAPACITY + 1)).verifiedSubject(TOKEN);
+    verify(concurrencyLimit, times(CAPACITY)).tryAcquire();
+    verify(concurrencyLimit, times(CAPACITY)).release(any(Long.class));
+    verify(filterChain, times(CAPACITY)).doFilter(any(), any());
+  }
+
+  @Test
+  void doFilter_keysForwardedClientsSeparately() throws Exception {
+    when(concurrencyLimit.tryAcquire()).thenReturn(true);
+
+    for (int i = 0; i < CAPACITY; i++) {
+      assertEquals(HttpStatus.OK.value(), filterBehindProxy(forwarded("203.0.113.1")).getStatus());
+    }
+    MockHttpServletResponse rejected = filterBehindProxy(forwarded("203.0.113.1"));
+    MockHttpServletResponse otherClient = filterBehindProxy(forwarded("203.0.113.2"));
+
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+    assertEquals(HttpStatus.OK.value(), otherClient.getStatus());
+
+    verify(concurrencyLimit, times(CAPACITY + 1)).tryAcquire();
+    verify(concurrencyLimit, times(CAPACITY + 1)).release(any(Long.class));
+    verify(filterChain, times(CAPACITY + 1)).doFilter(any(), any());
+  }
+
+  @Test
+  void doFilter_shedsWhenConcurrencyLimitIsReached() throws Exception {
+    when(concurrencyLimit.tryAcquire()).thenReturn(false);
+
+    MockHttpServletResponse response = filter(request("10.0.2.1", null));
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+    assertTrue(response.getContentAsString().contains(ErrorCodes.OVERLOADED.getMessage()));
+    assertEquals(1, rateLimitFilter.getShedCount());
+
+    verify(concurrencyLimit).tryAcquire();
+  }
+
+  private MockHttpServletRequest request(String remoteAddress, String token) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", PUBLIC_PATH);
+    request.setRemoteAddr(remoteAddress);
+    if (token != null) {
+      request.addHeader(HttpHeaders.AUTHORIZATION, RateLimitFilter.BEARER + token);
+    }
+    return request;
+  }
+
+  private MockHttpServletRequest forwarded(String clientAddress) {
+    MockHttpServletRequest request = request(PROXY_ADDRESS, null);
+    request.addHeader(X_FORWARDED_FOR, clientAddress);
+    return request;
+  }
+
+  /**
+   * Runs the request through Tomcat's remote IP handling first, as
+   * {@code server.forward-headers-strategy=native} does.
+   */
+  private MockHttpServletResponse filterBehindProxy(MockHttpServletRequest request) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    new RemoteIpFilter().doFilter(request, response,
+        (resolved, ignored) -> rateLimitFilter.doFilter(resolved, response, filterChain));
+    return response;
+  }
+
+  private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    rateLimitFilter.doFilter(request, response, filterChain);
+    return response;
+  }
+
+  @BeforeEach
+  public void init() throws Exception {
+    initMocks(this);
+    rateLimitFilter = new RateLimitFilter(userAuthProvider, concurrencyLimit);
+    ReflectionTestUtils.setField(rateLimitFilter, "publicCapacity", CAPACITY);
+    ReflectionTestUtils.setField(rateLimitFilter, "publicRefill", 1.0);
+    rateLimitFilter.initialise();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    verifyNoMoreInteractions(userAuthProvider, concurrencyLimit, filterChain);
+  }
+}
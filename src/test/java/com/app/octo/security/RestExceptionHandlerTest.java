@@ -0,0 +1,71 @@
+package com.app.octo.security;
+
+import com.app.octo.model.enums.ErrorCodes;
+import com.app.octo.model.exception.AppException;
+import com.app.octo.model.exception.NotFoundException;
+import com.app.octo.model.exception.TooManyRequestsException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RestExceptionHandlerTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private RestExceptionHandler restExceptionHandler;
+
+  @Test
+  void handleException_domainErrorReusesSerializedBody() throws Exception {
+    NotFoundException exception = new NotFoundException(ErrorCodes.ROOM_NOT_FOUND);
+
+    ResponseEntity<byte[]> first = restExceptionHandler.handleException(exception);
+    ResponseEntity<byte[]> second = restExceptionHandler.handleException(new NotFoundException(ErrorCodes.ROOM_NOT_FOUND));
+
+    assertEquals(0, exception.getStackTrace().length);
+    assertEquals(HttpStatus.NOT_FOUND, first.getStatusCode());
+    assertSame(first.getBody(), second.getBody());
+    JsonNode body = objectMapper.readTree(first.getBody());
+    assertEquals(HttpStatus.NOT_FOUND.name(), body.get("errorCode").asText());
+    assertEquals(ErrorCodes.ROOM_NOT_FOUND.getMessage(), body.get("errorMessage").asText());
+    assertNull(first.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+  }
+
+  @Test
+  void handleException_rejectionTellsClientWhenToRetry() {
+    ResponseEntity<byte[]> response = restExceptionHandler.handleException(
+        new TooManyRequestsException(ErrorCodes.BOOKING_QUEUE_FULL));
+
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+    assertEquals(RestExceptionHandler.RETRY_AFTER_SECONDS, response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+  }
+
+  @Test
+  void handleException_customMessageIsSerialized() throws Exception {
+    ResponseEntity<byte[]> response = restExceptionHandler.handleException(
+        new AppException("User not found", HttpStatus.NOT_FOUND));
+
+    assertEquals("User not found", objectMapper.readTree(response.getBody()).get("errorMessage").asText());
+  }
+
+  @Test
+  void handleUnexpected_hidesExceptionMessage() throws Exception {
+    ResponseEntity<byte[]> response = restExceptionHandler.handleUnexpected(new IllegalStateException("secret"));
+
+    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    assertEquals(ErrorCodes.INTERNAL_SERVER_ERROR.getMessage(),
+        objectMapper.readTree(response.getBody()).get("errorMessage").asText());
+  }
+
+  @BeforeEach
+  public void init() {
+    restExceptionHandler = new RestExceptionHandler();
+  }
+}
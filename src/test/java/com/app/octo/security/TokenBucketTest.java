@@ -0,0 +1,41 @@
+package com.app.octo.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+
+  public static final int CAPACITY = 5;
+  public static final double REFILL_PER_SECOND = 10;
+  public static final long EMISSION_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  @Test
+  void tryConsume_allowsBurstUpToCapacityThenRefills() {
+    long now = 0;
+    TokenBucket bucket = new TokenBucket(CAPACITY, REFILL_PER_SECOND, now);
+
+    for (int i = 0; i < CAPACITY; i++) {
+      assertEquals(0, bucket.tryConsume(now));
+    }
+    long wait = bucket.tryConsume(now);
+    assertTrue(wait > 0 && wait <= EMISSION_NANOS);
+
+    assertEquals(0, bucket.tryConsume(now + wait));
+    assertTrue(bucket.tryConsume(now + wait) > 0);
+  }
+
+  @Test
+  void tryConsume_neverStoresMoreThanCapacity() {
+    TokenBucket bucket = new TokenBucket(CAPACITY, REFILL_PER_SECOND, 0);
+    long later = TimeUnit.MINUTES.toNanos(1);
+
+    for (int i = 0; i < CAPACITY; i++) {
+      assertEquals(0, bucket.tryConsume(later));
+    }
+    assertTrue(bucket.tryConsume(later) > 0);
+  }
+}
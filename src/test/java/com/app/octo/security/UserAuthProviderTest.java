@@ -0,0 +1,176 @@
+package com.app.octo.security;
+
+import com.app.octo.config.AppMetrics;
+import com.app.octo.model.enums.UserRole;
+import com.app.octo.model.event.UserChangedEvent;
+import com.app.octo.model.response.UserResponse;
+import com.app.octo.service.UserService;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class UserAuthProviderTest {
+
+  public static final String EMAIL = "user@hysleep.com";
+  public static final String OTHER_EMAIL = "other@hysleep.com";
+  public static final long ID = 7L;
+  public static final long VERSION = 3L;
+
+  @InjectMocks
+  private UserAuthProvider userAuthProvider;
+
+  @Mock
+  private UserService userService;
+
+  @Mock
+  private AppMetrics appMetrics;
+
+  private UserResponse userResponse;
+
+  @Test
+  void validateToken_repeatedTokenServedFromCache() {
+    String token = userAuthProvider.generateToken(EMAIL, UserRole.ROLE_USER.name());
+    when(userService.findByEmail(EMAIL)).thenReturn(userResponse);
+
+    Authentication first = userAuthProvider.validateToken(token);
+    Authentication second = userAuthProvider.validateToken(token);
+
+    assertSame(first, second);
+    assertEquals(userResponse, first.getPrincipal());
+    assertEquals(UserRole.ROLE_USER.name(), first.getAuthorities().iterator().next().getAuthority());
+
+    verify(userService).findByEmail(EMAIL);
+  }
+
+  @Test
+  void validateToken_userChangedEvictsCachedToken() {
+    String token = userAuthProvider.generateToken(EMAIL, UserRole.ROLE_USER.name());
+    when(userService.findByEmail(EMAIL)).thenReturn(userResponse);
+
+    userAuthProvider.validateToken(token);
+    userAuthProvider.onUserChanged(new UserChangedEvent(OTHER_EMAIL));
+    userAuthProvider.validateToken(token);
+    userAuthProvider.onUserChanged(new UserChangedEvent(EMAIL));
+    userAuthProvider.validateToken(token);
+
+    verify(userService, times(2)).findByEmail(EMAIL);
+  }
+
+  @Test
+  void validateToken_tamperedTokenRejected() {
+    String token = userAuthProvider.generateToken(EMAIL, UserRole.ROLE_USER.name());
+
+    assertThrows(JWTVerificationException.class, () -> userAuthProvider.validateToken(token + "x"));
+  }
+
+  @Test
+  void validateToken_selfContainedTokenSkipsLookup() {
+    ReflectionTestUtils.setField(userAuthProvider, "selfContained", true);
+    String token = userAuthProvider.generateToken(userResponse);
+
+    Authentication authentication = userAuthProvider.validateToken(token);
+
+    UserResponse principal = (UserResponse) authentication.getPrincipal();
+    assertEquals(ID, principal.getId());
+    assertEquals(EMAIL, principal.getEmail());
+    assertEquals("First", principal.getFirstName());
+    assertEquals("Last", principal.getLastName());
+    assertEquals(UserRole.ROLE_USER, principal.getUserRole());
+    assertEquals(VERSION, principal.getVersion());
+  }
+
+  @Test
+  void validateToken_selfContainedFreshPathChecksVersion() {
+    ReflectionTestUtils.setField(userAuthProvider, "selfContained", true);
+    String token = userAuthProvider.generateToken(userResponse);
+    when(userService.findVersion(EMAIL)).thenReturn(VERSION, VERSION + 1);
+
+    assertTrue(userAuthProvider.requiresFreshUser("/api/v1/users/public/update"));
+    assertFalse(userAuthProvider.requiresFreshUser("/api/v1/rooms/public/getAll"));
+    userAuthProvider.validateToken(token, true);
+    assertThrows(JWTVerificationException.class, () -> userAuthProvider.validateToken(token, true));
+
+    verify(userService, times(2)).findVersion(EMAIL);
+  }
+
+  @Test
+  void validateToken_plainTokenOnFreshPathServedFromCache() {
+    String token = userAuthProvider.generateToken(EMAIL, UserRole.ROLE_USER.name());
+    when(userService.findByEmail(EMAIL)).thenReturn(userResponse);
+
+    Authentication first = userAuthProvider.validateToken(token, true);
+    Authentication second = userAuthProvider.validateToken(token, true);
+
+    assertSame(first, second);
+    verify(userService).findByEmail(EMAIL);
+  }
+
+  @Test
+  void validateStreamTicket_success() {
+    when(userService.findByEmail(EMAIL)).thenReturn(userResponse);
+    String ticket = userAuthProvider.generateStreamTicket(userResponse);
+
+    Authentication authentication = userAuthProvider.validateStreamTicket(ticket);
+
+    assertSame(userResponse, authentication.getPrincipal());
+    assertTrue(userAuthProvider.acceptsStreamTicket("/api/v2/rooms/stream"));
+    assertFalse(userAuthProvider.acceptsStreamTicket("/api/v2/rooms"));
+    verify(userService).findByEmail(EMAIL);
+  }
+
+  @Test
+  void validateToken_streamTicketIsNotABearerToken() {
+    String ticket = userAuthProvider.generateStreamTicket(userResponse);
+
+    assertThrows(JWTVerificationException.class, () -> userAuthProvider.validateToken(ticket));
+  }
+
+  @Test
+  void validateStreamTicket_rejectsBearerToken() {
+    String token = userAuthProvider.generateToken(EMAIL, UserRole.ROLE_USER.name());
+
+    assertThrows(JWTVerificationException.class, () -> userAuthProvider.validateStreamTicket(token));
+  }
+
+  @Test
+  void generateToken_plainTokenWhenSelfContainedDisabled() {
+    String token = userAuthProvider.generateToken(userResponse);
+    when(userService.findByEmail(EMAIL)).thenReturn(userResponse);
+
+    userAuthProvider.validateToken(token);
+
+    verify(userService).findByEmail(EMAIL);
+  }
+
+  @BeforeEach
+  public void init() {
+    initMocks(this);
+    ReflectionTestUtils.setField(userAuthProvider, "secretKey", "test-secret");
+    ReflectionTestUtils.setField(userAuthProvider, "freshPaths", new String[]{"/api/v1/users/public/**"});
+    ReflectionTestUtils.setField(userAuthProvider, "streamPaths", new String[]{"/api/v2/rooms/stream"});
+    userAuthProvider.initialise();
+    userResponse = UserResponse.builder().id(ID).email(EMAIL).firstName("First").lastName("Last")
+        .userRole(UserRole.ROLE_USER).version(VERSION).build();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    verifyNoMoreInteractions(userService);
+  }
+}
@@ -0,0 +1,152 @@
+package com.app.octo.service;
+
+import com.app.octo.model.Booking;
+import com.app.octo.model.Category;
+import com.app.octo.model.Room;
+import com.app.octo.model.User;
+import com.app.octo.model.enums.UserRole;
+import com.app.octo.model.request.BookingSearchRequest;
+import com.app.octo.model.request.GetAllByStatusRequest;
+import com.app.octo.model.response.BookingResponse;
+import com.app.octo.model.response.PageResponse;
+import com.app.octo.repository.BookingHistoryRepository;
+import com.app.octo.repository.BookingRepository;
+import com.app.octo.repository.CategoryRepository;
+import com.app.octo.repository.RoomRepository;
+import com.app.octo.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.commons.lang3.time.DateUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Archives old terminal bookings in small batches and checks that listings page through
+ * the hot and archived rows as one sequence.
+ */
+@SpringBootTest(properties = {"bookings.archive.batch-size=2", "bookings.archive.after-days=30"})
+@ActiveProfiles("test")
+public class BookingArchiveTest {
+
+  public static final String EMAIL = "archive@hysleep.com";
+  public static final String ONGOING = "ONGOING";
+  public static final String DONE = "DONE";
+  public static final String CANCELLED = "CANCELLED";
+
+  @Autowired
+  private BookingArchiveService bookingArchiveService;
+
+  @Autowired
+  private BookingService bookingService;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private BookingHistoryRepository bookingHistoryRepository;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private final List<Long> allIds = new ArrayList<>();
+
+  @Test
+  void archiveBookings_movesOldTerminalBookingsInBatches() {
+    assertEquals(5, bookingArchiveService.archiveBookings());
+
+    assertEquals(5, bookingHistoryRepository.count());
+    assertEquals(2, bookingRepository.count());
+    assertEquals(0, bookingArchiveService.archiveBookings());
+  }
+
+  @Test
+  void listings_pageAcrossHotAndArchivedBookings() {
+    bookingArchiveService.archiveBookings();
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    List<Long> listed = new ArrayList<>();
+    BookingSearchRequest request = BookingSearchRequest.builder().userEmail(EMAIL).size(3).build();
+    do {
+      statistics.clear();
+      PageResponse<BookingResponse> page = bookingService.getAll(request);
+      assertEquals(1, statistics.getPrepareStatementCount());
+      page.getVal().forEach(booking -> listed.add(booking.getBookingId()));
+      request.setCursor(page.getNextCursor());
+    } while (Objects.nonNull(request.getCursor()));
+
+    assertEquals(allIds.stream().sorted(Comparator.reverseOrder()).toList(), listed);
+  }
+
+  @Test
+  void ongoingListing_readsOnlyTheHotTable() {
+    bookingArchiveService.archiveBookings();
+
+    PageResponse<BookingResponse> ongoing = bookingService.getAllByStatus(GetAllByStatusRequest.builder()
+        .email(EMAIL).status(ONGOING).build());
+    PageResponse<BookingResponse> cancelled = bookingService.getAllByStatus(GetAllByStatusRequest.builder()
+        .email(EMAIL).status(CANCELLED).build());
+
+    assertEquals(1, ongoing.getVal().size());
+    assertEquals(2, cancelled.getVal().size());
+  }
+
+  @BeforeEach
+  public void init() {
+    bookingHistoryRepository.deleteAll();
+    bookingRepository.deleteAll();
+    roomRepository.deleteAll();
+    categoryRepository.deleteAll();
+
+    User user = userRepository.findByEmail(EMAIL).orElseGet(() -> userRepository.save(
+        User.builder().email(EMAIL).firstName("Archive").lastName("Test").password("x")
+            .userRole(UserRole.ROLE_USER).build()));
+    Category category = categoryRepository.save(Category.builder().categoryName("ARCHIVE").build());
+    Room room = roomRepository.save(Room.builder().roomNumber("A-1").floor("1").status("BOOKED")
+        .roomDescription("archive").category(category).build());
+
+    Date now = new Date();
+    Date old = DateUtils.addDays(now, -60);
+    allIds.clear();
+    for (int i = 0; i < 4; i++) {
+      save(user, room, DONE, old);
+    }
+    save(user, room, CANCELLED, old);
+    // Too recent to archive, and still running
+    save(user, room, CANCELLED, DateUtils.addDays(now, -1));
+    save(user, room, ONGOING, DateUtils.addDays(now, 1));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    // booking_history references rooms, which other tests delete
+    bookingHistoryRepository.deleteAll();
+  }
+
+  private void save(User user, Room room, String status, Date end) {
+    Booking booking = bookingRepository.save(Booking.builder().user(user).room(room).status(status)
+        .bookingDate(DateUtils.addDays(end, -2)).startDate(DateUtils.addDays(end, -2)).endDate(end).build());
+    allIds.add(booking.getBookingId());
+  }
+}
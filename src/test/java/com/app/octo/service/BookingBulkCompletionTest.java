@@ -0,0 +1,97 @@
+package com.app.octo.service;
+
+import com.app.octo.model.Booking;
+import com.app.octo.model.Category;
+import com.app.octo.model.Room;
+import com.app.octo.model.User;
+import com.app.octo.model.enums.UserRole;
+import com.app.octo.repository.BookingRepository;
+import com.app.octo.repository.CategoryRepository;
+import com.app.octo.repository.RoomRepository;
+import com.app.octo.repository.UserRepository;
+import com.app.octo.service.impl.RoomAvailabilityIndex;
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingBulkCompletionTest {
+
+  public static final String ONGOING = "ONGOING";
+  public static final String BOOKED = "BOOKED";
+  public static final String AVAILABLE = "AVAILABLE";
+
+  @Autowired
+  private BookingService bookingService;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private RoomAvailabilityIndex roomAvailabilityIndex;
+
+  private Booking expired;
+  private Booking current;
+
+  @Test
+  void changeStatusAfterTime_completesOnlyExpiredBookings() {
+    List<Long> completed = bookingService.changeStatusAfterTime();
+
+    assertEquals(List.of(expired.getBookingId()), completed);
+    assertEquals("DONE", bookingRepository.findByBookingId(expired.getBookingId()).getStatus());
+    assertEquals(ONGOING, bookingRepository.findByBookingId(current.getBookingId()).getStatus());
+    assertEquals(AVAILABLE, roomRepository.findById(expired.getRoom().getRoomId()).orElseThrow().getStatus());
+    assertEquals(BOOKED, roomRepository.findById(current.getRoom().getRoomId()).orElseThrow().getStatus());
+    assertTrue(roomAvailabilityIndex.isAvailable(expired.getRoom().getRoomId()));
+    assertFalse(roomAvailabilityIndex.isAvailable(current.getRoom().getRoomId()));
+
+    assertTrue(bookingService.changeStatusAfterTime().isEmpty());
+  }
+
+  @BeforeEach
+  public void init() {
+    bookingRepository.deleteAll();
+    roomRepository.deleteAll();
+    categoryRepository.deleteAll();
+
+    Category category = categoryRepository.save(Category.builder().categoryName("BULK").build());
+    User user = userRepository.findByEmail("bulk@hysleep.com").orElseGet(() -> userRepository.save(
+        User.builder().email("bulk@hysleep.com").firstName("Bulk").lastName("Test").password("x")
+            .userRole(UserRole.ROLE_USER).build()));
+
+    Date now = new Date();
+    expired = booking(user, room(category, "B-1"), DateUtils.addHours(now, -1));
+    current = booking(user, room(category, "B-2"), DateUtils.addHours(now, 1));
+    roomAvailabilityIndex.reload();
+  }
+
+  private Room room(Category category, String number) {
+    return roomRepository.save(Room.builder().roomNumber(number).floor("1").status(BOOKED)
+        .roomDescription("bulk").category(category).build());
+  }
+
+  private Booking booking(User user, Room room, Date end) {
+    return bookingRepository.save(Booking.builder().user(user).room(room).status(ONGOING)
+        .bookingDate(DateUtils.addHours(end, -2)).startDate(DateUtils.addHours(end, -2)).endDate(end).build());
+  }
+}
@@ -0,0 +1,162 @@
+package com.app.octo.service;
+
+import com.app.octo.config.AppMetrics;
+import com.app.octo.model.enums.ErrorCodes;
+import com.app.octo.model.exception.AppException;
+import com.app.octo.model.request.BookingRequest;
+import com.app.octo.model.response.BookingPipelineStatsResponse;
+import com.app.octo.model.response.BookingResponse;
+import com.app.octo.service.impl.BookingCommandServiceImpl;
+import com.app.octo.service.impl.BookingExpiryQueue;
+import com.app.octo.service.impl.BookingServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class BookingCommandServiceTest {
+
+  public static final Long ROOM_ID = 1L;
+  public static final Long ID = 10L;
+
+  @InjectMocks
+  private BookingCommandServiceImpl bookingCommandService;
+
+  @Mock
+  private BookingServiceImpl bookingService;
+
+  @Mock
+  private BookingExpiryQueue bookingExpiryQueue;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private AppMetrics appMetrics;
+
+  private BookingRequest bookingRequest;
+  private BookingResponse bookingResponse;
+
+  @Test
+  void disabled_runsOnCallerThread() throws Exception {
+    when(bookingService.bookRoom(bookingRequest)).thenReturn(bookingResponse);
+    when(bookingService.cancelBooking(ID)).thenThrow(
+        new AppException(ErrorCodes.DATA_NOT_FOUND.getMessage(), HttpStatus.NOT_FOUND));
+    bookingCommandService.initialise();
+
+    assertSame(bookingResponse, bookingCommandService.bookRoom(bookingRequest).getNow(null));
+    ExecutionException error = assertThrows(ExecutionException.class,
+        () -> bookingCommandService.cancelBooking(ID).get());
+    assertInstanceOf(AppException.class, error.getCause());
+    assertTrue(bookingCommandService.getStats().getPartitions().isEmpty());
+
+    verify(bookingService).bookRoom(bookingRequest);
+    verify(bookingService).cancelBooking(ID);
+  }
+
+  @Test
+  void fullQueue_rejectsWithTooManyRequests() throws Exception {
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+      writing.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return mock(TransactionStatus.class);
+    });
+    start(1);
+
+    CompletableFuture<BookingResponse> first = bookingCommandService.bookRoom(bookingRequest);
+    assertTrue(writing.await(5, TimeUnit.SECONDS));
+    CompletableFuture<BookingResponse> second = bookingCommandService.bookRoom(bookingRequest);
+    CompletableFuture<BookingResponse> third = bookingCommandService.bookRoom(bookingRequest);
+
+    ExecutionException error = assertThrows(ExecutionException.class, third::get);
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, ((AppException) error.getCause()).getCode());
+    assertEquals(1, bookingCommandService.getStats().getPartitions().get(0).getDepth());
+
+    release.countDown();
+    // The mocked book() returns null, which is enough to see both commands applied
+    assertNull(first.get(5, TimeUnit.SECONDS));
+    assertNull(second.get(5, TimeUnit.SECONDS));
+
+    BookingPipelineStatsResponse stats = bookingCommandService.getStats();
+    assertEquals(2, stats.getSubmitted());
+    assertEquals(2, stats.getCompleted());
+    assertEquals(1, stats.getRejected());
+
+    verify(appMetrics, times(2)).recordBooking(eq(AppMetrics.SUCCESS), anyLong());
+    verify(appMetrics).recordBooking(eq("booking_queue_full"), anyLong());
+  }
+
+  @Test
+  void cancelBooking_isRoutedByRoom() throws Exception {
+    when(bookingExpiryQueue.findRoomId(ID)).thenReturn(Optional.of(ROOM_ID));
+    when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    start(4);
+
+    assertNull(bookingCommandService.cancelBooking(ID).get(5, TimeUnit.SECONDS));
+    assertEquals(1, bookingCommandService.getStats().getBatches());
+
+    verify(bookingExpiryQueue).findRoomId(ID);
+  }
+
+  @Test
+  void failedCommit_replaysCommandsOneByOne() throws Exception {
+    when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+    when(bookingService.bookLocked(bookingRequest)).thenReturn(bookingResponse);
+    start(1);
+
+    assertSame(bookingResponse, bookingCommandService.bookRoom(bookingRequest).get(5, TimeUnit.SECONDS));
+
+    verify(bookingService).bookLocked(bookingRequest);
+    verify(appMetrics).recordBooking(eq(AppMetrics.SUCCESS), anyLong());
+  }
+
+  private void start(int partitions) {
+    ReflectionTestUtils.setField(bookingCommandService, "enabled", true);
+    ReflectionTestUtils.setField(bookingCommandService, "partitionCount", partitions);
+    ReflectionTestUtils.setField(bookingCommandService, "queueCapacity", 1);
+    bookingCommandService.initialise();
+  }
+
+  @BeforeEach
+  public void init() {
+    initMocks(this);
+    bookingRequest = BookingRequest.builder().roomId(ROOM_ID).userEmail("EMAIL").duration(1).build();
+    bookingResponse = BookingResponse.builder().bookingId(ID).build();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    bookingCommandService.shutdown();
+  }
+}
@@ -0,0 +1,236 @@
+package com.app.octo.service;
+
+import com.app.octo.model.Category;
+import com.app.octo.model.Room;
+import com.app.octo.model.User;
+import com.app.octo.model.enums.UserRole;
+import com.app.octo.model.exception.AppException;
+import com.app.octo.model.request.BookingRequest;
+import com.app.octo.model.response.BookingResponse;
+import com.app.octo.repository.BookingRepository;
+import com.app.octo.repository.CategoryRepository;
+import com.app.octo.repository.RoomRepository;
+import com.app.octo.repository.UserRepository;
+import com.app.octo.service.impl.RoomAvailabilityIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers bookRoom/cancelBooking from many threads against an embedded database
+ * and checks that a room is never held by two bookings at once. While the threads run, the
+ * database is checked continuously: no room may have more than one ONGOING booking, and a
+ * room is BOOKED exactly when it has one.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingConcurrencyTortureTest {
+
+  public static final int THREADS = 8;
+  public static final int ATTEMPTS_PER_THREAD = 100;
+  public static final String AVAILABLE = "AVAILABLE";
+  public static final String ONGOING = "ONGOING";
+  public static final String BOOKED = "BOOKED";
+  // One statement, so the room and its bookings are read from the same committed state
+  public static final String ROOM_HOLDS = "select r.room_id, r.status, count(b.booking_id) from room r "
+      + "left join booking b on b.room_id = r.room_id and b.status = 'ONGOING' group by r.room_id, r.status";
+
+  @Autowired
+  private BookingService bookingService;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private RoomAvailabilityIndex roomAvailabilityIndex;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private List<Long> roomIds;
+  private String email;
+
+  @Test
+  void singleRoom_neverDoubleBooked() throws Exception {
+    Long roomId = roomIds.get(0);
+    Result result = hammer(thread -> roomId);
+
+    log.info("single room: {}", result);
+    assertEquals(0, result.violations.get(), "room was held by two bookings at once");
+    assertTrue(result.unexpected.isEmpty(), "unexpected errors: " + result.unexpected);
+    assertTrue(result.booked.sum() > 0);
+    assertAllReleased();
+  }
+
+  @Test
+  void manyRooms_doNotConflict() throws Exception {
+    Result result = hammer(thread -> roomIds.get(thread));
+
+    log.info("many rooms: {}", result);
+    assertEquals(0, result.violations.get());
+    assertEquals(0, result.conflicts.sum(), "bookings on different rooms must not conflict");
+    assertTrue(result.unexpected.isEmpty(), "unexpected errors: " + result.unexpected);
+    assertEquals((long) THREADS * ATTEMPTS_PER_THREAD, result.booked.sum());
+    assertAllReleased();
+  }
+
+  private Result hammer(RoomPicker picker) throws InterruptedException {
+    Result result = new Result();
+    Map<Long, AtomicInteger> holders = new ConcurrentHashMap<>();
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(THREADS);
+
+    for (int t = 0; t < THREADS; t++) {
+      int thread = t;
+      executor.submit(() -> {
+        try {
+          start.await();
+          for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+            Long roomId = picker.pick(thread);
+            try {
+              BookingResponse booking = bookingService.bookRoom(BookingRequest.builder()
+                  .roomId(roomId).userEmail(email).duration(1).build());
+              result.booked.increment();
+              AtomicInteger holder = holders.computeIfAbsent(roomId, id -> new AtomicInteger());
+              if (holder.incrementAndGet() > 1) {
+                result.violations.incrementAndGet();
+              }
+              // Held for a database round trip, until just before the cancel can free the room
+              checkRoomHolds(result);
+              holder.decrementAndGet();
+              bookingService.cancelBooking(booking.getBookingId());
+            } catch (AppException e) {
+              result.conflicts.increment();
+            } catch (RuntimeException e) {
+              result.unexpected.add(e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+
+    Thread monitor = new Thread(() -> {
+      while (done.getCount() > 0) {
+        checkRoomHolds(result);
+      }
+    }, "torture-monitor");
+
+    long begin = System.nanoTime();
+    monitor.start();
+    start.countDown();
+    assertTrue(done.await(2, TimeUnit.MINUTES), "torture run did not finish in time");
+    result.elapsedNanos = System.nanoTime() - begin;
+    executor.shutdownNow();
+    monitor.join();
+    checkRoomHolds(result);
+    return result;
+  }
+
+  /**
+   * Counts a violation for every room with more than one ONGOING booking, or whose status
+   * does not match whether it has one.
+   */
+  private void checkRoomHolds(Result result) {
+    jdbcTemplate.query(ROOM_HOLDS, resultSet -> {
+      long ongoing = resultSet.getLong(3);
+      boolean booked = BOOKED.equals(resultSet.getString(2));
+      if ((ongoing > 1 || booked != (ongoing == 1)) && result.violations.incrementAndGet() <= 10) {
+        result.unexpected.add("room " + resultSet.getLong(1) + " is " + resultSet.getString(2)
+            + " with " + ongoing + " ongoing bookings");
+      }
+    });
+  }
+
+  private void assertAllReleased() {
+    assertTrue(bookingRepository.findAllByStatus(ONGOING).isEmpty());
+    roomIds.forEach(id -> assertEquals(AVAILABLE, roomRepository.findById(id).orElseThrow().getStatus()));
+  }
+
+  @BeforeEach
+  public void init() {
+    bookingRepository.deleteAll();
+    roomRepository.deleteAll();
+    categoryRepository.deleteAll();
+
+    Category category = categoryRepository.save(Category.builder().categoryName("TORTURE").build());
+    roomIds = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      Room room = roomRepository.save(Room.builder()
+          .roomNumber("T-" + i)
+          .floor("1")
+          .status(AVAILABLE)
+          .roomDescription("torture")
+          .category(category)
+          .build());
+      roomIds.add(room.getRoomId());
+    }
+
+    email = "torture@hysleep.com";
+    if (userRepository.findByEmail(email).isEmpty()) {
+      userRepository.save(User.builder()
+          .email(email)
+          .firstName("Torture")
+          .lastName("Test")
+          .password("x")
+          .userRole(UserRole.ROLE_USER)
+          .build());
+    }
+    roomAvailabilityIndex.reload();
+  }
+
+  private interface RoomPicker {
+    Long pick(int thread);
+  }
+
+  private static class Result {
+    private final LongAdder booked = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final AtomicInteger violations = new AtomicInteger();
+    private final List<String> unexpected = new CopyOnWriteArrayList<>();
+    private long elapsedNanos;
+
+    @Override
+    public String toString() {
+      long attempts = booked.sum() + conflicts.sum();
+      double seconds = elapsedNanos / 1_000_000_000.0;
+      return String.format("attempts=%d booked=%d conflicts=%d (%.1f%%) throughput=%.0f ops/s",
+          attempts, booked.sum(), conflicts.sum(),
+          attempts == 0 ? 0.0 : 100.0 * conflicts.sum() / attempts,
+          attempts / seconds);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.app.octo.service;
+
+import com.app.octo.model.projection.BookingDeadline;
+import com.app.octo.repository.BookingRepository;
+import com.app.octo.service.impl.BookingExpiryQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class BookingExpiryQueueTest {
+
+  public static final String ONGOING = "ONGOING";
+
+  @InjectMocks
+  private BookingExpiryQueue bookingExpiryQueue;
+
+  @Mock
+  private BookingRepository bookingRepository;
+
+  private Date past;
+  private Date earlier;
+  private Date future;
+
+  @Test
+  void drainExpired_returnsOnlyDueBookingsInDeadlineOrder() {
+    bookingExpiryQueue.schedule(1L, 10L, past);
+    bookingExpiryQueue.schedule(2L, 20L, future);
+    bookingExpiryQueue.schedule(3L, 30L, earlier);
+
+    List<BookingExpiryQueue.Deadline> expired = bookingExpiryQueue.drainExpired();
+
+    assertEquals(List.of(3L, 1L), expired.stream().map(BookingExpiryQueue.Deadline::bookingId).toList());
+    assertEquals(1, bookingExpiryQueue.size());
+    assertTrue(bookingExpiryQueue.drainExpired().isEmpty());
+  }
+
+  @Test
+  void cancel_removesBooking() {
+    bookingExpiryQueue.schedule(1L, 10L, past);
+    bookingExpiryQueue.cancel(1L);
+
+    assertTrue(bookingExpiryQueue.drainExpired().isEmpty());
+    assertEquals(0, bookingExpiryQueue.size());
+  }
+
+  @Test
+  void schedule_replacesPreviousDeadline() {
+    bookingExpiryQueue.schedule(1L, 10L, past);
+    bookingExpiryQueue.schedule(1L, 10L, future);
+
+    assertTrue(bookingExpiryQueue.drainExpired().isEmpty());
+    assertEquals(Optional.of(10L), bookingExpiryQueue.findRoomId(1L));
+  }
+
+  @Test
+  void retryAt_requeuesBooking() {
+    bookingExpiryQueue.schedule(1L, 10L, past);
+    BookingExpiryQueue.Deadline deadline = bookingExpiryQueue.drainExpired().get(0);
+
+    bookingExpiryQueue.retryAt(deadline, System.currentTimeMillis() - 1);
+
+    assertEquals(1, bookingExpiryQueue.drainExpired().size());
+  }
+
+  @Test
+  void seed_loadsOngoingBookings() {
+    BookingDeadline ongoing = mock(BookingDeadline.class);
+    when(ongoing.getBookingId()).thenReturn(5L);
+    when(ongoing.getRoomId()).thenReturn(50L);
+    when(ongoing.getEndDate()).thenReturn(past);
+    when(bookingRepository.findDeadlinesByStatus(ONGOING)).thenReturn(List.of(ongoing));
+
+    bookingExpiryQueue.seed();
+
+    assertEquals(Optional.of(50L), bookingExpiryQueue.findRoomId(5L));
+    assertEquals(1, bookingExpiryQueue.drainExpired().size());
+
+    verify(bookingRepository).findDeadlinesByStatus(ONGOING);
+  }
+
+  @BeforeEach
+  public void init() {
+    initMocks(this);
+    long now = System.currentTimeMillis();
+    past = new Date(now - 60000);
+    earlier = new Date(now - 120000);
+    future = new Date(now + 3600000);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    verifyNoMoreInteractions(bookingRepository);
+  }
+}
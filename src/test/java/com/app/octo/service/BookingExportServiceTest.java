@@ -0,0 +1,113 @@
+package com.app.octo.service;
+
+import com.app.octo.mapper.BookingMapper;
+import com.app.octo.model.Booking;
+import com.app.octo.model.Room;
+import com.app.octo.model.User;
+import com.app.octo.model.enums.ExportFormat;
+import com.app.octo.repository.BookingRepository;
+import com.app.octo.service.impl.BookingExportServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class BookingExportServiceTest {
+
+  public static final Date DATE = new Date(0);
+
+  private BookingExportServiceImpl bookingExportService;
+
+  @Mock
+  private BookingRepository bookingRepository;
+
+  @Mock
+  private EntityManager entityManager;
+
+  private User user;
+  private Room room;
+
+  @Test
+  void exportNdjson_oneObjectPerLine() throws Exception {
+    when(bookingRepository.streamAllForExport()).thenReturn(Stream.of(booking(1L), booking(2L)));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long count = bookingExportService.exportBookings(ExportFormat.NDJSON, out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, count);
+    assertEquals(2, lines.length);
+    JsonNode first = new ObjectMapper().readTree(lines[0]);
+    assertEquals(1L, first.get("bookingId").asLong());
+    assertEquals("user@hysleep.com", first.get("userEmail").asText());
+    assertEquals("101", first.get("roomNumber").asText());
+
+    verify(bookingRepository).streamAllForExport();
+  }
+
+  @Test
+  void exportCsv_headerAndEscapedFields() throws Exception {
+    user.setLastName("Smith, \"Jr\"");
+    when(bookingRepository.streamAllForExport()).thenReturn(Stream.of(booking(7L)));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    bookingExportService.exportBookings(ExportFormat.CSV, out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(BookingExportServiceImpl.CSV_HEADER, lines[0]);
+    assertEquals("7,DONE,1970-01-01T00:00:00Z,1970-01-01T00:00:00Z,1970-01-01T00:00:00Z,"
+        + "3,user@hysleep.com,Jane,\"Smith, \"\"Jr\"\"\",5,101,1", lines[1]);
+
+    verify(bookingRepository).streamAllForExport();
+  }
+
+  @Test
+  void export_clearsPersistenceContextPeriodically() throws Exception {
+    int rows = BookingExportServiceImpl.CLEAR_INTERVAL * 2 + 1;
+    when(bookingRepository.streamAllForExport())
+        .thenReturn(LongStream.rangeClosed(1, rows).mapToObj(this::booking));
+
+    long count = bookingExportService.exportBookings(ExportFormat.CSV, new ByteArrayOutputStream());
+
+    assertEquals(rows, count);
+    verify(bookingRepository).streamAllForExport();
+    verify(entityManager, times(2)).clear();
+  }
+
+  private Booking booking(long bookingId) {
+    return Booking.builder().bookingId(bookingId).user(user).room(room).status("DONE")
+        .bookingDate(DATE).startDate(DATE).endDate(DATE).build();
+  }
+
+  @BeforeEach
+  public void init() {
+    initMocks(this);
+    bookingExportService = new BookingExportServiceImpl(bookingRepository,
+        Mappers.getMapper(BookingMapper.class), entityManager, new ObjectMapper());
+    user = User.builder().id(3L).email("user@hysleep.com").firstName("Jane").lastName("Doe").build();
+    room = Room.builder().roomId(5L).roomNumber("101").floor("1").build();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    verifyNoMoreInteractions(bookingRepository);
+    verifyNoMoreInteractions(entityManager);
+  }
+}
@@ -0,0 +1,152 @@
+package com.app.octo.service;
+
+import com.app.octo.model.Booking;
+import com.app.octo.model.Category;
+import com.app.octo.model.Room;
+import com.app.octo.model.User;
+import com.app.octo.model.enums.ExportFormat;
+import com.app.octo.model.enums.UserRole;
+import com.app.octo.model.request.BookingSearchRequest;
+import com.app.octo.model.request.GetAllByStatusRequest;
+import com.app.octo.model.response.BookingResponse;
+import com.app.octo.model.response.PageResponse;
+import com.app.octo.repository.BookingRepository;
+import com.app.octo.repository.CategoryRepository;
+import com.app.octo.repository.RoomRepository;
+import com.app.octo.repository.UserRepository;
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingPaginationTest {
+
+  public static final int BOOKINGS = 25;
+  public static final String DONE = "DONE";
+  public static final String CANCELLED = "CANCELLED";
+
+  @Autowired
+  private BookingService bookingService;
+
+  @Autowired
+  private BookingExportService bookingExportService;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private Room first;
+  private Room second;
+  private Date start;
+
+  @Test
+  void getAll_walksEveryBookingOnceNewestFirst() throws Exception {
+    BookingSearchRequest request = BookingSearchRequest.builder().size(10).build();
+    List<Long> seen = new ArrayList<>();
+    List<Integer> pageSizes = new ArrayList<>();
+
+    PageResponse<BookingResponse> page;
+    do {
+      page = bookingService.getAll(request);
+      pageSizes.add(page.getVal().size());
+      page.getVal().forEach(booking -> seen.add(booking.getBookingId()));
+      request.setCursor(page.getNextCursor());
+    } while (page.getNextCursor() != null);
+
+    assertEquals(List.of(10, 10, 5), pageSizes);
+    assertEquals(BOOKINGS, seen.size());
+    for (int i = 1; i < seen.size(); i++) {
+      assertTrue(seen.get(i) < seen.get(i - 1));
+    }
+  }
+
+  @Test
+  void getAll_filtersPushedToQuery() throws Exception {
+    PageResponse<BookingResponse> byRoom = bookingService.getAll(BookingSearchRequest.builder()
+        .roomId(second.getRoomId()).status(CANCELLED).size(100).build());
+    assertEquals(12, byRoom.getVal().size());
+    assertNull(byRoom.getNextCursor());
+    byRoom.getVal().forEach(booking -> assertEquals(second.getRoomId(), booking.getRoom().getRoomId()));
+
+    PageResponse<BookingResponse> byDate = bookingService.getAll(BookingSearchRequest.builder()
+        .from(DateUtils.addDays(start, 3)).to(DateUtils.addDays(start, 5)).build());
+    assertEquals(2, byDate.getVal().size());
+
+    PageResponse<BookingResponse> byUser = bookingService.getAll(BookingSearchRequest.builder()
+        .userEmail("nobody@hysleep.com").build());
+    assertTrue(byUser.getVal().isEmpty());
+  }
+
+  @Test
+  void getAllByStatus_pagesOwnBookings() throws Exception {
+    PageResponse<BookingResponse> page = bookingService.getAllByStatus(GetAllByStatusRequest.builder()
+        .email("paging@hysleep.com").status(DONE).roomId(first.getRoomId()).size(5).build());
+
+    assertEquals(5, page.getVal().size());
+    page.getVal().forEach(booking -> assertEquals(DONE, booking.getStatus()));
+    assertNotNull(page.getNextCursor());
+  }
+
+  @Test
+  void exportBookings_streamsEveryBooking() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long count = bookingExportService.exportBookings(ExportFormat.NDJSON, out);
+
+    assertEquals(BOOKINGS, count);
+    assertEquals(BOOKINGS, out.toString(StandardCharsets.UTF_8).split("\n").length);
+  }
+
+  @BeforeEach
+  public void init() {
+    bookingRepository.deleteAll();
+    roomRepository.deleteAll();
+    categoryRepository.deleteAll();
+
+    Category category = categoryRepository.save(Category.builder().categoryName("PAGING").build());
+    first = room(category, "P-1");
+    second = room(category, "P-2");
+    User user = userRepository.findByEmail("paging@hysleep.com").orElseGet(() -> userRepository.save(
+        User.builder().email("paging@hysleep.com").firstName("Paging").lastName("Test").password("x")
+            .userRole(UserRole.ROLE_USER).build()));
+
+    // One booking per day; even days on the first room as DONE, odd days on the second as CANCELLED
+    start = DateUtils.truncate(new Date(), Calendar.DATE);
+    for (int day = 0; day < BOOKINGS; day++) {
+      boolean even = day % 2 == 0;
+      Date from = DateUtils.addDays(start, day);
+      bookingRepository.save(Booking.builder().user(user).room(even ? first : second)
+          .status(even ? DONE : CANCELLED).bookingDate(from).startDate(from)
+          .endDate(DateUtils.addHours(from, 12)).build());
+    }
+  }
+
+  private Room room(Category category, String number) {
+    return roomRepository.save(Room.builder().roomNumber(number).floor("1").status("AVAILABLE")
+        .roomDescription("paging").category(category).build());
+  }
+}
@@ -0,0 +1,118 @@
+package com.app.octo.service;
+
+import com.app.octo.model.Category;
+import com.app.octo.model.Room;
+import com.app.octo.model.User;
+import com.app.octo.model.enums.UserRole;
+import com.app.octo.model.exception.AppException;
+import com.app.octo.model.request.BookingRequest;
+import com.app.octo.model.response.BookingResponse;
+import com.app.octo.repository.BookingRepository;
+import com.app.octo.repository.CategoryRepository;
+import com.app.octo.repository.RoomRepository;
+import com.app.octo.repository.UserRepository;
+import com.app.octo.service.impl.RoomAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs booking commands through the queued writers against the embedded database.
+ */
+@SpringBootTest(properties = {"booking.pipeline.enabled=true", "booking.pipeline.partitions=2"})
+@ActiveProfiles("test")
+public class BookingPipelineTest {
+
+  public static final String AVAILABLE = "AVAILABLE";
+  public static final String BOOKED = "BOOKED";
+  public static final String EMAIL = "pipeline@hysleep.com";
+
+  @Autowired
+  private BookingCommandService bookingCommandService;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private RoomAvailabilityIndex roomAvailabilityIndex;
+
+  private List<Long> roomIds;
+
+  @Test
+  void commandsForOneRoom_applyInOrder() throws Exception {
+    Long roomId = roomIds.get(0);
+    BookingResponse first = bookingCommandService.bookRoom(request(roomId)).get(5, TimeUnit.SECONDS);
+
+    // Queued back to back: the second booking only succeeds if it sees the committed cancel
+    CompletableFuture<BookingResponse> cancel = bookingCommandService.cancelBooking(first.getBookingId());
+    CompletableFuture<BookingResponse> second = bookingCommandService.bookRoom(request(roomId));
+    CompletableFuture<BookingResponse> third = bookingCommandService.bookRoom(request(roomId));
+
+    assertEquals("CANCELLED", cancel.get(5, TimeUnit.SECONDS).getStatus());
+    assertEquals("ONGOING", second.get(5, TimeUnit.SECONDS).getStatus());
+    ExecutionException error = assertThrows(ExecutionException.class, () -> third.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(AppException.class, error.getCause());
+    assertEquals(BOOKED, roomRepository.findById(roomId).orElseThrow().getStatus());
+  }
+
+  @Test
+  void manyRooms_areBookedInBatches() throws Exception {
+    List<CompletableFuture<BookingResponse>> futures = new ArrayList<>();
+    roomIds.forEach(roomId -> futures.add(bookingCommandService.bookRoom(request(roomId))));
+
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+    roomIds.forEach(roomId -> {
+      assertEquals(BOOKED, roomRepository.findById(roomId).orElseThrow().getStatus());
+      assertFalse(roomAvailabilityIndex.isAvailable(roomId));
+    });
+    assertTrue(bookingCommandService.getStats().getBatches() > 0);
+  }
+
+  private BookingRequest request(Long roomId) {
+    return BookingRequest.builder().roomId(roomId).userEmail(EMAIL).duration(1).build();
+  }
+
+  @BeforeEach
+  public void init() {
+    bookingRepository.deleteAll();
+    roomRepository.deleteAll();
+    categoryRepository.deleteAll();
+
+    Category category = categoryRepository.save(Category.builder().categoryName("PIPELINE").build());
+    roomIds = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      roomIds.add(roomRepository.save(Room.builder().roomNumber("P-" + i).floor("1").status(AVAILABLE)
+          .roomDescription("pipeline").category(category).build()).getRoomId());
+    }
+
+    if (userRepository.findByEmail(EMAIL).isEmpty()) {
+      userRepository.save(User.builder().email(EMAIL).firstName("Pipeline").lastName("Test").password("x")
+          .userRole(UserRole.ROLE_USER).build());
+    }
+    roomAvailabilityIndex.reload();
+  }
+}
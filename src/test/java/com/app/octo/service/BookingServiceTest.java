@@ -1,7 +1,9 @@
 package com.app.octo.service;
 
+import com.app.octo.config.AppMetrics;
 import com.app.octo.dto.RoomDTO;
 import com.app.octo.dto.UserDTO;
+import com.app.octo.mapper.BookingMapper;
 import com.app.octo.model.Booking;
 import com.app.octo.model.Category;
 import com.app.octo.model.Room;
@@ -9,16 +11,23 @@ import com.app.octo.model.User;
 import com.app.octo.model.enums.ErrorCodes;
 import com.app.octo.model.enums.UserRole;
 import com.app.octo.model.exception.AppException;
+import com.app.octo.model.projection.BookingDeadline;
+import com.app.octo.model.projection.BookingSummary;
 import com.app.octo.model.request.BookingRequest;
+import com.app.octo.model.request.BookingSearchRequest;
 import com.app.octo.model.request.GetAllByStatusRequest;
 import com.app.octo.model.response.BookingResponse;
 import com.app.octo.model.response.ListResponse;
+import com.app.octo.model.response.PageResponse;
+import com.app.octo.repository.BookingFilter;
 import com.app.octo.repository.BookingRepository;
 import com.app.octo.repository.RoomRepository;
 import com.app.octo.repository.UserRepository;
+import com.app.octo.service.impl.BookingExpiryQueue;
 import com.app.octo.service.impl.BookingServiceImpl;
+import com.app.octo.service.impl.RoomAvailabilityIndex;
+import com.app.octo.service.impl.RoomWriteGuard;
 import org.apache.commons.lang3.time.DateUtils;
-import org.dozer.Mapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,10 +40,16 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -71,7 +86,22 @@ public class BookingServiceTest {
   private BookingRepository bookingRepository;
 
   @Mock
-  private Mapper mapper;
+  private BookingMapper bookingMapper;
+
+  @Mock
+  private RoomAvailabilityIndex roomAvailabilityIndex;
+
+  @Mock
+  private RoomWriteGuard roomWriteGuard;
+
+  @Mock
+  private BookingExpiryQueue bookingExpiryQueue;
+
+  @Mock
+  private AppMetrics appMetrics;
+
+  @Mock
+  private BookingArchiveService bookingArchiveService;
 
   private BookingRequest bookingRequest;
   private BookingResponse bookingResponse;
@@ -83,32 +113,50 @@ public class BookingServiceTest {
   private Booking booking;
   private Booking cancelledBooking;
   private List<BookingResponse> bookingResponses;
-  private List<Booking> bookings;
+  private List<BookingSummary> summaries;
   private GetAllByStatusRequest getAllByStatusRequest;
 
   @Test
   void bookRoom_success() {
-    when(roomRepository.findByRoomIdAndStatus(ID, AVAILABLE_STATUS)).thenReturn(room);
+    when(roomAvailabilityIndex.findAvailableOrRefresh(ID)).thenReturn(Optional.of(room));
     when(userRepository.findByEmail(USER_HYSLEEP_COM)).thenReturn(Optional.of(user));
-    when(roomRepository.save(bookedRoom)).thenReturn(bookedRoom);
+    when(roomRepository.updateStatusIfCurrent(ID, AVAILABLE_STATUS, BOOKED_STATUS)).thenReturn(1);
     when(bookingRepository.save(any())).thenReturn(booking);
-    when(mapper.map(any(), any())).thenReturn(bookingResponse);
+    when(bookingMapper.toResponse(any())).thenReturn(bookingResponse);
 
     BookingResponse response = bookingService.bookRoom(bookingRequest);
     assertNotNull(response);
     assertEquals(ONGOING, response.getStatus());
     assertEquals(ID, response.getBookingId());
 
-    verify(roomRepository).findByRoomIdAndStatus(ID, AVAILABLE_STATUS);
+    verify(roomAvailabilityIndex).findAvailableOrRefresh(ID);
     verify(userRepository).findByEmail(USER_HYSLEEP_COM);
-    verify(roomRepository).save(bookedRoom);
+    verify(roomRepository).updateStatusIfCurrent(ID, AVAILABLE_STATUS, BOOKED_STATUS);
+    verify(roomAvailabilityIndex).updateStatus(ID, BOOKED_STATUS);
     verify(bookingRepository).save(any());
-    verify(mapper).map(any(), any());
+    verify(bookingExpiryQueue).schedule(anyLong(), eq(ID), any(Date.class));
+    verify(bookingMapper).toResponse(any());
+  }
+
+  @Test
+  void bookRoomAlreadyBooked_throwException() {
+    when(roomAvailabilityIndex.findAvailableOrRefresh(ID)).thenReturn(Optional.of(room));
+    when(userRepository.findByEmail(USER_HYSLEEP_COM)).thenReturn(Optional.of(user));
+    when(roomRepository.updateStatusIfCurrent(ID, AVAILABLE_STATUS, BOOKED_STATUS)).thenReturn(0);
+
+    AppException e = assertThrows(AppException.class, () -> bookingService.bookRoom(bookingRequest));
+    assertEquals(ErrorCodes.ROOM_NOT_FOUND.getMessage(), e.getMessage());
+    assertEquals(HttpStatus.NOT_FOUND, e.getCode());
+
+    verify(roomAvailabilityIndex).findAvailableOrRefresh(ID);
+    verify(userRepository).findByEmail(USER_HYSLEEP_COM);
+    verify(roomRepository).updateStatusIfCurrent(ID, AVAILABLE_STATUS, BOOKED_STATUS);
+    verify(roomAvailabilityIndex).refresh(ID);
   }
 
   @Test
   void bookRoomNotFound_throwException() {
-    when(roomRepository.findByRoomIdAndStatus(ID, AVAILABLE_STATUS)).thenReturn(null);
+    when(roomAvailabilityIndex.findAvailableOrRefresh(ID)).thenReturn(Optional.empty());
 
     try {
       bookingService.bookRoom(bookingRequest);
@@ -118,12 +166,12 @@ public class BookingServiceTest {
     }
 
 
-    verify(roomRepository).findByRoomIdAndStatus(ID, AVAILABLE_STATUS);
+    verify(roomAvailabilityIndex).findAvailableOrRefresh(ID);
   }
 
   @Test
   void bookRoomUserNotFound_throwException() {
-    when(roomRepository.findByRoomIdAndStatus(ID, AVAILABLE_STATUS)).thenReturn(room);
+    when(roomAvailabilityIndex.findAvailableOrRefresh(ID)).thenReturn(Optional.of(room));
     when(userRepository.findByEmail(USER_HYSLEEP_COM)).thenReturn(Optional.empty());
 
     try {
@@ -133,7 +181,7 @@ public class BookingServiceTest {
       assertEquals(HttpStatus.NOT_FOUND, e.getCode());
     }
 
-    verify(roomRepository).findByRoomIdAndStatus(ID, AVAILABLE_STATUS);
+    verify(roomAvailabilityIndex).findAvailableOrRefresh(ID);
     verify(userRepository).findByEmail(USER_HYSLEEP_COM);
   }
 
@@ -141,28 +189,28 @@ public class BookingServiceTest {
   void cancelBooking_success() {
     bookingResponse.setStatus("CANCELLED");
     when(bookingRepository.findByBookingId(ID)).thenReturn(booking);
-    when(roomRepository.findByRoomIdAndStatus(ID, BOOKED_STATUS)).thenReturn(bookedRoom);
     when(bookingRepository.save(any())).thenReturn(cancelledBooking);
     when(roomRepository.save(room)).thenReturn(room);
-    when(mapper.map(any(), any())).thenReturn(bookingResponse);
+    when(bookingMapper.toResponse(any())).thenReturn(bookingResponse);
 
     BookingResponse response = bookingService.cancelBooking(ID);
     assertNotNull(response);
     assertEquals("CANCELLED", response.getStatus());
     assertEquals(ID, response.getBookingId());
 
-    verify(roomRepository).findByRoomIdAndStatus(ID, BOOKED_STATUS);
     verify(roomRepository).save(bookedRoom);
+    verify(roomAvailabilityIndex).updateStatus(ID, AVAILABLE_STATUS);
+    verify(bookingExpiryQueue).cancel(ID);
     verify(bookingRepository).findByBookingId(ID);
     verify(bookingRepository).save(any());
-    verify(mapper).map(any(), any());
+    verify(bookingMapper).toResponse(any());
   }
 
   @Test
   void cancelBookingRoomNotFound_throwException() {
     bookingResponse.setStatus("CANCELLED");
     when(bookingRepository.findByBookingId(ID)).thenReturn(booking);
-    when(roomRepository.findByRoomIdAndStatus(ID, BOOKED_STATUS)).thenReturn(null);
+    booking.setRoom(room);
 
     try {
       bookingService.cancelBooking(ID);
@@ -171,7 +219,18 @@ public class BookingServiceTest {
       assertEquals(HttpStatus.NOT_FOUND, e.getCode());
     }
 
-    verify(roomRepository).findByRoomIdAndStatus(ID, BOOKED_STATUS);
+    verify(bookingRepository).findByBookingId(ID);
+  }
+
+  @Test
+  void cancelBookingNotOngoing_throwException() {
+    booking.setStatus(DONE);
+    when(bookingRepository.findByBookingId(ID)).thenReturn(booking);
+
+    AppException e = assertThrows(AppException.class, () -> bookingService.cancelBooking(ID));
+    assertEquals(ErrorCodes.INVALID_REQUEST.getMessage(), e.getMessage());
+    assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
+
     verify(bookingRepository).findByBookingId(ID);
   }
 
@@ -195,28 +254,28 @@ public class BookingServiceTest {
     bookingResponse.setStatus(DONE);
     cancelledBooking.setStatus(DONE);
     when(bookingRepository.findByBookingId(ID)).thenReturn(booking);
-    when(roomRepository.findByRoomIdAndStatus(ID, BOOKED_STATUS)).thenReturn(bookedRoom);
     when(bookingRepository.save(any())).thenReturn(cancelledBooking);
     when(roomRepository.save(room)).thenReturn(room);
-    when(mapper.map(any(), any())).thenReturn(bookingResponse);
+    when(bookingMapper.toResponse(any())).thenReturn(bookingResponse);
 
     BookingResponse response = bookingService.doneBooking(ID);
     assertNotNull(response);
     assertEquals(DONE, response.getStatus());
     assertEquals(ID, response.getBookingId());
 
-    verify(roomRepository).findByRoomIdAndStatus(ID, BOOKED_STATUS);
     verify(roomRepository).save(bookedRoom);
+    verify(roomAvailabilityIndex).updateStatus(ID, AVAILABLE_STATUS);
+    verify(bookingExpiryQueue).cancel(ID);
     verify(bookingRepository).findByBookingId(ID);
     verify(bookingRepository).save(any());
-    verify(mapper).map(any(), any());
+    verify(bookingMapper).toResponse(any());
   }
 
   @Test
   void doneBookingRoomNotFound_throwException() {
     bookingResponse.setStatus(DONE);
     when(bookingRepository.findByBookingId(ID)).thenReturn(booking);
-    when(roomRepository.findByRoomIdAndStatus(ID, BOOKED_STATUS)).thenReturn(null);
+    booking.setRoom(room);
 
     try {
       bookingService.doneBooking(ID);
@@ -225,7 +284,6 @@ public class BookingServiceTest {
       assertEquals(HttpStatus.NOT_FOUND, e.getCode());
     }
 
-    verify(roomRepository).findByRoomIdAndStatus(ID, BOOKED_STATUS);
     verify(bookingRepository).findByBookingId(ID);
   }
 
@@ -246,37 +304,120 @@ public class BookingServiceTest {
 
   @Test
   void changeStatusAfterTime_success() {
-    Date newDate = DateUtils.addHours(new Date(), -4);
-    booking.setBookingDate(newDate);
-    booking.setEndDate(newDate);
-    List<Booking> bookings = new ArrayList<>(Arrays.asList(booking));
-    cancelledBooking.setStatus(DONE);
-    bookingResponse.setStatus(DONE);
+    BookingDeadline deadline = deadline(ID, ID);
+    BookingDeadline sameRoom = deadline(2L, ID);
+    when(bookingRepository.lockDeadlinesByStatusAndEndDateBefore(eq(ONGOING), any(Date.class)))
+        .thenReturn(List.of(deadline, sameRoom));
+    when(bookingRepository.updateStatusForIds(List.of(ID, 2L), ONGOING, DONE)).thenReturn(2);
+    when(roomRepository.updateStatusForIds(List.of(ID), BOOKED_STATUS, AVAILABLE_STATUS)).thenReturn(1);
+
+    List<Long> completed = this.bookingService.changeStatusAfterTime();
+
+    assertEquals(List.of(ID, 2L), completed);
+
+    verify(bookingRepository).lockDeadlinesByStatusAndEndDateBefore(eq(ONGOING), any(Date.class));
+    verify(bookingRepository).updateStatusForIds(List.of(ID, 2L), ONGOING, DONE);
+    verify(roomRepository).updateStatusForIds(List.of(ID), BOOKED_STATUS, AVAILABLE_STATUS);
+    verify(roomAvailabilityIndex).updateStatus(ID, AVAILABLE_STATUS);
+    verify(bookingExpiryQueue).cancel(ID);
+    verify(bookingExpiryQueue).cancel(2L);
+  }
 
-    when(bookingRepository.findAllByStatus(ONGOING)).thenReturn(bookings);
-    when(bookingRepository.findByBookingId(ID)).thenReturn(booking);
-    when(roomRepository.findByRoomIdAndStatus(ID, BOOKED_STATUS)).thenReturn(bookedRoom);
-    when(bookingRepository.save(any())).thenReturn(cancelledBooking);
-    when(roomRepository.save(room)).thenReturn(room);
-    when(mapper.map(any(), any())).thenReturn(bookingResponse);
+  @Test
+  void changeStatusAfterTimeNothingExpired_success() {
+    when(bookingRepository.lockDeadlinesByStatusAndEndDateBefore(eq(ONGOING), any(Date.class)))
+        .thenReturn(new ArrayList<>());
 
+    List<Long> completed = this.bookingService.changeStatusAfterTime();
 
-    ListResponse<BookingResponse> bookingResponses = this.bookingService.changeStatusAfterTime();
+    assertEquals(0, completed.size());
 
-    assertEquals(1, bookingResponses.getVal().size());
-    bookingResponses.getVal().stream().forEach(response -> {
-      assertEquals(DONE, response.getStatus());
-    });
+    verify(bookingRepository).lockDeadlinesByStatusAndEndDateBefore(eq(ONGOING), any(Date.class));
+  }
 
+  @Test
+  void sweepExpiredBookings_completesOverdueBookingsFromDatabase() {
+    BookingDeadline deadline = deadline(ID, ID);
+    when(bookingRepository.lockDeadlinesByStatusAndEndDateBefore(eq(ONGOING), any(Date.class)))
+        .thenReturn(List.of(deadline));
+    when(bookingRepository.updateStatusForIds(List.of(ID), ONGOING, DONE)).thenReturn(1);
+    when(roomRepository.updateStatusForIds(List.of(ID), BOOKED_STATUS, AVAILABLE_STATUS)).thenReturn(1);
+
+    List<Long> completed = this.bookingService.sweepExpiredBookings();
+
+    assertEquals(List.of(ID), completed);
+
+    verify(bookingRepository).lockDeadlinesByStatusAndEndDateBefore(eq(ONGOING), any(Date.class));
+    verify(bookingRepository).updateStatusForIds(List.of(ID), ONGOING, DONE);
+    verify(roomRepository).updateStatusForIds(List.of(ID), BOOKED_STATUS, AVAILABLE_STATUS);
+    verify(roomAvailabilityIndex).updateStatus(ID, AVAILABLE_STATUS);
+    verify(bookingExpiryQueue).cancel(ID);
+  }
 
+  @Test
+  void completeExpiredBookings_success() {
+    BookingExpiryQueue.Deadline due = new BookingExpiryQueue.Deadline(ID, ID, DATE.getTime());
+    BookingDeadline deadline = deadline(ID, ID);
+    when(bookingExpiryQueue.drainExpired()).thenReturn(List.of(due));
+    when(bookingRepository.lockDeadlinesByIdsAndStatus(List.of(ID), ONGOING)).thenReturn(List.of(deadline));
+
+    List<Long> completed = bookingService.completeExpiredBookings();
+
+    assertEquals(List.of(ID), completed);
+
+    verify(bookingExpiryQueue).drainExpired();
+    verify(bookingRepository).lockDeadlinesByIdsAndStatus(List.of(ID), ONGOING);
+    verify(bookingRepository).updateStatusForIds(List.of(ID), ONGOING, DONE);
+    verify(roomRepository).updateStatusForIds(List.of(ID), BOOKED_STATUS, AVAILABLE_STATUS);
+    verify(roomAvailabilityIndex).updateStatus(ID, AVAILABLE_STATUS);
+    verify(bookingExpiryQueue).cancel(ID);
+  }
 
-    verify(bookingRepository).findByBookingId(ID);
-    verify(bookingRepository).findAllByStatus(ONGOING);
-    verify(roomRepository).findByRoomIdAndStatus(ID, BOOKED_STATUS);
-    verify(roomRepository).save(bookedRoom);
-    verify(bookingRepository).findByBookingId(ID);
-    verify(bookingRepository).save(any());
-    verify(mapper).map(any(), any());
+  @Test
+  void completeExpiredBookingsAlreadyClosed_skipped() {
+    BookingExpiryQueue.Deadline due = new BookingExpiryQueue.Deadline(ID, ID, DATE.getTime());
+    when(bookingExpiryQueue.drainExpired()).thenReturn(List.of(due));
+    when(bookingRepository.lockDeadlinesByIdsAndStatus(List.of(ID), ONGOING)).thenReturn(new ArrayList<>());
+
+    List<Long> completed = bookingService.completeExpiredBookings();
+
+    assertEquals(0, completed.size());
+
+    verify(bookingExpiryQueue).drainExpired();
+    verify(bookingRepository).lockDeadlinesByIdsAndStatus(List.of(ID), ONGOING);
+  }
+
+  @Test
+  void completeExpiredBookingsNothingDue_noQuery() {
+    when(bookingExpiryQueue.drainExpired()).thenReturn(new ArrayList<>());
+
+    assertEquals(0, bookingService.completeExpiredBookings().size());
+
+    verify(bookingExpiryQueue).drainExpired();
+  }
+
+  @Test
+  void completeExpiredBookingsFailure_retriedLater() {
+    BookingExpiryQueue.Deadline due = new BookingExpiryQueue.Deadline(ID, ID, DATE.getTime());
+    when(bookingExpiryQueue.drainExpired()).thenReturn(List.of(due));
+    when(bookingRepository.lockDeadlinesByIdsAndStatus(List.of(ID), ONGOING))
+        .thenThrow(new IllegalStateException("db down"));
+
+    List<Long> completed = bookingService.completeExpiredBookings();
+
+    assertEquals(0, completed.size());
+
+    verify(bookingExpiryQueue).drainExpired();
+    verify(bookingRepository).lockDeadlinesByIdsAndStatus(List.of(ID), ONGOING);
+    verify(bookingExpiryQueue).retryAt(eq(due), anyLong());
+  }
+
+  private BookingDeadline deadline(Long bookingId, Long roomId) {
+    BookingDeadline deadline = mock(BookingDeadline.class);
+    when(deadline.getBookingId()).thenReturn(bookingId);
+    when(deadline.getRoomId()).thenReturn(roomId);
+    when(deadline.getEndDate()).thenReturn(DATE);
+    return deadline;
   }
 
   @Test
@@ -284,8 +425,8 @@ public class BookingServiceTest {
     bookingResponse.setStatus(ONGOING);
 
     when(userRepository.findByEmail(USER_HYSLEEP_COM)).thenReturn(Optional.of(user));
-    when(bookingRepository.findByUser_idAndStatus(ID, ONGOING)).thenReturn(bookings);
-    when(mapper.map(booking, BookingResponse.class)).thenReturn(bookingResponse);
+    when(bookingRepository.findPage(BookingFilter.builder().status(ONGOING).userId(ID).build(), null, 21)).thenReturn(summaries);
+    when(bookingMapper.toSummaryResponses(summaries)).thenReturn(List.of(bookingResponse));
 
 
     ListResponse<BookingResponse> bookingResponses =
@@ -298,9 +439,9 @@ public class BookingServiceTest {
 
 
 
-    verify(bookingRepository).findByUser_idAndStatus(ID, ONGOING);
+    verify(bookingRepository).findPage(BookingFilter.builder().status(ONGOING).userId(ID).build(), null, 21);
     verify(userRepository).findByEmail(USER_HYSLEEP_COM);
-    verify(mapper).map(booking, BookingResponse.class);
+    verify(bookingMapper).toSummaryResponses(summaries);
   }
 
   @Test
@@ -333,24 +474,25 @@ public class BookingServiceTest {
   @Test
   void getAllFilteredBookingEmpty_success() throws Exception {
     when(userRepository.findByEmail(USER_HYSLEEP_COM)).thenReturn(Optional.of(user));
-    when(bookingRepository.findByUser_idAndStatus(ID, ONGOING)).thenReturn(new ArrayList<>());
+    when(bookingRepository.findPage(BookingFilter.builder().status(ONGOING).userId(ID).build(), null, 21)).thenReturn(new ArrayList<>());
 
     ListResponse<BookingResponse> bookingResponses = this.bookingService.getAllByStatus(getAllByStatusRequest);
 
     assertEquals(0, bookingResponses.getVal().size());
 
     verify(userRepository).findByEmail(USER_HYSLEEP_COM);
-    verify(bookingRepository).findByUser_idAndStatus(ID, ONGOING);
+    verify(bookingRepository).findPage(BookingFilter.builder().status(ONGOING).userId(ID).build(), null, 21);
+    verify(bookingMapper).toSummaryResponses(new ArrayList<>());
   }
 
   @Test
   void getAll_success() throws Exception {
-    when(bookingRepository.findAll()).thenReturn(bookings);
-    when(mapper.map(booking, BookingResponse.class)).thenReturn(bookingResponse);
+    when(bookingRepository.findPageIncludingHistory(BookingFilter.builder().build(), null, 21)).thenReturn(summaries);
+    when(bookingMapper.toSummaryResponses(summaries)).thenReturn(List.of(bookingResponse));
 
 
     ListResponse<BookingResponse> bookingResponses =
-        this.bookingService.getAll();
+        this.bookingService.getAll(null);
 
     assertEquals(1, bookingResponses.getVal().size());
     bookingResponses.getVal().stream().forEach(response -> {
@@ -359,29 +501,134 @@ public class BookingServiceTest {
 
 
 
-    verify(bookingRepository).findAll();
-    verify(mapper).map(booking, BookingResponse.class);
+    verify(bookingRepository).findPageIncludingHistory(BookingFilter.builder().build(), null, 21);
+    verify(bookingMapper).toSummaryResponses(summaries);
   }
 
   @Test
   void getAllEmpty_success() throws Exception {
-    when(bookingRepository.findAll()).thenReturn(new ArrayList<>());
+    when(bookingRepository.findPageIncludingHistory(BookingFilter.builder().build(), null, 21)).thenReturn(new ArrayList<>());
 
 
     ListResponse<BookingResponse> bookingResponses =
-        this.bookingService.getAll();
+        this.bookingService.getAll(null);
 
     assertEquals(0, bookingResponses.getVal().size());
 
 
 
-    verify(bookingRepository).findAll();
+    verify(bookingRepository).findPageIncludingHistory(BookingFilter.builder().build(), null, 21);
+    verify(bookingMapper).toSummaryResponses(new ArrayList<>());
+  }
+
+
+  @Test
+  void getAll_fullPageIssuesNextCursor() throws Exception {
+    BookingSearchRequest request = BookingSearchRequest.builder().roomId(ID).size(2).build();
+    BookingFilter filter = BookingFilter.builder().roomId(ID).build();
+    List<BookingSummary> page = List.of(summaryWithId(30L), summaryWithId(20L), summaryWithId(10L));
+    when(bookingRepository.findPageIncludingHistory(filter, null, 3)).thenReturn(page);
+    when(bookingMapper.toSummaryResponses(page.subList(0, 2))).thenReturn(List.of(bookingResponse, bookingResponse));
+
+    PageResponse<BookingResponse> first = this.bookingService.getAll(request);
+
+    assertEquals(2, first.getVal().size());
+    assertNotNull(first.getNextCursor());
+
+    request.setCursor(first.getNextCursor());
+    when(bookingRepository.findPageIncludingHistory(filter, 20L, 3)).thenReturn(List.of(page.get(2)));
+    when(bookingMapper.toSummaryResponses(List.of(page.get(2)))).thenReturn(List.of(bookingResponse));
+
+    PageResponse<BookingResponse> second = this.bookingService.getAll(request);
+
+    assertEquals(1, second.getVal().size());
+    assertNull(second.getNextCursor());
+
+    verify(bookingRepository).findPageIncludingHistory(filter, null, 3);
+    verify(bookingRepository).findPageIncludingHistory(filter, 20L, 3);
+    verify(bookingMapper).toSummaryResponses(page.subList(0, 2));
+    verify(bookingMapper).toSummaryResponses(List.of(page.get(2)));
   }
 
+  @Test
+  void getAll_pageSizeCapped() throws Exception {
+    BookingSearchRequest request = BookingSearchRequest.builder().size(5000).build();
+    when(bookingRepository.findPageIncludingHistory(BookingFilter.builder().build(), null, 101)).thenReturn(new ArrayList<>());
+
+    this.bookingService.getAll(request);
+
+    verify(bookingRepository).findPageIncludingHistory(BookingFilter.builder().build(), null, 101);
+    verify(bookingMapper).toSummaryResponses(new ArrayList<>());
+  }
+
+  @Test
+  void getAllFiltered_doneStatusIncludesHistory() throws Exception {
+    getAllByStatusRequest.setStatus(DONE);
+    BookingFilter filter = BookingFilter.builder().status(DONE).userId(ID).build();
+    when(userRepository.findByEmail(USER_HYSLEEP_COM)).thenReturn(Optional.of(user));
+    when(bookingRepository.findPageIncludingHistory(filter, null, 21)).thenReturn(summaries);
+    when(bookingMapper.toSummaryResponses(summaries)).thenReturn(List.of(bookingResponse));
+
+    this.bookingService.getAllByStatus(getAllByStatusRequest);
+
+    verify(userRepository).findByEmail(USER_HYSLEEP_COM);
+    verify(bookingRepository).findPageIncludingHistory(filter, null, 21);
+    verify(bookingMapper).toSummaryResponses(summaries);
+  }
+
+  @Test
+  void getAll_rangeAfterArchiveCutoffSkipsHistory() throws Exception {
+    BookingSearchRequest request = BookingSearchRequest.builder().from(DATE).build();
+    BookingFilter filter = BookingFilter.builder().from(DATE).build();
+    when(bookingArchiveService.archiveCutoff()).thenReturn(DateUtils.addDays(DATE, -90));
+    when(bookingRepository.findPage(filter, null, 21)).thenReturn(summaries);
+    when(bookingMapper.toSummaryResponses(summaries)).thenReturn(List.of(bookingResponse));
+
+    this.bookingService.getAll(request);
+
+    verify(bookingArchiveService).archiveCutoff();
+    verify(bookingRepository).findPage(filter, null, 21);
+    verify(bookingMapper).toSummaryResponses(summaries);
+  }
+
+  @Test
+  void getAll_rangeBeforeArchiveCutoffIncludesHistory() throws Exception {
+    Date from = DateUtils.addDays(DATE, -365);
+    BookingSearchRequest request = BookingSearchRequest.builder().from(from).build();
+    BookingFilter filter = BookingFilter.builder().from(from).build();
+    when(bookingArchiveService.archiveCutoff()).thenReturn(DateUtils.addDays(DATE, -90));
+    when(bookingRepository.findPageIncludingHistory(filter, null, 21)).thenReturn(summaries);
+    when(bookingMapper.toSummaryResponses(summaries)).thenReturn(List.of(bookingResponse));
+
+    this.bookingService.getAll(request);
+
+    verify(bookingArchiveService).archiveCutoff();
+    verify(bookingRepository).findPageIncludingHistory(filter, null, 21);
+    verify(bookingMapper).toSummaryResponses(summaries);
+  }
+
+  @Test
+  void getAll_invalidCursor_throwAppException() {
+    BookingSearchRequest request = BookingSearchRequest.builder().cursor("not-a-cursor").build();
+
+    AppException e = assertThrows(AppException.class, () -> this.bookingService.getAll(request));
+
+    assertEquals(ErrorCodes.INVALID_CURSOR.getMessage(), e.getMessage());
+    assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
+  }
+
+  private BookingSummary summaryWithId(long bookingId) {
+    return new BookingSummary(bookingId, DATE, DATE, ONGOING, FIRST_NAME, LAST_NAME, USER_HYSLEEP_COM,
+        ID, ROOM_NUMBER, BOOKED_STATUS, FLOOR);
+  }
 
   @BeforeEach
   public void init() {
     initMocks(this);
+    when(roomWriteGuard.execute(any(), any()))
+        .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+    when(roomWriteGuard.executeWithRetry(any()))
+        .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
     Date end = DateUtils.addHours(DATE, DURATION);
     bookingRequest = BookingRequest.builder()
         .roomId(ID)
@@ -458,8 +705,7 @@ public class BookingServiceTest {
     bookingResponses = new ArrayList<>();
     bookingResponses.add(bookingResponse);
 
-    bookings = new ArrayList<>();
-    bookings.add(booking);
+    summaries = List.of(summaryWithId(ID));
 
     getAllByStatusRequest = GetAllByStatusRequest.builder()
         .status(ONGOING)
@@ -472,7 +718,10 @@ public class BookingServiceTest {
     verifyNoMoreInteractions(bookingRepository);
     verifyNoMoreInteractions(roomRepository);
     verifyNoMoreInteractions(userRepository);
-    verifyNoMoreInteractions(mapper);
+    verifyNoMoreInteractions(bookingMapper);
+    verifyNoMoreInteractions(roomAvailabilityIndex);
+    verifyNoMoreInteractions(bookingExpiryQueue);
+    verifyNoMoreInteractions(bookingArchiveService);
   }
 
 }
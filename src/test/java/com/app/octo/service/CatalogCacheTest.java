@@ -0,0 +1,139 @@
+package com.app.octo.service;
+
+import com.app.octo.dto.response.RoomResponseDTO;
+import com.app.octo.model.CacheRegions;
+import com.app.octo.model.Category;
+import com.app.octo.model.Room;
+import com.app.octo.model.response.CacheStatsResponse;
+import com.app.octo.model.response.CategoryGetResponse;
+import com.app.octo.repository.BookingRepository;
+import com.app.octo.repository.CategoryRepository;
+import com.app.octo.repository.RoomRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that catalog reads are served from the second-level and query caches and that
+ * writes through save, delete and bulk updates invalidate them.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class CatalogCacheTest {
+
+  public static final String AVAILABLE = "AVAILABLE";
+  public static final String MAINTENANCE = "MAINTENANCE";
+
+  @Autowired
+  private CategoryService categoryService;
+
+  @Autowired
+  private RoomService roomService;
+
+  @Autowired
+  private CacheStatsService cacheStatsService;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+  private Category category;
+  private Room room;
+
+  @Test
+  void getAllCategories_servedFromQueryCache() {
+    categoryService.getAllCategories();
+    statistics.clear();
+
+    List<CategoryGetResponse> categories = categoryService.getAllCategories().getData();
+
+    assertEquals(1, categories.size());
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertEquals(1, statistics.getQueryCacheHitCount());
+  }
+
+  @Test
+  void getAllCategories_invalidatedBySaveAndDelete() {
+    categoryService.getAllCategories();
+
+    categoryService.createCategory("CACHE-NEW");
+    assertEquals(2, categoryService.getAllCategories().getData().size());
+
+    categoryService.deleteCategory(categoryRepository.findByCategoryName("CACHE-NEW").getCategoryId());
+    statistics.clear();
+    List<CategoryGetResponse> categories = categoryService.getAllCategories().getData();
+
+    assertEquals(List.of("CACHE"), categories.stream().map(CategoryGetResponse::getCategoryName).toList());
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void getAllRooms_invalidatedByBulkUpdate() {
+    roomService.getAllRooms();
+    statistics.clear();
+    assertEquals(AVAILABLE, roomService.getAllRooms().get(0).getStatus());
+    assertEquals(0, statistics.getPrepareStatementCount());
+
+    roomRepository.updateStatusIfCurrent(room.getRoomId(), AVAILABLE, MAINTENANCE);
+    List<RoomResponseDTO> rooms = roomService.getAllRooms();
+
+    assertEquals(MAINTENANCE, rooms.get(0).getStatus());
+    assertEquals(MAINTENANCE, roomRepository.findById(room.getRoomId()).orElseThrow().getStatus());
+  }
+
+  @Test
+  void findById_servedFromEntityCache() {
+    roomRepository.findById(room.getRoomId());
+    statistics.clear();
+
+    roomRepository.findById(room.getRoomId());
+
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertEquals(1, statistics.getDomainDataRegionStatistics(CacheRegions.ROOM).getHitCount());
+  }
+
+  @Test
+  void getCatalogCacheStats_reportsRegions() {
+    categoryService.getAllCategories();
+    categoryService.getAllCategories();
+
+    CacheStatsResponse stats = cacheStatsService.getCatalogCacheStats();
+
+    assertEquals(List.of(CacheRegions.CATEGORY, CacheRegions.ROOM, CacheRegions.CATALOG_QUERIES),
+        stats.getRegions().stream().map(CacheStatsResponse.RegionStats::getRegion).toList());
+    assertTrue(stats.getRegions().get(2).getHitCount() > 0);
+    assertTrue(stats.getRegions().get(0).getElementCount() > 0);
+  }
+
+  @BeforeEach
+  public void init() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    bookingRepository.deleteAll();
+    roomRepository.deleteAll();
+    categoryRepository.deleteAll();
+
+    category = categoryRepository.save(Category.builder().categoryName("CACHE").build());
+    room = roomRepository.save(Room.builder().roomNumber("K-1").floor("1").status(AVAILABLE)
+        .roomDescription("cache").category(category).build());
+    statistics.clear();
+  }
+}
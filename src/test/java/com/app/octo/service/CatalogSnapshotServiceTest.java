@@ -0,0 +1,131 @@
+package com.app.octo.service;
+
+import com.app.octo.dto.response.RoomResponseDTO;
+import com.app.octo.model.response.ApiResponse;
+import com.app.octo.model.response.CatalogSnapshot;
+import com.app.octo.model.response.CategoryGetResponse;
+import com.app.octo.service.impl.CatalogSnapshotServiceImpl;
+import com.app.octo.service.impl.CatalogVersion;
+import com.app.octo.service.impl.PrimaryReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class CatalogSnapshotServiceTest {
+
+  private CatalogSnapshotServiceImpl catalogSnapshotService;
+
+  @Mock
+  private CategoryService categoryService;
+
+  @Mock
+  private RoomService roomService;
+
+  @Mock
+  private CatalogVersion catalogVersion;
+
+  @Mock
+  private PrimaryReader primaryReader;
+
+  private ApiResponse<List<CategoryGetResponse>> categories;
+
+  @Test
+  void getCategories_reusesSnapshotWhileVersionUnchanged() {
+    when(catalogVersion.categories()).thenReturn(1L);
+
+    CatalogSnapshot first = catalogSnapshotService.getCategories();
+    CatalogSnapshot second = catalogSnapshotService.getCategories();
+
+    assertSame(first, second);
+    assertEquals(1L, first.version());
+    assertTrue(new String(first.body(), StandardCharsets.UTF_8).contains("VIP"));
+    assertTrue(first.etag().startsWith("\"") && first.etag().endsWith("\""));
+
+    verify(categoryService).getAllCategories();
+    verify(catalogVersion, atLeastOnce()).categories();
+  }
+
+  @Test
+  void getCategories_rebuildsAfterVersionBump() {
+    when(catalogVersion.categories()).thenReturn(1L);
+    CatalogSnapshot first = catalogSnapshotService.getCategories();
+
+    categories.getData().get(0).setCategoryName("Suite");
+    when(catalogVersion.categories()).thenReturn(2L);
+    CatalogSnapshot second = catalogSnapshotService.getCategories();
+
+    assertEquals(2L, second.version());
+    assertNotEquals(first.etag(), second.etag());
+
+    verify(categoryService, times(2)).getAllCategories();
+    verify(catalogVersion, atLeastOnce()).categories();
+  }
+
+  @Test
+  void getRooms_sameContentSameEtag() {
+    when(roomService.getAllRooms()).thenReturn(List.of(RoomResponseDTO.builder().roomId(1L).roomNumber("101").build()));
+    when(catalogVersion.rooms()).thenReturn(1L);
+    CatalogSnapshot first = catalogSnapshotService.getRooms();
+
+    when(catalogVersion.rooms()).thenReturn(2L);
+    CatalogSnapshot second = catalogSnapshotService.getRooms();
+
+    assertEquals(first.etag(), second.etag());
+
+    verify(roomService, times(2)).getAllRooms();
+    verify(catalogVersion, atLeastOnce()).rooms();
+  }
+
+  @Test
+  void getCategories_rebuildsOnceMaxAgePassed() {
+    ReflectionTestUtils.setField(catalogSnapshotService, "maxAgeMs", 0L);
+    when(catalogVersion.categories()).thenReturn(1L);
+    catalogSnapshotService.getCategories();
+
+    categories.getData().get(0).setCategoryName("Suite");
+    CatalogSnapshot second = catalogSnapshotService.getCategories();
+
+    assertEquals(1L, second.version());
+    assertTrue(new String(second.body(), StandardCharsets.UTF_8).contains("Suite"));
+
+    verify(categoryService, times(2)).getAllCategories();
+    verify(catalogVersion, atLeastOnce()).categories();
+  }
+
+  @BeforeEach
+  public void init() {
+    initMocks(this);
+    catalogSnapshotService = new CatalogSnapshotServiceImpl(categoryService, roomService, catalogVersion,
+        new ObjectMapper(), primaryReader);
+    when(primaryReader.read(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    categories = new ApiResponse<>();
+    categories.setData(List.of(CategoryGetResponse.builder().categoryId(1L).categoryName("VIP").build()));
+    when(categoryService.getAllCategories()).thenReturn(categories);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    verifyNoMoreInteractions(categoryService);
+    verifyNoMoreInteractions(roomService);
+    verifyNoMoreInteractions(catalogVersion);
+  }
+}
@@ -6,7 +6,6 @@ import java.util.List;
 
 import com.app.octo.dto.response.RoomResponseDTO;
 import com.app.octo.model.Room;
-import org.dozer.Mapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +16,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.app.octo.controller.CategoryController;
+import com.app.octo.mapper.CategoryMapper;
 import com.app.octo.model.Category;
 import com.app.octo.model.enums.ErrorCodes;
 import com.app.octo.model.exception.AppException;
@@ -26,6 +26,7 @@ import com.app.octo.model.response.ApiResponse;
 import com.app.octo.model.response.CategoryGetResponse;
 import com.app.octo.model.response.CategoryResponse;
 import com.app.octo.repository.CategoryRepository;
+import com.app.octo.service.impl.CatalogVersion;
 import com.app.octo.service.impl.CategoryServiceImpl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -47,7 +48,10 @@ public class CategoryServiceTest {
     private CategoryRepository categoryRepository;
 
     @Mock
-    private Mapper mapper;
+    private CategoryMapper categoryMapper;
+
+    @Mock
+    private CatalogVersion catalogVersion;
     
     private Category category;
     private CategoryUpdateRequest categoryUpdateRequest;
@@ -59,11 +63,10 @@ public class CategoryServiceTest {
         List<Category> categories = List.of(new Category(1, "Category A"),
                                             new Category(2, "Category B"));
         when(categoryRepository.findAll()).thenReturn(categories);
-        when(mapper.map(any(Category.class), eq(CategoryGetResponse.class)))
-                .thenAnswer(invocation -> {
-                    Category category = invocation.getArgument(0);
-                    return new CategoryGetResponse(category.getCategoryId(), category.getCategoryName());
-                });
+        when(categoryMapper.toGetResponses(categories))
+                .thenAnswer(invocation -> categories.stream()
+                    .map(category -> new CategoryGetResponse(category.getCategoryId(), category.getCategoryName()))
+                    .toList());
 
         ApiResponse<List<CategoryGetResponse>> response = categoryService.getAllCategories();
 
@@ -76,7 +79,7 @@ public class CategoryServiceTest {
         assertEquals(categories.get(1).getCategoryName(), response.getData().get(1).getCategoryName());
 
         verify(categoryRepository).findAll();
-        verify(mapper, times(categories.size())).map(any(Category.class), eq(CategoryGetResponse.class));
+        verify(categoryMapper).toGetResponses(categories);
 
 
     }
@@ -84,7 +87,7 @@ public class CategoryServiceTest {
     void createCategory_success() {
         when(categoryRepository.findByCategoryName(CATEGORY_NAME)).thenReturn(null);
         when(categoryRepository.save(any(Category.class))).thenReturn(category);
-        when(mapper.map(any(), any())).thenReturn(categoryResponse);
+        when(categoryMapper.toResponse(any())).thenReturn(categoryResponse);
 
         CategoryResponse response = categoryService.createCategory(CATEGORY_NAME);
 
@@ -94,7 +97,8 @@ public class CategoryServiceTest {
 
         verify(categoryRepository).findByCategoryName(CATEGORY_NAME);
         verify(categoryRepository).save(any(Category.class));
-        verify(mapper).map(any(), any());
+        verify(categoryMapper).toResponse(any());
+        verify(catalogVersion).bumpCategories();
     }
 
     @Test
@@ -131,7 +135,7 @@ public class CategoryServiceTest {
                 .thenReturn(category);
         when(categoryRepository.findByCategoryName(categoryUpdateRequest.getCategoryName()))
                 .thenReturn(null);
-        when(mapper.map(category, CategoryResponse.class))
+        when(categoryMapper.toResponse(category))
                 .thenReturn(categoryResponse);
 
         CategoryResponse response = categoryService.updateCategoryName(categoryUpdateRequest);
@@ -141,7 +145,8 @@ public class CategoryServiceTest {
         verify(categoryRepository).findByCategoryId(categoryUpdateRequest.getCategoryId());
         verify(categoryRepository).findByCategoryName(categoryUpdateRequest.getCategoryName());
         verify(categoryRepository).save(category);
-        verify(mapper).map(category, CategoryResponse.class);
+        verify(categoryMapper).toResponse(category);
+        verify(catalogVersion).bumpCategories();
     }
 
     @Test
@@ -203,7 +208,7 @@ public class CategoryServiceTest {
 
         verify(categoryRepository).findByCategoryId(CATEGORY_ID);
         verify(categoryRepository).delete(category);
-
+        verify(catalogVersion).bumpCategories();
     }
     @Test
     void deleteCategoryNotFound_throwsException(){
@@ -260,7 +265,8 @@ public class CategoryServiceTest {
       @AfterEach
         public void tearDown() {
             verifyNoMoreInteractions(categoryRepository);
-            verifyNoMoreInteractions(mapper);
+            verifyNoMoreInteractions(categoryMapper);
+            verifyNoMoreInteractions(catalogVersion);
         }
 
 }
@@ -0,0 +1,127 @@
+package com.app.octo.service;
+
+import com.app.octo.dto.response.RoomResponseDTO;
+import com.app.octo.model.Booking;
+import com.app.octo.model.Category;
+import com.app.octo.model.Room;
+import com.app.octo.model.User;
+import com.app.octo.model.enums.UserRole;
+import com.app.octo.model.request.GetAllByStatusRequest;
+import com.app.octo.model.response.BookingResponse;
+import com.app.octo.model.response.PageResponse;
+import com.app.octo.repository.BookingRepository;
+import com.app.octo.repository.CategoryRepository;
+import com.app.octo.repository.RoomRepository;
+import com.app.octo.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.commons.lang3.time.DateUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that list endpoints load a page with a fixed number of SQL statements, whatever
+ * the number of rows, users, rooms or categories involved.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ListQueryCountTest {
+
+  public static final int CATEGORIES = 3;
+  public static final int ROOMS = 6;
+  public static final int BOOKINGS = 12;
+  public static final String EMAIL = "count@hysleep.com";
+
+  @Autowired
+  private BookingService bookingService;
+
+  @Autowired
+  private RoomService roomService;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @Test
+  void getAll_singleStatement() throws Exception {
+    statistics.clear();
+
+    PageResponse<BookingResponse> page = bookingService.getAll(null);
+
+    assertEquals(BOOKINGS, page.getVal().size());
+    assertEquals(EMAIL, page.getVal().get(0).getUser().getEmail());
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+  }
+
+  @Test
+  void getAllByStatus_userLookupPlusSingleStatement() throws Exception {
+    statistics.clear();
+
+    bookingService.getAllByStatus(GetAllByStatusRequest.builder().email(EMAIL).build());
+
+    // One statement resolves the user, one loads the page
+    assertEquals(2, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void getAllRooms_singleStatement() {
+    statistics.clear();
+
+    List<RoomResponseDTO> rooms = roomService.getAllRooms();
+
+    assertEquals(ROOMS, rooms.size());
+    rooms.forEach(room -> assertTrue(room.getCategory().getCategoryName().startsWith("COUNT-")));
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+  }
+
+  @BeforeEach
+  public void init() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    bookingRepository.deleteAll();
+    roomRepository.deleteAll();
+    categoryRepository.deleteAll();
+
+    User user = userRepository.findByEmail(EMAIL).orElseGet(() -> userRepository.save(
+        User.builder().email(EMAIL).firstName("Count").lastName("Test").password("x")
+            .userRole(UserRole.ROLE_USER).build()));
+    Category[] categories = new Category[CATEGORIES];
+    for (int i = 0; i < CATEGORIES; i++) {
+      categories[i] = categoryRepository.save(Category.builder().categoryName("COUNT-" + i).build());
+    }
+    Room[] rooms = new Room[ROOMS];
+    for (int i = 0; i < ROOMS; i++) {
+      rooms[i] = roomRepository.save(Room.builder().roomNumber("C-" + i).floor("1").status("AVAILABLE")
+          .roomDescription("count").category(categories[i % CATEGORIES]).build());
+    }
+    Date now = new Date();
+    for (int i = 0; i < BOOKINGS; i++) {
+      bookingRepository.save(Booking.builder().user(user).room(rooms[i % ROOMS]).status("DONE")
+          .bookingDate(now).startDate(now).endDate(DateUtils.addHours(now, 1)).build());
+    }
+  }
+}
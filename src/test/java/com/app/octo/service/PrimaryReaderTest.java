@@ -0,0 +1,89 @@
+package com.app.octo.service;
+
+import com.app.octo.service.impl.PrimaryReader;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class PrimaryReaderTest {
+
+  private PrimaryReader primaryReader;
+
+  @Mock
+  private EntityManager entityManager;
+
+  @Mock
+  private Session session;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Test
+  void read_runsInReadWriteTransactionBypassingTheCache() {
+    assertEquals("rooms", primaryReader.read(() -> {
+      verify(session).setCacheMode(CacheMode.REFRESH);
+      return "rooms";
+    }));
+
+    TransactionDefinition definition = definition();
+    assertFalse(definition.isReadOnly());
+    assertEquals(TransactionDefinition.PROPAGATION_REQUIRED, definition.getPropagationBehavior());
+    verify(entityManager).unwrap(Session.class);
+    verify(session).getCacheMode();
+    verify(session).setCacheMode(CacheMode.NORMAL);
+  }
+
+  @Test
+  void read_insideReadOnlyTransactionStartsItsOwn() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    try {
+      primaryReader.read(() -> "rooms");
+    } finally {
+      TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition().getPropagationBehavior());
+    verify(entityManager).unwrap(Session.class);
+    verify(session).getCacheMode();
+    verify(session).setCacheMode(CacheMode.REFRESH);
+    verify(session).setCacheMode(CacheMode.NORMAL);
+  }
+
+  private TransactionDefinition definition() {
+    ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+    verify(transactionManager).getTransaction(definition.capture());
+    verify(transactionManager).commit(any());
+    return definition.getValue();
+  }
+
+  @BeforeEach
+  public void init() {
+    initMocks(this);
+    primaryReader = new PrimaryReader(entityManager, transactionManager);
+    when(entityManager.unwrap(Session.class)).thenReturn(session);
+    when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    verifyNoMoreInteractions(entityManager);
+    verifyNoMoreInteractions(session);
+    verifyNoMoreInteractions(transactionManager);
+  }
+}
@@ -0,0 +1,203 @@
+package com.app.octo.service;
+
+import com.app.octo.model.Category;
+import com.app.octo.model.Room;
+import com.app.octo.model.event.RoomStatusChangedEvent;
+import com.app.octo.repository.RoomRepository;
+import com.app.octo.service.impl.CatalogVersion;
+import com.app.octo.service.impl.PrimaryReader;
+import com.app.octo.service.impl.RoomAvailabilityIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class RoomAvailabilityIndexTest {
+
+  public static final String AVAILABLE = "AVAILABLE";
+  public static final String BOOKED = "BOOKED";
+
+  @InjectMocks
+  private RoomAvailabilityIndex roomAvailabilityIndex;
+
+  @Mock
+  private RoomRepository roomRepository;
+
+  @Mock
+  private CatalogVersion catalogVersion;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private PrimaryReader primaryReader;
+
+  private Room availableRoom;
+  private Room bookedRoom;
+
+  @Test
+  void loadsOnceAndAnswersFromMemory() {
+    assertTrue(roomAvailabilityIndex.isAvailable(1L));
+    assertFalse(roomAvailabilityIndex.isAvailable(2L));
+    assertFalse(roomAvailabilityIndex.isAvailable(3L));
+    assertEquals(1, roomAvailabilityIndex.getAvailableRooms().size());
+
+    verify(roomRepository).findAll();
+  }
+
+  @Test
+  void findAvailable_returnsDetachedCopy() {
+    Room copy = roomAvailabilityIndex.findAvailable(1L).orElseThrow();
+    copy.setStatus(BOOKED);
+
+    assertTrue(roomAvailabilityIndex.isAvailable(1L));
+    assertTrue(roomAvailabilityIndex.findAvailable(2L).isEmpty());
+
+    verify(roomRepository).findAll();
+  }
+
+  @Test
+  void updateStatus_flipsAvailability() {
+    roomAvailabilityIndex.updateStatus(1L, BOOKED);
+    roomAvailabilityIndex.updateStatus(2L, AVAILABLE);
+
+    assertFalse(roomAvailabilityIndex.isAvailable(1L));
+    assertTrue(roomAvailabilityIndex.isAvailable(2L));
+
+    verify(roomRepository).findAll();
+    // Once for the initial load, then once per update
+    verify(catalogVersion, times(3)).bumpRooms();
+    verify(eventPublisher).publishEvent(new RoomStatusChangedEvent(1L, AVAILABLE, BOOKED));
+    verify(eventPublisher).publishEvent(new RoomStatusChangedEvent(2L, BOOKED, AVAILABLE));
+  }
+
+  @Test
+  void updateStatus_unchangedStatusPublishesNothing() {
+    roomAvailabilityIndex.updateStatus(1L, AVAILABLE);
+
+    verify(roomRepository).findAll();
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  void putAndRemove_trackCreatedAndDeletedRooms() {
+    Room created = Room.builder().roomId(3L).roomNumber("103").status(AVAILABLE).floor("1").build();
+
+    roomAvailabilityIndex.put(created);
+    assertTrue(roomAvailabilityIndex.isAvailable(3L));
+
+    roomAvailabilityIndex.remove(3L);
+    assertFalse(roomAvailabilityIndex.isAvailable(3L));
+
+    verify(roomRepository).findAll();
+    verify(eventPublisher).publishEvent(new RoomStatusChangedEvent(3L, null, AVAILABLE));
+    verify(eventPublisher).publishEvent(new RoomStatusChangedEvent(3L, AVAILABLE, null));
+  }
+
+  @Test
+  void refresh_replacesStaleEntry() {
+    Room nowBooked = Room.builder().roomId(1L).roomNumber("101").status(BOOKED).floor("1").build();
+    when(roomRepository.findById(1L)).thenReturn(Optional.of(nowBooked));
+
+    assertTrue(roomAvailabilityIndex.isAvailable(1L));
+    roomAvailabilityIndex.refresh(1L);
+    assertFalse(roomAvailabilityIndex.isAvailable(1L));
+
+    verify(roomRepository).findAll();
+    verify(roomRepository).findById(1L);
+  }
+
+  @Test
+  void findAvailableOrRefresh_rereadsRoomTheIndexHoldsAsBooked() {
+    Room nowAvailable = Room.builder().roomId(2L).roomNumber("102").status(AVAILABLE).floor("1").build();
+    when(roomRepository.findById(2L)).thenReturn(Optional.of(nowAvailable));
+
+    assertTrue(roomAvailabilityIndex.findAvailableOrRefresh(2L).isPresent());
+    assertTrue(roomAvailabilityIndex.isAvailable(2L));
+
+    verify(roomRepository).findAll();
+    verify(roomRepository).findById(2L);
+    verify(eventPublisher).publishEvent(new RoomStatusChangedEvent(2L, BOOKED, AVAILABLE));
+  }
+
+  @Test
+  void findAvailableOrRefresh_rereadsRoomAtMostOncePerInterval() {
+    when(roomRepository.findById(2L)).thenReturn(Optional.of(bookedRoom));
+
+    for (int i = 0; i < 3; i++) {
+      assertTrue(roomAvailabilityIndex.findAvailableOrRefresh(2L).isEmpty());
+    }
+
+    verify(roomRepository).findAll();
+    verify(roomRepository).findById(2L);
+  }
+
+  @Test
+  void findAvailableOrRefresh_answersHitsFromMemory() {
+    assertTrue(roomAvailabilityIndex.findAvailableOrRefresh(1L).isPresent());
+
+    verify(roomRepository).findAll();
+  }
+
+  @Test
+  void reload_onlyBumpsVersionWhenRoomsChanged() {
+    roomAvailabilityIndex.reload();
+    roomAvailabilityIndex.reload();
+    verify(catalogVersion).bumpRooms();
+
+    Room freed = Room.builder().roomId(2L).roomNumber("102").status(AVAILABLE).floor("1").build();
+    when(roomRepository.findAll()).thenReturn(List.of(availableRoom, freed));
+    roomAvailabilityIndex.periodicReload();
+
+    assertTrue(roomAvailabilityIndex.isAvailable(2L));
+    verify(catalogVersion, times(2)).bumpRooms();
+    verify(eventPublisher).publishEvent(new RoomStatusChangedEvent(2L, BOOKED, AVAILABLE));
+    verify(roomRepository, times(3)).findAll();
+  }
+
+  @BeforeEach
+  public void init() {
+    initMocks(this);
+    when(primaryReader.read(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    Category category = new Category(1L, "Deluxe");
+    availableRoom = Room.builder()
+        .roomId(1L)
+        .roomNumber("101")
+        .status(AVAILABLE)
+        .floor("1")
+        .category(category)
+        .build();
+    bookedRoom = Room.builder()
+        .roomId(2L)
+        .roomNumber("102")
+        .status(BOOKED)
+        .floor("1")
+        .category(category)
+        .build();
+    List<Room> rooms = Arrays.asList(availableRoom, bookedRoom);
+    when(roomRepository.findAll()).thenReturn(rooms);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    verifyNoMoreInteractions(roomRepository);
+  }
+}
@@ -0,0 +1,120 @@
+package com.app.octo.service;
+
+import com.app.octo.model.Category;
+import com.app.octo.model.Room;
+import com.app.octo.model.response.RoomImportResponse;
+import com.app.octo.repository.BookingRepository;
+import com.app.octo.repository.CategoryRepository;
+import com.app.octo.repository.RoomRepository;
+import com.app.octo.service.impl.RoomAvailabilityIndex;
+import com.app.octo.service.impl.RoomImportServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class RoomImportTest {
+
+  public static final int ROOMS = 120;
+  public static final int BATCH_SIZE = 50;
+
+  @Autowired
+  private RoomImportService roomImportService;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private RoomAvailabilityIndex roomAvailabilityIndex;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Category category;
+
+  private Statistics statistics;
+
+  @Test
+  void importCsv_insertsValidRowsInBatches() {
+    StringBuilder csv = new StringBuilder("room_number,floor,room_description,category_id\n");
+    for (int i = 0; i < ROOMS; i++) {
+      csv.append("I-").append(i).append(",2,\"Sea view, balcony\",").append(category.getCategoryId()).append('\n');
+    }
+    csv.append("EXISTING,2,taken,").append(category.getCategoryId()).append('\n');
+    csv.append("I-0,2,repeated in file,").append(category.getCategoryId()).append('\n');
+    csv.append("I-X,2,unknown category,").append(category.getCategoryId() + 1000).append('\n');
+    csv.append("I-Y,,missing floor,").append(category.getCategoryId()).append('\n');
+    statistics.clear();
+
+    RoomImportResponse response = roomImportService.importCsv(stream(csv.toString()));
+
+    assertEquals(ROOMS, response.getImported());
+    assertEquals(4, response.getRejected());
+    assertEquals(RoomImportServiceImpl.ROOM_NUMBER_TAKEN, response.getErrors().get(0).getError());
+    assertEquals(ROOMS + 1, response.getErrors().get(0).getRow());
+    assertEquals(RoomImportServiceImpl.ROOM_NUMBER_TAKEN, response.getErrors().get(1).getError());
+    assertEquals(RoomImportServiceImpl.CATEGORY_UNKNOWN, response.getErrors().get(2).getError());
+    assertEquals("Floor is required", response.getErrors().get(3).getError());
+
+    assertEquals(ROOMS + 1, roomRepository.count());
+    Room imported = roomRepository.findAll().stream()
+        .filter(room -> "I-7".equals(room.getRoomNumber())).findFirst().orElseThrow();
+    assertEquals("Sea view, balcony", imported.getRoomDescription());
+    assertTrue(roomAvailabilityIndex.isAvailable(imported.getRoomId()));
+    assertEquals(ROOMS, statistics.getEntityInsertCount());
+    // One insert statement per JDBC batch, plus the id blocks and the two preloads
+    assertTrue(statistics.getPrepareStatementCount() < ROOMS / 10,
+        "Prepared " + statistics.getPrepareStatementCount() + " statements");
+  }
+
+  @Test
+  void importJson_streamsArrayAndStopsAtMalformedInput() {
+    String json = "[{\"roomNumber\":\"J-1\",\"floor\":\"3\",\"roomDescription\":\"json\",\"categoryId\":"
+        + category.getCategoryId() + "},{\"roomNumber\":\"J-2\",\"floor\":";
+
+    RoomImportResponse response = roomImportService.importJson(stream(json));
+
+    assertEquals(1, response.getImported());
+    assertEquals(1, response.getRejected());
+    assertEquals(2, response.getErrors().get(0).getRow());
+    assertEquals(RoomImportServiceImpl.MALFORMED, response.getErrors().get(0).getError());
+    assertTrue(roomRepository.existsByRoomNumber("J-1"));
+  }
+
+  private static ByteArrayInputStream stream(String body) {
+    return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @BeforeEach
+  public void init() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    bookingRepository.deleteAll();
+    roomRepository.deleteAll();
+    categoryRepository.deleteAll();
+    ReflectionTestUtils.setField(roomImportService, "batchSize", BATCH_SIZE);
+
+    category = categoryRepository.save(Category.builder().categoryName("IMPORT").build());
+    roomRepository.save(Room.builder().roomNumber("EXISTING").floor("1").status("AVAILABLE")
+        .roomDescription("existing").category(category).build());
+    roomAvailabilityIndex.reload();
+  }
+}
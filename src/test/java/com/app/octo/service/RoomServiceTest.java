@@ -17,10 +17,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.http.HttpStatus;
 
-import jakarta.persistence.EntityNotFoundException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,6 +38,12 @@ public class RoomServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private RoomAvailabilityIndex roomAvailabilityIndex;
+
+    @Mock
+    private RoomWriteGuard roomWriteGuard;
+
     private Room room;
     private Category category;
     private RoomRequestDTO roomRequestDTO;
@@ -47,6 +53,8 @@ public class RoomServiceTest {
     @BeforeEach
     public void init() {
         initMocks(this);
+        when(roomWriteGuard.execute(any(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
 
         category = Category.builder()
                 .categoryId(1L)
@@ -85,8 +93,9 @@ public class RoomServiceTest {
 
     @Test
     void getAllRooms_success() {
-        List<Room> rooms = Arrays.asList(room);
-        when(roomRepository.findAll()).thenReturn(rooms);
+        List<RoomResponseDTO> rooms = Arrays.asList(new RoomResponseDTO(room.getRoomId(), room.getRoomNumber(),
+                room.getStatus(), room.getFloor(), room.getRoomDescription(), room.getCategory()));
+        when(roomRepository.findAllRoomResponses()).thenReturn(rooms);
 
         List<RoomResponseDTO> response = roomService.getAllRooms();
 
@@ -94,7 +103,19 @@ public class RoomServiceTest {
         assertEquals(1, response.size());
         assertEquals(room.getRoomId(), response.get(0).getRoomId());
 
-        verify(roomRepository).findAll();
+        verify(roomRepository).findAllRoomResponses();
+    }
+
+    @Test
+    void getAvailableRooms_success() {
+        when(roomAvailabilityIndex.getAvailableRooms()).thenReturn(List.of(room));
+
+        List<RoomResponseDTO> response = roomService.getAvailableRooms();
+
+        assertEquals(1, response.size());
+        assertEquals("AVAILABLE", response.get(0).getStatus());
+        verify(roomAvailabilityIndex).getAvailableRooms();
+        verifyNoInteractions(roomRepository);
     }
 
     @Test
@@ -111,12 +132,13 @@ public class RoomServiceTest {
     }
 
     @Test
-    void getRoomById_roomNotFound_throwsRuntimeException() {
+    void getRoomById_roomNotFound_throwsAppException() {
         when(roomRepository.existsById(1L)).thenReturn(false);
 
-        RuntimeException exception = assertThrows(RuntimeException.class,
+        AppException exception = assertThrows(AppException.class,
                 () -> roomService.getRoomById(roomIdRequestDTO));
-        assertEquals("Room not found with id: 1", exception.getMessage());
+        assertEquals(ErrorCodes.ROOM_NOT_FOUND.getMessage(), exception.getMessage());
+        assertEquals(HttpStatus.NOT_FOUND, exception.getCode());
     }
 
     @Test
@@ -135,6 +157,7 @@ public class RoomServiceTest {
         assertEquals("AVAILABLE", response.getStatus());
         verify(categoryRepository).findByCategoryId(1L);
         verify(roomRepository).save(any(Room.class));
+        verify(roomAvailabilityIndex).put(any(Room.class));
     }
 
     @Test
@@ -171,15 +194,18 @@ public class RoomServiceTest {
         verify(roomRepository).existsById(1L);
         verify(roomRepository).findById(1L);
         verify(roomRepository).save(any(Room.class));
+        verify(roomAvailabilityIndex).put(updatedRoom);
+        verify(roomWriteGuard).execute(eq(1L), any());
     }
 
     @Test
-    void updateStatus_roomNotFound_throwsEntityNotFoundException() {
+    void updateStatus_roomNotFound_throwsAppException() {
         when(roomRepository.existsById(1L)).thenReturn(false);
 
-        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+        AppException exception = assertThrows(AppException.class,
                 () -> roomService.updateStatus(roomUpdateStatusRequestDTO));
-        assertEquals("Room with ID 1 not found.", exception.getMessage());
+        assertEquals(ErrorCodes.ROOM_NOT_FOUND.getMessage(), exception.getMessage());
+        assertEquals(HttpStatus.NOT_FOUND, exception.getCode());
 
         verify(roomRepository).existsById(1L);
     }
@@ -193,15 +219,17 @@ public class RoomServiceTest {
 
         verify(roomRepository).findById(1L);
         verify(roomRepository).delete(room);
+        verify(roomAvailabilityIndex).remove(1L);
     }
 
     @Test
-    void deleteRoom_roomNotFound_throwsRuntimeException() {
+    void deleteRoom_roomNotFound_throwsAppException() {
         when(roomRepository.findById(1L)).thenReturn(Optional.empty());
 
-        RuntimeException exception = assertThrows(RuntimeException.class,
+        AppException exception = assertThrows(AppException.class,
                 () -> roomService.deleteRoom(roomIdRequestDTO));
-        assertEquals("Room not found with id: 1", exception.getMessage());
+        assertEquals(ErrorCodes.ROOM_NOT_FOUND.getMessage(), exception.getMessage());
+        assertEquals(HttpStatus.NOT_FOUND, exception.getCode());
 
         verify(roomRepository).findById(1L);
     }
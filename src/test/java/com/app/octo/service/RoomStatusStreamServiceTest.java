@@ -0,0 +1,168 @@
+package com.app.octo.service;
+
+import com.app.octo.model.event.RoomStatusChangedEvent;
+import com.app.octo.service.impl.RoomStatusStreamServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RoomStatusStreamServiceTest {
+
+  public static final int BUFFER_SIZE = 4;
+  public static final String AVAILABLE = "AVAILABLE";
+  public static final String BOOKED = "BOOKED";
+
+  private RoomStatusStreamServiceImpl roomStatusStreamService;
+
+  private BlockingQueue<RecordingEmitter> emitters;
+
+  private CountDownLatch release;
+
+  @Test
+  void subscribe_sendsReadyThenDeltasInOrder() throws Exception {
+    RecordingEmitter emitter = subscribe(null);
+    assertTrue(emitter.next().contains("event:ready"));
+
+    publish(1L, AVAILABLE, BOOKED);
+    publish(2L, BOOKED, AVAILABLE);
+
+    String first = emitter.next();
+    assertTrue(first.contains("event:room-status"));
+    assertTrue(first.contains("\"version\":1"));
+    assertTrue(first.contains("\"roomId\":1"));
+    assertTrue(first.contains("\"oldStatus\":\"AVAILABLE\""));
+    assertTrue(first.contains("\"newStatus\":\"BOOKED\""));
+    assertTrue(emitter.next().contains("\"version\":2"));
+  }
+
+  @Test
+  void subscribe_resumesAfterLastEventId() throws Exception {
+    RecordingEmitter first = subscribe(null);
+    first.next();
+    publish(1L, AVAILABLE, BOOKED);
+    String lastEventId = eventId(first.next());
+    publish(2L, AVAILABLE, BOOKED);
+    publish(3L, AVAILABLE, BOOKED);
+
+    RecordingEmitter resumed = subscribe(lastEventId);
+
+    assertTrue(resumed.next().contains("\"roomId\":2"));
+    assertTrue(resumed.next().contains("\"roomId\":3"));
+    assertNull(resumed.poll());
+  }
+
+  @Test
+  void subscribe_resetsWhenTooFarBehindOrFromAnotherRun() throws Exception {
+    RecordingEmitter first = subscribe(null);
+    String readyId = eventId(first.next());
+    for (long roomId = 1; roomId <= BUFFER_SIZE + 1; roomId++) {
+      publish(roomId, AVAILABLE, BOOKED);
+    }
+
+    assertTrue(subscribe(readyId).next().contains("event:reset"));
+    assertTrue(subscribe("1:1").next().contains("event:reset"));
+    assertTrue(subscribe("garbage").next().contains("event:reset"));
+  }
+
+  @Test
+  void slowSubscriber_isDroppedWithoutStallingOthers() throws Exception {
+    RecordingEmitter slow = subscribe(null);
+    slow.blockSends = true;
+    RecordingEmitter fast = subscribe(null);
+    fast.next();
+    assertEquals(2, roomStatusStreamService.subscriberCount());
+
+    for (long roomId = 1; roomId <= BUFFER_SIZE + 2; roomId++) {
+      publish(roomId, AVAILABLE, BOOKED);
+      assertTrue(fast.next().contains("\"roomId\":" + roomId));
+    }
+    assertEquals(1, roomStatusStreamService.subscriberCount());
+    release.countDown();
+    assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+  }
+
+  private RecordingEmitter subscribe(String lastEventId) throws InterruptedException {
+    roomStatusStreamService.subscribe(lastEventId);
+    return emitters.poll(5, TimeUnit.SECONDS);
+  }
+
+  private void publish(Long roomId, String oldStatus, String newStatus) {
+    roomStatusStreamService.onRoomStatusChanged(new RoomStatusChangedEvent(roomId, oldStatus, newStatus));
+  }
+
+  private static String eventId(String event) {
+    return event.lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+  }
+
+  @BeforeEach
+  public void init() {
+    emitters = new LinkedBlockingQueue<>();
+    release = new CountDownLatch(1);
+    roomStatusStreamService = new RoomStatusStreamServiceImpl(new ObjectMapper()) {
+      @Override
+      protected SseEmitter newEmitter(long timeout) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitters.add(emitter);
+        return emitter;
+      }
+    };
+    ReflectionTestUtils.setField(roomStatusStreamService, "bufferSize", BUFFER_SIZE);
+    ReflectionTestUtils.invokeMethod(roomStatusStreamService, "initialise");
+  }
+
+  @AfterEach
+  public void tearDown() {
+    release.countDown();
+    ReflectionTestUtils.invokeMethod(roomStatusStreamService, "shutdown");
+  }
+
+  private class RecordingEmitter extends SseEmitter {
+    private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private volatile boolean blockSends;
+
+    @Override
+    public void send(Set<DataWithMediaType> items) throws IOException {
+      if (blockSends) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      sent.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+    }
+
+    @Override
+    public void complete() {
+      completed.countDown();
+    }
+
+    String next() throws InterruptedException {
+      String event = sent.poll(5, TimeUnit.SECONDS);
+      assertTrue(event != null, "no event received");
+      return event;
+    }
+
+    String poll() throws InterruptedException {
+      return sent.poll(200, TimeUnit.MILLISECONDS);
+    }
+  }
+}
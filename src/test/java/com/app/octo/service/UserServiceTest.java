@@ -1,7 +1,10 @@
 package com.app.octo.service;
 
+import com.app.octo.config.AppMetrics;
+import com.app.octo.mapper.UserMapper;
 import com.app.octo.model.User;
 import com.app.octo.model.enums.ErrorCodes;
+import com.app.octo.model.event.UserChangedEvent;
 import com.app.octo.model.enums.UserRole;
 import com.app.octo.model.exception.AppException;
 import com.app.octo.model.request.EditPasswordRequest;
@@ -10,22 +13,29 @@ import com.app.octo.model.request.LoginRequest;
 import com.app.octo.model.request.RegisterRequest;
 import com.app.octo.model.response.UserResponse;
 import com.app.octo.repository.UserRepository;
+import com.app.octo.security.PasswordHasher;
 import com.app.octo.service.impl.UserServiceImpl;
-import org.dozer.Mapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.nio.CharBuffer;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -40,9 +50,12 @@ public class UserServiceTest {
   public static final Long ID = 1L;
   public static final String TOKEN = "token";
 
-  @InjectMocks
   private UserServiceImpl userServiceImpl;
 
+  private PasswordHasher passwordHasher;
+
+  private ExecutorService taskExecutor;
+
   @Mock
   private UserRepository userRepository;
 
@@ -50,7 +63,13 @@ public class UserServiceTest {
   private PasswordEncoder passwordEncoder;
 
   @Mock
-  private Mapper mapper;
+  private UserMapper userMapper;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private AppMetrics appMetrics;
 
   private User user;
   private UserResponse userResponse;
@@ -67,7 +86,7 @@ public class UserServiceTest {
   @Test
   void findUser_success() {
     when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
-    when(mapper.map(user, UserResponse.class)).thenReturn(userResponse);
+    when(userMapper.toResponse(user)).thenReturn(userResponse);
 
     UserResponse response = this.userServiceImpl.findByEmail(EMAIL);
     assertNotNull(response);
@@ -76,7 +95,7 @@ public class UserServiceTest {
     assertEquals(UserRole.ROLE_USER, response.getUserRole());
     assertEquals(TOKEN, response.getToken());
 
-    verify(mapper).map(user, UserResponse.class);
+    verify(userMapper).toResponse(user);
     verify(userRepository).findByEmail(EMAIL);
   }
 
@@ -93,22 +112,63 @@ public class UserServiceTest {
     verify(userRepository).findByEmail(EMAIL);
   }
 
+  @Test
+  void findVersion_success() {
+    when(userRepository.findVersionByEmail(EMAIL)).thenReturn(Optional.of(2L));
+
+    assertEquals(2L, this.userServiceImpl.findVersion(EMAIL));
+
+    verify(userRepository).findVersionByEmail(EMAIL);
+  }
+
+  @Test
+  void findVersionNoUserFound_throwAppException() {
+    when(userRepository.findVersionByEmail(EMAIL)).thenReturn(Optional.empty());
+
+    try {
+      this.userServiceImpl.findVersion(EMAIL);
+    } catch (AppException e) {
+      assertEquals(ErrorCodes.USER_NOT_FOUND.getMessage(), e.getMessage());
+      assertEquals(HttpStatus.NOT_FOUND, e.getCode());
+    }
+    verify(userRepository).findVersionByEmail(EMAIL);
+  }
+
   @Test
   void loginUser_success() {
     when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
     when(passwordEncoder.matches(any(), any())).thenReturn(Boolean.TRUE);
-    when(mapper.map(user, UserResponse.class)).thenReturn(userResponse);
+    when(userMapper.toResponse(user)).thenReturn(userResponse);
 
-    UserResponse response = this.userServiceImpl.login(loginRequest);
+    UserResponse response = await(this.userServiceImpl.login(loginRequest));
     assertNotNull(response);
     assertEquals(FIRST_NAME, response.getFirstName());
     assertEquals(LAST_NAME, response.getLastName());
     assertEquals(UserRole.ROLE_USER, response.getUserRole());
     assertEquals(TOKEN, response.getToken());
 
-    verify(mapper).map(user, UserResponse.class);
+    verify(userMapper).toResponse(user);
     verify(userRepository).findByEmail(EMAIL);
     verify(passwordEncoder).matches(any(), any());
+    verify(passwordEncoder).upgradeEncoding(PASSWORD);
+  }
+
+  @Test
+  void loginUserOutdatedHash_rehashesPassword() {
+    when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+    when(passwordEncoder.matches(any(), any())).thenReturn(Boolean.TRUE);
+    when(passwordEncoder.upgradeEncoding(PASSWORD)).thenReturn(Boolean.TRUE);
+    when(passwordEncoder.encode(CharBuffer.wrap(PASSWORD))).thenReturn("encoded");
+    when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+    assertNotNull(await(this.userServiceImpl.login(loginRequest)));
+
+    verify(userRepository, timeout(1000)).updatePasswordIfCurrent(ID, PASSWORD, "encoded");
+    verify(userMapper).toResponse(user);
+    verify(userRepository).findByEmail(EMAIL);
+    verify(passwordEncoder).matches(any(), any());
+    verify(passwordEncoder).upgradeEncoding(PASSWORD);
+    verify(passwordEncoder).encode(CharBuffer.wrap(PASSWORD));
   }
 
   @Test
@@ -117,7 +177,7 @@ public class UserServiceTest {
     when(passwordEncoder.matches(any(), any())).thenReturn(Boolean.FALSE);
 
     try {
-      this.userServiceImpl.login(loginRequest);
+      await(this.userServiceImpl.login(loginRequest));
     } catch (AppException e) {
       assertEquals("Invalid password", e.getMessage());
       assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
@@ -131,7 +191,7 @@ public class UserServiceTest {
     when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
 
     try {
-      this.userServiceImpl.login(loginRequest);
+      await(this.userServiceImpl.login(loginRequest));
     } catch (AppException e) {
       assertEquals(ErrorCodes.USER_NOT_FOUND.getMessage(), e.getMessage());
       assertEquals(HttpStatus.NOT_FOUND, e.getCode());
@@ -142,20 +202,42 @@ public class UserServiceTest {
   @Test
   void registerUser_success() {
     when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
-    when(mapper.map(user, UserResponse.class)).thenReturn(userResponse);
-    when(mapper.map(registerRequest, User.class)).thenReturn(user);
+    when(userMapper.toResponse(user)).thenReturn(userResponse);
+    when(userMapper.toUser(registerRequest)).thenReturn(user);
     when(passwordEncoder.encode(CharBuffer.wrap(PASSWORD))).thenReturn("encoded");
     when(userRepository.save(user)).thenReturn(user);
 
-    UserResponse response = this.userServiceImpl.register(registerRequest);
+    UserResponse response = await(this.userServiceImpl.register(registerRequest));
     assertNotNull(response);
     assertEquals(FIRST_NAME, response.getFirstName());
     assertEquals(LAST_NAME, response.getLastName());
     assertEquals(UserRole.ROLE_USER, response.getUserRole());
     assertEquals(TOKEN, response.getToken());
 
-    verify(mapper).map(user, UserResponse.class);
-    verify(mapper).map(registerRequest, User.class);
+    verify(userMapper).toResponse(user);
+    verify(userMapper).toUser(registerRequest);
+    verify(userRepository).findByEmail(EMAIL);
+    verify(userRepository).save(user);
+    verify(passwordEncoder).encode(CharBuffer.wrap(PASSWORD));
+  }
+
+  @Test
+  void registerUser_savesOffTheHashingPool() {
+    AtomicReference<String> savingThread = new AtomicReference<>();
+    when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+    when(userMapper.toResponse(user)).thenReturn(userResponse);
+    when(userMapper.toUser(registerRequest)).thenReturn(user);
+    when(passwordEncoder.encode(CharBuffer.wrap(PASSWORD))).thenReturn("encoded");
+    when(userRepository.save(user)).thenAnswer(invocation -> {
+      savingThread.set(Thread.currentThread().getName());
+      return user;
+    });
+
+    await(this.userServiceImpl.register(registerRequest));
+    assertTrue(savingThread.get().startsWith("task-"));
+
+    verify(userMapper).toResponse(user);
+    verify(userMapper).toUser(registerRequest);
     verify(userRepository).findByEmail(EMAIL);
     verify(userRepository).save(user);
     verify(passwordEncoder).encode(CharBuffer.wrap(PASSWORD));
@@ -166,7 +248,7 @@ public class UserServiceTest {
     when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
 
     try {
-      this.userServiceImpl.register(registerRequest);
+      await(this.userServiceImpl.register(registerRequest));
     } catch (AppException e) {
       assertEquals("Account Exists", e.getMessage());
       assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
@@ -180,7 +262,7 @@ public class UserServiceTest {
     registerRequest.setEmail("");
 
     try {
-      this.userServiceImpl.register(registerRequest);
+      await(this.userServiceImpl.register(registerRequest));
     } catch (AppException e) {
       assertEquals("Incomplete Request", e.getMessage());
       assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
@@ -194,7 +276,7 @@ public class UserServiceTest {
     registerRequest.setLastName("");
 
     try {
-      this.userServiceImpl.register(registerRequest);
+      await(this.userServiceImpl.register(registerRequest));
     } catch (AppException e) {
       assertEquals("Incomplete Request", e.getMessage());
       assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
@@ -205,20 +287,20 @@ public class UserServiceTest {
   void registerAdmin_success() {
     user.setUserRole(UserRole.ROLE_ADMIN);
     when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
-    when(mapper.map(user, UserResponse.class)).thenReturn(userResponseAdmin);
-    when(mapper.map(registerRequest, User.class)).thenReturn(user);
+    when(userMapper.toResponse(user)).thenReturn(userResponseAdmin);
+    when(userMapper.toUser(registerRequest)).thenReturn(user);
     when(passwordEncoder.encode(CharBuffer.wrap(PASSWORD))).thenReturn("encoded");
     when(userRepository.save(user)).thenReturn(user);
 
-    UserResponse response = this.userServiceImpl.registerAdmin(registerRequest);
+    UserResponse response = await(this.userServiceImpl.registerAdmin(registerRequest));
     assertNotNull(response);
     assertEquals(FIRST_NAME, response.getFirstName());
     assertEquals(LAST_NAME, response.getLastName());
     assertEquals(UserRole.ROLE_ADMIN, response.getUserRole());
     assertEquals(TOKEN, response.getToken());
 
-    verify(mapper).map(user, UserResponse.class);
-    verify(mapper).map(registerRequest, User.class);
+    verify(userMapper).toResponse(user);
+    verify(userMapper).toUser(registerRequest);
     verify(userRepository).findByEmail(EMAIL);
     verify(userRepository).save(user);
     verify(passwordEncoder).encode(CharBuffer.wrap(PASSWORD));
@@ -229,7 +311,7 @@ public class UserServiceTest {
     when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
 
     try {
-      this.userServiceImpl.registerAdmin(registerRequest);
+      await(this.userServiceImpl.registerAdmin(registerRequest));
     } catch (AppException e) {
       assertEquals("Account Exists", e.getMessage());
       assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
@@ -243,20 +325,20 @@ public class UserServiceTest {
     userResponse.setUserRole(UserRole.ROLE_EMPLOYEE);
     user.setUserRole(UserRole.ROLE_EMPLOYEE);
     when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
-    when(mapper.map(user, UserResponse.class)).thenReturn(userResponse);
-    when(mapper.map(registerRequest, User.class)).thenReturn(user);
+    when(userMapper.toResponse(user)).thenReturn(userResponse);
+    when(userMapper.toUser(registerRequest)).thenReturn(user);
     when(passwordEncoder.encode(CharBuffer.wrap(PASSWORD))).thenReturn("encoded");
     when(userRepository.save(user)).thenReturn(user);
 
-    UserResponse response = this.userServiceImpl.registerEmployee(registerRequest);
+    UserResponse response = await(this.userServiceImpl.registerEmployee(registerRequest));
     assertNotNull(response);
     assertEquals(FIRST_NAME, response.getFirstName());
     assertEquals(LAST_NAME, response.getLastName());
     assertEquals(UserRole.ROLE_EMPLOYEE, response.getUserRole());
     assertEquals(TOKEN, response.getToken());
 
-    verify(mapper).map(user, UserResponse.class);
-    verify(mapper).map(registerRequest, User.class);
+    verify(userMapper).toResponse(user);
+    verify(userMapper).toUser(registerRequest);
     verify(userRepository).findByEmail(EMAIL);
     verify(userRepository).save(user);
     verify(passwordEncoder).encode(CharBuffer.wrap(PASSWORD));
@@ -267,7 +349,7 @@ public class UserServiceTest {
     when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
 
     try {
-      this.userServiceImpl.registerEmployee(registerRequest);
+      await(this.userServiceImpl.registerEmployee(registerRequest));
     } catch (AppException e) {
       assertEquals("Account Exists", e.getMessage());
       assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
@@ -281,7 +363,7 @@ public class UserServiceTest {
     registerRequest.setEmail("");
 
     try {
-      this.userServiceImpl.registerEmployee(registerRequest);
+      await(this.userServiceImpl.registerEmployee(registerRequest));
     } catch (AppException e) {
       assertEquals("Incomplete Request", e.getMessage());
       assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
@@ -295,7 +377,7 @@ public class UserServiceTest {
     registerRequest.setLastName("");
 
     try {
-      this.userServiceImpl.registerEmployee(registerRequest);
+      await(this.userServiceImpl.registerEmployee(registerRequest));
     } catch (AppException e) {
       assertEquals("Incomplete Request", e.getMessage());
       assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
@@ -305,24 +387,25 @@ public class UserServiceTest {
   @Test
   void editUserProfile_success() {
     when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
-    when(mapper.map(editedUser, UserResponse.class)).thenReturn(editedUserResponse);
+    when(userMapper.toResponse(editedUser)).thenReturn(editedUserResponse);
     when(passwordEncoder.matches(any(), any())).thenReturn(Boolean.TRUE);
     when(passwordEncoder.encode(CharBuffer.wrap(PASSWORD))).thenReturn("encoded");
     when(userRepository.save(editedUser)).thenReturn(editedUser);
 
 
-    UserResponse response = this.userServiceImpl.editUserProfile(editProfileRequest);
+    UserResponse response = await(this.userServiceImpl.editUserProfile(editProfileRequest));
     assertNotNull(response);
     assertEquals(FIRST_NAME, response.getFirstName());
     assertEquals(LAST_NAME + "3", response.getLastName());
     assertEquals(UserRole.ROLE_USER, response.getUserRole());
     assertEquals(TOKEN, response.getToken());
 
-    verify(mapper).map(user, UserResponse.class);
+    verify(userMapper).toResponse(user);
     verify(userRepository).findByEmail(EMAIL);
     verify(userRepository).save(user);
     verify(passwordEncoder).encode(CharBuffer.wrap(PASSWORD));
     verify(passwordEncoder).matches(any(), any());
+    verify(eventPublisher).publishEvent(new UserChangedEvent(EMAIL));
   }
 
   @Test
@@ -331,7 +414,7 @@ public class UserServiceTest {
     when(passwordEncoder.matches(any(), any())).thenReturn(Boolean.FALSE);
 
     try {
-      this.userServiceImpl.editUserProfile(editProfileRequest);
+      await(this.userServiceImpl.editUserProfile(editProfileRequest));
     } catch (AppException e) {
       assertEquals("Invalid password", e.getMessage());
       assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
@@ -346,7 +429,7 @@ public class UserServiceTest {
     when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
 
     try {
-      this.userServiceImpl.editUserProfile(editProfileRequest);
+      await(this.userServiceImpl.editUserProfile(editProfileRequest));
     } catch (AppException e) {
       assertEquals(ErrorCodes.USER_NOT_FOUND.getMessage(), e.getMessage());
       assertEquals(HttpStatus.NOT_FOUND, e.getCode());
@@ -361,7 +444,7 @@ public class UserServiceTest {
     when(userRepository.findByEmail("existing@gmail.com")).thenReturn(Optional.of(existingUser));
 
     try {
-      this.userServiceImpl.editUserProfile(editProfileRequest);
+      await(this.userServiceImpl.editUserProfile(editProfileRequest));
     } catch (AppException e) {
       assertEquals("Account Exists", e.getMessage());
       assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
@@ -373,24 +456,25 @@ public class UserServiceTest {
   @Test
   void editUserPassword_success() {
     when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
-    when(mapper.map(newPassUser, UserResponse.class)).thenReturn(userResponse);
+    when(userMapper.toResponse(newPassUser)).thenReturn(userResponse);
     when(passwordEncoder.matches(any(), any())).thenReturn(Boolean.TRUE);
     when(passwordEncoder.encode(CharBuffer.wrap(PASSWORD+"1"))).thenReturn("encoded");
     when(userRepository.save(newPassUser)).thenReturn(newPassUser);
 
 
-    UserResponse response = this.userServiceImpl.editPassword(editPasswordRequest);
+    UserResponse response = await(this.userServiceImpl.editPassword(editPasswordRequest));
     assertNotNull(response);
     assertEquals(FIRST_NAME, response.getFirstName());
     assertEquals(LAST_NAME, response.getLastName());
     assertEquals(UserRole.ROLE_USER, response.getUserRole());
     assertEquals(TOKEN, response.getToken());
 
-    verify(mapper).map(user, UserResponse.class);
+    verify(userMapper).toResponse(user);
     verify(userRepository).findByEmail(EMAIL);
     verify(userRepository).save(user);
     verify(passwordEncoder).encode(CharBuffer.wrap(PASSWORD+"1"));
     verify(passwordEncoder).matches(any(), any());
+    verify(eventPublisher).publishEvent(new UserChangedEvent(EMAIL));
   }
 
   @Test
@@ -399,7 +483,7 @@ public class UserServiceTest {
     when(passwordEncoder.matches(any(), any())).thenReturn(Boolean.FALSE);
 
     try {
-      this.userServiceImpl.editPassword(editPasswordRequest);
+      await(this.userServiceImpl.editPassword(editPasswordRequest));
     } catch (AppException e) {
       assertEquals("Invalid password", e.getMessage());
       assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
@@ -414,7 +498,7 @@ public class UserServiceTest {
     when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
 
     try {
-      this.userServiceImpl.editPassword(editPasswordRequest);
+      await(this.userServiceImpl.editPassword(editPasswordRequest));
     } catch (AppException e) {
       assertEquals(ErrorCodes.USER_NOT_FOUND.getMessage(), e.getMessage());
       assertEquals(HttpStatus.NOT_FOUND, e.getCode());
@@ -425,6 +509,11 @@ public class UserServiceTest {
   @BeforeEach
   public void innit() {
     initMocks(this);
+    passwordHasher = new PasswordHasher(passwordEncoder, appMetrics);
+    passwordHasher.initialise();
+    taskExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "task-1"));
+    userServiceImpl = new UserServiceImpl(userRepository, passwordHasher, userMapper, eventPublisher,
+        taskExecutor);
 
     user = User.builder()
         .userRole(UserRole.ROLE_USER)
@@ -514,10 +603,24 @@ public class UserServiceTest {
         .build();
   }
 
+  /**
+   * Waits for the result and rethrows the service's own exception, as the synchronous methods did.
+   */
+  private static <T> T await(CompletableFuture<T> result) {
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      throw (RuntimeException) e.getCause();
+    }
+  }
+
   @AfterEach
   public void tearDown() {
+    passwordHasher.shutdown();
+    taskExecutor.shutdownNow();
     verifyNoMoreInteractions(this.userRepository);
-    verifyNoMoreInteractions(this.mapper);
+    verifyNoMoreInteractions(this.userMapper);
     verifyNoMoreInteractions(this.passwordEncoder);
+    verifyNoMoreInteractions(this.eventPublisher);
   }
 }